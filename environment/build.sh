@@ -15,6 +15,13 @@ declare -A compilationDockerfilesPaths=(
   ["java"]="java"
 )
 
+# Only for the languages compiled by a long-lived compiler (compile server mode)
+declare -A compileServerDockerfilesPaths=(
+  ["java"]="java"
+  ["kotlin"]="kt"
+  ["scala"]="scala"
+)
+
 # Pull all images before starting the container to make first requests faster
 echo "Pulling all images..."
 for i in "${images[@]}"
@@ -38,4 +45,15 @@ do
   fi
 done
 
+echo "Building compile server images..."
+for language in "${!compileServerDockerfilesPaths[@]}"
+do
+  echo "==> compile-server.$language"
+  docker image build -f "environment/dockerfiles/Dockerfile.${compileServerDockerfilesPaths[$language]}.compile-server" -t "compile-server.$language" "environment/dockerfiles"
+  if [ $? != 0 ]; then
+    echo "!!! Error while building compile server images !!!"
+    exit 1
+  fi
+done
+
 echo "*** End of building images ***"
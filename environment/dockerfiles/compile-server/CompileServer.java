@@ -0,0 +1,225 @@
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Long-lived compiler of a compile server container, the compiler stays loaded and warm between the jobs.
+ *
+ * Usage: java CompileServer [java|kotlin|scala] [jobsFifo]
+ *
+ * Each line written to the jobs fifo is a job: "[replyFifo] [executionPath] [sourceCodeFileName]".
+ * The classes are written to the execution path, the source code file is deleted on success, and the reply
+ * "[status] [length]\n[diagnostics]" is written to the reply fifo, see compile.sh.
+ * Jobs are handled one at a time, this source should stay compatible with java 8.
+ */
+public final class CompileServer {
+
+    private static final int SUCCESS_STATUS = 0;
+
+    // Same values as the compile server pool of the compiler
+    private static final int COMPILATION_ERROR_STATUS = 65;
+
+    private static final int INTERNAL_ERROR_STATUS = 70;
+
+    private interface Compiler {
+
+        /**
+         * @return true if the compilation succeeded
+         */
+        boolean compile(String outputDirectory, String sourceCodeFile, PrintStream diagnostics) throws Exception;
+    }
+
+    private CompileServer() {}
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 2) {
+            System.err.println("Usage: java CompileServer [java|kotlin|scala] [jobsFifo]");
+            System.exit(2);
+        }
+        Compiler compiler = createCompiler(args[0]);
+        warmUp(compiler, args[0]);
+        Path jobs = Paths.get(args[1]);
+        System.out.println("Compile server started, compiler = " + args[0]);
+        while (true) {
+            // The end of the stream is reached each time the last writer closes the fifo
+            try (BufferedReader reader = Files.newBufferedReader(jobs, StandardCharsets.UTF_8)) {
+                String job;
+                while ((job = reader.readLine()) != null) {
+                    handle(compiler, job);
+                }
+            }
+        }
+    }
+
+    private static void handle(Compiler compiler, String job) {
+        String[] parts = job.trim().split(" ");
+        if (parts.length != 3 || parts[1].contains("..") || parts[2].contains("/")) {
+            System.err.println("Invalid job: " + job);
+            return;
+        }
+        Path reply = Paths.get(parts[0]);
+        Path sourceCodeFile = Paths.get(parts[1], parts[2]);
+
+        ByteArrayOutputStream diagnostics = new ByteArrayOutputStream();
+        int status;
+        try (PrintStream diagnosticsStream = new PrintStream(diagnostics, true, "UTF-8")) {
+            if (compiler.compile(parts[1], sourceCodeFile.toString(), diagnosticsStream)) {
+                Files.deleteIfExists(sourceCodeFile);
+                status = SUCCESS_STATUS;
+            } else {
+                status = COMPILATION_ERROR_STATUS;
+            }
+        } catch (OutOfMemoryError e) {
+            // The heap can't be trusted anymore, the container is replaced by the pool
+            writeReply(reply, INTERNAL_ERROR_STATUS, "The compile server ran out of memory".getBytes(StandardCharsets.UTF_8));
+            System.exit(INTERNAL_ERROR_STATUS);
+            return;
+        } catch (Throwable e) {
+            writeReply(reply, INTERNAL_ERROR_STATUS, String.valueOf(e).getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        writeReply(reply, status, diagnostics.toByteArray());
+    }
+
+    private static void writeReply(Path reply, int status, byte[] diagnostics) {
+        // The client is gone (ex: timeout), opening the path would create a regular file
+        if (!Files.exists(reply) || Files.isRegularFile(reply)) {
+            return;
+        }
+        try (OutputStream output = new FileOutputStream(reply.toFile())) {
+            output.write((status + " " + diagnostics.length + "\n").getBytes(StandardCharsets.UTF_8));
+            output.write(diagnostics);
+        } catch (IOException e) {
+            System.err.println("Can't write the reply to " + reply + ": " + e.getMessage());
+        }
+    }
+
+    // Compiles a small program, so that the first job doesn't pay the loading of the compiler
+    private static void warmUp(Compiler compiler, String name) {
+        try {
+            Path directory = Files.createTempDirectory("compile-server-warm-up");
+            String source;
+            String fileName;
+            if ("kotlin".equals(name)) {
+                fileName = "Main.kt";
+                source = "fun main(args: Array<String>) { println(\"warm up\") }\n";
+            } else if ("scala".equals(name)) {
+                fileName = "Main.scala";
+                source = "object Main { def main(args: Array[String]): Unit = println(\"warm up\") }\n";
+            } else {
+                fileName = "Main.java";
+                source = "public class Main { public static void main(String[] args) { System.out.println(\"warm up\"); } }\n";
+            }
+            Path sourceCodeFile = directory.resolve(fileName);
+            Files.write(sourceCodeFile, source.getBytes(StandardCharsets.UTF_8));
+            compiler.compile(directory.toString(), sourceCodeFile.toString(), new PrintStream(new ByteArrayOutputStream()));
+        } catch (Exception e) {
+            System.err.println("Warm up failed: " + e);
+        }
+    }
+
+    private static Compiler createCompiler(String name) throws ReflectiveOperationException {
+        switch (name) {
+            case "java":
+                return javaCompiler();
+            case "kotlin":
+                return kotlinCompiler();
+            case "scala":
+                return scalaCompiler();
+            default:
+                throw new IllegalArgumentException("Unknown compiler: " + name);
+        }
+    }
+
+    private static Compiler javaCompiler() {
+        javax.tools.JavaCompiler javaCompiler = javax.tools.ToolProvider.getSystemJavaCompiler();
+        if (javaCompiler == null) {
+            throw new IllegalStateException("No java compiler, a jdk is required");
+        }
+        return (outputDirectory, sourceCodeFile, diagnostics) ->
+                javaCompiler.run(null, diagnostics, diagnostics, "-d", outputDirectory, sourceCodeFile) == 0;
+    }
+
+    private static Compiler kotlinCompiler() throws ReflectiveOperationException {
+        // Kotlin home is given by the start script, it's needed to find the standard library
+        String kotlinHome = System.getProperty("compiler.home");
+        Class<?> compilerClass = Class.forName("org.jetbrains.kotlin.cli.jvm.K2JVMCompiler");
+        Method exec = compilerClass.getMethod("exec", PrintStream.class, String[].class);
+        return (outputDirectory, sourceCodeFile, diagnostics) -> {
+            List<String> arguments = new ArrayList<>();
+            if (kotlinHome != null && !kotlinHome.isEmpty()) {
+                arguments.add("-kotlin-home");
+                arguments.add(kotlinHome);
+            }
+            arguments.add("-d");
+            arguments.add(outputDirectory);
+            arguments.add(sourceCodeFile);
+            // A new compiler for each job, it keeps state between its runs
+            Object exitCode = exec.invoke(
+                    compilerClass.getDeclaredConstructor().newInstance(),
+                    diagnostics,
+                    arguments.toArray(new String[0]));
+            return "OK".equals(String.valueOf(exitCode));
+        };
+    }
+
+    private static Compiler scalaCompiler() throws ReflectiveOperationException {
+        Class<?> mainClass = Class.forName("scala.tools.nsc.Main");
+        Method process = mainClass.getMethod("process", String[].class);
+        Class<?> function0 = Class.forName("scala.Function0");
+        Method withOut = Class.forName("scala.Console").getMethod("withOut", PrintStream.class, function0);
+        Method withErr = Class.forName("scala.Console").getMethod("withErr", PrintStream.class, function0);
+        return (outputDirectory, sourceCodeFile, diagnostics) -> {
+            String[] arguments = {"-usejavacp", "-d", outputDirectory, sourceCodeFile};
+            // The reporter of scalac writes to the console of scala, redirected for the duration of the job
+            Object compilation = function(function0, () -> {
+                Object result = process.invoke(null, (Object) arguments);
+                if (result instanceof Boolean) {
+                    return result;
+                }
+                // Before scala 2.12, the result is given by the reporter
+                Object reporter = mainClass.getMethod("reporter").invoke(null);
+                return !(Boolean) reporter.getClass().getMethod("hasErrors").invoke(reporter);
+            });
+            Object redirectedCompilation = function(function0, () -> withErr.invoke(null, diagnostics, compilation));
+            try {
+                return (Boolean) withOut.invoke(null, diagnostics, redirectedCompilation);
+            } catch (InvocationTargetException e) {
+                throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+            }
+        };
+    }
+
+    private interface Body {
+
+        Object call() throws Exception;
+    }
+
+    // Implements scala.Function0 without depending on the scala library at compile time
+    private static Object function(Class<?> function0, Body body) {
+        return Proxy.newProxyInstance(function0.getClassLoader(), new Class<?>[]{function0}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "apply":
+                    return body.call();
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    return "CompileServer$Function0";
+            }
+        });
+    }
+}
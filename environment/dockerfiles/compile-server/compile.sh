@@ -0,0 +1,22 @@
+#!/bin/sh
+# Sends a compilation job to the compile server of the container and waits for its reply.
+# Usage: compile.sh [executionPath] [sourceCodeFileName]
+# The diagnostics are written to stderr, the exit status is the one of the compile server (0, 65 or 70).
+
+jobs=/tmp/compile-server/jobs
+
+# The compile server isn't started yet
+[ -p "$jobs" ] || exit 70
+
+reply=$(mktemp -u /tmp/compile-server/reply.XXXXXX) || exit 70
+mkfifo "$reply" || exit 70
+trap 'rm -f "$reply"' EXIT
+
+# Opened for reading and writing, so that neither this script nor the compile server blocks on the open
+exec 3<>"$reply"
+
+printf '%s %s %s\n' "$reply" "$1" "$2" > "$jobs"
+
+IFS=' ' read -r status length <&3
+head -c "$length" <&3 >&2
+exit "$status"
@@ -0,0 +1,33 @@
+#!/bin/sh
+# Starts the compile server of the container.
+# Usage: start.sh [java|kotlin|scala], the heap is bounded by COMPILE_SERVER_MAX_HEAP (512m by default).
+
+compiler=$1
+
+# Home of the compiler installed in the image, ex: /usr/lib/kotlinc for /usr/lib/kotlinc/bin/kotlinc
+compiler_home() {
+    dirname "$(dirname "$(readlink -f "$(command -v "$1")")")"
+}
+
+case "$compiler" in
+    java)
+        classpath=/compile-server
+        ;;
+    kotlin)
+        home=$(compiler_home kotlinc)
+        classpath="/compile-server:$home/lib/kotlin-compiler.jar"
+        ;;
+    scala)
+        home=$(compiler_home scalac)
+        classpath="/compile-server:$home/lib/*"
+        ;;
+    *)
+        echo "Unknown compiler: $compiler" >&2
+        exit 2
+        ;;
+esac
+
+mkdir -p /tmp/compile-server && rm -f /tmp/compile-server/jobs && mkfifo /tmp/compile-server/jobs || exit 1
+
+exec java -Xmx"${COMPILE_SERVER_MAX_HEAP:-512m}" -XX:+UseSerialGC -Dcompiler.home="$home" \
+    -cp "$classpath" CompileServer "$compiler" /tmp/compile-server/jobs
@@ -0,0 +1,75 @@
+package com.cp.compiler.benchmarks;
+
+import com.cp.compiler.utils.CmdUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The type Cmd utils benchmark.
+ * Reads and compares the output of a program, the comparison against the previous regex normalization
+ * is measured by {@link OutputComparatorBenchmark}.
+ *
+ * @author Zakaria Maaraki
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CmdUtilsBenchmark {
+
+    /**
+     * The size of the output in KB.
+     */
+    @Param({"64", "1024", "16384"})
+    public int sizeInKb;
+
+    private String output;
+
+    private String expectedOutput;
+
+    /**
+     * Build the outputs.
+     */
+    @Setup
+    public void setUp() {
+        output = Payloads.lines(sizeInKb * 1024, "\n");
+        expectedOutput = Payloads.lines(sizeInKb * 1024, "\r\n");
+    }
+
+    /**
+     * Read the output line by line.
+     *
+     * @return the output
+     * @throws IOException the io exception
+     */
+    @Benchmark
+    public String readOutput() throws IOException {
+        return CmdUtils.readOutput(new BufferedReader(new StringReader(output)));
+    }
+
+    /**
+     * Compare the output with the expected output.
+     *
+     * @return the result of the comparison
+     */
+    @Benchmark
+    public boolean compareOutput() {
+        return CmdUtils.compareOutput(output, expectedOutput);
+    }
+}
@@ -0,0 +1,101 @@
+package com.cp.compiler.benchmarks;
+
+import com.cp.compiler.templates.EntrypointFileGenerator;
+import com.cp.compiler.templates.EntrypointFileGeneratorDefault;
+import com.cp.compiler.wellknownconstants.WellKnownTemplates;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.autoconfigure.thymeleaf.ThymeleafProperties;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The type Entrypoint file generator benchmark.
+ * Renders the entrypoint of a test case with the compiled templates and with the template engine,
+ * both configured like the application (see the spring.thymeleaf properties).
+ *
+ * @author Zakaria Maaraki
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EntrypointFileGeneratorBenchmark {
+
+    /**
+     * The template.
+     */
+    @Param({WellKnownTemplates.ENTRYPOINT_TEMPLATE, WellKnownTemplates.RUNNER_TEMPLATE})
+    public String template;
+
+    private SpringTemplateEngine templateEngine;
+
+    private EntrypointFileGenerator entrypointFileGenerator;
+
+    private Map<String, String> attributes;
+
+    private Context context;
+
+    /**
+     * Build the template engine and the generator.
+     */
+    @Setup
+    public void setUp() {
+        var templateResolver = new ClassLoaderTemplateResolver();
+        templateResolver.setPrefix("templates/");
+        templateResolver.setSuffix(".sh");
+        templateResolver.setTemplateMode(TemplateMode.TEXT);
+        templateResolver.setCacheable(true);
+        templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(templateResolver);
+
+        var thymeleafProperties = new ThymeleafProperties();
+        thymeleafProperties.setSuffix(".sh");
+        entrypointFileGenerator =
+                new EntrypointFileGeneratorDefault(templateEngine, new DefaultResourceLoader(), thymeleafProperties);
+
+        attributes = Map.of(
+                "timeLimit", "15",
+                "memoryLimit", "500",
+                "executionCommand", "java -Djava.security.manager -Djava.security.policy=./security.policy Main < 1-input.txt\n");
+        context = new Context();
+        context.setVariable("compiler", attributes);
+    }
+
+    /**
+     * Render the entrypoint with the template engine, as it was done before compiling the templates.
+     *
+     * @return the content
+     */
+    @Benchmark
+    public String templateEngine() {
+        return templateEngine.process(template, context);
+    }
+
+    /**
+     * Render the entrypoint with the generator.
+     *
+     * @return the content
+     */
+    @Benchmark
+    public String createEntrypointFile() {
+        return entrypointFileGenerator.createEntrypointFile(template, attributes);
+    }
+}
@@ -0,0 +1,133 @@
+package com.cp.compiler.benchmarks;
+
+import com.cp.compiler.mappers.JsonMapper;
+import com.cp.compiler.mappers.TestCaseMapper;
+import com.cp.compiler.models.Language;
+import com.cp.compiler.models.Request;
+import com.cp.compiler.models.Response;
+import com.cp.compiler.models.Verdict;
+import com.cp.compiler.models.testcases.ConvertedTestCase;
+import com.cp.compiler.models.testcases.TestCase;
+import com.cp.compiler.models.testcases.TestCaseResult;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The type Mappers benchmark.
+ * Maps the json requests and responses, and converts the test cases of a request into files.
+ *
+ * @author Zakaria Maaraki
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappersBenchmark {
+
+    /**
+     * The number of test cases.
+     */
+    @Param({"1", "20", "200"})
+    public int numberOfTestCases;
+
+    /**
+     * The size of the input and of the expected output of each test case in KB.
+     */
+    @Param({"1", "64"})
+    public int testCaseSizeInKb;
+
+    private String jsonRequest;
+
+    private Response response;
+
+    private Map<String, TestCase> testCases;
+
+    /**
+     * Build the request and the response.
+     *
+     * @throws JsonProcessingException the json processing exception
+     */
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        String payload = Payloads.lines(testCaseSizeInKb * 1024, "\n");
+        var testCases = new LinkedHashMap<String, TestCase>();
+        var testCasesResult = new LinkedHashMap<String, TestCaseResult>();
+        for (int i = 0; i < numberOfTestCases; i++) {
+            testCases.put(String.valueOf(i), new TestCase(payload, payload));
+            testCasesResult.put(String.valueOf(i), new TestCaseResult(Verdict.ACCEPTED, payload, "", payload, 10));
+        }
+        this.testCases = testCases;
+
+        // The request is written with its fields, its getters convert the test cases into files
+        var request = new LinkedHashMap<String, Object>();
+        request.put("sourcecode", "print(input())");
+        request.put("language", Language.PYTHON);
+        request.put("timeLimit", 15);
+        request.put("memoryLimit", 500);
+        request.put("testCases", testCases);
+        jsonRequest = new ObjectMapper().writeValueAsString(request);
+
+        response = new Response(Verdict.ACCEPTED.getStatusResponse(),
+                Verdict.ACCEPTED.getStatusCode(),
+                "",
+                testCasesResult,
+                100,
+                15,
+                500,
+                Language.PYTHON,
+                LocalDateTime.now());
+    }
+
+    /**
+     * Map a json request.
+     *
+     * @return the request
+     * @throws IOException the io exception
+     */
+    @Benchmark
+    public Request toRequest() throws IOException {
+        return JsonMapper.toRequest(jsonRequest);
+    }
+
+    /**
+     * Map a response to json.
+     *
+     * @return the json response
+     * @throws JsonProcessingException the json processing exception
+     */
+    @Benchmark
+    public String toJson() throws JsonProcessingException {
+        return JsonMapper.toJson(response);
+    }
+
+    /**
+     * Convert the test cases into files.
+     *
+     * @return the converted test cases
+     * @throws IOException the io exception
+     */
+    @Benchmark
+    public List<ConvertedTestCase> toConvertedTestCases() throws IOException {
+        return TestCaseMapper.toConvertedTestCases(testCases);
+    }
+}
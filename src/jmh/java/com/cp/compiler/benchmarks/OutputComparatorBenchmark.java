@@ -0,0 +1,85 @@
+package com.cp.compiler.benchmarks;
+
+import com.cp.compiler.utils.CmdUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The type Output comparator benchmark.
+ * Compares a multi MB output with its expected output, written with different white spaces so that
+ * both sides are walked to the end. Run with the gc profiler to see the allocations: -Djmh.args="OutputComparator -prof gc"
+ *
+ * @author Zakaria Maaraki
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OutputComparatorBenchmark {
+
+    /**
+     * The size of the output in MB.
+     */
+    @Param({"1", "8", "32"})
+    public int sizeInMb;
+
+    private String output;
+
+    private String expectedOutput;
+
+    /**
+     * Build the outputs, lines of numbers like the output of a competitive programming problem.
+     */
+    @Setup
+    public void setUp() {
+        int size = sizeInMb * 1024 * 1024;
+        var outputBuilder = new StringBuilder(size);
+        var expectedOutputBuilder = new StringBuilder(size);
+        for (int i = 0; outputBuilder.length() < size; i++) {
+            outputBuilder.append(i).append(' ').append(i * 31L).append('\n');
+            expectedOutputBuilder.append(i).append("  ").append(i * 31L).append("\r\n");
+        }
+        output = outputBuilder.toString();
+        expectedOutput = expectedOutputBuilder.toString();
+    }
+
+    /**
+     * The comparison done before the streaming comparator.
+     *
+     * @return the result of the comparison
+     */
+    @Benchmark
+    public boolean regexNormalization() {
+        return trimText(output).equals(trimText(expectedOutput));
+    }
+
+    /**
+     * The streaming comparison.
+     *
+     * @return the result of the comparison
+     */
+    @Benchmark
+    public boolean streamingComparison() {
+        return CmdUtils.compareOutput(output, expectedOutput);
+    }
+
+    private static String trimText(String text) {
+        return text
+                .trim()
+                .replaceAll("\\s+", " ")
+                .replace("/n", "");
+    }
+}
@@ -0,0 +1,27 @@
+package com.cp.compiler.benchmarks;
+
+/**
+ * The type Payloads.
+ * Builds the payloads of the benchmarks, lines of numbers like the inputs and the outputs of a competitive programming problem.
+ *
+ * @author Zakaria Maaraki
+ */
+abstract class Payloads {
+
+    private Payloads() {}
+
+    /**
+     * Build lines of numbers.
+     *
+     * @param size          the size of the payload in chars
+     * @param lineSeparator the line separator
+     * @return the payload
+     */
+    static String lines(int size, String lineSeparator) {
+        var builder = new StringBuilder(size + 32);
+        for (int i = 0; builder.length() < size; i++) {
+            builder.append(i).append(' ').append(i * 31L).append(lineSeparator);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,73 @@
+package com.cp.compiler.benchmarks;
+
+import com.cp.compiler.models.resources.AvailableResources;
+import com.cp.compiler.services.resources.Resources;
+import com.cp.compiler.services.resources.ResourcesDefault;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The type Resources benchmark.
+ * Admits and releases executions from several threads while another thread reads the available resources,
+ * the number of threads of each side can be changed with the -tg option of the JMH runner, ex: -tg 7,1
+ *
+ * @author Zakaria Maaraki
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResourcesBenchmark {
+
+    private Resources resources;
+
+    /**
+     * Build the resources, an execution uses half a cpu.
+     */
+    @Setup
+    public void setUp() {
+        resources = new ResourcesDefault(0.5f, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Admit an execution, reserve its resources then release them, like the compiler proxy and service do.
+     *
+     * @return the number of current executions
+     */
+    @Benchmark
+    @Group("contention")
+    @GroupThreads(3)
+    public int admitAndRelease() {
+        if (resources.allowNewExecution()) {
+            resources.reserveResources();
+            return resources.cleanup();
+        }
+        return resources.getNumberOfExecutions();
+    }
+
+    /**
+     * Read the available resources while the other threads are admitting executions.
+     *
+     * @return the available resources
+     */
+    @Benchmark
+    @Group("contention")
+    @GroupThreads(1)
+    public AvailableResources getAvailableResources() {
+        return resources.getAvailableResources();
+    }
+}
@@ -4,6 +4,7 @@ import com.cp.compiler.exceptions.CompilerThrottlingException;
 import com.cp.compiler.mappers.JsonMapper;
 import com.cp.compiler.wellknownconstants.WellKnownMetrics;
 import com.cp.compiler.services.businesslogic.CompilerService;
+import com.cp.compiler.services.workspaces.WorkspaceAllocator;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
@@ -37,6 +38,9 @@ public class RabbitConsumer {
     @Autowired
     private MeterRegistry meterRegistry;
     
+    @Autowired
+    private WorkspaceAllocator workspaceAllocator;
+    
     @Value("${spring.rabbitmq.queues.output:output}")
     private String outputQueue;
     
@@ -71,7 +75,7 @@ public class RabbitConsumer {
     
     private String transform(String jsonRequest) throws Exception {
         try {
-            return JsonMapper.transform(jsonRequest, compilerService);
+            return JsonMapper.transform(jsonRequest, compilerService, workspaceAllocator.getSpoolDirectory());
         } catch (CompilerThrottlingException throttlingException) {
             log.info("Request throttled {}, retrying after {}", throttlingException, throttlingDuration);
             return retryAfter(jsonRequest);
@@ -0,0 +1,17 @@
+package com.cp.compiler.checkers;
+
+import com.cp.compiler.utils.OutputComparator;
+
+/**
+ * The type Case insensitive checker.
+ * Same as the {@link DefaultChecker}, ignoring the case (ex: YES / yes answers).
+ *
+ * @author Zakaria Maaraki
+ */
+public class CaseInsensitiveChecker implements OutputChecker {
+
+    @Override
+    public boolean check(CharSequence output, CharSequence expectedOutput) {
+        return OutputComparator.equalsIgnoreCase(output, expectedOutput);
+    }
+}
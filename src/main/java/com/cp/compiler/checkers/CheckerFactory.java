@@ -0,0 +1,61 @@
+package com.cp.compiler.checkers;
+
+import com.cp.compiler.models.checkers.Checker;
+import com.cp.compiler.models.checkers.CheckerType;
+
+/**
+ * The type Checker factory.
+ * Creates the output checker of a request, the checkers are evaluated inside the service.
+ *
+ * @author Zakaria Maaraki
+ */
+public abstract class CheckerFactory {
+
+    private static final OutputChecker DEFAULT_CHECKER = new DefaultChecker();
+
+    private static final OutputChecker EXACT_CHECKER = new ExactChecker();
+
+    private static final OutputChecker TOKEN_CHECKER = new TokenChecker();
+
+    private static final OutputChecker UNORDERED_LINES_CHECKER = new UnorderedLinesChecker();
+
+    private static final OutputChecker CASE_INSENSITIVE_CHECKER = new CaseInsensitiveChecker();
+
+    private CheckerFactory() {}
+
+    /**
+     * Create the output checker.
+     *
+     * @param checker the checker of the request, can be null
+     * @return the output checker, the default one if no checker is given
+     */
+    public static OutputChecker createChecker(Checker checker) {
+        CheckerType type = getType(checker);
+        switch (type) {
+            case EXACT:
+                return EXACT_CHECKER;
+            case TOKEN:
+                return TOKEN_CHECKER;
+            case FLOAT:
+                return new FloatChecker(
+                        checker.getAbsoluteEpsilon() == null ? FloatChecker.DEFAULT_EPSILON : checker.getAbsoluteEpsilon(),
+                        checker.getRelativeEpsilon() == null ? FloatChecker.DEFAULT_EPSILON : checker.getRelativeEpsilon());
+            case UNORDERED_LINES:
+                return UNORDERED_LINES_CHECKER;
+            case CASE_INSENSITIVE:
+                return CASE_INSENSITIVE_CHECKER;
+            default:
+                return DEFAULT_CHECKER;
+        }
+    }
+
+    /**
+     * Gets the type of a checker.
+     *
+     * @param checker the checker of the request, can be null
+     * @return the type, DEFAULT if no checker is given
+     */
+    public static CheckerType getType(Checker checker) {
+        return checker == null || checker.getType() == null ? CheckerType.DEFAULT : checker.getType();
+    }
+}
@@ -0,0 +1,17 @@
+package com.cp.compiler.checkers;
+
+import com.cp.compiler.utils.OutputComparator;
+
+/**
+ * The type Default checker.
+ * The surrounding and repeated white spaces are ignored, see {@link OutputComparator}.
+ *
+ * @author Zakaria Maaraki
+ */
+public class DefaultChecker implements OutputChecker {
+
+    @Override
+    public boolean check(CharSequence output, CharSequence expectedOutput) {
+        return OutputComparator.equals(output, expectedOutput);
+    }
+}
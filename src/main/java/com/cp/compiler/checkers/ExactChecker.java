@@ -0,0 +1,63 @@
+package com.cp.compiler.checkers;
+
+/**
+ * The type Exact checker.
+ * The outputs should have the same chars, only the line separators (\n, \r\n or \r)
+ * and the line breaks at the end of the outputs are ignored.
+ *
+ * @author Zakaria Maaraki
+ */
+public class ExactChecker implements OutputChecker {
+
+    private static final int END = -1;
+
+    @Override
+    public boolean check(CharSequence output, CharSequence expectedOutput) {
+        var outputCursor = new LineSeparatorCursor(output);
+        var expectedOutputCursor = new LineSeparatorCursor(expectedOutput);
+        while (true) {
+            int c = outputCursor.next();
+            if (c != expectedOutputCursor.next()) {
+                return false;
+            }
+            if (c == END) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns the chars of a text one by one, a line separator is read as \n.
+     */
+    private static class LineSeparatorCursor {
+
+        private final CharSequence text;
+
+        private final int end;
+
+        private int position = 0;
+
+        private LineSeparatorCursor(CharSequence text) {
+            this.text = text;
+            int last = text.length();
+            while (last > 0 && (text.charAt(last - 1) == '\n' || text.charAt(last - 1) == '\r')) {
+                last--;
+            }
+            this.end = last;
+        }
+
+        private int next() {
+            if (position >= end) {
+                return END;
+            }
+            char c = text.charAt(position++);
+            if (c != '\r') {
+                return c;
+            }
+            if (position < end && text.charAt(position) == '\n') {
+                position++;
+            }
+            return '\n';
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.cp.compiler.checkers;
+
+import lombok.Getter;
+
+/**
+ * The type Float checker.
+ * Same as the {@link TokenChecker}, but two numbers are equal if they're within an absolute
+ * or a relative (to the expected number) epsilon of each other.
+ * Only the numbers written differently are parsed.
+ *
+ * @author Zakaria Maaraki
+ */
+@Getter
+public class FloatChecker implements OutputChecker {
+
+    /**
+     * The constant DEFAULT_EPSILON, used when no epsilon is given.
+     */
+    public static final double DEFAULT_EPSILON = 1e-6;
+
+    private final double absoluteEpsilon;
+
+    private final double relativeEpsilon;
+
+    /**
+     * Instantiates a new Float checker.
+     *
+     * @param absoluteEpsilon the absolute epsilon
+     * @param relativeEpsilon the relative epsilon
+     */
+    public FloatChecker(double absoluteEpsilon, double relativeEpsilon) {
+        this.absoluteEpsilon = absoluteEpsilon;
+        this.relativeEpsilon = relativeEpsilon;
+    }
+
+    @Override
+    public boolean check(CharSequence output, CharSequence expectedOutput) {
+        var outputTokens = new Tokenizer(output);
+        var expectedOutputTokens = new Tokenizer(expectedOutput);
+        while (true) {
+            boolean hasToken = outputTokens.next();
+            if (hasToken != expectedOutputTokens.next()) {
+                return false;
+            }
+            if (!hasToken) {
+                return true;
+            }
+            if (!outputTokens.sameToken(expectedOutputTokens)
+                    && !(outputTokens.isNumber()
+                    && expectedOutputTokens.isNumber()
+                    && isClose(outputTokens.toDouble(), expectedOutputTokens.toDouble()))) {
+                return false;
+            }
+        }
+    }
+
+    private boolean isClose(double value, double expectedValue) {
+        if (Double.isInfinite(value) || Double.isInfinite(expectedValue)) {
+            // Too big to be parsed, ex: 1e400
+            return value == expectedValue;
+        }
+        double difference = Math.abs(value - expectedValue);
+        return difference <= absoluteEpsilon || difference <= relativeEpsilon * Math.abs(expectedValue);
+    }
+}
@@ -0,0 +1,19 @@
+package com.cp.compiler.checkers;
+
+/**
+ * The interface Output checker.
+ * Judges the output of a test case against its expected output, inside the service.
+ *
+ * @author Zakaria Maaraki
+ */
+public interface OutputChecker {
+
+    /**
+     * Check the output of a test case.
+     *
+     * @param output         the output
+     * @param expectedOutput the expected output
+     * @return true if the output is accepted
+     */
+    boolean check(CharSequence output, CharSequence expectedOutput);
+}
@@ -0,0 +1,28 @@
+package com.cp.compiler.checkers;
+
+/**
+ * The type Token checker.
+ * The outputs should have the same tokens, separated by any white spaces (spaces, tabs, line breaks).
+ *
+ * @author Zakaria Maaraki
+ */
+public class TokenChecker implements OutputChecker {
+
+    @Override
+    public boolean check(CharSequence output, CharSequence expectedOutput) {
+        var outputTokens = new Tokenizer(output);
+        var expectedOutputTokens = new Tokenizer(expectedOutput);
+        while (true) {
+            boolean hasToken = outputTokens.next();
+            if (hasToken != expectedOutputTokens.next()) {
+                return false;
+            }
+            if (!hasToken) {
+                return true;
+            }
+            if (!outputTokens.sameToken(expectedOutputTokens)) {
+                return false;
+            }
+        }
+    }
+}
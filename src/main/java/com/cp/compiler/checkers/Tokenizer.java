@@ -0,0 +1,127 @@
+package com.cp.compiler.checkers;
+
+/**
+ * The type Tokenizer.
+ * Walks the tokens of a text separated by white spaces, a token is a region of the text, it's never copied.
+ *
+ * @author Zakaria Maaraki
+ */
+class Tokenizer {
+
+    private final CharSequence text;
+
+    private int position = 0;
+
+    private int tokenStart = 0;
+
+    private int tokenEnd = 0;
+
+    /**
+     * Instantiates a new Tokenizer.
+     *
+     * @param text the text
+     */
+    Tokenizer(CharSequence text) {
+        this.text = text;
+    }
+
+    /**
+     * Move to the next token.
+     *
+     * @return false if there is no token left
+     */
+    boolean next() {
+        int length = text.length();
+        while (position < length && Character.isWhitespace(text.charAt(position))) {
+            position++;
+        }
+        if (position >= length) {
+            return false;
+        }
+        tokenStart = position;
+        while (position < length && !Character.isWhitespace(text.charAt(position))) {
+            position++;
+        }
+        tokenEnd = position;
+        return true;
+    }
+
+    /**
+     * Compare the current tokens of two tokenizers.
+     *
+     * @param other the other tokenizer
+     * @return true if both tokens have the same chars
+     */
+    boolean sameToken(Tokenizer other) {
+        int length = tokenEnd - tokenStart;
+        if (length != other.tokenEnd - other.tokenStart) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (text.charAt(tokenStart + i) != other.text.charAt(other.tokenStart + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Check if the current token is a decimal number, ex: -1, 2.5, .5, 1e-9
+     * (and not any string accepted by {@link Double#parseDouble}, ex: NaN, 1d, 0x1p3).
+     *
+     * @return true if the current token is a number
+     */
+    boolean isNumber() {
+        int i = tokenStart;
+        if (i < tokenEnd && isSign(text.charAt(i))) {
+            i++;
+        }
+        int digits = 0;
+        while (i < tokenEnd && isDigit(text.charAt(i))) {
+            i++;
+            digits++;
+        }
+        if (i < tokenEnd && text.charAt(i) == '.') {
+            i++;
+            while (i < tokenEnd && isDigit(text.charAt(i))) {
+                i++;
+                digits++;
+            }
+        }
+        if (digits == 0) {
+            return false;
+        }
+        if (i < tokenEnd && (text.charAt(i) == 'e' || text.charAt(i) == 'E')) {
+            i++;
+            if (i < tokenEnd && isSign(text.charAt(i))) {
+                i++;
+            }
+            int exponentDigits = 0;
+            while (i < tokenEnd && isDigit(text.charAt(i))) {
+                i++;
+                exponentDigits++;
+            }
+            if (exponentDigits == 0) {
+                return false;
+            }
+        }
+        return i == tokenEnd;
+    }
+
+    /**
+     * Parse the current token, it should be a number.
+     *
+     * @return the value of the token
+     */
+    double toDouble() {
+        return Double.parseDouble(text.subSequence(tokenStart, tokenEnd).toString());
+    }
+
+    private static boolean isSign(char c) {
+        return c == '+' || c == '-';
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,50 @@
+package com.cp.compiler.checkers;
+
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The type Unordered lines checker.
+ * The outputs should have the same lines in any order (ex: a problem accepting the answers in any order),
+ * the trailing white spaces of each line and the blank lines are ignored.
+ * The lines are sorted as views of the outputs, their chars are never copied.
+ *
+ * @author Zakaria Maaraki
+ */
+public class UnorderedLinesChecker implements OutputChecker {
+
+    @Override
+    public boolean check(CharSequence output, CharSequence expectedOutput) {
+        List<CharBuffer> lines = getLines(output);
+        List<CharBuffer> expectedLines = getLines(expectedOutput);
+        if (lines.size() != expectedLines.size()) {
+            return false;
+        }
+        lines.sort(null);
+        expectedLines.sort(null);
+        return lines.equals(expectedLines);
+    }
+
+    private static List<CharBuffer> getLines(CharSequence text) {
+        List<CharBuffer> lines = new ArrayList<>();
+        int length = text.length();
+        int lineStart = 0;
+        while (lineStart < length) {
+            int lineEnd = lineStart;
+            while (lineEnd < length && text.charAt(lineEnd) != '\n' && text.charAt(lineEnd) != '\r') {
+                lineEnd++;
+            }
+            int next = lineEnd + 1;
+            int last = lineEnd;
+            while (last > lineStart && Character.isWhitespace(text.charAt(last - 1))) {
+                last--;
+            }
+            if (last > lineStart) {
+                lines.add(CharBuffer.wrap(text, lineStart, last));
+            }
+            lineStart = next;
+        }
+        return lines;
+    }
+}
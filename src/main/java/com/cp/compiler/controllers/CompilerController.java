@@ -3,21 +3,27 @@ package com.cp.compiler.controllers;
 import com.cp.compiler.exceptions.CompilerServerInternalException;
 import com.cp.compiler.executions.Execution;
 import com.cp.compiler.executions.ExecutionFactory;
+import com.cp.compiler.mappers.StreamingRequestMapper;
 import com.cp.compiler.models.*;
 import com.cp.compiler.models.testcases.ConvertedTestCase;
 import com.cp.compiler.services.businesslogic.CompilerFacade;
+import com.cp.compiler.services.workspaces.WorkspaceAllocator;
 import com.cp.compiler.utils.CmdUtils;
 import com.cp.compiler.wellknownconstants.WellKnownHeaders;
 import com.cp.compiler.wellknownconstants.WellKnownParams;
+import io.swagger.annotations.ApiImplicitParam;
+import io.swagger.annotations.ApiImplicitParams;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.List;
 
@@ -33,17 +39,22 @@ public class CompilerController {
     
     private CompilerFacade compiler;
     
+    private WorkspaceAllocator workspaceAllocator;
+    
     /**
      * Instantiates a new Compiler controller.
      *
-     * @param compiler the compiler
+     * @param compiler           the compiler
+     * @param workspaceAllocator the workspace allocator
      */
-    public CompilerController(CompilerFacade compiler) {
+    public CompilerController(CompilerFacade compiler, WorkspaceAllocator workspaceAllocator) {
         this.compiler = compiler;
+        this.workspaceAllocator = workspaceAllocator;
     }
     
     /**
      * Execute a source code against multiple test cases.
+     * The json request is parsed from the body as it's received, the test cases are spooled to the disk.
      *
      * @param request json object
      * @param userId  the user id
@@ -52,31 +63,39 @@ public class CompilerController {
      * @return The statusResponse of the execution (Accepted, Wrong Answer, Time Limit Exceeded, Memory Limit Exceeded, Compilation Error, RunTime Error)
      * @throws IOException the io exception
      */
-    @PostMapping("/compile/json")
+    @PostMapping(value = "/compile/json", consumes = MediaType.APPLICATION_JSON_VALUE)
     @ApiOperation(
             value = "Json",
             notes = "You should provide outputFile, inputFile (not required), source code, time limit and memory limit",
             response = Response.class
     )
-    public ResponseEntity<Object> compile(@ApiParam(value = "request") @RequestBody Request request,
+    @ApiImplicitParams(
+            @ApiImplicitParam(name = "request", dataTypeClass = Request.class, paramType = "body", required = true)
+    )
+    public ResponseEntity<Object> compile(@ApiParam(hidden = true) InputStream request,
                                           @RequestHeader(value = WellKnownParams.USER_ID, required = false) String userId,
                                           @RequestHeader(value = WellKnownParams.PREFER, required = false) String prefer,
                                           @RequestHeader(value = WellKnownParams.URL, required = false) String url)
             throws IOException {
         
-        Execution execution = ExecutionFactory.createExecution(
-                request.getSourcecodeFile(),
-                request.getConvertedTestCases(),
-                request.getTimeLimit(),
-                request.getMemoryLimit(),
-                request.getLanguage());
-        
-        // Free memory space, the request could take so much time
-        request = null;
+        Execution execution = StreamingRequestMapper.toExecution(request, workspaceAllocator.getSpoolDirectory());
         
         boolean isLongRunning = WellKnownHeaders.PREFER_PUSH.equals(prefer);
-    
-        return compiler.compile(execution, isLongRunning, url, userId);
+        
+        ResponseEntity<Object> responseEntity;
+        try {
+            responseEntity = compiler.compile(execution, isLongRunning, url, userId);
+        } catch (IOException | RuntimeException exception) {
+            execution.deleteSpoolDirectory();
+            throw exception;
+        }
+        
+        // The spooled test cases of an accepted push request are deleted by the background execution
+        if (!isLongRunning || !responseEntity.getStatusCode().is2xxSuccessful()) {
+            execution.deleteSpoolDirectory();
+        }
+        
+        return responseEntity;
     }
     
     /**
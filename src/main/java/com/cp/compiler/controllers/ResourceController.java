@@ -1,12 +1,16 @@
 package com.cp.compiler.controllers;
 
 import com.cp.compiler.models.resources.AvailableResources;
+import com.cp.compiler.models.resources.LaneOccupancy;
+import com.cp.compiler.services.resources.AdmissionQueue;
 import com.cp.compiler.services.resources.Resources;
 import io.swagger.annotations.ApiOperation;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 /**
  * The type Resource controller.
  *
@@ -18,13 +22,17 @@ public class ResourceController {
     
     private final Resources resources;
     
+    private final AdmissionQueue admissionQueue;
+    
     /**
      * Instantiates a new Resource controller.
      *
-     * @param resources the resources
+     * @param resources      the resources
+     * @param admissionQueue the admission queue
      */
-    public ResourceController(Resources resources)  {
+    public ResourceController(Resources resources, AdmissionQueue admissionQueue)  {
         this.resources = resources;
+        this.admissionQueue = admissionQueue;
     }
     
     /**
@@ -37,4 +45,15 @@ public class ResourceController {
     public AvailableResources getAvailableResources() {
         return resources.getAvailableResources();
     }
+    
+    /**
+     * Gets the occupancy of the execution lanes.
+     *
+     * @return the lane occupancies
+     */
+    @ApiOperation(value = "Return the executions and the queued requests of each lane")
+    @GetMapping("/lanes")
+    public List<LaneOccupancy> getLaneOccupancies() {
+        return admissionQueue.getLaneOccupancies();
+    }
 }
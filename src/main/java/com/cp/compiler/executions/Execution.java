@@ -1,5 +1,7 @@
 package com.cp.compiler.executions;
 
+import com.cp.compiler.models.checkers.Checker;
+import com.cp.compiler.models.resources.ExecutionLane;
 import com.cp.compiler.models.testcases.ConvertedTestCase;
 import com.cp.compiler.models.Language;
 import com.cp.compiler.templates.EntrypointFileGenerator;
@@ -12,9 +14,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.util.FileSystemUtils;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
@@ -31,9 +32,15 @@ import java.util.UUID;
 @EqualsAndHashCode
 public abstract class Execution {
     
-    private static final String IMAGE_PREFIX_NAME = "image-";
+    /**
+     * The constant IMAGE_PREFIX_NAME.
+     */
+    public static final String IMAGE_PREFIX_NAME = "image-";
     
-    private static final String EXECUTION_FOLDER_PREFIX_NAME = "execution-";
+    /**
+     * The constant EXECUTION_FOLDER_PREFIX_NAME.
+     */
+    public static final String EXECUTION_FOLDER_PREFIX_NAME = "execution-";
     
     @NonNull
     private MultipartFile sourceCodeFile;
@@ -54,12 +61,47 @@ public abstract class Execution {
     @NonNull
     private ExecutionType executionType;
     
+    /**
+     * The max number of bytes the program can write to stdout for each test case, 0 means the default limit
+     */
+    @Setter
+    private long maxOutputBytes;
+    
+    /**
+     * The checker of the outputs, null for the default one
+     */
+    @Setter
+    private Checker checker;
+    
+    /**
+     * The id of the user sending the request, null if unknown
+     */
+    @Setter
+    private String userId;
+    
+    /**
+     * The source of the request, interactive by default
+     */
+    @Setter
+    private ExecutionLane lane = ExecutionLane.INTERACTIVE;
+    
     @Getter
     /**
      * The Path of the execution directory
      */
     private String path;
     
+    /**
+     * The root of the workspace holding the execution directory, empty for the working directory
+     */
+    private String workspaceRoot = "";
+    
+    /**
+     * The directory of the test cases spooled while parsing the request, null if they're kept in memory
+     */
+    @Setter
+    private Path spoolDirectory;
+    
     
     /**
      * Instantiates a new Execution.
@@ -81,7 +123,46 @@ public abstract class Execution {
         this.memoryLimit = memoryLimit;
         this.executionType = executionType;
         this.id = UUID.randomUUID().toString();
-        this.path = getLanguage().getFolderName() + "/" + getExecutionFolderName(); // this should come after the id inits
+        this.path = getRelativePath(); // this should come after the id inits
+    }
+    
+    /**
+     * Sets the workspace root, it should be called before creating the execution directory.
+     *
+     * @param workspaceRoot the workspace root, empty for the working directory
+     */
+    public void setWorkspaceRoot(String workspaceRoot) {
+        this.workspaceRoot = workspaceRoot;
+        this.path = workspaceRoot.isEmpty() ? getRelativePath() : workspaceRoot + "/" + getRelativePath();
+    }
+    
+    /**
+     * Gets the size of the uploaded files, the source code, the inputs and the expected outputs.
+     *
+     * @return the size in bytes
+     */
+    public long getInputSize() {
+        long inputSize = sourceCodeFile.getSize();
+        for (ConvertedTestCase testCase : testCases) {
+            if (testCase.getInputFile() != null) {
+                inputSize += testCase.getInputFile().getSize();
+            }
+            if (testCase.getExpectedOutputFile() != null) {
+                inputSize += testCase.getExpectedOutputFile().getSize();
+            } else if (testCase.getExpectedOutput() != null) {
+                inputSize += testCase.getExpectedOutput().length();
+            }
+        }
+        return inputSize;
+    }
+    
+    /**
+     * Gets the path of the execution directory relative to its workspace root.
+     *
+     * @return the relative path
+     */
+    public String getRelativePath() {
+        return getLanguage().getFolderName() + "/" + getExecutionFolderName();
     }
     
     /**
@@ -91,7 +172,8 @@ public abstract class Execution {
      */
     public void createExecutionDirectory() throws IOException {
         getExecutionCounter().increment();
-        Files.createDirectory(Path.of(path));
+        // The language folder may not exist yet in the workspace
+        Files.createDirectories(Path.of(path));
         log.debug("Saving uploaded files");
         saveUploadedFiles();
         log.debug("Copying execution Dockerfile to execution directory");
@@ -107,6 +189,18 @@ public abstract class Execution {
      */
     public void deleteExecutionDirectory() throws IOException {
         FileSystemUtils.deleteRecursively(Path.of(path));
+        deleteSpoolDirectory();
+    }
+    
+    /**
+     * Delete the spooled test cases.
+     *
+     * @throws IOException the io exception
+     */
+    public void deleteSpoolDirectory() throws IOException {
+        if (spoolDirectory != null) {
+            FileSystemUtils.deleteRecursively(spoolDirectory);
+        }
     }
     
     /**
@@ -168,19 +262,24 @@ public abstract class Execution {
     public void createEntrypointFile(String inputFileName, String testCaseId) {
         
         String content = getEntrypointFileGenerator()
-                .createEntrypointFile(WellKnownTemplates.ENTRYPOINT_TEMPLATE, getParameters(inputFileName));
+                .createEntrypointFile(getEntrypointTemplate(), getParameters(inputFileName));
     
-        String path = getPath()
-                + "/"
-                + WellKnownFiles.ENTRYPOINT_FILE_NAME_PREFIX
-                + testCaseId
-                + WellKnownFiles.ENTRYPOINT_FILE_EXTENSION;
+        Path path = Path.of(getPath(),
+                WellKnownFiles.ENTRYPOINT_FILE_NAME_PREFIX + testCaseId + WellKnownFiles.ENTRYPOINT_FILE_EXTENSION);
     
-        Files.deleteIfExists(Path.of(path));
+        Files.writeString(path, content, StandardCharsets.UTF_8);
     
-        try(OutputStream os = new FileOutputStream(path)) {
-            os.write(content.getBytes(), 0, content.length());
-        }
+        // Needed when the execution folder is mounted read-only instead of being copied into an image
+        path.toFile().setExecutable(true, false);
+    }
+    
+    /**
+     * Gets the template of the entrypoint files.
+     *
+     * @return the template
+     */
+    protected String getEntrypointTemplate() {
+        return WellKnownTemplates.ENTRYPOINT_TEMPLATE;
     }
     
     /**
@@ -197,6 +296,16 @@ public abstract class Execution {
         });
     }
     
+    /**
+     * Create the runner file, it runs all the entrypoints inside one container.
+     * The expected outputs are never written to the execution directory, it's readable by the executed program.
+     */
+    @SneakyThrows
+    public void createRunnerFiles() {
+        String content = getEntrypointFileGenerator().createEntrypointFile(WellKnownTemplates.RUNNER_TEMPLATE, Map.of());
+        Files.writeString(Path.of(path, WellKnownFiles.RUNNER_FILE_NAME), content, StandardCharsets.UTF_8);
+    }
+    
     /**
      * Gets counter.
      *
@@ -5,20 +5,14 @@ import com.cp.compiler.executions.ExecutionFactory;
 import com.cp.compiler.executions.ExecutionType;
 import com.cp.compiler.models.testcases.ConvertedTestCase;
 import com.cp.compiler.models.Language;
-import com.cp.compiler.wellknownconstants.WellKnownFiles;
 import com.cp.compiler.wellknownconstants.WellKnownTemplates;
 import com.cp.compiler.templates.EntrypointFileGenerator;
 import io.micrometer.core.instrument.Counter;
 import lombok.Getter;
-import lombok.SneakyThrows;
 import lombok.val;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.OutputStream;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
 
@@ -67,36 +61,20 @@ public class ScalaExecution extends Execution {
     protected void copyLanguageSpecificFilesToExecutionDirectory() throws IOException {
         // Empty
     }
-    
+
+    @Override
+    public Language getLanguage() {
+        return Language.SCALA;
+    }
+
     /**
-     * Create an entrypoint file based on input file name and test case id
+     * Gets the template of the entrypoint files.
      * Note: template used for scala is different from the one used by other languages
      *
-     * @param inputFileName the input file name
-     * @param testCaseId    the test case id
+     * @return the template
      */
     @Override
-    @SneakyThrows
-    public void createEntrypointFile(String inputFileName, String testCaseId) {
-        
-        String content = getEntrypointFileGenerator()
-                .createEntrypointFile(WellKnownTemplates.SCALA_ENTRYPOINT_TEMPLATE, getParameters(inputFileName));
-        
-        String path = getPath()
-                + "/"
-                + WellKnownFiles.ENTRYPOINT_FILE_NAME_PREFIX
-                + testCaseId
-                + WellKnownFiles.ENTRYPOINT_FILE_EXTENSION;
-        
-        Files.deleteIfExists(Path.of(path));
-        
-        try(OutputStream os = new FileOutputStream(path)) {
-            os.write(content.getBytes(), 0, content.length());
-        }
-    }
-
-    @Override
-    public Language getLanguage() {
-        return Language.SCALA;
+    protected String getEntrypointTemplate() {
+        return WellKnownTemplates.SCALA_ENTRYPOINT_TEMPLATE;
     }
 }
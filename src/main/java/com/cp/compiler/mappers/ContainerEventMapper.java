@@ -0,0 +1,51 @@
+package com.cp.compiler.mappers;
+
+import com.cp.compiler.models.containers.ContainerEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * ContainerEvent mapper class
+ * The docker cli (docker events --format '{{json .}}') and the docker engine (GET /events) use the same format.
+ *
+ * @author Zakaria Maaraki
+ */
+public abstract class ContainerEventMapper {
+
+    private ContainerEventMapper() {}
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    /**
+     * Map json String to ContainerEvent object.
+     *
+     * @param containerEventJson the container event json
+     * @return the container event, or null if the event is not about a container
+     * @throws JsonProcessingException the json processing exception
+     */
+    public static ContainerEvent toContainerEvent(String containerEventJson) throws JsonProcessingException {
+        JsonNode event = objectMapper.readTree(containerEventJson);
+        JsonNode attributes = event.path("Actor").path("Attributes");
+        if (!"container".equals(event.path("Type").asText()) || !attributes.hasNonNull("name")) {
+            return null;
+        }
+        long timeNano = event.hasNonNull("timeNano")
+                ? event.get("timeNano").asLong()
+                : event.path("time").asLong() * NANOS_PER_SECOND;
+        return ContainerEvent
+                .builder()
+                .containerName(attributes.get("name").asText())
+                .action(event.path("Action").asText())
+                .exitCode(attributes.path("exitCode").asInt())
+                .timeNano(timeNano)
+                .time(LocalDateTime.ofEpochSecond(
+                        timeNano / NANOS_PER_SECOND, (int) (timeNano % NANOS_PER_SECOND), ZoneOffset.UTC))
+                .build();
+    }
+}
@@ -0,0 +1,183 @@
+package com.cp.compiler.mappers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Container table mapper class
+ * Formats the docker engine responses (GET /containers/json and GET /images/json) as the tables printed by the
+ * docker cli (docker ps and docker images), so both docker clients return the same output.
+ *
+ * @author Zakaria Maaraki
+ */
+public abstract class ContainerTableMapper {
+
+    private ContainerTableMapper() {}
+
+    // Same layout as the docker cli tab writer: min width 10, padding 3
+    private static final int MIN_COLUMN_WIDTH = 10;
+
+    private static final int COLUMN_PADDING = 3;
+
+    private static final int SHORT_ID_LENGTH = 12;
+
+    private static final int MAX_COMMAND_LENGTH = 20;
+
+    private static final String NONE = "<none>";
+
+    private static final String[] SIZE_UNITS = {"B", "kB", "MB", "GB", "TB", "PB"};
+
+    /**
+     * Map the containers returned by the docker engine to the table printed by docker ps.
+     *
+     * @param containers the containers json array
+     * @param now        the current time used to compute the creation dates
+     * @return the containers table
+     */
+    public static String toContainersTable(JsonNode containers, Instant now) {
+        List<String[]> rows = new ArrayList<>();
+        rows.add(new String[] {"CONTAINER ID", "IMAGE", "COMMAND", "CREATED", "STATUS", "PORTS", "NAMES"});
+        for (JsonNode container : containers) {
+            rows.add(new String[] {
+                    shortId(container.path("Id").asText()),
+                    container.path("Image").asText(),
+                    "\"" + truncate(container.path("Command").asText()) + "\"",
+                    created(container.path("Created").asLong(), now),
+                    container.path("Status").asText(),
+                    ports(container.path("Ports")),
+                    names(container.path("Names"))
+            });
+        }
+        return toTable(rows);
+    }
+
+    /**
+     * Map the images returned by the docker engine to the table printed by docker images.
+     *
+     * @param images the images json array
+     * @param now    the current time used to compute the creation dates
+     * @return the images table
+     */
+    public static String toImagesTable(JsonNode images, Instant now) {
+        List<String[]> rows = new ArrayList<>();
+        rows.add(new String[] {"REPOSITORY", "TAG", "IMAGE ID", "CREATED", "SIZE"});
+        for (JsonNode image : images) {
+            String imageId = shortId(image.path("Id").asText().replaceFirst("^sha256:", ""));
+            String created = created(image.path("Created").asLong(), now);
+            String size = humanSize(image.path("Size").asLong());
+            List<String> repoTags = new ArrayList<>();
+            image.path("RepoTags").forEach(repoTag -> repoTags.add(repoTag.asText()));
+            if (repoTags.isEmpty()) {
+                // Dangling images
+                repoTags.add(NONE + ":" + NONE);
+            }
+            for (String repoTag : repoTags) {
+                int separator = repoTag.lastIndexOf(':');
+                String repository = separator < 0 ? repoTag : repoTag.substring(0, separator);
+                String tag = separator < 0 ? NONE : repoTag.substring(separator + 1);
+                rows.add(new String[] {repository, tag, imageId, created, size});
+            }
+        }
+        return toTable(rows);
+    }
+
+    private static String toTable(List<String[]> rows) {
+        int columns = rows.get(0).length;
+        int[] widths = new int[columns];
+        for (String[] row : rows) {
+            for (int i = 0; i < columns; i++) {
+                widths[i] = Math.max(widths[i], Math.max(row[i].length() + COLUMN_PADDING, MIN_COLUMN_WIDTH));
+            }
+        }
+        var table = new StringBuilder();
+        for (String[] row : rows) {
+            var line = new StringBuilder();
+            for (int i = 0; i < columns; i++) {
+                line.append(row[i]);
+                if (i < columns - 1) {
+                    line.append(" ".repeat(widths[i] - row[i].length()));
+                }
+            }
+            // The last column is not padded, the empty trailing cells neither
+            table.append(line.toString().stripTrailing()).append('\n');
+        }
+        return table.toString();
+    }
+
+    private static String shortId(String id) {
+        return id.length() > SHORT_ID_LENGTH ? id.substring(0, SHORT_ID_LENGTH) : id;
+    }
+
+    private static String truncate(String command) {
+        return command.length() > MAX_COMMAND_LENGTH
+                ? command.substring(0, MAX_COMMAND_LENGTH - 1) + "…"
+                : command;
+    }
+
+    private static String names(JsonNode names) {
+        List<String> containerNames = new ArrayList<>();
+        // The names returned by the engine start with a slash
+        names.forEach(name -> containerNames.add(name.asText().replaceFirst("^/", "")));
+        return String.join(",", containerNames);
+    }
+
+    private static String ports(JsonNode ports) {
+        List<String> publishedPorts = new ArrayList<>();
+        for (JsonNode port : ports) {
+            String containerPort = port.path("PrivatePort").asText() + "/" + port.path("Type").asText();
+            publishedPorts.add(port.hasNonNull("PublicPort")
+                    ? port.path("IP").asText() + ":" + port.path("PublicPort").asText() + "->" + containerPort
+                    : containerPort);
+        }
+        return String.join(", ", publishedPorts);
+    }
+
+    private static String created(long createdEpochSecond, Instant now) {
+        return humanDuration(Duration.between(Instant.ofEpochSecond(createdEpochSecond), now)) + " ago";
+    }
+
+    private static String humanDuration(Duration duration) {
+        long seconds = duration.getSeconds();
+        long minutes = duration.toMinutes();
+        long hours = Math.round(seconds / 3600.0);
+        if (seconds < 1) {
+            return "Less than a second";
+        } else if (seconds == 1) {
+            return "1 second";
+        } else if (seconds < 60) {
+            return seconds + " seconds";
+        } else if (minutes == 1) {
+            return "About a minute";
+        } else if (minutes < 60) {
+            return minutes + " minutes";
+        } else if (hours == 1) {
+            return "About an hour";
+        } else if (hours < 48) {
+            return hours + " hours";
+        } else if (hours < 24 * 7 * 2) {
+            return hours / 24 + " days";
+        } else if (hours < 24 * 30 * 2) {
+            return hours / 24 / 7 + " weeks";
+        } else if (hours < 24 * 365 * 2) {
+            return hours / 24 / 30 + " months";
+        }
+        return hours / 24 / 365 + " years";
+    }
+
+    private static String humanSize(long bytes) {
+        double size = bytes;
+        int unit = 0;
+        while (size >= 1000 && unit < SIZE_UNITS.length - 1) {
+            size /= 1000;
+            unit++;
+        }
+        // 3 significant digits, without the trailing zeros
+        return new BigDecimal(size).round(new MathContext(3)).stripTrailingZeros().toPlainString() + SIZE_UNITS[unit];
+    }
+}
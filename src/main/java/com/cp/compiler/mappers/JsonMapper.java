@@ -2,9 +2,9 @@ package com.cp.compiler.mappers;
 
 import com.cp.compiler.exceptions.CompilerThrottlingException;
 import com.cp.compiler.executions.Execution;
-import com.cp.compiler.executions.ExecutionFactory;
 import com.cp.compiler.models.Request;
 import com.cp.compiler.models.Response;
+import com.cp.compiler.models.resources.ExecutionLane;
 import com.cp.compiler.services.businesslogic.CompilerService;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -13,6 +13,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 import java.io.IOException;
+import java.nio.file.Path;
 
 /**
  * The type Json mapper.
@@ -56,17 +57,16 @@ public abstract class JsonMapper {
      *
      * @param jsonRequest     the json request
      * @param compilerService the compiler service
+     * @param spoolDirectory  the directory where the test cases are spooled
      * @return the string
      * @throws Exception the exception
      */
-    public static String transform(String jsonRequest, CompilerService compilerService) throws Exception {
-        Request request = JsonMapper.toRequest(jsonRequest);
-        
-        Execution execution = ExecutionFactory.createExecution(request.getSourcecodeFile(),
-                                                                request.getConvertedTestCases(),
-                                                                request.getTimeLimit(),
-                                                                request.getMemoryLimit(),
-                                                                request.getLanguage());
+    public static String transform(String jsonRequest,
+                                   CompilerService compilerService,
+                                   Path spoolDirectory) throws Exception {
+        // The test cases are spooled to the disk instead of being kept in memory as strings
+        Execution execution = StreamingRequestMapper.toExecution(jsonRequest, spoolDirectory);
+        execution.setLane(ExecutionLane.BROKER);
     
         try(MDC.MDCCloseable mdc = MDC.putCloseable("compiler.language", execution.getLanguage().toString())) {
             
@@ -79,6 +79,9 @@ public abstract class JsonMapper {
     
             Object body = responseEntity.getBody();
             return body instanceof Response ? JsonMapper.toJson((Response) body) : null;
+        } finally {
+            // The execution is over, or it has been rejected before creating its directory
+            execution.deleteSpoolDirectory();
         }
     }
 }
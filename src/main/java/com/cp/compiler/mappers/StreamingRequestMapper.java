@@ -0,0 +1,226 @@
+package com.cp.compiler.mappers;
+
+import com.cp.compiler.exceptions.CompilerBadRequestException;
+import com.cp.compiler.executions.Execution;
+import com.cp.compiler.executions.ExecutionFactory;
+import com.cp.compiler.models.Language;
+import com.cp.compiler.models.SpooledMultipartFile;
+import com.cp.compiler.models.StringMultipartFile;
+import com.cp.compiler.models.checkers.Checker;
+import com.cp.compiler.models.testcases.ConvertedTestCase;
+import com.cp.compiler.wellknownconstants.WellKnownFiles;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The type Streaming request mapper.
+ * Reads a json request (same format as {@link com.cp.compiler.models.Request}) token by token and writes the input
+ * and the expected output of each test case to a spool directory while parsing, so that only the ids and the paths
+ * of the test cases are kept in memory.
+ *
+ * @author Zakaria Maaraki
+ */
+public abstract class StreamingRequestMapper {
+
+    private StreamingRequestMapper() {}
+
+    /**
+     * The constant SPOOL_DIRECTORY_PREFIX.
+     */
+    public static final String SPOOL_DIRECTORY_PREFIX = "request-";
+
+    private static final String SPOOLED_INPUT_PREFIX = "input-";
+
+    private static final String SPOOLED_EXPECTED_OUTPUT_PREFIX = "expected-output-";
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    static {
+        objectMapper.findAndRegisterModules();
+    }
+
+    /**
+     * Parse a json request into an execution.
+     * The test cases are spooled in a new directory of the spool root, deleted with the execution directory.
+     *
+     * @param json      the json request
+     * @param spoolRoot the spool root
+     * @return the execution
+     * @throws IOException the io exception
+     */
+    public static Execution toExecution(InputStream json, Path spoolRoot) throws IOException {
+        return toExecution(objectMapper.getFactory().createParser(json), spoolRoot);
+    }
+
+    /**
+     * Parse a json request into an execution.
+     * The test cases are spooled in a new directory of the spool root, deleted with the execution directory.
+     *
+     * @param json      the json request
+     * @param spoolRoot the spool root
+     * @return the execution
+     * @throws IOException the io exception
+     */
+    public static Execution toExecution(String json, Path spoolRoot) throws IOException {
+        return toExecution(objectMapper.getFactory().createParser(json), spoolRoot);
+    }
+
+    private static Execution toExecution(JsonParser parser, Path spoolRoot) throws IOException {
+        Path spoolDirectory = spoolRoot.resolve(SPOOL_DIRECTORY_PREFIX + UUID.randomUUID());
+        Files.createDirectories(spoolDirectory);
+        try (parser) {
+            Execution execution = readExecution(parser, spoolDirectory);
+            execution.setSpoolDirectory(spoolDirectory);
+            return execution;
+        } catch (JsonProcessingException e) {
+            FileSystemUtils.deleteRecursively(spoolDirectory);
+            throw new CompilerBadRequestException("Invalid json request: " + e.getOriginalMessage());
+        } catch (IOException | RuntimeException e) {
+            FileSystemUtils.deleteRecursively(spoolDirectory);
+            throw e;
+        }
+    }
+
+    private static Execution readExecution(JsonParser parser, Path spoolDirectory) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new CompilerBadRequestException("The request should be a json object");
+        }
+        String sourcecode = null;
+        Language language = null;
+        Integer timeLimit = null;
+        Integer memoryLimit = null;
+        Long maxOutputBytes = null;
+        Checker checker = null;
+        Map<String, ConvertedTestCase> testCases = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            parser.nextToken();
+            switch (fieldName) {
+                case "sourcecode":
+                    sourcecode = objectMapper.readValue(parser, String.class);
+                    break;
+                case "language":
+                    language = objectMapper.readValue(parser, Language.class);
+                    break;
+                case "timeLimit":
+                    timeLimit = objectMapper.readValue(parser, Integer.class);
+                    break;
+                case "memoryLimit":
+                    memoryLimit = objectMapper.readValue(parser, Integer.class);
+                    break;
+                case "maxOutputBytes":
+                    maxOutputBytes = objectMapper.readValue(parser, Long.class);
+                    break;
+                case "checker":
+                    checker = objectMapper.readValue(parser, Checker.class);
+                    break;
+                case "testCases":
+                    testCases = readTestCases(parser, spoolDirectory);
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+
+        if (sourcecode == null || language == null || testCases == null) {
+            throw new CompilerBadRequestException("The sourcecode, the language and the testCases are required");
+        }
+
+        Execution execution = ExecutionFactory.createExecution(
+                new StringMultipartFile(language.getDefaultSourcecodeFileName(), sourcecode),
+                new ArrayList<>(testCases.values()),
+                timeLimit == null ? 0 : timeLimit,
+                memoryLimit == null ? 0 : memoryLimit,
+                language);
+
+        if (maxOutputBytes != null) {
+            execution.setMaxOutputBytes(maxOutputBytes);
+        }
+        execution.setChecker(checker);
+        return execution;
+    }
+
+    // In the order of the request, a test case given twice keeps its first position, like in a LinkedHashMap
+    private static Map<String, ConvertedTestCase> readTestCases(JsonParser parser, Path spoolDirectory)
+            throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            throw new CompilerBadRequestException("The testCases should be a json object");
+        }
+        Map<String, ConvertedTestCase> testCases = new LinkedHashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String testCaseId = parser.getCurrentName();
+            parser.nextToken();
+            // The ids are chosen by the client, they're not used in the names of the spooled files
+            int index = testCases.size();
+            testCases.put(testCaseId, readTestCase(parser, testCaseId, spoolDirectory, index));
+        }
+        return testCases;
+    }
+
+    private static ConvertedTestCase readTestCase(JsonParser parser,
+                                                  String testCaseId,
+                                                  Path spoolDirectory,
+                                                  int index) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            throw new CompilerBadRequestException("The test case " + testCaseId + " should be a json object");
+        }
+        var testCase = new ConvertedTestCase();
+        testCase.setTestCaseId(testCaseId);
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            parser.nextToken();
+            switch (fieldName) {
+                case "input":
+                    // Same as TestCaseMapper, an empty input is no input
+                    testCase.setInputFile(parser.getTextLength() == 0
+                            ? null
+                            : spool(parser,
+                                    spoolDirectory.resolve(SPOOLED_INPUT_PREFIX + index),
+                                    testCaseId + "-" + WellKnownFiles.INPUT_FILE_NAME));
+                    break;
+                case "expectedOutput":
+                    testCase.setExpectedOutputFile(spool(parser,
+                            spoolDirectory.resolve(SPOOLED_EXPECTED_OUTPUT_PREFIX + index),
+                            SPOOLED_EXPECTED_OUTPUT_PREFIX + index));
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        return testCase;
+    }
+
+    private static MultipartFile spool(JsonParser parser, Path file, String fileName) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (parser.currentToken() != JsonToken.VALUE_STRING) {
+            throw new CompilerBadRequestException("The inputs and the expected outputs should be strings");
+        }
+        // The text is written from the buffer of the parser, it's never turned into a String
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            parser.getText(writer);
+        }
+        return new SpooledMultipartFile(fileName, file);
+    }
+}
@@ -1,12 +1,11 @@
 package com.cp.compiler.mappers;
 
+import com.cp.compiler.models.StringMultipartFile;
 import com.cp.compiler.models.testcases.ConvertedTestCase;
 import com.cp.compiler.models.testcases.TestCase;
 import com.cp.compiler.wellknownconstants.WellKnownFiles;
-import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
@@ -56,10 +55,6 @@ public abstract class TestCaseMapper {
         if (input == null || input.isEmpty()) {
             return null;
         }
-        return new MockMultipartFile(
-                id + "-" + WellKnownFiles.INPUT_FILE_NAME,
-                id + "-" + WellKnownFiles.INPUT_FILE_NAME,
-                null,
-                new ByteArrayInputStream(input.getBytes()));
+        return new StringMultipartFile(id + "-" + WellKnownFiles.INPUT_FILE_NAME, input);
     }
 }
@@ -1,15 +1,14 @@
 package com.cp.compiler.models;
 
 import com.cp.compiler.mappers.TestCaseMapper;
+import com.cp.compiler.models.checkers.Checker;
 import com.cp.compiler.models.testcases.ConvertedTestCase;
 import com.cp.compiler.models.testcases.TestCase;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.annotations.ApiModelProperty;
 import lombok.*;
-import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -65,6 +64,37 @@ public class Request {
     @JsonProperty("testCases")
     protected LinkedHashMap<String, TestCase> testCases; // Note: test cases should be given in order
     
+    /**
+     * The max number of bytes the program can write to stdout for each test case (optional).
+     */
+    @ApiModelProperty(notes = "The maximum number of bytes the program can write for each test case (optional)")
+    @JsonProperty("maxOutputBytes")
+    protected Long maxOutputBytes;
+    
+    /**
+     * The checker of the outputs (optional).
+     */
+    @ApiModelProperty(notes = "The checker of the outputs (optional), surrounding and repeated white spaces are ignored by default")
+    @JsonProperty("checker")
+    protected Checker checker;
+    
+    /**
+     * Instantiates a new Request.
+     *
+     * @param sourcecode  the source code
+     * @param language    the language
+     * @param timeLimit   the time limit
+     * @param memoryLimit the memory limit
+     * @param testCases   the test cases
+     */
+    public Request(String sourcecode,
+                   Language language,
+                   int timeLimit,
+                   int memoryLimit,
+                   LinkedHashMap<String, TestCase> testCases) {
+        this(sourcecode, language, timeLimit, memoryLimit, testCases, null, null);
+    }
+    
     /**
      * Gets source code.
      *
@@ -72,11 +102,7 @@ public class Request {
      * @throws IOException the io exception
      */
     public MultipartFile getSourcecodeFile() throws IOException {
-        return new MockMultipartFile(
-                language.getDefaultSourcecodeFileName(),
-                language.getDefaultSourcecodeFileName(),
-                null,
-                new ByteArrayInputStream(this.sourcecode.getBytes()));
+        return new StringMultipartFile(language.getDefaultSourcecodeFileName(), sourcecode);
     }
     
     /**
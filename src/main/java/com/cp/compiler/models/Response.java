@@ -91,6 +91,31 @@ public class Response {
     @ApiModelProperty(notes = "The dateTime of the execution")
     private LocalDateTime dateTime;
     
+    @EqualsAndHashCode.Exclude
+    @ApiModelProperty(notes = "True if the response was served from the cache of identical requests")
+    private boolean cached;
+    
+    /**
+     * Gets a copy of this response marked as served from the cache.
+     *
+     * @return the cached response
+     */
+    public Response toCachedResponse() {
+        var response = new Response();
+        response.verdict = verdict;
+        response.statusCode = statusCode;
+        response.error = error;
+        response.testCasesResult = testCasesResult;
+        response.compilationDuration = compilationDuration;
+        response.averageExecutionDuration = averageExecutionDuration;
+        response.timeLimit = timeLimit;
+        response.memoryLimit = memoryLimit;
+        response.language = language;
+        response.dateTime = dateTime;
+        response.cached = true;
+        return response;
+    }
+    
     private float computeTheAverageExecutionDuration(Map<String, TestCaseResult> testCasesResult) {
         float sum = 0;
         for (TestCaseResult testCaseResult : testCasesResult.values()) {
@@ -0,0 +1,98 @@
+package com.cp.compiler.models;
+
+import lombok.SneakyThrows;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * The type Spooled multipart file.
+ * A file of the request (input, expected output) written to the disk while the request was parsed.
+ *
+ * @author Zakaria Maaraki
+ */
+public class SpooledMultipartFile implements MultipartFile {
+
+    private final String name;
+
+    private volatile Path file;
+
+    /**
+     * Instantiates a new Spooled multipart file.
+     *
+     * @param name the file name
+     * @param file the spooled file
+     */
+    public SpooledMultipartFile(String name, Path file) {
+        this.name = name;
+        this.file = file;
+    }
+
+    /**
+     * Gets the spooled file, or its destination once it has been transferred.
+     *
+     * @return the file
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getOriginalFilename() {
+        return name;
+    }
+
+    @Override
+    public String getContentType() {
+        return null;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return getSize() == 0;
+    }
+
+    @Override
+    @SneakyThrows
+    public long getSize() {
+        return Files.size(file);
+    }
+
+    @Override
+    public byte[] getBytes() throws IOException {
+        return Files.readAllBytes(file);
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return Files.newInputStream(file);
+    }
+
+    @Override
+    public void transferTo(File dest) throws IOException {
+        transferTo(dest.toPath());
+    }
+
+    /**
+     * Move the spooled file, it's a rename when the destination is on the same file system.
+     * The file is read from its destination afterwards.
+     *
+     * @param dest the destination
+     * @throws IOException the io exception
+     */
+    @Override
+    public synchronized void transferTo(Path dest) throws IOException {
+        Files.move(file, dest, StandardCopyOption.REPLACE_EXISTING);
+        file = dest;
+    }
+}
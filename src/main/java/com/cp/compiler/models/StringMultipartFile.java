@@ -0,0 +1,230 @@
+package com.cp.compiler.models;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The type String multipart file.
+ * A file whose content is a string of the request (source code, input of a test case), it's encoded in UTF-8
+ * by chunks while being written, so the content is never copied into a byte array of its size.
+ *
+ * @author Zakaria Maaraki
+ */
+public class StringMultipartFile implements MultipartFile {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final String name;
+
+    private final String content;
+
+    // The size in bytes of the encoded content, computed once
+    private long size = -1;
+
+    /**
+     * Instantiates a new String multipart file.
+     *
+     * @param name    the file name
+     * @param content the content
+     */
+    public StringMultipartFile(String name, String content) {
+        this.name = name;
+        this.content = content;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getOriginalFilename() {
+        return name;
+    }
+
+    @Override
+    public String getContentType() {
+        return null;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return content.isEmpty();
+    }
+
+    @Override
+    public long getSize() {
+        if (size < 0) {
+            size = getEncodedSize(content);
+        }
+        return size;
+    }
+
+    /**
+     * Gets the content as a byte array, prefer {@link #transferTo(Path)} or {@link #getInputStream()}.
+     *
+     * @return the content encoded in UTF-8
+     */
+    @Override
+    public byte[] getBytes() {
+        return content.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return new EncodingInputStream(content);
+    }
+
+    @Override
+    public void transferTo(File dest) throws IOException {
+        transferTo(dest.toPath());
+    }
+
+    @Override
+    public void transferTo(Path dest) throws IOException {
+        try (FileChannel channel = FileChannel.open(dest,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            write(channel);
+        }
+    }
+
+    /**
+     * Write the content to a channel.
+     *
+     * @param channel the channel
+     * @throws IOException the io exception
+     */
+    public void write(WritableByteChannel channel) throws IOException {
+        var encoder = new ChunkEncoder(content);
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        while (encoder.encode(buffer)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    // Same size as String.getBytes(UTF_8), an unpaired surrogate is replaced by '?'
+    private static long getEncodedSize(String content) {
+        long encodedSize = 0;
+        for (int i = 0; i < content.length(); i++) {
+            char c = content.charAt(i);
+            if (c < 0x80) {
+                encodedSize += 1;
+            } else if (c < 0x800) {
+                encodedSize += 2;
+            } else if (Character.isHighSurrogate(c)
+                    && i + 1 < content.length()
+                    && Character.isLowSurrogate(content.charAt(i + 1))) {
+                encodedSize += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                encodedSize += 1;
+            } else {
+                encodedSize += 3;
+            }
+        }
+        return encodedSize;
+    }
+
+    /**
+     * Encodes a string in UTF-8 by chunks of the size of a buffer.
+     */
+    private static class ChunkEncoder {
+
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8
+                .newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+        private final CharBuffer chars;
+
+        private boolean encoded = false;
+
+        private boolean flushed = false;
+
+        private ChunkEncoder(String content) {
+            this.chars = CharBuffer.wrap(content);
+        }
+
+        /**
+         * Encode the next chunk into the buffer, the buffer is cleared then flipped for reading.
+         *
+         * @param buffer the buffer
+         * @return false if the whole content is already encoded
+         */
+        private boolean encode(ByteBuffer buffer) {
+            buffer.clear();
+            if (flushed) {
+                buffer.flip();
+                return false;
+            }
+            if (!encoded && encoder.encode(chars, buffer, true).isUnderflow()) {
+                encoded = true;
+            }
+            if (encoded && encoder.flush(buffer).isUnderflow()) {
+                flushed = true;
+            }
+            buffer.flip();
+            return buffer.hasRemaining() || !flushed;
+        }
+    }
+
+    private static class EncodingInputStream extends InputStream {
+
+        private final ChunkEncoder encoder;
+
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).flip();
+
+        private EncodingInputStream(String content) {
+            this.encoder = new ChunkEncoder(content);
+        }
+
+        @Override
+        public int read() {
+            if (!fill()) {
+                return -1;
+            }
+            return buffer.get() & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!fill()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+
+        private boolean fill() {
+            while (!buffer.hasRemaining()) {
+                if (!encoder.encode(buffer)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.cp.compiler.models.checkers;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.*;
+
+/**
+ * The type Checker.
+ * The checker of a request, evaluated by the service on the output of each test case.
+ *
+ * @author Zakaria Maaraki
+ */
+@Getter
+@Builder
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class Checker {
+    
+    @ApiModelProperty(notes = "The checker: DEFAULT, EXACT, TOKEN, FLOAT, UNORDERED_LINES or CASE_INSENSITIVE")
+    @JsonProperty("type")
+    private CheckerType type;
+    
+    @ApiModelProperty(notes = "The absolute epsilon of the FLOAT checker (optional)")
+    @JsonProperty("absoluteEpsilon")
+    private Double absoluteEpsilon;
+    
+    @ApiModelProperty(notes = "The relative epsilon of the FLOAT checker (optional)")
+    @JsonProperty("relativeEpsilon")
+    private Double relativeEpsilon;
+}
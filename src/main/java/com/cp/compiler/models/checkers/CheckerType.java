@@ -0,0 +1,35 @@
+package com.cp.compiler.models.checkers;
+
+/**
+ * The enum Checker type.
+ * The way the output of a test case is compared with its expected output.
+ *
+ * @author Zakaria Maaraki
+ */
+public enum CheckerType {
+    
+    /**
+     * Surrounding and repeated white spaces are ignored (the default one).
+     */
+    DEFAULT,
+    /**
+     * Same chars, only the line separators and the trailing line breaks are ignored.
+     */
+    EXACT,
+    /**
+     * Same tokens, separated by any white spaces.
+     */
+    TOKEN,
+    /**
+     * Same tokens, the numbers are compared with an absolute or a relative epsilon.
+     */
+    FLOAT,
+    /**
+     * Same lines in any order, the trailing white spaces of the lines and the blank lines are ignored.
+     */
+    UNORDERED_LINES,
+    /**
+     * Same as the default one, ignoring the case.
+     */
+    CASE_INSENSITIVE
+}
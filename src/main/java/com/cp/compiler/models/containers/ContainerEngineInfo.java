@@ -0,0 +1,29 @@
+package com.cp.compiler.models.containers;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * The type Container engine info.
+ * The resources of the host running the containers, as reported by the container engine.
+ *
+ * @author Zakaria Maaraki
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+public class ContainerEngineInfo {
+
+    /**
+     * The number of cpus of the host.
+     */
+    private final int cpus;
+
+    /**
+     * The memory of the host in bytes.
+     */
+    private final long memory;
+}
@@ -0,0 +1,36 @@
+package com.cp.compiler.models.containers;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * The type Container event.
+ * A lifecycle event (create, start, die, destroy...) of a container, as streamed by the container engine.
+ *
+ * @author Zakaria Maaraki
+ */
+@Getter
+@Builder
+public class ContainerEvent {
+
+    private String containerName;
+
+    private String action;
+
+    /**
+     * The exit code of the container, only set on die events.
+     */
+    private int exitCode;
+
+    /**
+     * The time of the event in UTC, like the times returned by the inspection of a container.
+     */
+    private LocalDateTime time;
+
+    /**
+     * The time of the event in nanoseconds since the epoch.
+     */
+    private long timeNano;
+}
@@ -0,0 +1,56 @@
+package com.cp.compiler.models.containers;
+
+import com.cp.compiler.models.processes.OutputListener;
+import com.cp.compiler.models.processes.ProcessOutput;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The type Container exec options.
+ * Describes how a command should be executed inside a running container.
+ *
+ * @author Zakaria Maaraki
+ */
+@Getter
+@Builder
+public class ContainerExecOptions {
+
+    private String containerName;
+
+    /**
+     * The user (name or uid:gid) running the command, the user of the container if null.
+     */
+    private String user;
+
+    /**
+     * The working directory of the command, the working directory of the container if null.
+     */
+    private String workingDirectory;
+
+    @Builder.Default
+    private List<String> command = new ArrayList<>();
+
+    /**
+     * The timeout in ms.
+     */
+    private long timeout;
+
+    @Builder.Default
+    private Map<String, String> envVariables = new HashMap<>();
+
+    /**
+     * The maximum number of bytes the command can write to stdout, 0 means no limit.
+     */
+    private long maxOutputBytes;
+
+    /**
+     * Receives the stdout while it's written, null if not needed.
+     * Once the listener asks for it, the command is stopped and its output is flagged with {@link ProcessOutput#isStopped()}.
+     */
+    private OutputListener stdOutListener;
+}
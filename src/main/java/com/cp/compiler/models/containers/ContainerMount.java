@@ -0,0 +1,38 @@
+package com.cp.compiler.models.containers;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * The type Container mount.
+ * A host directory (absolute path) or a named volume mounted inside a container.
+ *
+ * @author Zakaria Maaraki
+ */
+@Getter
+@Builder
+public class ContainerMount {
+
+    /**
+     * The host directory or the volume name.
+     */
+    private String source;
+
+    /**
+     * The sub directory of the volume to mount, only used for named volumes.
+     */
+    private String subpath;
+
+    private String target;
+
+    private boolean readOnly;
+
+    /**
+     * Is bind mount boolean.
+     *
+     * @return true if the source is a host directory, false if it's a named volume
+     */
+    public boolean isBindMount() {
+        return source.startsWith("/");
+    }
+}
@@ -0,0 +1,28 @@
+package com.cp.compiler.models.containers;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Instant;
+
+/**
+ * The type Container resource.
+ * A container or an image of the container engine, with its creation time.
+ *
+ * @author Zakaria Maaraki
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+public class ContainerResource {
+
+    /**
+     * The name of the container, or the name:tag of the image.
+     */
+    private final String name;
+
+    private final Instant creationTime;
+}
@@ -0,0 +1,72 @@
+package com.cp.compiler.models.containers;
+
+import com.cp.compiler.models.processes.OutputListener;
+import com.cp.compiler.models.processes.ProcessOutput;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The type Container run options.
+ * Describes how a container should be run.
+ *
+ * @author Zakaria Maaraki
+ */
+@Getter
+@Builder
+public class ContainerRunOptions {
+    
+    private String imageName;
+    
+    private String containerName;
+    
+    /**
+     * The timeout in ms.
+     */
+    private long timeout;
+    
+    private float maxCpus;
+    
+    @Builder.Default
+    private Map<String, String> envVariables = new HashMap<>();
+    
+    /**
+     * The maximum number of bytes the container can write to stdout, 0 means no limit.
+     * Once exceeded, the container is stopped.
+     */
+    private long maxOutputBytes;
+    
+    /**
+     * The user (name or uid:gid) running the container, the user of the image if null.
+     */
+    private String user;
+    
+    /**
+     * The working directory of the container, the working directory of the image if null.
+     */
+    private String workingDirectory;
+    
+    /**
+     * Replaces the entrypoint of the image when not empty, the first element is the executable.
+     */
+    @Builder.Default
+    private List<String> entrypoint = new ArrayList<>();
+    
+    @Builder.Default
+    private List<ContainerMount> mounts = new ArrayList<>();
+    
+    /**
+     * The network of the container (ex: none), the default network if null.
+     */
+    private String network;
+    
+    /**
+     * Receives the stdout while it's written, null if not needed.
+     * Once the listener asks for it, the container is stopped and its output is flagged with {@link ProcessOutput#isStopped()}.
+     */
+    private OutputListener stdOutListener;
+}
@@ -0,0 +1,52 @@
+package com.cp.compiler.models.containers;
+
+import com.cp.compiler.models.Language;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * The type Pooled container.
+ * A started container kept idle in the execution pool until an execution claims it.
+ *
+ * @author Zakaria Maaraki
+ */
+@Getter
+public class PooledContainer {
+
+    private final String name;
+
+    private final Language language;
+
+    private int uses = 0;
+
+    /**
+     * The time in ms the container was started at.
+     */
+    private final long creationTime = System.currentTimeMillis();
+
+    /**
+     * Whether the container can be reset and given to another execution once released.
+     */
+    @Setter
+    private boolean reusable = true;
+
+    /**
+     * Instantiates a new Pooled container.
+     *
+     * @param name     the container name
+     * @param language the language of the container
+     */
+    public PooledContainer(String name, Language language) {
+        this.name = name;
+        this.language = language;
+    }
+
+    /**
+     * Increment the number of executions run in the container.
+     *
+     * @return the number of executions
+     */
+    public int incrementUses() {
+        return ++uses;
+    }
+}
@@ -0,0 +1,34 @@
+package com.cp.compiler.models.containers;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The type Reaper report.
+ * The orphaned execution artifacts removed by a run of the reaper.
+ *
+ * @author Zakaria Maaraki
+ */
+@Getter
+@Builder
+@ToString
+public class ReaperReport {
+
+    @Builder.Default
+    private List<String> containers = new ArrayList<>();
+
+    @Builder.Default
+    private List<String> images = new ArrayList<>();
+
+    @Builder.Default
+    private List<String> executionFolders = new ArrayList<>();
+
+    /**
+     * The size of the deleted execution folders.
+     */
+    private long reclaimedBytes;
+}
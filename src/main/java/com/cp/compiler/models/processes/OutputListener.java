@@ -0,0 +1,26 @@
+package com.cp.compiler.models.processes;
+
+/**
+ * The interface Output listener.
+ * Receives the bytes written to stdout while the process is running, and can ask for the process to be stopped.
+ *
+ * @author Zakaria Maaraki
+ */
+public interface OutputListener {
+    
+    /**
+     * Called with the next bytes written to stdout, in order.
+     *
+     * @param bytes  the bytes
+     * @param offset the offset of the first byte
+     * @param length the number of bytes
+     */
+    void onOutput(byte[] bytes, int offset, int length);
+    
+    /**
+     * Is stop requested boolean.
+     *
+     * @return true if the process should be stopped without waiting for its end
+     */
+    boolean isStopRequested();
+}
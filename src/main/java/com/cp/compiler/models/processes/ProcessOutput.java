@@ -21,4 +21,19 @@ public class ProcessOutput {
     private int executionDuration;
     
     private int status;
+    
+    private long stdOutBytes;
+    
+    private long stdErrBytes;
+    
+    private boolean stdOutTruncated;
+    
+    private boolean stdErrTruncated;
+    
+    private boolean outputLimitExceeded;
+    
+    /**
+     * The process was stopped because its stdout listener asked for it, the status is meaningless in this case.
+     */
+    private boolean stopped;
 }
@@ -8,7 +8,7 @@ import lombok.Getter;
 
 /**
  * The type Available resources.
- * Used to know how much CPUs and allowed incoming requests available.
+ * Used to know how much CPUs, memory, disk and allowed incoming requests available.
  *
  * @author Zakaria Maaraki
  */
@@ -21,6 +21,14 @@ public class AvailableResources {
     @JsonProperty("availableCpus")
     private float availableCpus;
     
+    @ApiModelProperty(notes = "Available memory in MB")
+    @JsonProperty("availableMemory")
+    private long availableMemory;
+    
+    @ApiModelProperty(notes = "Available disk in bytes")
+    @JsonProperty("availableDisk")
+    private long availableDisk;
+    
     @ApiModelProperty(notes = "The maximum number of executions")
     @JsonProperty("maxNumberOfExecutions")
     private int maxNumberOfExecutions;
@@ -28,4 +36,8 @@ public class AvailableResources {
     @ApiModelProperty(notes = "The current number of executions")
     @JsonProperty("currentExecutions")
     private int currentExecutions;
+    
+    @ApiModelProperty(notes = "The resources shared by the executions and where they have been detected")
+    @JsonProperty("capacity")
+    private Capacity capacity;
 }
@@ -0,0 +1,45 @@
+package com.cp.compiler.models.resources;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * The type Capacity.
+ * The resources shared by the executions and where each one of them has been detected.
+ *
+ * @author Zakaria Maaraki
+ */
+@Builder
+@Getter
+@ToString
+@EqualsAndHashCode
+public class Capacity {
+
+    @ApiModelProperty(notes = "The cpus shared by the executions")
+    @JsonProperty("cpus")
+    private float cpus;
+
+    @ApiModelProperty(notes = "The memory in MB shared by the executions")
+    @JsonProperty("memory")
+    private long memory;
+
+    @ApiModelProperty(notes = "The disk in bytes shared by the executions")
+    @JsonProperty("disk")
+    private long disk;
+
+    @ApiModelProperty(notes = "Where the cpus have been detected")
+    @JsonProperty("cpusSource")
+    private CapacitySource cpusSource;
+
+    @ApiModelProperty(notes = "Where the memory has been detected")
+    @JsonProperty("memorySource")
+    private CapacitySource memorySource;
+
+    @ApiModelProperty(notes = "Where the disk has been detected")
+    @JsonProperty("diskSource")
+    private CapacitySource diskSource;
+}
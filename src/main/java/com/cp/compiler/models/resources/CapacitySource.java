@@ -0,0 +1,31 @@
+package com.cp.compiler.models.resources;
+
+/**
+ * The enum Capacity source.
+ * Where a resource of the executions host has been detected.
+ *
+ * @author Zakaria Maaraki
+ */
+public enum CapacitySource {
+
+    /**
+     * Set by the configuration.
+     */
+    CONFIGURED,
+    /**
+     * Reported by the container engine running the executions.
+     */
+    CONTAINER_ENGINE,
+    /**
+     * Read from the cgroup v2 limits of the compiler.
+     */
+    CGROUP_V2,
+    /**
+     * Read from the cgroup v1 limits of the compiler.
+     */
+    CGROUP_V1,
+    /**
+     * The resources of the host seen by the jvm.
+     */
+    HOST
+}
@@ -0,0 +1,23 @@
+package com.cp.compiler.models.resources;
+
+/**
+ * The enum Execution lane.
+ * The source of the traffic of an execution, each lane has its own reserved and max number of executions.
+ *
+ * @author Zakaria Maaraki
+ */
+public enum ExecutionLane {
+
+    /**
+     * The http requests waiting for their result (long polling).
+     */
+    INTERACTIVE,
+    /**
+     * The http requests whose result is pushed to a url (push notification).
+     */
+    PUSH,
+    /**
+     * The requests of the brokers (Kafka and RabbitMQ).
+     */
+    BROKER
+}
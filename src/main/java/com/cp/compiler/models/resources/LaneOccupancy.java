@@ -0,0 +1,41 @@
+package com.cp.compiler.models.resources;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * The type Lane occupancy.
+ * The executions and the queued requests of a lane.
+ *
+ * @author Zakaria Maaraki
+ */
+@Builder
+@Getter
+@ToString
+@EqualsAndHashCode
+public class LaneOccupancy {
+
+    @ApiModelProperty(notes = "The lane")
+    @JsonProperty("lane")
+    private ExecutionLane lane;
+
+    @ApiModelProperty(notes = "The executions reserved for the lane, the other lanes can't use them")
+    @JsonProperty("reservedExecutions")
+    private int reservedExecutions;
+
+    @ApiModelProperty(notes = "The max number of executions of the lane, 0 for no limit")
+    @JsonProperty("maxExecutions")
+    private int maxExecutions;
+
+    @ApiModelProperty(notes = "The current number of executions of the lane")
+    @JsonProperty("currentExecutions")
+    private int currentExecutions;
+
+    @ApiModelProperty(notes = "The number of requests of the lane waiting in the admission queue")
+    @JsonProperty("queuedRequests")
+    private int queuedRequests;
+}
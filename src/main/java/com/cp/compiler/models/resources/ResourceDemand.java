@@ -0,0 +1,36 @@
+package com.cp.compiler.models.resources;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * The type Resource demand.
+ * The resources reserved by an execution during its lifetime.
+ *
+ * @author Zakaria Maaraki
+ */
+@Getter
+@Builder
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+public class ResourceDemand {
+
+    /**
+     * The cpus, 0 when the cpus of the executions are not limited.
+     */
+    private float cpus;
+
+    /**
+     * The memory in MB.
+     */
+    private long memory;
+
+    /**
+     * The disk in bytes, used by the execution folder and the image of the execution.
+     */
+    private long disk;
+}
@@ -0,0 +1,23 @@
+package com.cp.compiler.models.resources;
+
+/**
+ * The enum Resource type.
+ * The dimensions of the resources reserved by the executions.
+ *
+ * @author Zakaria Maaraki
+ */
+public enum ResourceType {
+
+    /**
+     * Cpu resource type.
+     */
+    CPU,
+    /**
+     * Memory resource type.
+     */
+    MEMORY,
+    /**
+     * Disk resource type.
+     */
+    DISK
+}
@@ -3,6 +3,9 @@ package com.cp.compiler.models.testcases;
 import lombok.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
 /**
  * The type Converted test case.
  * Used to convert String into files used by the container.
@@ -20,6 +23,38 @@ public class ConvertedTestCase {
 
     private String expectedOutput;
     
+    /**
+     * The expected output written to a file while parsing the request, used when the expected output is null.
+     */
+    private MultipartFile expectedOutputFile;
+    
+    /**
+     * Instantiates a new Converted test case.
+     *
+     * @param testCaseId     the test case id
+     * @param inputFile      the input file
+     * @param expectedOutput the expected output
+     */
+    public ConvertedTestCase(String testCaseId, MultipartFile inputFile, String expectedOutput) {
+        this(testCaseId, inputFile, expectedOutput, null);
+    }
+    
+    /**
+     * Gets expected output.
+     * The expected output file is loaded in memory when the expected output isn't kept as a string.
+     *
+     * @return the expected output
+     */
+    @SneakyThrows
+    public String getExpectedOutput() {
+        if (expectedOutput == null && expectedOutputFile != null) {
+            try (InputStream inputStream = expectedOutputFile.getInputStream()) {
+                return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+            }
+        }
+        return expectedOutput;
+    }
+    
     /**
      * Free memory space.
      * Set attributes to null and wait for GC to clean
@@ -27,5 +62,6 @@ public class ConvertedTestCase {
     public void freeMemorySpace() {
         inputFile = null;
         expectedOutput = null;
+        expectedOutputFile = null;
     }
 }
@@ -54,7 +54,7 @@ public class TestCaseResult {
     private Verdict verdict;
     
     @ApiModelProperty(notes = "The value can be one of these : Accepted, Wrong Answer, " +
-            "Compilation Error, Runtime Error, Out Of Memory, Time Limit Exceeded")
+            "Compilation Error, Runtime Error, Out Of Memory, Time Limit Exceeded, Output Limit Exceeded")
     @JsonProperty("verdict")
     private String statusResponse;
     
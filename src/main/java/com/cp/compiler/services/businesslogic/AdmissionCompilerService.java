@@ -0,0 +1,70 @@
+package com.cp.compiler.services.businesslogic;
+
+import com.cp.compiler.exceptions.CompilerThrottlingException;
+import com.cp.compiler.executions.Execution;
+import com.cp.compiler.services.resources.Admission;
+import com.cp.compiler.services.resources.AdmissionQueue;
+import com.cp.compiler.services.resources.Resources;
+import com.cp.compiler.wellknownconstants.WellKnownMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+/**
+ * The type Admission compiler service.
+ * Reserves the resources of the execution in the admission queue and releases them once the execution ends.
+ * Placed behind the result cache, so only the requests that really run are queued and throttled.
+ *
+ * @author Zakaria Maaraki
+ */
+@Slf4j
+@Service("admission")
+public class AdmissionCompilerService extends CompilerServiceDecorator {
+
+    private final AdmissionQueue admissionQueue;
+
+    private final Resources resources;
+
+    private final Counter throttlingCounterMetric;
+
+    /**
+     * Instantiates a new Admission compiler service.
+     *
+     * @param compilerService the compiler service
+     * @param admissionQueue  the admission queue
+     * @param resources       the resources
+     * @param meterRegistry   the meter registry
+     */
+    public AdmissionCompilerService(@Qualifier("client") CompilerService compilerService,
+                                    AdmissionQueue admissionQueue,
+                                    Resources resources,
+                                    MeterRegistry meterRegistry) {
+        super(compilerService);
+        this.admissionQueue = admissionQueue;
+        this.resources = resources;
+        this.throttlingCounterMetric = meterRegistry.counter(WellKnownMetrics.THROTTLING_COUNTER_NAME);
+    }
+
+    @Override
+    public ResponseEntity execute(Execution execution) {
+        Admission admission;
+        try {
+            // Wait for the resources behind the requests served before this one
+            admission = admissionQueue.acquire(execution.getUserId(), execution.getLane(), resources.getDemand(execution));
+        } catch (CompilerThrottlingException exception) {
+            // The request has been throttled
+            throttlingCounterMetric.increment();
+            log.warn(exception.getMessage());
+            throw exception;
+        }
+
+        try {
+            return getCompilerService().execute(execution);
+        } finally {
+            admissionQueue.release(admission);
+        }
+    }
+}
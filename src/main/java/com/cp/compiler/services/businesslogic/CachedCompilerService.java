@@ -0,0 +1,216 @@
+package com.cp.compiler.services.businesslogic;
+
+import com.cp.compiler.executions.Execution;
+import com.cp.compiler.models.Response;
+import com.cp.compiler.models.Verdict;
+import com.cp.compiler.models.testcases.ConvertedTestCase;
+import com.cp.compiler.wellknownconstants.WellKnownMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Set;
+
+/**
+ * The type Cached compiler service.
+ * Returns the response of a previous identical request (same language, source code, test cases and limits)
+ * without running it again. Only deterministic verdicts are cached, the entries expire after a ttl
+ * and the least recently used ones are evicted once the max number of entries is reached.
+ * The cache is looked up before the admission, so a hit is neither queued nor throttled.
+ *
+ * @author Zakaria Maaraki
+ */
+@Slf4j
+@Service("cached")
+public class CachedCompilerService extends CompilerServiceDecorator {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    // Verdicts that don't depend on the load of the machine
+    private static final Set<Integer> CACHEABLE_STATUS_CODES = Set.of(
+            Verdict.ACCEPTED.getStatusCode(),
+            Verdict.WRONG_ANSWER.getStatusCode(),
+            Verdict.COMPILATION_ERROR.getStatusCode());
+
+    private final MeterRegistry meterRegistry;
+
+    private final boolean enabled;
+
+    private final long ttl;
+
+    private final int maxEntries;
+
+    // In access order, the first entry is the least recently used
+    private final LinkedHashMap<String, CachedResponse> responses = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Instantiates a new Cached compiler service.
+     *
+     * @param compilerService the compiler service
+     * @param meterRegistry   the meter registry
+     * @param enabled         true to enable the cache
+     * @param ttl             the time to live of an entry in seconds
+     * @param maxEntries      the max number of entries
+     */
+    public CachedCompilerService(@Qualifier("admission") CompilerService compilerService,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${compiler.result-cache.enabled:false}") boolean enabled,
+                                 @Value("${compiler.result-cache.ttl:300}") long ttl,
+                                 @Value("${compiler.result-cache.max-entries:1000}") int maxEntries) {
+        super(compilerService);
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.ttl = ttl * 1000;
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    public ResponseEntity execute(Execution execution) {
+        String key = enabled && maxEntries > 0 ? getKey(execution) : null;
+        if (key == null) {
+            return getCompilerService().execute(execution);
+        }
+
+        String languageTag = execution.getLanguage().toString().toLowerCase();
+        Response cachedResponse = get(key);
+        if (cachedResponse != null) {
+            log.info("Identical request found in the result cache, verdict = {}", cachedResponse.getVerdict());
+            meterRegistry.counter(WellKnownMetrics.RESULT_CACHE_HIT_COUNTER, "language", languageTag).increment();
+            // The execution directory is never created, so the spooled test cases would not be deleted with it
+            deleteSpoolDirectory(execution);
+            return ResponseEntity.ok(cachedResponse.toCachedResponse());
+        }
+        meterRegistry.counter(WellKnownMetrics.RESULT_CACHE_MISS_COUNTER, "language", languageTag).increment();
+
+        ResponseEntity responseEntity = getCompilerService().execute(execution);
+        if (responseEntity != null
+                && responseEntity.getStatusCode() == HttpStatus.OK
+                && responseEntity.getBody() instanceof Response
+                && CACHEABLE_STATUS_CODES.contains(((Response) responseEntity.getBody()).getStatusCode())) {
+            put(key, (Response) responseEntity.getBody());
+        }
+        return responseEntity;
+    }
+
+    private void deleteSpoolDirectory(Execution execution) {
+        try {
+            execution.deleteSpoolDirectory();
+        } catch (IOException e) {
+            log.warn("Error while trying to delete the spooled test cases, {}", e);
+        }
+    }
+
+    private synchronized Response get(String key) {
+        CachedResponse cachedResponse = responses.get(key);
+        if (cachedResponse == null) {
+            return null;
+        }
+        if (System.currentTimeMillis() >= cachedResponse.expiresAt) {
+            responses.remove(key);
+            return null;
+        }
+        return cachedResponse.response;
+    }
+
+    private synchronized void put(String key, Response response) {
+        responses.put(key, new CachedResponse(response, System.currentTimeMillis() + ttl));
+        var iterator = responses.entrySet().iterator();
+        while (responses.size() > maxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private String getKey(Execution execution) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            update(digest, execution.getLanguage().toString().getBytes(StandardCharsets.UTF_8));
+            // The name matters, ex: the name of the java class
+            update(digest, execution.getSourceCodeFile().getOriginalFilename().getBytes(StandardCharsets.UTF_8));
+            update(digest, execution.getSourceCodeFile());
+            for (ConvertedTestCase testCase : execution.getTestCases()) {
+                update(digest, testCase.getTestCaseId().getBytes(StandardCharsets.UTF_8));
+                update(digest, testCase.getInputFile());
+                if (testCase.getExpectedOutputFile() != null) {
+                    update(digest, testCase.getExpectedOutputFile());
+                } else {
+                    update(digest, testCase.getExpectedOutput() == null
+                            ? null
+                            : testCase.getExpectedOutput().getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            // The output limit can turn an accepted verdict into an output limit exceeded one
+            digest.update(ByteBuffer.allocate(3 * Long.BYTES)
+                    .putLong(execution.getTimeLimit())
+                    .putLong(execution.getMemoryLimit())
+                    .putLong(execution.getMaxOutputBytes())
+                    .array());
+            // The same outputs can be accepted by a checker and rejected by another one
+            update(digest, execution.getChecker() == null
+                    ? null
+                    : execution.getChecker().toString().getBytes(StandardCharsets.UTF_8));
+            return toHex(digest.digest());
+        } catch (IOException | NoSuchAlgorithmException | RuntimeException e) {
+            log.warn("Can't compute the result cache key, the cache is skipped: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    // Prefixed by the length, so that two different requests can't produce the same sequence of bytes
+    private static void update(MessageDigest digest, byte[] bytes) {
+        if (bytes == null) {
+            digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(-1).array());
+            return;
+        }
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+        digest.update(bytes);
+    }
+
+    // Same bytes as update(digest, file.getBytes()), without loading the file in memory
+    private static void update(MessageDigest digest, MultipartFile file) throws IOException {
+        if (file == null) {
+            update(digest, (byte[]) null);
+            return;
+        }
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt((int) file.getSize()).array());
+        try (InputStream inputStream = file.getInputStream()) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int count;
+            while ((count = inputStream.read(buffer)) != -1) {
+                digest.update(buffer, 0, count);
+            }
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : bytes) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    private static class CachedResponse {
+
+        private final Response response;
+
+        private final long expiresAt;
+
+        private CachedResponse(Response response, long expiresAt) {
+            this.response = response;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.cp.compiler.services.businesslogic;
 
 import com.cp.compiler.exceptions.CompilerBadRequestException;
 import com.cp.compiler.executions.Execution;
+import com.cp.compiler.models.resources.ExecutionLane;
 import com.cp.compiler.wellknownconstants.WellKnownLoggingKeys;
 import com.cp.compiler.wellknownconstants.WellKnownMetrics;
 import com.cp.compiler.wellknownconstants.WellKnownUrls;
@@ -82,6 +83,7 @@ public class CompilerFacadeDefault implements CompilerFacade {
                 userId = userId.substring(MAX_USER_ID_LENGTH);
             }
     
+            execution.setUserId(userId);
             closer.register(MDC.putCloseable(WellKnownLoggingKeys.USER_ID, userId));
             closer.register(MDC.putCloseable(WellKnownLoggingKeys.IS_LONG_RUNNING, String.valueOf(isLongRunning)));
             closer.register(MDC.putCloseable(WellKnownLoggingKeys.PROGRAMMING_LANGUAGE, execution.getLanguage().toString()));
@@ -97,6 +99,7 @@ public class CompilerFacadeDefault implements CompilerFacade {
                 }
                 log.info("The execution is long running and the url is valid");
                 hooksRepository.addUrl(execution.getId(), url);
+                execution.setLane(ExecutionLane.PUSH);
             } else {
                 // Short running execution (Long Polling)
                 shortRunningExecutionCounter.increment();
@@ -1,14 +1,13 @@
 package com.cp.compiler.services.businesslogic;
 
 import com.cp.compiler.exceptions.CompilerBadRequestException;
-import com.cp.compiler.exceptions.CompilerThrottlingException;
 import com.cp.compiler.executions.Execution;
 import com.cp.compiler.models.Language;
+import com.cp.compiler.models.resources.ResourceType;
 import com.cp.compiler.services.resources.Resources;
 import com.cp.compiler.wellknownconstants.WellKnownFiles;
 import com.cp.compiler.wellknownconstants.WellKnownMetrics;
 import com.cp.compiler.repositories.HooksRepository;
-import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import lombok.Getter;
@@ -53,9 +52,9 @@ public class CompilerProxy implements CompilerService {
     @Autowired
     private MeterRegistry meterRegistry;
     
-    // For Long Polling
+    // For Long Polling, identical requests are served from the result cache
     @Autowired
-    @Qualifier("client")
+    @Qualifier("cached")
     private CompilerService compilerService;
     
     // For Push Notifications
@@ -69,10 +68,10 @@ public class CompilerProxy implements CompilerService {
     @Autowired
     private Resources resources;
     
-    private Counter throttlingCounterMetric;
-    
     private static final String EXECUTIONS_GAUGE_DESCRIPTION = "Current number of executions";
     
+    private static final String RESOURCES_UTILIZATION_GAUGE_DESCRIPTION = "Reserved part of the resource";
+    
     private static final int MAX_FILE_LENGTH = 50;
     
     /**
@@ -80,10 +79,15 @@ public class CompilerProxy implements CompilerService {
      */
     @PostConstruct
     public void init() {
-        throttlingCounterMetric = meterRegistry.counter(WellKnownMetrics.THROTTLING_COUNTER_NAME);
         Gauge.builder(WellKnownMetrics.EXECUTIONS_GAUGE, () -> resources.getNumberOfExecutions())
                 .description(EXECUTIONS_GAUGE_DESCRIPTION)
                 .register(meterRegistry);
+        for (ResourceType resourceType : ResourceType.values()) {
+            Gauge.builder(WellKnownMetrics.RESOURCES_UTILIZATION_GAUGE, () -> resources.getUtilization(resourceType))
+                    .description(RESOURCES_UTILIZATION_GAUGE_DESCRIPTION)
+                    .tag("resource", resourceType.toString().toLowerCase())
+                    .register(meterRegistry);
+        }
     }
     
     @Override
@@ -94,33 +98,15 @@ public class CompilerProxy implements CompilerService {
             log.info("Invalid input data: '{}'", requestValidationError.get().getBody());
             return requestValidationError.get();
         }
-        if (resources.allowNewExecution()) {
-            int counter = resources.reserveResources();
-            log.info("New request, total: {}, maxRequests: {}", counter, resources.getMaxRequests());
-            
-            ResponseEntity<Object> response;
-            
-            try {
-                response = compileAndExecute(execution);
-            } finally {
-                resources.cleanup();
-            }
-            return response;
-        }
-        // The request has been throttled
-        throttlingCounterMetric.increment();
-        String errorMessage = "Request has been throttled, service reached maximum resources usage";
-        log.warn(errorMessage);
-        throw new CompilerThrottlingException(errorMessage);
-    }
-    
-    private ResponseEntity<Object> compileAndExecute(Execution execution) {
         // If the storage contains the id, it means we registered the url before and the client wants a push notification.
         if (hooksRepository.contains(execution.getId())) {
             log.info("Start long running execution, the result will be pushed to : {}", hooksRepository.get(execution.getId()));
+            // The resources are reserved in the background, until the end of the execution
             return longRunningCompilerService.execute(execution);
         }
+        
         log.info("Start short running execution");
+        // The resources are reserved behind the result cache, until the end of the execution
         return compilerService.execute(execution);
     }
     
@@ -162,9 +148,29 @@ public class CompilerProxy implements CompilerService {
             return Optional.of(buildOutputError(errorMessage));
         }
         
+        if (execution.getMaxOutputBytes() < 0) {
+            String errorMessage = "Bad request, max output bytes must be a positive value, provided : "
+                    + execution.getMaxOutputBytes();
+            
+            return Optional.of(buildOutputError(errorMessage));
+        }
+        
+        if (execution.getChecker() != null
+                && (!isValidEpsilon(execution.getChecker().getAbsoluteEpsilon())
+                || !isValidEpsilon(execution.getChecker().getRelativeEpsilon()))) {
+            String errorMessage = "Bad request, the epsilons of the checker must be positive values, provided : "
+                    + execution.getChecker();
+            
+            return Optional.of(buildOutputError(errorMessage));
+        }
+        
         return Optional.ofNullable(null);
     }
     
+    private boolean isValidEpsilon(Double epsilon) {
+        return epsilon == null || (epsilon >= 0 && !epsilon.isInfinite());
+    }
+    
     private boolean checkFileExtension(String originalFilename, Language language) {
         return originalFilename.endsWith(language.getSourcecodeExtension());
     }
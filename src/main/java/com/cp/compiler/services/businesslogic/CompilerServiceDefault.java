@@ -4,6 +4,7 @@ import com.cp.compiler.exceptions.*;
 import com.cp.compiler.executions.Execution;
 import com.cp.compiler.models.*;
 import com.cp.compiler.services.strategies.ExecutionStrategy;
+import com.cp.compiler.services.workspaces.WorkspaceAllocator;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -33,6 +34,8 @@ public class CompilerServiceDefault implements CompilerService {
     @Value("${compiler.docker.image.delete:true}")
     private boolean deleteDockerImage;
     
+    private final WorkspaceAllocator workspaceAllocator;
+    
     private final ExecutorService threadPool;
     
     /**
@@ -40,11 +43,14 @@ public class CompilerServiceDefault implements CompilerService {
      *
      * @param compiledLanguagesExecutionStrategy    the compiled languages execution strategy
      * @param interpretedLanguagesExecutionStrategy the interpreted languages execution strategy
+     * @param workspaceAllocator                    the workspace allocator
      */
     public CompilerServiceDefault(@Qualifier("compiled") ExecutionStrategy compiledLanguagesExecutionStrategy,
-                                  @Qualifier("interpreted") ExecutionStrategy interpretedLanguagesExecutionStrategy) {
+                                  @Qualifier("interpreted") ExecutionStrategy interpretedLanguagesExecutionStrategy,
+                                  WorkspaceAllocator workspaceAllocator) {
         this.compiledLanguagesExecutionStrategy = compiledLanguagesExecutionStrategy;
         this.interpretedLanguagesExecutionStrategy = interpretedLanguagesExecutionStrategy;
+        this.workspaceAllocator = workspaceAllocator;
         this.threadPool = Executors.newCachedThreadPool();
     }
     
@@ -88,6 +94,9 @@ public class CompilerServiceDefault implements CompilerService {
                 return ResponseEntity.ok(response);
             }
             
+            // The compilation may have written more than the quota of the execution to the workspace
+            workspaceAllocator.enforceQuota(execution);
+            
             ExecutionResponse executionResponse = executionStrategy.run(execution, deleteDockerImage);
     
             log.info("Execution finished, the verdict is {}", executionResponse.getVerdict().getStatusResponse());
@@ -121,10 +130,12 @@ public class CompilerServiceDefault implements CompilerService {
     
     private void buildExecutionEnvironment(Execution execution) {
         try {
-            log.info("Creating execution directory: {}", execution.getExecutionFolderName());
+            workspaceAllocator.allocate(execution);
+            log.info("Creating execution directory: {}", execution.getPath());
             execution.createExecutionDirectory();
         } catch (Throwable e) {
             log.error("Error while building execution environment: {}", e);
+            deleteExecutionEnvironment(execution);
             throw new CompilerServerInternalException(e.getMessage());
         }
     }
@@ -135,6 +146,8 @@ public class CompilerServiceDefault implements CompilerService {
             log.info("Execution directory {} has been deleted", execution.getExecutionFolderName());
         } catch (IOException e) {
             log.warn("Error while trying to delete execution directory, {}", e);
+        } finally {
+            workspaceAllocator.release(execution);
         }
     }
 }
@@ -1,15 +1,21 @@
 package com.cp.compiler.services.businesslogic;
 
 import com.cp.compiler.executions.Execution;
+import com.cp.compiler.models.Language;
 import com.cp.compiler.models.containers.ContainerInfo;
 import com.cp.compiler.models.processes.ProcessOutput;
-import com.cp.compiler.services.containers.ContainerService;
+import com.cp.compiler.wellknownconstants.WellKnownFiles;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
-import java.util.concurrent.ExecutorService;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 /**
  * The type Container helper.
@@ -19,35 +25,10 @@ import java.util.concurrent.ExecutorService;
 @Slf4j
 public abstract class ContainerHelper {
     
-    private ContainerHelper() {}
-    
-    /**
-     * Delete container.
-     *
-     * @param containerName    the container name
-     * @param containerService the container service
-     * @param threadPool       the thread pool
-     */
-    public static void deleteContainer(String containerName,
-                                       ContainerService containerService,
-                                       ExecutorService threadPool) {
-        threadPool.execute(() -> {
-            containerService.deleteContainer(containerName);
-        });
-    }
+    // Base images never change while the app is running
+    private static final Map<Language, String> executionBaseImages = new ConcurrentHashMap<>();
     
-    /**
-     * Delete image.
-     *
-     * @param imageName        the image name
-     * @param containerService the container service
-     * @param threadPool       the thread pool
-     */
-    public static void deleteImage(String imageName, ContainerService containerService, ExecutorService threadPool) {
-        threadPool.execute(() -> {
-            containerService.deleteImage(imageName);
-        });
-    }
+    private ContainerHelper() {}
     
     /**
      * Log container info.
@@ -94,4 +75,36 @@ public abstract class ContainerHelper {
         // Don't return the absolut path to the user
         processOutput.setStdErr(processOutput.getStdErr().replace(execution.getPath(), ""));
     }
+    
+    /**
+     * Gets the base image of the execution Dockerfile of a language, i.e. the stock runtime image.
+     *
+     * @param language the language
+     * @return the base image, or null if the execution Dockerfile can't be read
+     */
+    public static String getExecutionBaseImage(Language language) {
+        String baseImage = executionBaseImages.get(language);
+        if (baseImage == null) {
+            baseImage = readExecutionBaseImage(language);
+            if (baseImage != null) {
+                executionBaseImages.put(language, baseImage);
+            }
+        }
+        return baseImage;
+    }
+    
+    private static String readExecutionBaseImage(Language language) {
+        Path dockerfile = Path.of(language.getFolderName(), WellKnownFiles.EXECUTION_DOCKERFILE_NAME);
+        try (Stream<String> lines = Files.lines(dockerfile)) {
+            return lines
+                    .map(String::trim)
+                    .filter(line -> line.toUpperCase().startsWith("FROM "))
+                    .map(line -> line.substring("FROM ".length()).trim())
+                    .findFirst()
+                    .orElse(null);
+        } catch (IOException e) {
+            log.warn("Can't read the execution Dockerfile {}: {}", dockerfile, e.getMessage());
+            return null;
+        }
+    }
 }
@@ -1,5 +1,6 @@
 package com.cp.compiler.services.businesslogic;
 
+import com.cp.compiler.exceptions.CompilerThrottlingException;
 import com.cp.compiler.executions.Execution;
 import com.cp.compiler.repositories.HooksRepository;
 import lombok.extern.slf4j.Slf4j;
@@ -9,12 +10,14 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 
 /**
  * The type Long running compiler service.
- * Used for push notification
+ * Used for push notification, the resources of the execution are reserved in the background
+ * and released once the execution ends.
  *
  * @author Zakaria Maaraki
  */
@@ -33,7 +36,7 @@ public class LongRunningCompilerService extends CompilerServiceDecorator {
      * @param restTemplate    the rest template
      * @param hooksRepository the hooks storage
      */
-    public LongRunningCompilerService(@Qualifier("client") CompilerService compilerService,
+    public LongRunningCompilerService(@Qualifier("cached") CompilerService compilerService,
                                       RestTemplate restTemplate,
                                       HooksRepository hooksRepository) {
         super(compilerService);
@@ -64,8 +67,33 @@ public class LongRunningCompilerService extends CompilerServiceDecorator {
     }
     
     private void run(Execution execution, String url) throws URISyntaxException {
-        ResponseEntity<Object> response = getCompilerService().execute(execution);
+        ResponseEntity<Object> response;
+        try {
+            response = executeOrThrottle(execution);
+        } finally {
+            // The controller leaves the spooled test cases to this thread, the execution may never have created
+            // the directory they are deleted with (throttling, result cache hit)
+            deleteSpoolDirectory(execution);
+        }
         log.info("Sending response to {}", url);
         sendResponse(url, response);
     }
+    
+    private ResponseEntity<Object> executeOrThrottle(Execution execution) {
+        try {
+            // The result cache is looked up first, the resources are only reserved if the execution runs
+            return getCompilerService().execute(execution);
+        } catch (CompilerThrottlingException exception) {
+            // The request has been throttled, the client is notified like for any other response
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(exception.getMessage());
+        }
+    }
+    
+    private void deleteSpoolDirectory(Execution execution) {
+        try {
+            execution.deleteSpoolDirectory();
+        } catch (IOException e) {
+            log.warn("Error while trying to delete the spooled test cases, {}", e);
+        }
+    }
 }
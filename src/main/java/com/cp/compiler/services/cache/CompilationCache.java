@@ -0,0 +1,44 @@
+package com.cp.compiler.services.cache;
+
+import com.cp.compiler.executions.Execution;
+
+import java.nio.file.Path;
+import java.util.Set;
+
+/**
+ * The interface Compilation cache.
+ * Keeps the artifacts of successful compilations, so that a resubmission of the same source code
+ * doesn't need a compilation container.
+ *
+ * @author Zakaria Maaraki
+ */
+public interface CompilationCache {
+
+    /**
+     * Gets the key of the compilation artifacts of an execution.
+     * It's computed from the language, the source code and the id of the compilation image.
+     *
+     * @param execution            the execution, its source code should be saved in the execution directory
+     * @param compilationImageName the compilation image name
+     * @return the key, or null if the cache is disabled or the key can't be computed
+     */
+    String getKey(Execution execution, String compilationImageName);
+
+    /**
+     * Copy the cached artifacts to the execution directory.
+     *
+     * @param key       the key
+     * @param execution the execution
+     * @return true if the artifacts were found and copied, false otherwise
+     */
+    boolean restore(String key, Execution execution);
+
+    /**
+     * Store the artifacts of a successful compilation.
+     *
+     * @param key                    the key
+     * @param execution              the execution
+     * @param filesBeforeCompilation the files of the execution directory before the compilation, they are not stored
+     */
+    void store(String key, Execution execution, Set<Path> filesBeforeCompilation);
+}
@@ -0,0 +1,360 @@
+package com.cp.compiler.services.cache;
+
+import com.cp.compiler.executions.Execution;
+import com.cp.compiler.services.containers.ContainerService;
+import com.cp.compiler.utils.FileUtils;
+import com.cp.compiler.wellknownconstants.WellKnownMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.FileSystemUtils;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The type Compilation cache default.
+ * The artifacts are stored on the local disk, one directory per key, the least recently used entries are evicted
+ * once the size of the cache exceeds the max size.
+ *
+ * @author Zakaria Maaraki
+ */
+@Slf4j
+@Service
+public class CompilationCacheDefault implements CompilationCache {
+
+    private static final String TEMPORARY_ENTRY_PREFIX = "tmp-";
+
+    // The compilation images are only rebuilt on deployments
+    private static final long IMAGE_ID_TTL = 60000; // 1 min
+
+    private final ContainerService containerService;
+
+    private final MeterRegistry meterRegistry;
+
+    private final boolean enabled;
+
+    private final Path directory;
+
+    private final long maxBytes;
+
+    // Key -> size in bytes, in access order, the first entry is the least recently used
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long totalBytes = 0;
+
+    // Key -> number of restores copying the entry, a pinned entry isn't evicted
+    private final Map<String, Integer> pins = new HashMap<>();
+
+    private final Map<String, ImageId> imageIds = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private Counter savedBytesCounter;
+
+    /**
+     * Instantiates a new Compilation cache default.
+     *
+     * @param containerService the container service
+     * @param meterRegistry    the meter registry
+     * @param enabled          true to enable the cache
+     * @param directory        the directory of the cache
+     * @param maxBytes         the max size of the cache in bytes
+     */
+    public CompilationCacheDefault(ContainerService containerService,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${compiler.compilation-cache.enabled:false}") boolean enabled,
+                                   @Value("${compiler.compilation-cache.directory:compilation-cache}") String directory,
+                                   @Value("${compiler.compilation-cache.max-bytes:1073741824}") long maxBytes) {
+        this.containerService = containerService;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.directory = Path.of(directory).toAbsolutePath();
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Init the metrics and load the entries stored by a previous run.
+     *
+     * @throws IOException the io exception
+     */
+    @PostConstruct
+    public void init() throws IOException {
+        savedBytesCounter = meterRegistry.counter(WellKnownMetrics.COMPILATION_CACHE_SAVED_BYTES_COUNTER);
+        meterRegistry.gauge(WellKnownMetrics.COMPILATION_CACHE_HIT_RATIO_GAUGE, this, CompilationCacheDefault::getHitRatio);
+        meterRegistry.gauge(WellKnownMetrics.COMPILATION_CACHE_SIZE_GAUGE, this, CompilationCacheDefault::getTotalBytes);
+
+        if (!enabled) {
+            return;
+        }
+
+        Files.createDirectories(directory);
+        List<Path> storedEntries;
+        try (Stream<Path> paths = Files.list(directory)) {
+            storedEntries = paths.collect(Collectors.toList());
+        }
+        storedEntries.sort(Comparator.comparing(CompilationCacheDefault::getLastModifiedTime));
+        synchronized (this) {
+            for (Path entry : storedEntries) {
+                String key = entry.getFileName().toString();
+                if (key.startsWith(TEMPORARY_ENTRY_PREFIX)) {
+                    // Left by a crash during a store
+                    FileSystemUtils.deleteRecursively(entry);
+                    continue;
+                }
+                long size = getSize(entry);
+                entries.put(key, size);
+                totalBytes += size;
+            }
+            evict();
+        }
+        log.info("Compilation cache loaded from {}, {} entries, {} bytes", directory, entries.size(), totalBytes);
+    }
+
+    @Override
+    public String getKey(Execution execution, String compilationImageName) {
+        if (!enabled) {
+            return null;
+        }
+        String sourceCodeFileName = execution.getSourceCodeFile().getOriginalFilename();
+        try (InputStream sourceCode = Files.newInputStream(Path.of(execution.getPath(), sourceCodeFileName))) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(execution.getLanguage().toString().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(getImageId(compilationImageName).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            // The name matters, ex: the name of the java class
+            digest.update(sourceCodeFileName.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = sourceCode.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            return toHex(digest.digest());
+        } catch (IOException | NoSuchAlgorithmException | RuntimeException e) {
+            log.warn("Can't compute the compilation cache key, the cache is skipped: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public boolean restore(String key, Execution execution) {
+        if (key == null) {
+            return false;
+        }
+        String languageTag = execution.getLanguage().toString().toLowerCase();
+        Long size;
+        synchronized (this) {
+            size = entries.get(key);
+            if (size == null) {
+                misses.incrementAndGet();
+                meterRegistry.counter(WellKnownMetrics.COMPILATION_CACHE_MISS_COUNTER, "language", languageTag).increment();
+                return false;
+            }
+            // Copied outside of the lock, the entry can't be evicted meanwhile
+            pins.merge(key, 1, Integer::sum);
+        }
+        Path entry = directory.resolve(key);
+        boolean restored = false;
+        try {
+            copyFiles(entry, Path.of(execution.getPath()), FileUtils.listFiles(entry));
+            // Keeps the access order after a restart
+            Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+            restored = true;
+        } catch (IOException e) {
+            log.warn("Can't restore the compilation cache entry {}, the entry is removed: {}", key, e.getMessage());
+        } finally {
+            synchronized (this) {
+                pins.computeIfPresent(key, (pinnedKey, count) -> count == 1 ? null : count - 1);
+                if (!restored && !pins.containsKey(key)) {
+                    remove(key);
+                }
+                // The evictions skipped while the entry was pinned
+                evict();
+            }
+        }
+        if (!restored) {
+            misses.incrementAndGet();
+            meterRegistry.counter(WellKnownMetrics.COMPILATION_CACHE_MISS_COUNTER, "language", languageTag).increment();
+            return false;
+        }
+        hits.incrementAndGet();
+        meterRegistry.counter(WellKnownMetrics.COMPILATION_CACHE_HIT_COUNTER, "language", languageTag).increment();
+        savedBytesCounter.increment(size);
+        log.info("Compilation artifacts restored from the cache, key = {}", key);
+        return true;
+    }
+
+    @Override
+    public void store(String key, Execution execution, Set<Path> filesBeforeCompilation) {
+        if (key == null) {
+            return;
+        }
+        Path temporaryEntry = directory.resolve(TEMPORARY_ENTRY_PREFIX + UUID.randomUUID());
+        try {
+            Path executionDirectory = Path.of(execution.getPath());
+            Set<Path> artifacts = new HashSet<>(FileUtils.listFiles(executionDirectory));
+            artifacts.removeAll(filesBeforeCompilation);
+            if (artifacts.isEmpty()) {
+                return;
+            }
+
+            // Copied outside of the lock, then moved atomically
+            copyFiles(executionDirectory, temporaryEntry, artifacts);
+            long size = getSize(temporaryEntry);
+            if (size > maxBytes) {
+                log.info("The compilation artifacts are too large to be cached: {} bytes", size);
+                return;
+            }
+
+            synchronized (this) {
+                if (entries.containsKey(key)) {
+                    return;
+                }
+                Files.move(temporaryEntry, directory.resolve(key), StandardCopyOption.ATOMIC_MOVE);
+                entries.put(key, size);
+                totalBytes += size;
+                evict();
+            }
+            log.info("Compilation artifacts stored in the cache, key = {}, {} bytes", key, size);
+        } catch (IOException e) {
+            log.warn("Can't store the compilation artifacts in the cache: {}", e.getMessage());
+        } finally {
+            try {
+                FileSystemUtils.deleteRecursively(temporaryEntry);
+            } catch (IOException e) {
+                log.warn("Can't delete the temporary cache entry {}: {}", temporaryEntry, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Gets hit ratio.
+     *
+     * @return the ratio of the compilations served from the cache
+     */
+    public double getHitRatio() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0 : (double) hits.get() / total;
+    }
+
+    /**
+     * Gets total bytes.
+     *
+     * @return the size of the cache in bytes
+     */
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<String, Long> eldest = iterator.next();
+            if (pins.containsKey(eldest.getKey())) {
+                // Being restored, it's evicted once the copy is done
+                continue;
+            }
+            iterator.remove();
+            totalBytes -= eldest.getValue();
+            deleteEntry(eldest.getKey());
+            log.info("Compilation cache entry {} evicted", eldest.getKey());
+        }
+    }
+
+    private void remove(String key) {
+        Long size = entries.remove(key);
+        if (size != null) {
+            totalBytes -= size;
+        }
+        deleteEntry(key);
+    }
+
+    private void deleteEntry(String key) {
+        try {
+            FileSystemUtils.deleteRecursively(directory.resolve(key));
+        } catch (IOException e) {
+            log.warn("Can't delete the compilation cache entry {}: {}", key, e.getMessage());
+        }
+    }
+
+    private String getImageId(String imageName) {
+        ImageId imageId = imageIds.get(imageName);
+        if (imageId == null || System.currentTimeMillis() - imageId.fetchedAt > IMAGE_ID_TTL) {
+            imageId = new ImageId(containerService.getImageId(imageName), System.currentTimeMillis());
+            imageIds.put(imageName, imageId);
+        }
+        return imageId.id;
+    }
+
+    private static void copyFiles(Path source, Path destination, Set<Path> files) throws IOException {
+        for (Path file : files) {
+            Path target = destination.resolve(file);
+            Files.createDirectories(target.getParent());
+            // Keeps the permissions, ex: binaries should stay executable
+            Files.copy(source.resolve(file), target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+        }
+    }
+
+    private static long getSize(Path entry) throws IOException {
+        long size = 0;
+        for (Path file : FileUtils.listFiles(entry)) {
+            size += Files.size(entry.resolve(file));
+        }
+        return size;
+    }
+
+    private static FileTime getLastModifiedTime(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : bytes) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    private static class ImageId {
+
+        private final String id;
+
+        private final long fetchedAt;
+
+        private ImageId(String id, long fetchedAt) {
+            this.id = id;
+            this.fetchedAt = fetchedAt;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.cp.compiler.services.containers;
+
+import com.cp.compiler.models.containers.ContainerInfo;
+
+/**
+ * The interface Container lifecycle tracker.
+ * Keeps the lifecycle (creation, start and end times, exit code) of the containers from the events
+ * streamed by the container engine, so that the containers don't have to be inspected one by one.
+ *
+ * @author Zakaria Maaraki
+ */
+public interface ContainerLifecycleTracker {
+
+    /**
+     * Gets the info of an ended container from its tracked lifecycle.
+     *
+     * @param containerName the container name
+     * @return the container info, or null if the lifecycle of the container is unknown or incomplete,
+     * in this case the container should be inspected
+     */
+    ContainerInfo getContainerInfo(String containerName);
+
+    /**
+     * Gets tracked containers count.
+     *
+     * @return the number of containers whose lifecycle is tracked
+     */
+    int getTrackedContainersCount();
+}
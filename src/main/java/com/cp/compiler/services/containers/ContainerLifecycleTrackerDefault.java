@@ -0,0 +1,231 @@
+package com.cp.compiler.services.containers;
+
+import com.cp.compiler.models.containers.ContainerEvent;
+import com.cp.compiler.models.containers.ContainerInfo;
+import com.cp.compiler.wellknownconstants.WellKnownMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The type Container lifecycle tracker default.
+ * A daemon thread stays subscribed to the events of the container engine, the stream is reopened every minute
+ * (or after a failure) from the time of the last received event, so that no event is lost in between.
+ * The lifecycle of a container is forgotten once the container is destroyed.
+ *
+ * @author Zakaria Maaraki
+ */
+@Slf4j
+@Service
+public class ContainerLifecycleTrackerDefault implements ContainerLifecycleTracker {
+
+    /**
+     * The duration in ms of a subscription to the events stream, before it's reopened.
+     */
+    public static final long STREAM_WINDOW = 60000; // 1 minute
+
+    /**
+     * The constant DURATION_BEFORE_RECONNECTING in ms.
+     */
+    public static final long DURATION_BEFORE_RECONNECTING = 1000; // 1 sec
+
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    // Same status as the one returned by the inspection of an ended container
+    private static final String EXITED_STATUS = "exited";
+
+    private final ContainerService containerService;
+
+    private final MeterRegistry meterRegistry;
+
+    private final boolean enabled;
+
+    private final int maxEntries;
+
+    private final long endEventTimeout;
+
+    private final Map<String, ContainerLifecycle> lifecycles = new ConcurrentHashMap<>();
+
+    private Counter hitCounter;
+
+    private Counter missCounter;
+
+    private Thread subscriber;
+
+    private volatile boolean subscribed = false;
+
+    private volatile boolean closed = false;
+
+    private volatile long lastEventTimeNano = 0;
+
+    /**
+     * Instantiates a new Container lifecycle tracker default.
+     *
+     * @param containerService the container service
+     * @param meterRegistry    the meter registry
+     * @param enabled          whether the events of the container engine are tracked
+     * @param maxEntries       the max number of tracked containers, the containers above it are inspected
+     * @param endEventTimeout  the time in ms to wait for the die event of a container that is still tracked as running
+     */
+    public ContainerLifecycleTrackerDefault(@Qualifier("docker") ContainerService containerService,
+                                            MeterRegistry meterRegistry,
+                                            @Value("${compiler.docker.events.enabled:false}") boolean enabled,
+                                            @Value("${compiler.docker.events.max-entries:10000}") int maxEntries,
+                                            @Value("${compiler.docker.events.end-event-timeout:100}") long endEventTimeout) {
+        this.containerService = containerService;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.endEventTimeout = endEventTimeout;
+    }
+
+    /**
+     * Init the metrics and subscribe to the events of the container engine.
+     */
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        hitCounter = meterRegistry.counter(WellKnownMetrics.CONTAINER_EVENTS_HIT_COUNTER);
+        missCounter = meterRegistry.counter(WellKnownMetrics.CONTAINER_EVENTS_MISS_COUNTER);
+        meterRegistry.gauge(WellKnownMetrics.CONTAINER_EVENTS_TRACKED_GAUGE, lifecycles, Map::size);
+
+        subscriber = new Thread(this::subscribe, "container-events-subscriber");
+        subscriber.setDaemon(true);
+        subscriber.start();
+    }
+
+    /**
+     * Stop the subscription to the events of the container engine.
+     */
+    @PreDestroy
+    public void close() {
+        closed = true;
+        if (subscriber != null) {
+            subscriber.interrupt();
+        }
+    }
+
+    @Override
+    public ContainerInfo getContainerInfo(String containerName) {
+        if (!subscribed) {
+            return null;
+        }
+        ContainerLifecycle lifecycle = lifecycles.get(containerName);
+        // The events may be received slightly after the end of the docker run
+        if (lifecycle == null || !lifecycle.awaitEnd(endEventTimeout) || lifecycle.startTime == null) {
+            log.debug("Lifecycle of the container {} unknown, it will be inspected", containerName);
+            missCounter.increment();
+            return null;
+        }
+        hitCounter.increment();
+        return new ContainerInfo(
+                EXITED_STATUS,
+                lifecycle.creationTime,
+                "",
+                lifecycle.exitCode,
+                lifecycle.startTime,
+                lifecycle.endTime);
+    }
+
+    @Override
+    public int getTrackedContainersCount() {
+        return lifecycles.size();
+    }
+
+    private void subscribe() {
+        log.info("Subscribing to the container events");
+        while (!closed) {
+            long windowStartTimeNano = System.currentTimeMillis() * NANOS_PER_MILLI;
+            try {
+                subscribed = true;
+                containerService.streamEvents(lastEventTimeNano, STREAM_WINDOW, this::onEvent);
+                lastEventTimeNano = Math.max(lastEventTimeNano, windowStartTimeNano);
+            } catch (Exception e) {
+                // Until the subscription is back, the containers are inspected
+                subscribed = false;
+                log.warn("Error while streaming the container events: {}", e.getMessage());
+                try {
+                    Thread.sleep(DURATION_BEFORE_RECONNECTING);
+                } catch (InterruptedException interruptedException) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        subscribed = false;
+    }
+
+    private void onEvent(ContainerEvent event) {
+        lastEventTimeNano = Math.max(lastEventTimeNano, event.getTimeNano());
+        String containerName = event.getContainerName();
+        if ("destroy".equals(event.getAction())) {
+            lifecycles.remove(containerName);
+            return;
+        }
+        ContainerLifecycle lifecycle = lifecycles.get(containerName);
+        if (lifecycle == null) {
+            if (lifecycles.size() >= maxEntries) {
+                // The destroy events of some ended containers were missed
+                lifecycles.values().removeIf(ContainerLifecycle::hasEnded);
+                if (lifecycles.size() >= maxEntries) {
+                    return;
+                }
+            }
+            lifecycle = lifecycles.computeIfAbsent(containerName, name -> new ContainerLifecycle());
+        }
+        switch (event.getAction()) {
+            case "create":
+                lifecycle.creationTime = event.getTime();
+                break;
+            case "start":
+                lifecycle.startTime = event.getTime();
+                break;
+            case "die":
+                lifecycle.exitCode = event.getExitCode();
+                lifecycle.endTime = event.getTime();
+                lifecycle.ended.countDown();
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static class ContainerLifecycle {
+
+        private volatile LocalDateTime creationTime;
+
+        private volatile LocalDateTime startTime;
+
+        private volatile LocalDateTime endTime;
+
+        private volatile int exitCode;
+
+        private final CountDownLatch ended = new CountDownLatch(1);
+
+        private boolean hasEnded() {
+            return ended.getCount() == 0;
+        }
+
+        private boolean awaitEnd(long timeout) {
+            try {
+                return ended.await(timeout, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+}
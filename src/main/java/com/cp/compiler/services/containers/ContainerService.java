@@ -1,10 +1,17 @@
 package com.cp.compiler.services.containers;
 
+import com.cp.compiler.models.containers.ContainerEngineInfo;
+import com.cp.compiler.models.containers.ContainerEvent;
+import com.cp.compiler.models.containers.ContainerExecOptions;
 import com.cp.compiler.models.containers.ContainerInfo;
+import com.cp.compiler.models.containers.ContainerResource;
+import com.cp.compiler.models.containers.ContainerRunOptions;
 import com.cp.compiler.models.processes.ProcessOutput;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * The interface Container service.
@@ -41,6 +48,48 @@ public interface ContainerService {
                                float maxCpus,
                                Map<String, String> envVariables);
     
+    /**
+     * Run container process output.
+     *
+     * @param options the options describing how the container should be run
+     * @return the process output
+     */
+    ProcessOutput runContainer(ContainerRunOptions options);
+    
+    /**
+     * Start a detached container, the call returns once the container is started.
+     *
+     * @param options the options describing how the container should be run, the timeout is ignored
+     */
+    void startContainer(ContainerRunOptions options);
+    
+    /**
+     * Start a detached container that stays idle until it is deleted.
+     *
+     * @param imageName        the image name
+     * @param containerName    the container name
+     * @param workingDirectory the working directory of the container
+     * @param maxCpus          the max cpus
+     */
+    void startIdleContainer(String imageName, String containerName, String workingDirectory, float maxCpus);
+    
+    /**
+     * Copy the content of a local directory inside a running container.
+     *
+     * @param sourcePath      the local directory
+     * @param containerName   the container name
+     * @param destinationPath the destination directory inside the container
+     */
+    void copyToContainer(String sourcePath, String containerName, String destinationPath);
+    
+    /**
+     * Execute a command inside a running container.
+     *
+     * @param options the options describing the command
+     * @return the process output
+     */
+    ProcessOutput execInContainer(ContainerExecOptions options);
+    
     /**
      * Inspect a container.
      *
@@ -49,6 +98,16 @@ public interface ContainerService {
      */
     ContainerInfo inspect(String containerName);
     
+    /**
+     * Stream the lifecycle events (create, start, die and destroy) of the containers to the consumer,
+     * blocks until the timeout is reached or the stream ends.
+     *
+     * @param since    the events since this time are replayed first, in nanoseconds since the epoch, 0 to only stream new events
+     * @param timeout  the timeout in ms
+     * @param consumer the consumer of the events
+     */
+    void streamEvents(long since, long timeout, Consumer<ContainerEvent> consumer);
+    
     /**
      * Delete a container
      *
@@ -56,6 +115,13 @@ public interface ContainerService {
      */
     void deleteContainer(String containerName);
     
+    /**
+     * Delete containers, with a single call to the container engine when possible.
+     *
+     * @param containerNames the container names
+     */
+    void deleteContainers(List<String> containerNames);
+    
     /**
      * Run container process output.
      *
@@ -90,6 +156,20 @@ public interface ContainerService {
      */
     String getImages();
     
+    /**
+     * List all the containers, running or not.
+     *
+     * @return the name and the creation time of each container
+     */
+    List<ContainerResource> listContainers();
+    
+    /**
+     * List the tagged images.
+     *
+     * @return the name:tag and the creation time of each image
+     */
+    List<ContainerResource> listImages();
+    
     /**
      * Gets containers stats.
      *
@@ -114,6 +194,22 @@ public interface ContainerService {
      */
     void deleteImage(String imageName);
     
+    /**
+     * Delete images, with a single call to the container engine when possible.
+     *
+     * @param imageNames the image names
+     */
+    void deleteImages(List<String> imageNames);
+    
+    /**
+     * Gets image id.
+     * The id is the digest of the image configuration, it changes each time the image is rebuilt.
+     *
+     * @param imageName the image name
+     * @return the image id
+     */
+    String getImageId(String imageName);
+    
     /**
      * Is up boolean.
      *
@@ -121,6 +217,13 @@ public interface ContainerService {
      */
     boolean isUp();
     
+    /**
+     * Gets the resources of the host running the containers.
+     *
+     * @return the container engine info
+     */
+    ContainerEngineInfo getEngineInfo();
+    
     /**
      * Gets containerization name.
      *
@@ -4,12 +4,19 @@ import com.cp.compiler.exceptions.ContainerBuildException;
 import com.cp.compiler.exceptions.ContainerFailedDependencyException;
 import com.cp.compiler.exceptions.ContainerOperationTimeoutException;
 import com.cp.compiler.exceptions.ProcessExecutionTimeoutException;
+import com.cp.compiler.models.containers.ContainerEngineInfo;
+import com.cp.compiler.models.containers.ContainerEvent;
+import com.cp.compiler.models.containers.ContainerExecOptions;
 import com.cp.compiler.models.containers.ContainerInfo;
+import com.cp.compiler.models.containers.ContainerResource;
+import com.cp.compiler.models.containers.ContainerRunOptions;
 import com.cp.compiler.models.processes.ProcessOutput;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 @Slf4j
 /**
@@ -39,6 +46,16 @@ public abstract class ContainerServiceDecorator implements ContainerService {
                                                           float maxCpus,
                                                           Map<String, String> envVariables);
     
+    /**
+     * Run container internal process output.
+     *
+     * @param options the options
+     * @return the process output
+     */
+    protected ProcessOutput runContainerInternal(ContainerRunOptions options) {
+        return containerService.runContainer(options);
+    }
+    
     @Override
     public String getRunningContainers() {
         return containerService.getRunningContainers();
@@ -49,6 +66,16 @@ public abstract class ContainerServiceDecorator implements ContainerService {
         return containerService.getImages();
     }
     
+    @Override
+    public List<ContainerResource> listContainers() {
+        return containerService.listContainers();
+    }
+    
+    @Override
+    public List<ContainerResource> listImages() {
+        return containerService.listImages();
+    }
+    
     @Override
     public String getContainersStats() {
         return containerService.getContainersStats();
@@ -91,6 +118,49 @@ public abstract class ContainerServiceDecorator implements ContainerService {
         }
     }
     
+    @Override
+    public ProcessOutput runContainer(ContainerRunOptions options) {
+        try {
+            return runContainerInternal(options);
+        } catch(Exception processExecutionException) {
+            if (processExecutionException instanceof ProcessExecutionTimeoutException) {
+                // TLE
+                throw new ContainerOperationTimeoutException(processExecutionException.getMessage());
+            }
+            log.error("Error: {}", processExecutionException);
+            throw new ContainerFailedDependencyException(processExecutionException.getMessage());
+        }
+    }
+    
+    @Override
+    public void startContainer(ContainerRunOptions options) {
+        containerService.startContainer(options);
+    }
+    
+    @Override
+    public void startIdleContainer(String imageName, String containerName, String workingDirectory, float maxCpus) {
+        containerService.startIdleContainer(imageName, containerName, workingDirectory, maxCpus);
+    }
+    
+    @Override
+    public void copyToContainer(String sourcePath, String containerName, String destinationPath) {
+        containerService.copyToContainer(sourcePath, containerName, destinationPath);
+    }
+    
+    @Override
+    public ProcessOutput execInContainer(ContainerExecOptions options) {
+        try {
+            return containerService.execInContainer(options);
+        } catch(Exception processExecutionException) {
+            if (processExecutionException instanceof ProcessExecutionTimeoutException) {
+                // TLE
+                throw new ContainerOperationTimeoutException(processExecutionException.getMessage());
+            }
+            log.error("Error: {}", processExecutionException);
+            throw new ContainerFailedDependencyException(processExecutionException.getMessage());
+        }
+    }
+    
     @Override
     public void deleteImage(String imageName) {
         try {
@@ -106,6 +176,21 @@ public abstract class ContainerServiceDecorator implements ContainerService {
         }
     }
     
+    @Override
+    public void deleteImages(List<String> imageNames) {
+        try {
+            containerService.deleteImages(imageNames);
+            log.info("Images {} have been deleted", imageNames);
+        } catch (Exception e) {
+            log.warn("Unexpected error occurred while deleting the images {}: {}", imageNames, e);
+        }
+    }
+    
+    @Override
+    public String getImageId(String imageName) {
+        return containerService.getImageId(imageName);
+    }
+    
     @Override
     public boolean isUp() {
         return containerService.isUp();
@@ -116,6 +201,11 @@ public abstract class ContainerServiceDecorator implements ContainerService {
         return containerService.getContainerizationName();
     }
     
+    @Override
+    public ContainerEngineInfo getEngineInfo() {
+        return containerService.getEngineInfo();
+    }
+    
     @Override
     public ContainerInfo inspect(String containerName) {
         ContainerInfo containerInfo = null;
@@ -127,6 +217,11 @@ public abstract class ContainerServiceDecorator implements ContainerService {
         return containerInfo;
     }
     
+    @Override
+    public void streamEvents(long since, long timeout, Consumer<ContainerEvent> consumer) {
+        containerService.streamEvents(since, timeout, consumer);
+    }
+    
     @Override
     public void deleteContainer(String containerName) {
         try {
@@ -136,4 +231,14 @@ public abstract class ContainerServiceDecorator implements ContainerService {
             log.warn("Unexpected error occurred while deleting the container {}: {}", containerName, e);
         }
     }
+    
+    @Override
+    public void deleteContainers(List<String> containerNames) {
+        try {
+            containerService.deleteContainers(containerNames);
+            log.info("Containers {} have been deleted", containerNames);
+        } catch(Exception e) {
+            log.warn("Unexpected error occurred while deleting the containers {}: {}", containerNames, e);
+        }
+    }
 }
@@ -3,10 +3,13 @@ package com.cp.compiler.services.containers;
 import com.cp.compiler.exceptions.ContainerFailedDependencyException;
 import com.cp.compiler.exceptions.ContainerOperationTimeoutException;
 import com.cp.compiler.exceptions.ProcessExecutionTimeoutException;
+import com.cp.compiler.models.containers.ContainerInfo;
+import com.cp.compiler.models.containers.ContainerRunOptions;
 import com.cp.compiler.models.processes.ProcessOutput;
 import com.cp.compiler.utils.retries.RetryHelper;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Service;
@@ -34,13 +37,40 @@ public class DefaultContainerService extends ContainerServiceDecorator {
      */
     public static final int DURATION_BETWEEN_EACH_RETRY = 1000; // 1 sec
     
+    private final ContainerLifecycleTracker containerLifecycleTracker;
+    
     /**
      * Instantiates a new Default container service.
      *
      * @param containerService the container service
      */
-    protected DefaultContainerService(@Qualifier("docker") ContainerService containerService) {
+    protected DefaultContainerService(ContainerService containerService) {
+        this(containerService, null);
+    }
+    
+    /**
+     * Instantiates a new Default container service.
+     *
+     * @param containerService          the container service
+     * @param containerLifecycleTracker the container lifecycle tracker, the containers are always inspected if null
+     */
+    @Autowired
+    protected DefaultContainerService(@Qualifier("docker") ContainerService containerService,
+                                      ContainerLifecycleTracker containerLifecycleTracker) {
         super(containerService);
+        this.containerLifecycleTracker = containerLifecycleTracker;
+    }
+    
+    @Override
+    public ContainerInfo inspect(String containerName) {
+        // Avoids a round trip to the container engine when the lifecycle of the container is already known
+        if (containerLifecycleTracker != null) {
+            ContainerInfo containerInfo = containerLifecycleTracker.getContainerInfo(containerName);
+            if (containerInfo != null) {
+                return containerInfo;
+            }
+        }
+        return super.inspect(containerName);
     }
     
     @SneakyThrows
@@ -67,6 +97,16 @@ public class DefaultContainerService extends ContainerServiceDecorator {
                 DURATION_BETWEEN_EACH_RETRY);
     }
     
+    @SneakyThrows
+    @Override
+    protected ProcessOutput runContainerInternal(ContainerRunOptions options) {
+        return RetryHelper.executeWithRetries(
+                () -> getContainerService().runContainer(options),
+                Set.of(ProcessExecutionTimeoutException.class.getName()),
+                MAX_RETRIES,
+                DURATION_BETWEEN_EACH_RETRY);
+    }
+    
     @Override
     public ProcessOutput runContainer(String imageName,
                                       String containerName,
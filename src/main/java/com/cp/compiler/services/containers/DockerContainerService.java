@@ -1,8 +1,15 @@
 package com.cp.compiler.services.containers;
 
 import com.cp.compiler.exceptions.*;
+import com.cp.compiler.mappers.ContainerEventMapper;
 import com.cp.compiler.mappers.ContainerInfoMapper;
+import com.cp.compiler.models.containers.ContainerEngineInfo;
+import com.cp.compiler.models.containers.ContainerEvent;
+import com.cp.compiler.models.containers.ContainerExecOptions;
 import com.cp.compiler.models.containers.ContainerInfo;
+import com.cp.compiler.models.containers.ContainerMount;
+import com.cp.compiler.models.containers.ContainerResource;
+import com.cp.compiler.models.containers.ContainerRunOptions;
 import com.cp.compiler.models.processes.ProcessOutput;
 import com.cp.compiler.wellknownconstants.WellKnownMetrics;
 import com.cp.compiler.utils.CmdUtils;
@@ -10,13 +17,24 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.PostConstruct;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
  * This class provides Docker utilities
@@ -25,6 +43,7 @@ import java.util.Map;
  */
 @Slf4j
 @Service("docker")
+@ConditionalOnProperty(name = "compiler.docker.client", havingValue = "cli", matchIfMissing = true)
 public class DockerContainerService implements ContainerService {
     
     /**
@@ -37,6 +56,11 @@ public class DockerContainerService implements ContainerService {
      */
     public static final int COMMAND_TIMEOUT = 10000; // 10 sec
     
+    /**
+     * The constant BATCH_TIMEOUT, for the commands deleting several containers or images.
+     */
+    public static final int BATCH_TIMEOUT = 60000; // 1 minute
+    
     /**
      * The constant EXECUTION_PATH_ENV_VARIABLE.
      */
@@ -54,6 +78,20 @@ public class DockerContainerService implements ContainerService {
      */
     private static final String CONTAINERIZATION_NAME = "Docker";
     
+    /**
+     * The container events streamed by docker events
+     */
+    private static final List<String> TRACKED_EVENTS = List.of("create", "start", "die", "destroy");
+    
+    /**
+     * The format of the creation times listed by docker, ex: 2023-01-01 10:00:00 +0000 UTC
+     */
+    private static final DateTimeFormatter CREATED_AT_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss Z");
+    
+    private static final String LIST_SEPARATOR = "|";
+    
+    private static final String UNTAGGED_IMAGE = "<none>";
+    
     /**
      * The constant SOURCE_CODE_ENV_VARIABLE.
      */
@@ -108,30 +146,151 @@ public class DockerContainerService implements ContainerService {
                                       long timeout,
                                       float maxCpus,
                                       Map<String, String> envVariables) {
+        return runContainer(ContainerRunOptions
+                .builder()
+                .imageName(imageName)
+                .containerName(containerName)
+                .timeout(timeout)
+                .maxCpus(maxCpus)
+                .envVariables(envVariables)
+                .build());
+    }
+    
+    @Override
+    public ProcessOutput runContainer(ContainerRunOptions options) {
         return runTimer.record(() -> {
-            String[] dockerCommand = buildDockerCommand(containerName, envVariables, maxCpus, imageName);
-            return CmdUtils.executeProcess(dockerCommand, timeout);
+            String[] dockerCommand = buildDockerCommand(options, false);
+            ProcessOutput output = CmdUtils.executeProcess(
+                    dockerCommand, options.getTimeout(), options.getMaxOutputBytes(), options.getStdOutListener());
+            if (output.isOutputLimitExceeded() || output.isStopped()) {
+                // Destroying the docker client doesn't stop the container, the program would keep writing
+                killQuietly(options.getContainerName());
+            }
+            return output;
         });
     }
     
-    private String[] buildDockerCommand(String containerName,
-                                        Map<String, String> envVariables,
-                                        float cpus,
-                                        String imageName) {
+    @Override
+    public void startContainer(ContainerRunOptions options) {
+        // The image may be pulled, in this case the progress is written to stderr
+        executeContainerCommandAndCheckStatus(buildDockerCommand(options, true), BUILD_TIMEOUT);
+    }
+    
+    private String[] buildDockerCommand(ContainerRunOptions options, boolean detached) {
         /**
-         * docker run --name [containerName] (-e [envKey=envValue])* --cpus=[cpu] [imageName]
+         * docker run (-d)? --name [containerName] (-e [envKey=envValue])* --cpus=[cpu] (--network [network])?
+         *            (-u [user])? (-w [workingDirectory])? (-v [source]:[target](:ro)? | --mount [mount])*
+         *            (--entrypoint [executable])? [imageName] [args]*
          */
-        List<String> dockerCommandList = new ArrayList<>(Arrays.asList("docker", "run", "--name", containerName));
-        for (String key : envVariables.keySet()) {
+        List<String> dockerCommandList = new ArrayList<>(Arrays.asList("docker", "run"));
+        if (detached) {
+            dockerCommandList.add("-d");
+        }
+        dockerCommandList.add("--name");
+        dockerCommandList.add(options.getContainerName());
+        for (String key : options.getEnvVariables().keySet()) {
             dockerCommandList.add("-e");
-            dockerCommandList.add(key + "=" + envVariables.get(key));
+            dockerCommandList.add(key + "=" + options.getEnvVariables().get(key));
         }
-        var cpuParam = "--cpus=" + cpus;
+        var cpuParam = "--cpus=" + options.getMaxCpus();
         dockerCommandList.add(cpuParam);
-        dockerCommandList.add(imageName);
+        if (options.getNetwork() != null) {
+            dockerCommandList.add("--network");
+            dockerCommandList.add(options.getNetwork());
+        }
+        if (options.getUser() != null) {
+            dockerCommandList.add("-u");
+            dockerCommandList.add(options.getUser());
+        }
+        if (options.getWorkingDirectory() != null) {
+            dockerCommandList.add("-w");
+            dockerCommandList.add(options.getWorkingDirectory());
+        }
+        for (ContainerMount mount : options.getMounts()) {
+            dockerCommandList.addAll(buildMountParams(mount));
+        }
+        List<String> entrypoint = options.getEntrypoint();
+        if (!entrypoint.isEmpty()) {
+            dockerCommandList.add("--entrypoint");
+            dockerCommandList.add(entrypoint.get(0));
+        }
+        dockerCommandList.add(options.getImageName());
+        if (entrypoint.size() > 1) {
+            dockerCommandList.addAll(entrypoint.subList(1, entrypoint.size()));
+        }
         return dockerCommandList.toArray(new String[0]);
     }
     
+    private static List<String> buildMountParams(ContainerMount mount) {
+        if (mount.isBindMount()) {
+            String volumeParam = mount.getSource() + ":" + mount.getTarget() + (mount.isReadOnly() ? ":ro" : "");
+            return List.of("-v", volumeParam);
+        }
+        // A sub directory of a named volume can only be mounted with the --mount syntax
+        StringBuilder mountParam = new StringBuilder("type=volume")
+                .append(",source=").append(mount.getSource())
+                .append(",target=").append(mount.getTarget());
+        if (mount.getSubpath() != null) {
+            mountParam.append(",volume-subpath=").append(mount.getSubpath());
+        }
+        if (mount.isReadOnly()) {
+            mountParam.append(",readonly");
+        }
+        return List.of("--mount", mountParam.toString());
+    }
+    
+    @Override
+    public void startIdleContainer(String imageName, String containerName, String workingDirectory, float maxCpus) {
+        /**
+         * docker run -d --name [containerName] --network none -w [workingDirectory] (--cpus=[cpu])?
+         *            --entrypoint tail [imageName] -f /dev/null
+         */
+        List<String> dockerCommandList = new ArrayList<>(Arrays.asList(
+                "docker", "run", "-d", "--name", containerName, "--network", "none", "-w", workingDirectory));
+        if (maxCpus > 0) {
+            dockerCommandList.add("--cpus=" + maxCpus);
+        }
+        dockerCommandList.addAll(Arrays.asList("--entrypoint", "tail", imageName, "-f", "/dev/null"));
+        // The image may be pulled, in this case the progress is written to stderr
+        executeContainerCommandAndCheckStatus(dockerCommandList.toArray(new String[0]), BUILD_TIMEOUT);
+    }
+    
+    @Override
+    public void copyToContainer(String sourcePath, String containerName, String destinationPath) {
+        String[] command = {"docker", "cp", sourcePath + "/.", containerName + ":" + destinationPath};
+        executeContainerCommandAndCheckStatus(command, COMMAND_TIMEOUT);
+    }
+    
+    @Override
+    public ProcessOutput execInContainer(ContainerExecOptions options) {
+        return runTimer.record(() -> {
+            /**
+             * docker exec (-u [user])? (-w [workingDirectory])? (-e [envKey=envValue])* [containerName] [command]
+             */
+            List<String> dockerCommandList = new ArrayList<>(Arrays.asList("docker", "exec"));
+            if (options.getUser() != null) {
+                dockerCommandList.add("-u");
+                dockerCommandList.add(options.getUser());
+            }
+            if (options.getWorkingDirectory() != null) {
+                dockerCommandList.add("-w");
+                dockerCommandList.add(options.getWorkingDirectory());
+            }
+            for (Map.Entry<String, String> variable : options.getEnvVariables().entrySet()) {
+                dockerCommandList.add("-e");
+                dockerCommandList.add(variable.getKey() + "=" + variable.getValue());
+            }
+            dockerCommandList.add(options.getContainerName());
+            dockerCommandList.addAll(options.getCommand());
+            // The command can't be stopped alone, the caller is responsible of deleting the container
+            return CmdUtils.executeProcess(
+                    dockerCommandList.toArray(new String[0]),
+                    options.getTimeout(),
+                    options.getMaxOutputBytes(),
+                    options.getStdOutListener());
+        });
+    }
+    
     @Override
     public ContainerInfo inspect(String containerName) {
         String[] command = {"docker", "container", "inspect", CONTAINER_INFO_FORMAT, containerName};
@@ -145,12 +304,61 @@ public class DockerContainerService implements ContainerService {
         return ci;
     }
     
+    @Override
+    public void streamEvents(long since, long timeout, Consumer<ContainerEvent> consumer) {
+        List<String> command = new ArrayList<>(List.of("docker", "events", "--filter", "type=container"));
+        for (String event : TRACKED_EVENTS) {
+            command.add("--filter");
+            command.add("event=" + event);
+        }
+        if (since > 0) {
+            command.add("--since");
+            command.add(String.format("%d.%09d", since / 1_000_000_000L, since % 1_000_000_000L));
+        }
+        command.add("--format");
+        command.add("{{json .}}");
+        
+        Process process;
+        try {
+            process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.DISCARD).start();
+        } catch (IOException e) {
+            throw new ContainerFailedDependencyException(e.getMessage());
+        }
+        // docker events never ends by itself, the process is killed once the timeout is reached
+        CompletableFuture.delayedExecutor(timeout, TimeUnit.MILLISECONDS).execute(process::destroy);
+        try (var reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                try {
+                    ContainerEvent event = ContainerEventMapper.toContainerEvent(line);
+                    if (event != null) {
+                        consumer.accept(event);
+                    }
+                } catch (JsonProcessingException e) {
+                    log.warn("Error during json deserialization, while trying to read a container event, ex: {}", e);
+                }
+            }
+        } catch (IOException e) {
+            throw new ContainerFailedDependencyException(e.getMessage());
+        } finally {
+            process.destroy();
+        }
+    }
+    
     @Override
     public void deleteContainer(String containerName) {
         String[] command = {"docker", "container", "rm", "-f", containerName};
         executeContainerCommand(command, COMMAND_TIMEOUT);
     }
     
+    @Override
+    public void deleteContainers(List<String> containerNames) {
+        List<String> command = new ArrayList<>(List.of("docker", "container", "rm", "-f"));
+        command.addAll(containerNames);
+        // docker keeps removing the other containers when one of them fails
+        executeContainerCommand(command.toArray(new String[0]), BATCH_TIMEOUT);
+    }
+    
     @Override
     public ProcessOutput runContainer(
             String imageName,
@@ -205,12 +413,63 @@ public class DockerContainerService implements ContainerService {
         return executeContainerCommand(command, COMMAND_TIMEOUT);
     }
     
+    @Override
+    public List<ContainerResource> listContainers() {
+        String[] command = {"docker", "container", "ls", "-a", "--format", "{{.Names}}" + LIST_SEPARATOR + "{{.CreatedAt}}"};
+        return parseResources(executeContainerCommand(command, COMMAND_TIMEOUT));
+    }
+    
+    @Override
+    public List<ContainerResource> listImages() {
+        String[] command = {
+                "docker", "image", "ls", "--format", "{{.Repository}}:{{.Tag}}" + LIST_SEPARATOR + "{{.CreatedAt}}"};
+        return parseResources(executeContainerCommand(command, COMMAND_TIMEOUT))
+                .stream()
+                .filter(image -> !image.getName().startsWith(UNTAGGED_IMAGE))
+                .collect(Collectors.toList());
+    }
+    
+    // Each line is [name]|[yyyy-MM-dd HH:mm:ss +zzzz ZONE]
+    private static List<ContainerResource> parseResources(String output) {
+        List<ContainerResource> resources = new ArrayList<>();
+        for (String line : output.split("\n")) {
+            int separatorIndex = line.indexOf(LIST_SEPARATOR);
+            if (separatorIndex <= 0) {
+                continue;
+            }
+            String[] creationTime = line.substring(separatorIndex + 1).trim().split(" ");
+            try {
+                resources.add(new ContainerResource(
+                        line.substring(0, separatorIndex),
+                        OffsetDateTime.parse(
+                                creationTime[0] + " " + creationTime[1] + " " + creationTime[2],
+                                CREATED_AT_FORMATTER).toInstant()));
+            } catch (RuntimeException e) {
+                log.warn("Can't parse the creation time of the docker resource: {}", line);
+            }
+        }
+        return resources;
+    }
+    
     @Override
     public void deleteImage(String imageName) {
         String[] command = {"docker", "rmi", "-f", imageName};
         executeContainerCommand(command, COMMAND_TIMEOUT);
     }
     
+    @Override
+    public void deleteImages(List<String> imageNames) {
+        List<String> command = new ArrayList<>(List.of("docker", "rmi", "-f"));
+        command.addAll(imageNames);
+        executeContainerCommand(command.toArray(new String[0]), BATCH_TIMEOUT);
+    }
+    
+    @Override
+    public String getImageId(String imageName) {
+        String[] command = {"docker", "image", "inspect", "--format", "{{.Id}}", imageName};
+        return executeContainerCommand(command, COMMAND_TIMEOUT).trim();
+    }
+    
     @Override
     public boolean isUp() {
         String[] command = {"docker", "ps"};
@@ -223,6 +482,31 @@ public class DockerContainerService implements ContainerService {
         return CONTAINERIZATION_NAME;
     }
     
+    private void killQuietly(String containerName) {
+        String[] command = {"docker", "kill", containerName};
+        try {
+            CmdUtils.executeProcess(command, COMMAND_TIMEOUT);
+        } catch (ProcessExecutionException | ProcessExecutionTimeoutException e) {
+            log.warn("Error while killing the container {}: {}", containerName, e.getMessage());
+        }
+    }
+    
+    @Override
+    public ContainerEngineInfo getEngineInfo() {
+        // docker info writes its warnings to stderr (ex: no swap limit support), only stdout is checked
+        String[] command = {"docker", "info", "--format", "{{.NCPU}} {{.MemTotal}}"};
+        try {
+            ProcessOutput processOutput = CmdUtils.executeProcess(command, COMMAND_TIMEOUT);
+            String[] values = processOutput.getStdOut().trim().split(" ");
+            return new ContainerEngineInfo(Integer.parseInt(values[0]), Long.parseLong(values[1]));
+        } catch (ProcessExecutionTimeoutException e) {
+            throw new ContainerOperationTimeoutException(e.getMessage());
+        } catch (RuntimeException e) {
+            // The process failed or its output isn't the expected one
+            throw new ContainerFailedDependencyException("Can't get the docker info: " + e.getMessage());
+        }
+    }
+    
     private String executeContainerCommand(String[] command, long timeout) {
         try {
             ProcessOutput processOutput = CmdUtils.executeProcess(command, timeout);
@@ -236,4 +520,17 @@ public class DockerContainerService implements ContainerService {
             throw new ContainerOperationTimeoutException(e.getMessage());
         }
     }
+    
+    private void executeContainerCommandAndCheckStatus(String[] command, long timeout) {
+        try {
+            ProcessOutput processOutput = CmdUtils.executeProcess(command, timeout);
+            if (processOutput.getStatus() != 0) {
+                throw new ContainerFailedDependencyException("Error: " + processOutput.getStdErr());
+            }
+        } catch (ProcessExecutionException e) {
+            throw new ContainerFailedDependencyException(e.getMessage());
+        } catch (ProcessExecutionTimeoutException e) {
+            throw new ContainerOperationTimeoutException(e.getMessage());
+        }
+    }
 }
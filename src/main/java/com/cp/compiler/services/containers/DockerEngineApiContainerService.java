@@ -0,0 +1,758 @@
+package com.cp.compiler.services.containers;
+
+import com.cp.compiler.exceptions.ContainerFailedDependencyException;
+import com.cp.compiler.exceptions.ContainerOperationTimeoutException;
+import com.cp.compiler.exceptions.ProcessExecutionTimeoutException;
+import com.cp.compiler.mappers.ContainerEventMapper;
+import com.cp.compiler.mappers.ContainerInfoMapper;
+import com.cp.compiler.mappers.ContainerTableMapper;
+import com.cp.compiler.models.containers.ContainerEngineInfo;
+import com.cp.compiler.models.containers.ContainerEvent;
+import com.cp.compiler.models.containers.ContainerExecOptions;
+import com.cp.compiler.models.containers.ContainerInfo;
+import com.cp.compiler.models.containers.ContainerMount;
+import com.cp.compiler.models.containers.ContainerResource;
+import com.cp.compiler.models.containers.ContainerRunOptions;
+import com.cp.compiler.models.processes.OutputListener;
+import com.cp.compiler.models.processes.ProcessOutput;
+import com.cp.compiler.services.containers.engine.DockerEngineClient;
+import com.cp.compiler.services.containers.engine.EngineResponse;
+import com.cp.compiler.services.containers.engine.EngineStream;
+import com.cp.compiler.services.containers.engine.MultiplexedStreamReader;
+import com.cp.compiler.services.containers.engine.RequestBody;
+import com.cp.compiler.utils.BoundedOutputBuffer;
+import com.cp.compiler.utils.CmdUtils;
+import com.cp.compiler.wellknownconstants.WellKnownMetrics;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.SocketTimeoutException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * This class provides Docker utilities by talking directly to the Docker Engine API
+ * instead of forking a docker cli process for each operation.
+ *
+ * @author Zakaria Maaraki
+ */
+@Slf4j
+@Service("docker")
+@ConditionalOnProperty(name = "compiler.docker.client", havingValue = "engine-api")
+public class DockerEngineApiContainerService implements ContainerService {
+
+    /**
+     * Container engine used
+     */
+    private static final String CONTAINERIZATION_NAME = "Docker";
+
+    private static final String GET = "GET";
+
+    private static final String POST = "POST";
+
+    private static final String PUT = "PUT";
+
+    private static final String DELETE = "DELETE";
+
+    private static final int NOT_FOUND = 404;
+
+    private static final int NOT_MODIFIED = 304;
+
+    // The lifecycle events of the containers, same events as the ones streamed with the docker cli
+    private static final String EVENTS_FILTERS =
+            "{\"type\": [\"container\"], \"event\": [\"create\", \"start\", \"die\", \"destroy\"]}";
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final MeterRegistry meterRegistry;
+
+    private final DockerEngineClient engineClient;
+
+    private Timer buildTimer;
+
+    private Timer runTimer;
+
+    /**
+     * Instantiates a new Docker engine api container service.
+     *
+     * @param meterRegistry      the meter registry
+     * @param host               the docker engine host
+     * @param maxIdleConnections the max number of idle connections kept alive
+     */
+    @Autowired
+    public DockerEngineApiContainerService(MeterRegistry meterRegistry,
+                                           @Value("${compiler.docker.host:unix:///var/run/docker.sock}") String host,
+                                           @Value("${compiler.docker.max-idle-connections:16}") int maxIdleConnections) {
+        this(meterRegistry, new DockerEngineClient(host, maxIdleConnections));
+    }
+
+    /**
+     * Instantiates a new Docker engine api container service.
+     *
+     * @param meterRegistry the meter registry
+     * @param engineClient  the engine client
+     */
+    public DockerEngineApiContainerService(MeterRegistry meterRegistry, DockerEngineClient engineClient) {
+        this.meterRegistry = meterRegistry;
+        this.engineClient = engineClient;
+    }
+
+    /**
+     * Init.
+     */
+    @PostConstruct
+    public void init() {
+        buildTimer = meterRegistry.timer(WellKnownMetrics.CONTAINER_BUILD_TIMER, "container", "docker");
+        runTimer = meterRegistry.timer(WellKnownMetrics.CONTAINER_RUN_TIMER, "container", "docker");
+    }
+
+    /**
+     * Close the connections to the docker engine.
+     */
+    @PreDestroy
+    public void close() {
+        engineClient.close();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String buildImage(String contextPath, String imageName, String dockerfileName) {
+        return buildTimer.record(() -> {
+            String path = "/build?t=" + encode(imageName) + "&dockerfile=" + encode(dockerfileName) + "&rm=1";
+            EngineResponse response = execute(
+                    POST, path, RequestBody.tar(Paths.get(contextPath)), DockerContainerService.BUILD_TIMEOUT);
+            return readBuildLog(response.getBodyAsString());
+        });
+    }
+
+    @Override
+    public ProcessOutput runContainer(String imageName,
+                                      String containerName,
+                                      long timeout,
+                                      float maxCpus,
+                                      Map<String, String> envVariables) {
+        return runContainer(ContainerRunOptions
+                .builder()
+                .imageName(imageName)
+                .containerName(containerName)
+                .timeout(timeout)
+                .maxCpus(maxCpus)
+                .envVariables(envVariables)
+                .build());
+    }
+
+    @Override
+    public ProcessOutput runContainer(ContainerRunOptions options) {
+        return runTimer.record(() -> run(
+                options.getContainerName(),
+                containerConfig(options),
+                options.getTimeout(),
+                options.getMaxOutputBytes(),
+                options.getStdOutListener()));
+    }
+
+    @Override
+    public void startContainer(ContainerRunOptions options) {
+        String containerName = options.getContainerName();
+        execute(POST, "/containers/create?name=" + encode(containerName), RequestBody.json(containerConfig(options).toString()));
+        execute(POST, "/containers/" + containerName + "/start", null);
+    }
+
+    @Override
+    public ProcessOutput runContainer(String imageName,
+                                      String containerName,
+                                      long timeout,
+                                      String volumeMounting,
+                                      String executionPath,
+                                      String sourceCodeFileName) {
+        return runTimer.record(() -> {
+            ObjectNode config = containerConfig(imageName, Map.of(
+                    DockerContainerService.EXECUTION_PATH_ENV_VARIABLE, executionPath,
+                    DockerContainerService.SOURCE_CODE_FILE_NAME_ENV_VARIABLE, sourceCodeFileName));
+            ((ObjectNode) config.get("HostConfig")).putArray("Binds").add(volumeMounting);
+            return run(containerName, config, timeout, 0, null);
+        });
+    }
+
+    @Override
+    public void startIdleContainer(String imageName, String containerName, String workingDirectory, float maxCpus) {
+        ObjectNode config = containerConfig(imageName, Map.of());
+        config.put("WorkingDir", workingDirectory);
+        config.putArray("Entrypoint").add("tail");
+        config.putArray("Cmd").add("-f").add("/dev/null");
+        ObjectNode hostConfig = (ObjectNode) config.get("HostConfig");
+        hostConfig.put("NetworkMode", "none");
+        if (maxCpus > 0) {
+            hostConfig.put("NanoCpus", (long) (maxCpus * 1e9));
+        }
+        execute(POST, "/containers/create?name=" + encode(containerName), RequestBody.json(config.toString()));
+        execute(POST, "/containers/" + containerName + "/start", null);
+    }
+
+    @Override
+    public void copyToContainer(String sourcePath, String containerName, String destinationPath) {
+        String path = "/containers/" + containerName + "/archive?path=" + encode(destinationPath);
+        execute(PUT, path, RequestBody.tar(Paths.get(sourcePath)));
+    }
+
+    @Override
+    public ProcessOutput execInContainer(ContainerExecOptions options) {
+        return runTimer.record(() -> {
+            String containerName = options.getContainerName();
+            ObjectNode config = objectMapper.createObjectNode()
+                    .put("AttachStdout", true)
+                    .put("AttachStderr", true);
+            if (options.getUser() != null) {
+                config.put("User", options.getUser());
+            }
+            if (options.getWorkingDirectory() != null) {
+                config.put("WorkingDir", options.getWorkingDirectory());
+            }
+            ArrayNode env = config.putArray("Env");
+            options.getEnvVariables().forEach((key, value) -> env.add(key + "=" + value));
+            ArrayNode command = config.putArray("Cmd");
+            options.getCommand().forEach(command::add);
+
+            long deadline = System.currentTimeMillis() + options.getTimeout();
+            EngineResponse createResponse = execute(
+                    POST, "/containers/" + containerName + "/exec", RequestBody.json(config.toString()));
+            String execId;
+            try {
+                execId = objectMapper.readTree(createResponse.getBody()).path("Id").asText();
+            } catch (IOException e) {
+                throw new ContainerFailedDependencyException("Unexpected response from the docker engine: " + e.getMessage());
+            }
+
+            long outputLimit = options.getMaxOutputBytes() > 0
+                    ? Math.min(options.getMaxOutputBytes(), CmdUtils.MAX_OUTPUT_BYTES)
+                    : 0;
+            var stdOut = new BoundedOutputBuffer(outputLimit > 0 ? (int) outputLimit : CmdUtils.MAX_OUTPUT_BYTES);
+            var stdErr = new BoundedOutputBuffer(CmdUtils.MAX_ERROR_BYTES);
+            long executionStartTime = System.currentTimeMillis();
+            // Without a tty, the output of the command is multiplexed in the body of the start request
+            try (EngineStream output = engineClient.stream(
+                    POST, "/exec/" + execId + "/start", RequestBody.json("{\"Detach\": false, \"Tty\": false}"), deadline)) {
+                if (!output.isSuccessful()) {
+                    throw new ContainerFailedDependencyException(
+                            "Error while starting the exec instance in the container " + containerName
+                                    + ", status: " + output.getStatusCode());
+                }
+                // The command can't be stopped alone, the caller is responsible of deleting the container
+                OutputListener stdOutListener = options.getStdOutListener();
+                if (!MultiplexedStreamReader.demultiplex(output.getBody(), stdOut, stdErr, outputLimit, stdOutListener)) {
+                    if (stdOutListener != null && stdOutListener.isStopRequested()) {
+                        log.info("The command executed in {} was stopped by its stdout listener", containerName);
+                        return stoppedOutput(stdOut, stdErr, executionStartTime);
+                    }
+                    log.info("The command executed in {} exceeded the {} bytes allowed for its output",
+                            containerName,
+                            outputLimit);
+                    return ProcessOutput
+                            .builder()
+                            .stdOut(stdOut.toString(StandardCharsets.UTF_8))
+                            .stdErr("")
+                            .outputLimitExceeded(true)
+                            .executionDuration((int) (System.currentTimeMillis() - executionStartTime))
+                            .stdOutBytes(stdOut.getTotalBytes())
+                            .stdErrBytes(stdErr.getTotalBytes())
+                            .stdOutTruncated(true)
+                            .stdErrTruncated(stdErr.isTruncated())
+                            .build();
+                }
+            } catch (SocketTimeoutException e) {
+                log.info("The command executed in {} exceeded the {} Millis allowed", containerName, options.getTimeout());
+                throw new ProcessExecutionTimeoutException(options.getTimeout());
+            } catch (IOException e) {
+                throw new ContainerFailedDependencyException(e.getMessage());
+            }
+            long executionEndTime = System.currentTimeMillis();
+
+            EngineResponse inspectResponse = execute(GET, "/exec/" + execId + "/json", null);
+            int status;
+            try {
+                status = objectMapper.readTree(inspectResponse.getBody()).path("ExitCode").asInt();
+            } catch (IOException e) {
+                throw new ContainerFailedDependencyException("Unexpected response from the docker engine: " + e.getMessage());
+            }
+
+            return ProcessOutput
+                    .builder()
+                    .stdOut(stdOut.toString(StandardCharsets.UTF_8))
+                    .stdErr(CmdUtils.buildErrorOutput(stdErr.toString(StandardCharsets.UTF_8)))
+                    .status(status)
+                    .executionDuration((int) (executionEndTime - executionStartTime))
+                    .stdOutBytes(stdOut.getTotalBytes())
+                    .stdErrBytes(stdErr.getTotalBytes())
+                    .stdOutTruncated(stdOut.isTruncated())
+                    .stdErrTruncated(stdErr.isTruncated())
+                    .build();
+        });
+    }
+
+    @Override
+    public ContainerInfo inspect(String containerName) {
+        EngineResponse response = execute(GET, "/containers/" + containerName + "/json", null);
+        try {
+            JsonNode container = objectMapper.readTree(response.getBody());
+            JsonNode state = container.path("State");
+            // Same fields as the format used with the docker cli
+            ObjectNode containerInfo = objectMapper.createObjectNode()
+                    .put("status", state.path("Status").asText())
+                    .put("creationTime", container.path("Created").asText())
+                    .put("startTime", state.path("StartedAt").asText())
+                    .put("endTime", state.path("FinishedAt").asText())
+                    .put("exitCode", state.path("ExitCode").asInt())
+                    .put("error", state.path("Error").asText());
+            return ContainerInfoMapper.toContainerInfo(objectMapper.writeValueAsString(containerInfo));
+        } catch (IOException e) {
+            log.warn("Error during json deserialization, while trying to retrieve container info, ex: {}", e);
+        }
+        return null;
+    }
+
+    @Override
+    public void streamEvents(long since, long timeout, Consumer<ContainerEvent> consumer) {
+        String path = "/events?filters=" + encode(EVENTS_FILTERS);
+        if (since > 0) {
+            path += "&since=" + String.format("%d.%09d", since / 1_000_000_000L, since % 1_000_000_000L);
+        }
+        try (EngineStream events = engineClient.stream(GET, path, null, System.currentTimeMillis() + timeout)) {
+            if (!events.isSuccessful()) {
+                throw new ContainerFailedDependencyException(
+                        "Error while reading the container events, status: " + events.getStatusCode());
+            }
+            var reader = new BufferedReader(new InputStreamReader(events.getBody(), StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    ContainerEvent event = ContainerEventMapper.toContainerEvent(line);
+                    if (event != null) {
+                        consumer.accept(event);
+                    }
+                } catch (JsonProcessingException e) {
+                    log.warn("Error during json deserialization, while trying to read a container event, ex: {}", e);
+                }
+            }
+        } catch (SocketTimeoutException e) {
+            // The engine never ends the stream by itself
+            log.debug("End of the container events stream after {} Millis", timeout);
+        } catch (IOException e) {
+            throw new ContainerFailedDependencyException(e.getMessage());
+        }
+    }
+
+    @Override
+    public void deleteContainer(String containerName) {
+        delete("/containers/" + containerName + "?force=1");
+    }
+
+    @Override
+    public void deleteContainers(List<String> containerNames) {
+        // The engine api has no batch removal, the requests share the pooled connections
+        deleteAll("/containers/", containerNames);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getRunningContainers() {
+        // Same table as docker ps
+        return ContainerTableMapper.toContainersTable(readArray(execute(GET, "/containers/json", null)), Instant.now());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getImages() {
+        // Same table as docker images
+        return ContainerTableMapper.toImagesTable(readArray(execute(GET, "/images/json", null)), Instant.now());
+    }
+
+    @Override
+    public List<ContainerResource> listContainers() {
+        List<ContainerResource> containers = new ArrayList<>();
+        for (JsonNode container : readArray(execute(GET, "/containers/json?all=1", null))) {
+            JsonNode names = container.path("Names");
+            if (names.size() > 0) {
+                // The names returned by the engine start with a slash
+                containers.add(new ContainerResource(
+                        names.get(0).asText().replaceFirst("^/", ""),
+                        Instant.ofEpochSecond(container.path("Created").asLong())));
+            }
+        }
+        return containers;
+    }
+
+    @Override
+    public List<ContainerResource> listImages() {
+        List<ContainerResource> images = new ArrayList<>();
+        for (JsonNode image : readArray(execute(GET, "/images/json", null))) {
+            for (JsonNode repoTag : image.path("RepoTags")) {
+                if (!repoTag.asText().startsWith("<none>")) {
+                    images.add(new ContainerResource(repoTag.asText(), Instant.ofEpochSecond(image.path("Created").asLong())));
+                }
+            }
+        }
+        return images;
+    }
+
+    @Override
+    public String getContainersStats() {
+        return getStats("/containers/json");
+    }
+
+    @Override
+    public String getAllContainersStats() {
+        return getStats("/containers/json?all=1");
+    }
+
+    @Override
+    public void deleteImage(String imageName) {
+        delete("/images/" + imageName + "?force=1");
+    }
+
+    @Override
+    public void deleteImages(List<String> imageNames) {
+        deleteAll("/images/", imageNames);
+    }
+
+    @Override
+    public String getImageId(String imageName) {
+        EngineResponse response = execute(GET, "/images/" + imageName + "/json", null);
+        try {
+            return objectMapper.readTree(response.getBody()).path("Id").asText();
+        } catch (IOException e) {
+            throw new ContainerFailedDependencyException("Can't read the image " + imageName + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isUp() {
+        try {
+            return engineClient.execute(GET, "/_ping", null, DockerContainerService.COMMAND_TIMEOUT).isSuccessful();
+        } catch (IOException e) {
+            log.warn("The docker engine is not reachable: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public String getContainerizationName() {
+        return CONTAINERIZATION_NAME;
+    }
+
+    @Override
+    public ContainerEngineInfo getEngineInfo() {
+        EngineResponse response = execute(GET, "/info", null);
+        try {
+            JsonNode info = objectMapper.readTree(response.getBody());
+            return new ContainerEngineInfo(info.path("NCPU").asInt(), info.path("MemTotal").asLong());
+        } catch (IOException e) {
+            throw new ContainerFailedDependencyException("Can't read the docker info: " + e.getMessage());
+        }
+    }
+
+    private ProcessOutput run(String containerName,
+                              ObjectNode config,
+                              long timeout,
+                              long maxOutputBytes,
+                              OutputListener stdOutListener) {
+
+        // Same semantic as the docker cli: the timeout covers the whole docker run command
+        long deadline = System.currentTimeMillis() + timeout;
+
+        execute(POST, "/containers/create?name=" + encode(containerName), RequestBody.json(config.toString()));
+
+        long executionStartTime = System.currentTimeMillis();
+        EngineResponse startResponse = execute(POST, "/containers/" + containerName + "/start", null);
+        if (startResponse.getStatusCode() == NOT_MODIFIED) {
+            log.warn("The container {} was already started", containerName);
+        }
+
+        long outputLimit = maxOutputBytes > 0 ? Math.min(maxOutputBytes, CmdUtils.MAX_OUTPUT_BYTES) : 0;
+        var stdOut = new BoundedOutputBuffer(outputLimit > 0 ? (int) outputLimit : CmdUtils.MAX_OUTPUT_BYTES);
+        var stdErr = new BoundedOutputBuffer(CmdUtils.MAX_ERROR_BYTES);
+        String logsPath = "/containers/" + containerName + "/logs?follow=1&stdout=1&stderr=1";
+        try (EngineStream logs = engineClient.stream(GET, logsPath, null, deadline)) {
+            if (!logs.isSuccessful()) {
+                throw new ContainerFailedDependencyException(
+                        "Error while reading the logs of the container " + containerName + ", status: " + logs.getStatusCode());
+            }
+            boolean completed = MultiplexedStreamReader.demultiplex(
+                    logs.getBody(), stdOut, stdErr, outputLimit, stdOutListener);
+            if (!completed && stdOutListener != null && stdOutListener.isStopRequested()) {
+                log.info("The container {} was stopped by its stdout listener", containerName);
+                killQuietly(containerName);
+                return stoppedOutput(stdOut, stdErr, executionStartTime);
+            }
+            if (!completed) {
+                log.info("The container {} exceeded the {} bytes allowed for its output", containerName, outputLimit);
+                killQuietly(containerName);
+                return ProcessOutput
+                        .builder()
+                        .stdOut(stdOut.toString(StandardCharsets.UTF_8))
+                        .stdErr("")
+                        .outputLimitExceeded(true)
+                        .executionDuration((int) (System.currentTimeMillis() - executionStartTime))
+                        .stdOutBytes(stdOut.getTotalBytes())
+                        .stdErrBytes(stdErr.getTotalBytes())
+                        .stdOutTruncated(true)
+                        .stdErrTruncated(stdErr.isTruncated())
+                        .build();
+            }
+        } catch (SocketTimeoutException e) {
+            log.info("The container {} exceeded the {} Millis allowed for its execution", containerName, timeout);
+            killQuietly(containerName);
+            throw new ProcessExecutionTimeoutException(timeout);
+        } catch (IOException e) {
+            throw new ContainerFailedDependencyException(e.getMessage());
+        }
+        long executionEndTime = System.currentTimeMillis();
+
+        // The logs stream ends when the container stops, so wait returns immediately
+        EngineResponse waitResponse = execute(POST, "/containers/" + containerName + "/wait", null);
+        int status;
+        try {
+            status = objectMapper.readTree(waitResponse.getBody()).path("StatusCode").asInt();
+        } catch (IOException e) {
+            throw new ContainerFailedDependencyException("Unexpected response from the docker engine: " + e.getMessage());
+        }
+
+        return ProcessOutput
+                .builder()
+                .stdOut(stdOut.toString(StandardCharsets.UTF_8))
+                .stdErr(CmdUtils.buildErrorOutput(stdErr.toString(StandardCharsets.UTF_8)))
+                .status(status)
+                .executionDuration((int) (executionEndTime - executionStartTime))
+                .stdOutBytes(stdOut.getTotalBytes())
+                .stdErrBytes(stdErr.getTotalBytes())
+                .stdOutTruncated(stdOut.isTruncated())
+                .stdErrTruncated(stdErr.isTruncated())
+                .build();
+    }
+
+    private static ProcessOutput stoppedOutput(BoundedOutputBuffer stdOut,
+                                               BoundedOutputBuffer stdErr,
+                                               long executionStartTime) {
+        return ProcessOutput
+                .builder()
+                .stdOut(stdOut.toString(StandardCharsets.UTF_8))
+                .stdErr(CmdUtils.buildErrorOutput(stdErr.toString(StandardCharsets.UTF_8)))
+                .stopped(true)
+                .executionDuration((int) (System.currentTimeMillis() - executionStartTime))
+                .stdOutBytes(stdOut.getTotalBytes())
+                .stdErrBytes(stdErr.getTotalBytes())
+                .stdOutTruncated(stdOut.isTruncated())
+                .stdErrTruncated(stdErr.isTruncated())
+                .build();
+    }
+
+    private static void addMount(ObjectNode hostConfig, ContainerMount mount) {
+        if (mount.isBindMount()) {
+            ArrayNode binds = hostConfig.has("Binds") ? (ArrayNode) hostConfig.get("Binds") : hostConfig.putArray("Binds");
+            binds.add(mount.getSource() + ":" + mount.getTarget() + (mount.isReadOnly() ? ":ro" : ""));
+            return;
+        }
+        ArrayNode mounts = hostConfig.has("Mounts") ? (ArrayNode) hostConfig.get("Mounts") : hostConfig.putArray("Mounts");
+        ObjectNode volumeMount = mounts.addObject()
+                .put("Type", "volume")
+                .put("Source", mount.getSource())
+                .put("Target", mount.getTarget())
+                .put("ReadOnly", mount.isReadOnly());
+        if (mount.getSubpath() != null) {
+            volumeMount.putObject("VolumeOptions").put("Subpath", mount.getSubpath());
+        }
+    }
+
+    private ObjectNode containerConfig(ContainerRunOptions options) {
+        ObjectNode config = containerConfig(options.getImageName(), options.getEnvVariables());
+        ObjectNode hostConfig = (ObjectNode) config.get("HostConfig");
+        if (options.getMaxCpus() > 0) {
+            hostConfig.put("NanoCpus", (long) (options.getMaxCpus() * 1e9));
+        }
+        if (options.getNetwork() != null) {
+            hostConfig.put("NetworkMode", options.getNetwork());
+        }
+        if (options.getUser() != null) {
+            config.put("User", options.getUser());
+        }
+        if (options.getWorkingDirectory() != null) {
+            config.put("WorkingDir", options.getWorkingDirectory());
+        }
+        List<String> entrypoint = options.getEntrypoint();
+        if (!entrypoint.isEmpty()) {
+            config.putArray("Entrypoint").add(entrypoint.get(0));
+            ArrayNode cmd = config.putArray("Cmd");
+            entrypoint.subList(1, entrypoint.size()).forEach(cmd::add);
+        }
+        for (ContainerMount mount : options.getMounts()) {
+            addMount(hostConfig, mount);
+        }
+        return config;
+    }
+
+    private ObjectNode containerConfig(String imageName, Map<String, String> envVariables) {
+        ObjectNode config = objectMapper.createObjectNode();
+        config.put("Image", imageName);
+        ArrayNode env = config.putArray("Env");
+        for (Map.Entry<String, String> variable : envVariables.entrySet()) {
+            env.add(variable.getKey() + "=" + variable.getValue());
+        }
+        config.putObject("HostConfig");
+        return config;
+    }
+
+    private String getStats(String containersPath) {
+        try {
+            JsonNode containers = objectMapper.readTree(execute(GET, containersPath, null).getBody());
+            ArrayNode stats = objectMapper.createArrayNode();
+            for (JsonNode container : containers) {
+                String id = container.path("Id").asText();
+                EngineResponse response = engineClient.execute(
+                        GET, "/containers/" + id + "/stats?stream=0", null, DockerContainerService.COMMAND_TIMEOUT);
+                // The container may have been removed in the meantime
+                if (response.isSuccessful()) {
+                    stats.add(objectMapper.readTree(response.getBody()));
+                }
+            }
+            return objectMapper.writeValueAsString(stats);
+        } catch (SocketTimeoutException e) {
+            throw new ContainerOperationTimeoutException(e.getMessage());
+        } catch (IOException e) {
+            throw new ContainerFailedDependencyException(e.getMessage());
+        }
+    }
+
+    private void delete(String path) {
+        EngineResponse response = send(DELETE, path, null, DockerContainerService.COMMAND_TIMEOUT);
+        // Already deleted
+        if (response.getStatusCode() == NOT_FOUND) {
+            return;
+        }
+        checkResponse(response);
+    }
+
+    // Keeps deleting the other resources when one of them fails, like the docker cli
+    private void deleteAll(String pathPrefix, List<String> names) {
+        List<String> failures = new ArrayList<>();
+        for (String name : names) {
+            try {
+                delete(pathPrefix + name + "?force=1");
+            } catch (RuntimeException e) {
+                failures.add(name + ": " + e.getMessage());
+            }
+        }
+        if (!failures.isEmpty()) {
+            throw new ContainerFailedDependencyException("Error: " + String.join(", ", failures));
+        }
+    }
+
+    private void killQuietly(String containerName) {
+        try {
+            engineClient.execute(POST, "/containers/" + containerName + "/kill", null, DockerContainerService.COMMAND_TIMEOUT);
+        } catch (IOException e) {
+            log.warn("Error while killing the container {}: {}", containerName, e.getMessage());
+        }
+    }
+
+    private EngineResponse execute(String method, String path, RequestBody body) {
+        return execute(method, path, body, DockerContainerService.COMMAND_TIMEOUT);
+    }
+
+    private EngineResponse execute(String method, String path, RequestBody body, long timeout) {
+        return checkResponse(send(method, path, body, timeout));
+    }
+
+    private EngineResponse send(String method, String path, RequestBody body, long timeout) {
+        try {
+            return engineClient.execute(method, path, body, timeout);
+        } catch (SocketTimeoutException e) {
+            throw new ContainerOperationTimeoutException(e.getMessage());
+        } catch (IOException e) {
+            throw new ContainerFailedDependencyException(e.getMessage());
+        }
+    }
+
+    private static EngineResponse checkResponse(EngineResponse response) {
+        if (!response.isSuccessful() && response.getStatusCode() != NOT_MODIFIED) {
+            throw new ContainerFailedDependencyException("Error: " + readErrorMessage(response));
+        }
+        return response;
+    }
+
+    private static String readErrorMessage(EngineResponse response) {
+        try {
+            JsonNode message = objectMapper.readTree(response.getBody()).get("message");
+            if (message != null) {
+                return message.asText();
+            }
+        } catch (IOException e) {
+            // Not a json body
+        }
+        return response.getBodyAsString();
+    }
+
+    // The build endpoint streams json messages, errors are reported inside the stream with a 200 status code
+    private static String readBuildLog(String buildOutput) {
+        StringBuilder buildLog = new StringBuilder();
+        for (String line : buildOutput.split("\n")) {
+            if (line.isBlank()) {
+                continue;
+            }
+            JsonNode message;
+            try {
+                message = objectMapper.readTree(line);
+            } catch (JsonProcessingException e) {
+                buildLog.append(line).append(System.lineSeparator());
+                continue;
+            }
+            if (message.hasNonNull("error")) {
+                throw new ContainerFailedDependencyException("Error: " + message.get("error").asText());
+            }
+            if (message.hasNonNull("stream")) {
+                buildLog.append(message.get("stream").asText());
+            }
+        }
+        return buildLog.toString();
+    }
+
+    private static JsonNode readArray(EngineResponse response) {
+        try {
+            return objectMapper.readTree(response.getBody());
+        } catch (IOException e) {
+            throw new ContainerFailedDependencyException("Unexpected response from the docker engine: " + e.getMessage());
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,259 @@
+package com.cp.compiler.services.containers.engine;
+
+import lombok.extern.slf4j.Slf4j;
+import org.newsclub.net.unix.AFUNIXSocket;
+import org.newsclub.net.unix.AFUNIXSocketAddress;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The type Docker engine client.
+ * A minimal HTTP/1.1 client talking to the Docker Engine API over its unix socket (or a tcp endpoint).
+ * Connections are kept alive and reused between requests to avoid paying the connection setup for each call.
+ *
+ * @author Zakaria Maaraki
+ */
+@Slf4j
+public class DockerEngineClient implements Closeable {
+
+    /**
+     * The constant UNIX_SCHEME.
+     */
+    public static final String UNIX_SCHEME = "unix://";
+
+    /**
+     * The constant TCP_SCHEME.
+     */
+    public static final String TCP_SCHEME = "tcp://";
+
+    private static final int CONNECT_TIMEOUT = 5000; // 5 sec
+
+    private static final String UNIX_HOST_HEADER = "localhost";
+
+    private final File socketFile;
+
+    private final String tcpHost;
+
+    private final int tcpPort;
+
+    private final String hostHeader;
+
+    private final int maxIdleConnections;
+
+    private final Deque<EngineConnection> idleConnections = new ConcurrentLinkedDeque<>();
+
+    private final AtomicInteger idleConnectionsCount = new AtomicInteger();
+
+    private final AtomicLong openedConnectionsCount = new AtomicLong();
+
+    private volatile boolean closed = false;
+
+    /**
+     * Instantiates a new Docker engine client.
+     *
+     * @param host               the engine host, unix:///path/to/docker.sock or tcp://host:port
+     * @param maxIdleConnections the max number of idle connections kept alive
+     */
+    public DockerEngineClient(String host, int maxIdleConnections) {
+        if (host == null || host.isEmpty()) {
+            throw new IllegalArgumentException("The docker engine host should not be empty");
+        }
+        if (host.startsWith(UNIX_SCHEME)) {
+            this.socketFile = new File(host.substring(UNIX_SCHEME.length()));
+            this.tcpHost = null;
+            this.tcpPort = -1;
+            this.hostHeader = UNIX_HOST_HEADER;
+        } else if (host.startsWith(TCP_SCHEME)) {
+            String address = host.substring(TCP_SCHEME.length());
+            int separator = address.lastIndexOf(':');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("The docker engine tcp host should be of the form tcp://host:port");
+            }
+            this.socketFile = null;
+            this.tcpHost = address.substring(0, separator);
+            this.tcpPort = Integer.parseInt(address.substring(separator + 1));
+            this.hostHeader = address;
+        } else {
+            throw new IllegalArgumentException("Unsupported docker engine host: " + host);
+        }
+        this.maxIdleConnections = Math.max(0, maxIdleConnections);
+    }
+
+    /**
+     * Execute a request and read the whole response.
+     *
+     * @param method  the http method
+     * @param path    the path including the query string
+     * @param body    the body, can be null
+     * @param timeout the read timeout in ms, 0 means no timeout
+     * @return the engine response
+     * @throws IOException the io exception
+     */
+    public EngineResponse execute(String method, String path, RequestBody body, long timeout) throws IOException {
+        Exchange exchange = send(method, path, body, timeout);
+        EngineConnection connection = exchange.connection;
+        try {
+            InputStream inputStream = connection.openBody(exchange.head, method);
+            ByteArrayOutputStream responseBody = new ByteArrayOutputStream();
+            inputStream.transferTo(responseBody);
+            release(connection);
+            return new EngineResponse(exchange.head.getStatusCode(), responseBody.toByteArray());
+        } catch (IOException | RuntimeException exception) {
+            closeQuietly(connection);
+            throw exception;
+        }
+    }
+
+    /**
+     * Execute a request and return its body as a stream.
+     * The connection is dedicated to the stream and is closed with it.
+     *
+     * @param method   the http method
+     * @param path     the path including the query string
+     * @param body     the body, can be null
+     * @param deadline the deadline (epoch ms) after which reads fail, 0 means no deadline
+     * @return the engine stream
+     * @throws IOException the io exception
+     */
+    public EngineStream stream(String method, String path, RequestBody body, long deadline) throws IOException {
+        long timeout = 0;
+        if (deadline > 0) {
+            timeout = Math.max(1, deadline - System.currentTimeMillis());
+        }
+        Exchange exchange = send(method, path, body, timeout);
+        EngineConnection connection = exchange.connection;
+        try {
+            InputStream inputStream = connection.openBody(exchange.head, method);
+            return new EngineStream(exchange.head.getStatusCode(), connection, inputStream, deadline);
+        } catch (RuntimeException exception) {
+            closeQuietly(connection);
+            throw exception;
+        }
+    }
+
+    /**
+     * Gets the number of connections opened since the creation of the client.
+     *
+     * @return the number of opened connections
+     */
+    public long getOpenedConnectionsCount() {
+        return openedConnectionsCount.get();
+    }
+
+    /**
+     * Gets the number of idle connections.
+     *
+     * @return the number of idle connections
+     */
+    public int getIdleConnectionsCount() {
+        return idleConnectionsCount.get();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        EngineConnection connection;
+        while ((connection = pollIdleConnection()) != null) {
+            closeQuietly(connection);
+        }
+    }
+
+    private Exchange send(String method, String path, RequestBody body, long timeout) throws IOException {
+        EngineConnection connection = pollIdleConnection();
+        if (connection != null) {
+            try {
+                return writeAndReadHead(connection, method, path, body, timeout);
+            } catch (EOFException | SocketException staleConnectionException) {
+                // The engine closed the idle connection, retry once on a fresh one
+                log.debug("Stale connection to the docker engine, retrying on a new connection");
+                closeQuietly(connection);
+            } catch (IOException | RuntimeException exception) {
+                closeQuietly(connection);
+                throw exception;
+            }
+        }
+        connection = newConnection();
+        try {
+            return writeAndReadHead(connection, method, path, body, timeout);
+        } catch (IOException | RuntimeException exception) {
+            closeQuietly(connection);
+            throw exception;
+        }
+    }
+
+    private Exchange writeAndReadHead(EngineConnection connection,
+                                      String method,
+                                      String path,
+                                      RequestBody body,
+                                      long timeout) throws IOException {
+        connection.setReadTimeout(timeout);
+        connection.writeRequest(method, path, hostHeader, body);
+        return new Exchange(connection, connection.readResponseHead());
+    }
+
+    private EngineConnection newConnection() throws IOException {
+        Socket socket;
+        if (socketFile != null) {
+            socket = AFUNIXSocket.newInstance();
+            socket.connect(new AFUNIXSocketAddress(socketFile), CONNECT_TIMEOUT);
+        } else {
+            socket = new Socket();
+            socket.setTcpNoDelay(true);
+            socket.connect(new InetSocketAddress(tcpHost, tcpPort), CONNECT_TIMEOUT);
+        }
+        openedConnectionsCount.incrementAndGet();
+        return new EngineConnection(socket);
+    }
+
+    private EngineConnection pollIdleConnection() {
+        EngineConnection connection = idleConnections.pollFirst();
+        if (connection != null) {
+            idleConnectionsCount.decrementAndGet();
+        }
+        return connection;
+    }
+
+    private void release(EngineConnection connection) {
+        if (!closed && connection.isReusable()) {
+            if (idleConnectionsCount.incrementAndGet() <= maxIdleConnections) {
+                // Most recently used connections first, the oldest ones are more likely to be closed by the engine
+                idleConnections.offerFirst(connection);
+                return;
+            }
+            idleConnectionsCount.decrementAndGet();
+        }
+        closeQuietly(connection);
+    }
+
+    private static void closeQuietly(EngineConnection connection) {
+        try {
+            connection.close();
+        } catch (IOException e) {
+            log.debug("Error while closing a connection to the docker engine: {}", e.getMessage());
+        }
+    }
+
+    private static class Exchange {
+
+        private final EngineConnection connection;
+
+        private final EngineConnection.ResponseHead head;
+
+        private Exchange(EngineConnection connection, EngineConnection.ResponseHead head) {
+            this.connection = connection;
+            this.head = head;
+        }
+    }
+}
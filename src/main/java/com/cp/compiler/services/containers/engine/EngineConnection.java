@@ -0,0 +1,444 @@
+package com.cp.compiler.services.containers.engine;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The type Engine connection.
+ * A single HTTP/1.1 connection to the container engine, it can be reused for several requests (keep-alive).
+ *
+ * @author Zakaria Maaraki
+ */
+class EngineConnection implements Closeable {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final int MAX_LINE_LENGTH = 8192;
+
+    private static final byte[] CRLF = {'\r', '\n'};
+
+    private final Socket socket;
+
+    private final InputStream inputStream;
+
+    private final OutputStream outputStream;
+
+    private boolean reusable = true;
+
+    /**
+     * Instantiates a new Engine connection.
+     *
+     * @param socket the connected socket
+     * @throws IOException the io exception
+     */
+    EngineConnection(Socket socket) throws IOException {
+        this.socket = socket;
+        this.inputStream = new BufferedInputStream(socket.getInputStream(), BUFFER_SIZE);
+        this.outputStream = new BufferedOutputStream(socket.getOutputStream(), BUFFER_SIZE);
+    }
+
+    /**
+     * Sets the read timeout, 0 means no timeout.
+     *
+     * @param timeout the timeout in ms
+     * @throws SocketException the socket exception
+     */
+    void setReadTimeout(long timeout) throws SocketException {
+        socket.setSoTimeout(timeout <= 0 ? 0 : (int) Math.min(timeout, Integer.MAX_VALUE));
+    }
+
+    /**
+     * Is reusable boolean.
+     *
+     * @return true if the connection can be returned to the pool
+     */
+    boolean isReusable() {
+        return reusable && !socket.isClosed();
+    }
+
+    /**
+     * Write a request.
+     *
+     * @param method the http method
+     * @param path   the path (including the query string)
+     * @param host   the host header value
+     * @param body   the body, can be null
+     * @throws IOException the io exception
+     */
+    void writeRequest(String method, String path, String host, RequestBody body) throws IOException {
+        StringBuilder head = new StringBuilder()
+                .append(method).append(' ').append(path).append(" HTTP/1.1\r\n")
+                .append("Host: ").append(host).append("\r\n")
+                .append("User-Agent: remote-code-compiler\r\n");
+
+        if (body == null) {
+            if (!"GET".equals(method) && !"DELETE".equals(method)) {
+                head.append("Content-Length: 0\r\n");
+            }
+        } else {
+            head.append("Content-Type: ").append(body.getContentType()).append("\r\n");
+            if (body.getContentLength() >= 0) {
+                head.append("Content-Length: ").append(body.getContentLength()).append("\r\n");
+            } else {
+                head.append("Transfer-Encoding: chunked\r\n");
+            }
+        }
+        head.append("\r\n");
+
+        outputStream.write(head.toString().getBytes(StandardCharsets.US_ASCII));
+
+        if (body != null) {
+            if (body.getContentLength() >= 0) {
+                body.writeTo(new NonClosingOutputStream(outputStream));
+            } else {
+                try (ChunkedOutputStream chunkedOutputStream = new ChunkedOutputStream(outputStream)) {
+                    body.writeTo(chunkedOutputStream);
+                }
+            }
+        }
+        outputStream.flush();
+    }
+
+    /**
+     * Read the status line and the headers of a response.
+     *
+     * @return the response head
+     * @throws IOException the io exception
+     */
+    ResponseHead readResponseHead() throws IOException {
+        String statusLine = readLine(inputStream);
+        if (statusLine == null) {
+            throw new EOFException("Connection closed by the container engine");
+        }
+        // HTTP/1.1 200 OK
+        String[] parts = statusLine.split(" ", 3);
+        if (parts.length < 2 || !parts[0].startsWith("HTTP/")) {
+            throw new IOException("Malformed status line: " + statusLine);
+        }
+        int statusCode;
+        try {
+            statusCode = Integer.parseInt(parts[1]);
+        } catch (NumberFormatException e) {
+            throw new IOException("Malformed status line: " + statusLine);
+        }
+
+        Map<String, String> headers = new HashMap<>();
+        String line;
+        while ((line = readLine(inputStream)) != null && !line.isEmpty()) {
+            int separator = line.indexOf(':');
+            if (separator > 0) {
+                headers.put(line.substring(0, separator).trim().toLowerCase(Locale.ROOT),
+                            line.substring(separator + 1).trim());
+            }
+        }
+
+        if ("HTTP/1.0".equals(parts[0]) || "close".equalsIgnoreCase(headers.get("connection"))) {
+            reusable = false;
+        }
+        return new ResponseHead(statusCode, headers);
+    }
+
+    /**
+     * Open the body of a response.
+     * The returned stream must be fully consumed before reusing the connection.
+     *
+     * @param head   the response head
+     * @param method the method of the request
+     * @return the body input stream
+     */
+    InputStream openBody(ResponseHead head, String method) {
+        int statusCode = head.getStatusCode();
+        if ("HEAD".equals(method) || statusCode == 204 || statusCode == 304 || (statusCode >= 100 && statusCode < 200)) {
+            return InputStream.nullInputStream();
+        }
+        if ("chunked".equalsIgnoreCase(head.getHeaders().get("transfer-encoding"))) {
+            return new ChunkedInputStream(inputStream);
+        }
+        String contentLength = head.getHeaders().get("content-length");
+        if (contentLength != null) {
+            return new LimitedInputStream(inputStream, Long.parseLong(contentLength));
+        }
+        // The body ends when the connection is closed
+        reusable = false;
+        return new NonClosingInputStream(inputStream);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reusable = false;
+        socket.close();
+    }
+
+    /**
+     * Read a line terminated by LF (the CR is removed).
+     *
+     * @param inputStream the input stream
+     * @return the line or null if the end of the stream is reached
+     * @throws IOException the io exception
+     */
+    static String readLine(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream(64);
+        int b;
+        while ((b = inputStream.read()) != -1) {
+            if (b == '\n') {
+                byte[] bytes = line.toByteArray();
+                int length = bytes.length > 0 && bytes[bytes.length - 1] == '\r' ? bytes.length - 1 : bytes.length;
+                return new String(bytes, 0, length, StandardCharsets.US_ASCII);
+            }
+            if (line.size() >= MAX_LINE_LENGTH) {
+                throw new IOException("Line too long");
+            }
+            line.write(b);
+        }
+        return line.size() == 0 ? null : line.toString(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * The type Response head.
+     */
+    static class ResponseHead {
+
+        private final int statusCode;
+
+        private final Map<String, String> headers;
+
+        ResponseHead(int statusCode, Map<String, String> headers) {
+            this.statusCode = statusCode;
+            this.headers = headers;
+        }
+
+        int getStatusCode() {
+            return statusCode;
+        }
+
+        Map<String, String> getHeaders() {
+            return headers;
+        }
+    }
+
+    /**
+     * Body framed by a content length.
+     */
+    private static class LimitedInputStream extends FilterInputStream {
+
+        private long remaining;
+
+        LimitedInputStream(InputStream inputStream, long length) {
+            super(inputStream);
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = in.read();
+            if (b == -1) {
+                throw new EOFException("Unexpected end of body");
+            }
+            remaining--;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int read = in.read(buffer, offset, (int) Math.min(length, remaining));
+            if (read == -1) {
+                throw new EOFException("Unexpected end of body");
+            }
+            remaining -= read;
+            return read;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(in.available(), remaining);
+        }
+
+        @Override
+        public void close() {
+            // The connection is managed by the client
+        }
+    }
+
+    /**
+     * Body using chunked transfer encoding.
+     */
+    private static class ChunkedInputStream extends FilterInputStream {
+
+        private long chunkRemaining = 0;
+
+        private boolean finished = false;
+
+        ChunkedInputStream(InputStream inputStream) {
+            super(inputStream);
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            int read = read(single, 0, 1);
+            return read == -1 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (finished) {
+                return -1;
+            }
+            if (chunkRemaining == 0 && !nextChunk()) {
+                return -1;
+            }
+            int read = in.read(buffer, offset, (int) Math.min(length, chunkRemaining));
+            if (read == -1) {
+                throw new EOFException("Unexpected end of chunk");
+            }
+            chunkRemaining -= read;
+            if (chunkRemaining == 0) {
+                // CRLF at the end of each chunk
+                readLine(in);
+            }
+            return read;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return finished ? 0 : (int) Math.min(in.available(), chunkRemaining);
+        }
+
+        private boolean nextChunk() throws IOException {
+            String sizeLine = readLine(in);
+            if (sizeLine == null) {
+                throw new EOFException("Unexpected end of chunked body");
+            }
+            int extension = sizeLine.indexOf(';');
+            String size = (extension >= 0 ? sizeLine.substring(0, extension) : sizeLine).trim();
+            chunkRemaining = Long.parseLong(size, 16);
+            if (chunkRemaining == 0) {
+                // Trailers
+                String trailer;
+                while ((trailer = readLine(in)) != null && !trailer.isEmpty()) {
+                    // ignored
+                }
+                finished = true;
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public void close() {
+            // The connection is managed by the client
+        }
+    }
+
+    /**
+     * Request body using chunked transfer encoding.
+     */
+    private static class ChunkedOutputStream extends FilterOutputStream {
+
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+
+        private int count = 0;
+
+        ChunkedOutputStream(OutputStream outputStream) {
+            super(outputStream);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (count == buffer.length) {
+                flushChunk();
+            }
+            buffer[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            while (length > 0) {
+                if (count == buffer.length) {
+                    flushChunk();
+                }
+                int toCopy = Math.min(length, buffer.length - count);
+                System.arraycopy(bytes, offset, buffer, count, toCopy);
+                count += toCopy;
+                offset += toCopy;
+                length -= toCopy;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            flushChunk();
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            // Write the last chunk, the underlying stream stays open
+            flushChunk();
+            out.write('0');
+            out.write(CRLF);
+            out.write(CRLF);
+            out.flush();
+        }
+
+        private void flushChunk() throws IOException {
+            if (count == 0) {
+                return;
+            }
+            out.write(Integer.toHexString(count).getBytes(StandardCharsets.US_ASCII));
+            out.write(CRLF);
+            out.write(buffer, 0, count);
+            out.write(CRLF);
+            count = 0;
+        }
+    }
+
+    private static class NonClosingInputStream extends FilterInputStream {
+
+        NonClosingInputStream(InputStream inputStream) {
+            super(inputStream);
+        }
+
+        @Override
+        public void close() {
+            // The connection is managed by the client
+        }
+    }
+
+    private static class NonClosingOutputStream extends FilterOutputStream {
+
+        NonClosingOutputStream(OutputStream outputStream) {
+            super(outputStream);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            out.write(bytes, offset, length);
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.cp.compiler.services.containers.engine;
+
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The type Engine response.
+ * A fully read response returned by the container engine.
+ *
+ * @author Zakaria Maaraki
+ */
+@Getter
+public class EngineResponse {
+    
+    private final int statusCode;
+    
+    private final byte[] body;
+    
+    /**
+     * Instantiates a new Engine response.
+     *
+     * @param statusCode the status code
+     * @param body       the body
+     */
+    public EngineResponse(int statusCode, byte[] body) {
+        this.statusCode = statusCode;
+        this.body = body;
+    }
+    
+    /**
+     * Is successful boolean.
+     *
+     * @return true if the status code is 2xx
+     */
+    public boolean isSuccessful() {
+        return statusCode >= 200 && statusCode < 300;
+    }
+    
+    /**
+     * Gets the body as a string.
+     *
+     * @return the body as a string
+     */
+    public String getBodyAsString() {
+        return new String(body, StandardCharsets.UTF_8);
+    }
+}
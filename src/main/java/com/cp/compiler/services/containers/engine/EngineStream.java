@@ -0,0 +1,95 @@
+package com.cp.compiler.services.containers.engine;
+
+import lombok.Getter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.SocketTimeoutException;
+
+/**
+ * The type Engine stream.
+ * A response whose body is consumed as a stream (for example followed logs or events).
+ * The underlying connection is not returned to the pool, it is closed with the stream.
+ *
+ * @author Zakaria Maaraki
+ */
+public class EngineStream implements Closeable {
+    
+    @Getter
+    private final int statusCode;
+    
+    private final EngineConnection connection;
+    
+    private final InputStream body;
+    
+    private final long deadline;
+    
+    /**
+     * Instantiates a new Engine stream.
+     *
+     * @param statusCode the status code
+     * @param connection the connection
+     * @param body       the body
+     * @param deadline   the deadline (epoch ms), 0 means no deadline
+     */
+    EngineStream(int statusCode, EngineConnection connection, InputStream body, long deadline) {
+        this.statusCode = statusCode;
+        this.connection = connection;
+        this.body = body;
+        this.deadline = deadline;
+    }
+    
+    /**
+     * Is successful boolean.
+     *
+     * @return true if the status code is 2xx
+     */
+    public boolean isSuccessful() {
+        return statusCode >= 200 && statusCode < 300;
+    }
+    
+    /**
+     * Gets the body, reads fail with a SocketTimeoutException once the deadline is reached.
+     *
+     * @return the body
+     */
+    public InputStream getBody() {
+        return new InputStream() {
+            
+            @Override
+            public int read() throws IOException {
+                byte[] single = new byte[1];
+                int read = read(single, 0, 1);
+                return read == -1 ? -1 : single[0] & 0xff;
+            }
+            
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                applyDeadline();
+                return body.read(buffer, offset, length);
+            }
+            
+            @Override
+            public int available() throws IOException {
+                return body.available();
+            }
+        };
+    }
+    
+    private void applyDeadline() throws IOException {
+        if (deadline <= 0) {
+            return;
+        }
+        long remaining = deadline - System.currentTimeMillis();
+        if (remaining <= 0) {
+            throw new SocketTimeoutException("Deadline reached");
+        }
+        connection.setReadTimeout(remaining);
+    }
+    
+    @Override
+    public void close() throws IOException {
+        connection.close();
+    }
+}
@@ -0,0 +1,120 @@
+package com.cp.compiler.services.containers.engine;
+
+import com.cp.compiler.models.processes.OutputListener;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * The type Multiplexed stream reader.
+ * Splits the stream returned by the container engine (logs or attach of a container created without a tty)
+ * into stdout and stderr. Each frame starts with an 8 bytes header: [stream type, 0, 0, 0, size (4 bytes, big endian)].
+ *
+ * @author Zakaria Maaraki
+ */
+public abstract class MultiplexedStreamReader {
+    
+    private static final int HEADER_SIZE = 8;
+    
+    private static final int STDERR_STREAM = 2;
+    
+    private MultiplexedStreamReader() {}
+    
+    /**
+     * Demultiplex the stream until its end.
+     *
+     * @param inputStream the multiplexed input stream
+     * @param stdOut      the stdout destination
+     * @param stdErr      the stderr destination
+     * @throws IOException the io exception
+     */
+    public static void demultiplex(InputStream inputStream, OutputStream stdOut, OutputStream stdErr) throws IOException {
+        demultiplex(inputStream, stdOut, stdErr, 0);
+    }
+    
+    /**
+     * Demultiplex the stream until its end, or until more than maxStdOutBytes are written to stdout.
+     *
+     * @param inputStream    the multiplexed input stream
+     * @param stdOut         the stdout destination
+     * @param stdErr         the stderr destination
+     * @param maxStdOutBytes the max number of bytes written to stdout, 0 means no limit
+     * @return false if the stream was not read until its end because stdout exceeded the limit
+     * @throws IOException the io exception
+     */
+    public static boolean demultiplex(InputStream inputStream,
+                                      OutputStream stdOut,
+                                      OutputStream stdErr,
+                                      long maxStdOutBytes) throws IOException {
+        return demultiplex(inputStream, stdOut, stdErr, maxStdOutBytes, null);
+    }
+    
+    /**
+     * Demultiplex the stream until its end, until more than maxStdOutBytes are written to stdout,
+     * or until the stdout listener asks to stop.
+     *
+     * @param inputStream    the multiplexed input stream
+     * @param stdOut         the stdout destination
+     * @param stdErr         the stderr destination
+     * @param maxStdOutBytes the max number of bytes written to stdout, 0 means no limit
+     * @param stdOutListener also receives the stdout, null if not needed
+     * @return false if the stream was not read until its end because stdout exceeded the limit or the listener asked to stop
+     * @throws IOException the io exception
+     */
+    public static boolean demultiplex(InputStream inputStream,
+                                      OutputStream stdOut,
+                                      OutputStream stdErr,
+                                      long maxStdOutBytes,
+                                      OutputListener stdOutListener) throws IOException {
+        long stdOutBytes = 0;
+        byte[] header = new byte[HEADER_SIZE];
+        byte[] buffer = new byte[8192];
+        
+        while (readHeader(inputStream, header)) {
+            int streamType = header[0];
+            long size = ((header[4] & 0xffL) << 24) | ((header[5] & 0xff) << 16) | ((header[6] & 0xff) << 8) | (header[7] & 0xff);
+            // stdin frames (type 0) are written as stdout, like the docker cli does
+            OutputStream destination = streamType == STDERR_STREAM ? stdErr : stdOut;
+            
+            while (size > 0) {
+                int read = inputStream.read(buffer, 0, (int) Math.min(buffer.length, size));
+                if (read == -1) {
+                    throw new EOFException("Unexpected end of frame");
+                }
+                destination.write(buffer, 0, read);
+                size -= read;
+                if (destination == stdOut) {
+                    stdOutBytes += read;
+                    if (maxStdOutBytes > 0 && stdOutBytes > maxStdOutBytes) {
+                        return false;
+                    }
+                    if (stdOutListener != null) {
+                        stdOutListener.onOutput(buffer, 0, read);
+                        if (stdOutListener.isStopRequested()) {
+                            return false;
+                        }
+                    }
+                }
+            }
+        }
+        return true;
+    }
+    
+    // Returns false if the end of the stream is reached before the first byte
+    private static boolean readHeader(InputStream inputStream, byte[] header) throws IOException {
+        int offset = 0;
+        while (offset < HEADER_SIZE) {
+            int read = inputStream.read(header, offset, HEADER_SIZE - offset);
+            if (read == -1) {
+                if (offset == 0) {
+                    return false;
+                }
+                throw new EOFException("Unexpected end of frame header");
+            }
+            offset += read;
+        }
+        return true;
+    }
+}
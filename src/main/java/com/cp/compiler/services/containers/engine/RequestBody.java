@@ -0,0 +1,101 @@
+package com.cp.compiler.services.containers.engine;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+/**
+ * The interface Request body.
+ * Represents the body of a request sent to the container engine.
+ *
+ * @author Zakaria Maaraki
+ */
+public interface RequestBody {
+
+    /**
+     * The constant JSON_CONTENT_TYPE.
+     */
+    String JSON_CONTENT_TYPE = "application/json";
+
+    /**
+     * The constant TAR_CONTENT_TYPE.
+     */
+    String TAR_CONTENT_TYPE = "application/x-tar";
+
+    /**
+     * Gets content type.
+     *
+     * @return the content type
+     */
+    String getContentType();
+
+    /**
+     * Gets the content length.
+     *
+     * @return the content length, or -1 if it's unknown (the body will be sent using chunked transfer encoding)
+     */
+    long getContentLength();
+
+    /**
+     * Write the body to the given output stream.
+     * This method can be called more than once (if the request is retried on a fresh connection).
+     *
+     * @param outputStream the output stream
+     * @throws IOException the io exception
+     */
+    void writeTo(OutputStream outputStream) throws IOException;
+
+    /**
+     * Json request body.
+     *
+     * @param json the json
+     * @return the request body
+     */
+    static RequestBody json(String json) {
+        byte[] content = json.getBytes(StandardCharsets.UTF_8);
+        return new RequestBody() {
+
+            @Override
+            public String getContentType() {
+                return JSON_CONTENT_TYPE;
+            }
+
+            @Override
+            public long getContentLength() {
+                return content.length;
+            }
+
+            @Override
+            public void writeTo(OutputStream outputStream) throws IOException {
+                outputStream.write(content);
+            }
+        };
+    }
+
+    /**
+     * Tar archive of a directory, streamed without being buffered in memory.
+     *
+     * @param directory the directory
+     * @return the request body
+     */
+    static RequestBody tar(Path directory) {
+        return new RequestBody() {
+
+            @Override
+            public String getContentType() {
+                return TAR_CONTENT_TYPE;
+            }
+
+            @Override
+            public long getContentLength() {
+                return -1;
+            }
+
+            @Override
+            public void writeTo(OutputStream outputStream) throws IOException {
+                TarArchiveWriter.writeDirectory(directory, outputStream);
+            }
+        };
+    }
+}
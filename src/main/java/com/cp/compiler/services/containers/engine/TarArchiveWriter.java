@@ -0,0 +1,157 @@
+package com.cp.compiler.services.containers.engine;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The type Tar archive writer.
+ * Writes a directory as an uncompressed (ustar) archive, the format expected by the container engine
+ * for build contexts and file copies.
+ *
+ * @author Zakaria Maaraki
+ */
+public abstract class TarArchiveWriter {
+
+    private static final int BLOCK_SIZE = 512;
+
+    private static final int NAME_LENGTH = 100;
+
+    private static final int PREFIX_LENGTH = 155;
+
+    private static final int DIRECTORY_MODE = 0755;
+
+    private static final int EXECUTABLE_FILE_MODE = 0755;
+
+    private static final int FILE_MODE = 0644;
+
+    private static final byte REGULAR_FILE_TYPE = '0';
+
+    private static final byte DIRECTORY_TYPE = '5';
+
+    private TarArchiveWriter() {}
+
+    /**
+     * Write the content of a directory (recursively) into a tar archive.
+     * Entries are relative to the given directory.
+     *
+     * @param directory    the directory
+     * @param outputStream the output stream
+     * @throws IOException the io exception
+     */
+    public static void writeDirectory(Path directory, OutputStream outputStream) throws IOException {
+        List<Path> entries;
+        try (Stream<Path> paths = Files.walk(directory)) {
+            entries = paths
+                    .filter(path -> !path.equals(directory))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+
+        byte[] buffer = new byte[8192];
+
+        for (Path path : entries) {
+            String name = directory.relativize(path).toString().replace('\\', '/');
+            if (Files.isDirectory(path)) {
+                writeHeader(outputStream, name + "/", DIRECTORY_MODE, 0, DIRECTORY_TYPE, Files.getLastModifiedTime(path).toMillis());
+                continue;
+            }
+            long size = Files.size(path);
+            int mode = Files.isExecutable(path) ? EXECUTABLE_FILE_MODE : FILE_MODE;
+            writeHeader(outputStream, name, mode, size, REGULAR_FILE_TYPE, Files.getLastModifiedTime(path).toMillis());
+            try (InputStream inputStream = Files.newInputStream(path)) {
+                long written = 0;
+                int read;
+                while (written < size && (read = inputStream.read(buffer, 0, (int) Math.min(buffer.length, size - written))) != -1) {
+                    outputStream.write(buffer, 0, read);
+                    written += read;
+                }
+                if (written != size) {
+                    throw new IOException("File " + path + " changed while being archived");
+                }
+            }
+            writePadding(outputStream, size);
+        }
+
+        // End of archive: two empty blocks
+        outputStream.write(new byte[BLOCK_SIZE * 2]);
+        outputStream.flush();
+    }
+
+    private static void writeHeader(OutputStream outputStream,
+                                    String name,
+                                    int mode,
+                                    long size,
+                                    byte type,
+                                    long lastModified) throws IOException {
+        byte[] header = new byte[BLOCK_SIZE];
+
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        if (nameBytes.length <= NAME_LENGTH) {
+            System.arraycopy(nameBytes, 0, header, 0, nameBytes.length);
+        } else {
+            // Split the path between the prefix and the name fields
+            int separator = name.lastIndexOf('/', name.length() - 2);
+            byte[] prefix = separator > 0 ? name.substring(0, separator).getBytes(StandardCharsets.UTF_8) : new byte[0];
+            byte[] shortName = name.substring(separator + 1).getBytes(StandardCharsets.UTF_8);
+            if (prefix.length > PREFIX_LENGTH || shortName.length > NAME_LENGTH) {
+                throw new IOException("File name too long to be archived: " + name);
+            }
+            System.arraycopy(shortName, 0, header, 0, shortName.length);
+            System.arraycopy(prefix, 0, header, 345, prefix.length);
+        }
+
+        writeOctal(header, 100, 8, mode);
+        writeOctal(header, 108, 8, 0); // uid
+        writeOctal(header, 116, 8, 0); // gid
+        writeOctal(header, 124, 12, size);
+        writeOctal(header, 136, 12, lastModified / 1000);
+        header[156] = type;
+        writeAscii(header, 257, "ustar\0");
+        writeAscii(header, 263, "00");
+
+        // The checksum is computed with the checksum field filled with spaces
+        for (int i = 148; i < 156; i++) {
+            header[i] = ' ';
+        }
+        long checksum = 0;
+        for (byte b : header) {
+            checksum += b & 0xff;
+        }
+        writeOctal(header, 148, 7, checksum);
+        header[155] = ' ';
+
+        outputStream.write(header);
+    }
+
+    private static void writePadding(OutputStream outputStream, long size) throws IOException {
+        int remainder = (int) (size % BLOCK_SIZE);
+        if (remainder != 0) {
+            outputStream.write(new byte[BLOCK_SIZE - remainder]);
+        }
+    }
+
+    // Zero padded octal value terminated by a NUL byte
+    private static void writeOctal(byte[] header, int offset, int length, long value) {
+        String octal = Long.toOctalString(value);
+        int digits = length - 1;
+        StringBuilder builder = new StringBuilder(digits);
+        for (int i = octal.length(); i < digits; i++) {
+            builder.append('0');
+        }
+        builder.append(octal);
+        writeAscii(header, offset, builder.toString());
+        header[offset + digits] = 0;
+    }
+
+    private static void writeAscii(byte[] header, int offset, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(bytes, 0, header, offset, bytes.length);
+    }
+}
@@ -0,0 +1,32 @@
+package com.cp.compiler.services.janitor;
+
+/**
+ * The interface Container janitor.
+ * Deletes the containers and images left by the executions in the background,
+ * so that the deletions don't slow down the responses.
+ *
+ * @author Zakaria Maaraki
+ */
+public interface ContainerJanitor {
+
+    /**
+     * Queue the deletion of a container.
+     *
+     * @param containerName the container name
+     */
+    void deleteContainer(String containerName);
+
+    /**
+     * Queue the deletion of an image.
+     *
+     * @param imageName the image name
+     */
+    void deleteImage(String imageName);
+
+    /**
+     * Gets queue depth.
+     *
+     * @return the number of deletions waiting for a worker
+     */
+    int getQueueDepth();
+}
@@ -0,0 +1,196 @@
+package com.cp.compiler.services.janitor;
+
+import com.cp.compiler.services.containers.ContainerService;
+import com.cp.compiler.wellknownconstants.WellKnownMetrics;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The type Container janitor default.
+ * The deletions are queued in a bounded queue and a small fixed set of workers removes them by batches,
+ * a batch is deleted with one call to the container engine for the containers and one for the images.
+ * When the queue is full, the caller waits for a free slot and ends up deleting the resource itself,
+ * so that the executions slow down instead of piling up work for docker.
+ *
+ * @author Zakaria Maaraki
+ */
+@Slf4j
+@Service
+public class ContainerJanitorDefault implements ContainerJanitor {
+
+    private enum ResourceType {
+        CONTAINER,
+        IMAGE
+    }
+
+    @AllArgsConstructor
+    private static class Deletion {
+
+        private final ResourceType type;
+
+        private final String name;
+
+        private final long enqueueTime;
+    }
+
+    private final ContainerService containerService;
+
+    private final MeterRegistry meterRegistry;
+
+    private final int workers;
+
+    private final int maxBatchSize;
+
+    private final long enqueueTimeout;
+
+    private final BlockingQueue<Deletion> queue;
+
+    private ExecutorService workersPool;
+
+    private DistributionSummary batchSizeSummary;
+
+    private Timer lagTimer;
+
+    private volatile boolean closed = false;
+
+    /**
+     * Instantiates a new Container janitor default.
+     *
+     * @param containerService the container service
+     * @param meterRegistry    the meter registry
+     * @param workers          the number of workers deleting the batches
+     * @param queueCapacity    the max number of queued deletions
+     * @param maxBatchSize     the max number of deletions in a batch
+     * @param enqueueTimeout   the time in ms to wait for a free slot when the queue is full,
+     *                         before deleting the resource in the calling thread
+     */
+    public ContainerJanitorDefault(ContainerService containerService,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${compiler.janitor.workers:2}") int workers,
+                                   @Value("${compiler.janitor.queue-capacity:1000}") int queueCapacity,
+                                   @Value("${compiler.janitor.max-batch-size:20}") int maxBatchSize,
+                                   @Value("${compiler.janitor.enqueue-timeout:5000}") long enqueueTimeout) {
+        this.containerService = containerService;
+        this.meterRegistry = meterRegistry;
+        this.workers = Math.max(1, workers);
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.enqueueTimeout = enqueueTimeout;
+        this.queue = new LinkedBlockingQueue<>(Math.max(1, queueCapacity));
+    }
+
+    /**
+     * Init the metrics and start the workers.
+     */
+    @PostConstruct
+    public void init() {
+        meterRegistry.gauge(WellKnownMetrics.JANITOR_QUEUE_DEPTH_GAUGE, queue, BlockingQueue::size);
+        batchSizeSummary = meterRegistry.summary(WellKnownMetrics.JANITOR_BATCH_SIZE_SUMMARY);
+        lagTimer = meterRegistry.timer(WellKnownMetrics.JANITOR_LAG_TIMER);
+
+        workersPool = Executors.newFixedThreadPool(workers);
+        for (int i = 0; i < workers; i++) {
+            workersPool.execute(this::work);
+        }
+    }
+
+    /**
+     * Stop the workers and delete the queued resources.
+     */
+    @PreDestroy
+    public void close() {
+        closed = true;
+        if (workersPool != null) {
+            workersPool.shutdownNow();
+        }
+        List<Deletion> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (int i = 0; i < remaining.size(); i += maxBatchSize) {
+            delete(remaining.subList(i, Math.min(remaining.size(), i + maxBatchSize)));
+        }
+    }
+
+    @Override
+    public void deleteContainer(String containerName) {
+        enqueue(new Deletion(ResourceType.CONTAINER, containerName, System.nanoTime()));
+    }
+
+    @Override
+    public void deleteImage(String imageName) {
+        enqueue(new Deletion(ResourceType.IMAGE, imageName, System.nanoTime()));
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    private void enqueue(Deletion deletion) {
+        boolean queued = false;
+        if (!closed) {
+            try {
+                queued = queue.offer(deletion, enqueueTimeout, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (!queued) {
+            log.warn("The janitor is closed or its queue is full, the {} {} is deleted by the caller", deletion.type, deletion.name);
+            delete(List.of(deletion));
+        }
+    }
+
+    private void work() {
+        while (!closed) {
+            List<Deletion> batch = new ArrayList<>();
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queue.drainTo(batch, maxBatchSize - 1);
+            try {
+                delete(batch);
+            } catch (Exception e) {
+                log.warn("Unexpected error occurred while deleting a batch of {} resources: {}", batch.size(), e);
+            }
+        }
+    }
+
+    private void delete(List<Deletion> batch) {
+        Set<String> containerNames = new LinkedHashSet<>();
+        Set<String> imageNames = new LinkedHashSet<>();
+        for (Deletion deletion : batch) {
+            (deletion.type == ResourceType.CONTAINER ? containerNames : imageNames).add(deletion.name);
+        }
+        // The containers first, an image can't be removed while a container uses it
+        if (!containerNames.isEmpty()) {
+            containerService.deleteContainers(new ArrayList<>(containerNames));
+        }
+        if (!imageNames.isEmpty()) {
+            containerService.deleteImages(new ArrayList<>(imageNames));
+        }
+        if (batchSizeSummary != null) {
+            batchSizeSummary.record(batch.size());
+            long now = System.nanoTime();
+            batch.forEach(deletion -> lagTimer.record(now - deletion.enqueueTime, TimeUnit.NANOSECONDS));
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.cp.compiler.services.janitor;
+
+import com.cp.compiler.models.containers.ReaperReport;
+
+/**
+ * The interface Orphaned artifacts reaper.
+ * Removes the execution folders, images and containers left behind when the service was stopped
+ * in the middle of an execution.
+ *
+ * @author Zakaria Maaraki
+ */
+public interface OrphanedArtifactsReaper {
+
+    /**
+     * Remove the execution artifacts older than the min age.
+     *
+     * @return the removed artifacts
+     */
+    ReaperReport reap();
+}
@@ -0,0 +1,289 @@
+package com.cp.compiler.services.janitor;
+
+import com.cp.compiler.executions.Execution;
+import com.cp.compiler.mappers.StreamingRequestMapper;
+import com.cp.compiler.models.Language;
+import com.cp.compiler.models.containers.ContainerResource;
+import com.cp.compiler.models.containers.ReaperReport;
+import com.cp.compiler.services.containers.ContainerService;
+import com.cp.compiler.services.pools.CompileServerPoolDefault;
+import com.cp.compiler.services.pools.ExecutionContainerPoolDefault;
+import com.cp.compiler.services.strategies.CompiledLanguagesExecutionStrategy;
+import com.cp.compiler.services.strategies.ExecutionStrategy;
+import com.cp.compiler.wellknownconstants.WellKnownFolders;
+import com.cp.compiler.wellknownconstants.WellKnownMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.FileSystemUtils;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The type Orphaned artifacts reaper default.
+ * Runs once at startup then periodically, the artifacts are recognized by the prefixes of their names:
+ * the execution folders of each language folder and the spooled requests (in the working directory and in the
+ * execution workspace),
+ * the execution images and the compilation, execution, pooled and compile server containers.
+ * Only the artifacts older than the min age are removed, so that the running executions are never touched.
+ * Several instances can share the container engine, the pools of a running instance replace their containers
+ * before they reach the min age, so only the ones left by a stopped instance are removed.
+ *
+ * @author Zakaria Maaraki
+ */
+@Slf4j
+@Service
+public class OrphanedArtifactsReaperDefault implements OrphanedArtifactsReaper {
+
+    // Max number of containers or images removed by one call to the container engine
+    private static final int MAX_BATCH_SIZE = 100;
+
+    private static final List<String> CONTAINER_NAME_PREFIXES = List.of(
+            CompiledLanguagesExecutionStrategy.COMPILATION_CONTAINER_NAME_PREFIX,
+            ExecutionStrategy.EXECUTION_CONTAINER_NAME_PREFIX,
+            ExecutionContainerPoolDefault.POOLED_CONTAINER_NAME_PREFIX,
+            CompileServerPoolDefault.CONTAINER_NAME_PREFIX);
+
+    private final ContainerService containerService;
+
+    private final MeterRegistry meterRegistry;
+
+    private final boolean enabled;
+
+    private final long interval;
+
+    private final Duration minAge;
+
+    // The directories containing the language folders
+    private final List<Path> workingDirectories;
+
+    private ScheduledExecutorService scheduler;
+
+    private Counter containersCounter;
+
+    private Counter imagesCounter;
+
+    private Counter executionFoldersCounter;
+
+    private Counter reclaimedBytesCounter;
+
+    /**
+     * Instantiates a new Orphaned artifacts reaper default.
+     *
+     * @param containerService the container service
+     * @param meterRegistry    the meter registry
+     * @param enabled          whether the reaper runs at startup and periodically
+     * @param interval         the interval in seconds between two runs
+     * @param minAge           the min age in seconds of an artifact to be removed
+     * @param workspaceRoot    the root of the execution workspace, empty if disabled
+     */
+    @Autowired
+    public OrphanedArtifactsReaperDefault(ContainerService containerService,
+                                          MeterRegistry meterRegistry,
+                                          @Value("${compiler.reaper.enabled:true}") boolean enabled,
+                                          @Value("${compiler.reaper.interval:600}") long interval,
+                                          @Value("${compiler.reaper.min-age:3600}") long minAge,
+                                          @Value("${compiler.workspace.root:}") String workspaceRoot) {
+        this(containerService, meterRegistry, enabled, interval, minAge,
+                workspaceRoot.isEmpty() ? List.of(Path.of("")) : List.of(Path.of(""), Path.of(workspaceRoot)));
+    }
+
+    /**
+     * Instantiates a new Orphaned artifacts reaper default.
+     *
+     * @param containerService   the container service
+     * @param meterRegistry      the meter registry
+     * @param enabled            whether the reaper runs at startup and periodically
+     * @param interval           the interval in seconds between two runs
+     * @param minAge             the min age in seconds of an artifact to be removed
+     * @param workingDirectories the directories containing the executions folder
+     */
+    public OrphanedArtifactsReaperDefault(ContainerService containerService,
+                                          MeterRegistry meterRegistry,
+                                          boolean enabled,
+                                          long interval,
+                                          long minAge,
+                                          List<Path> workingDirectories) {
+        this.containerService = containerService;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.interval = interval;
+        this.minAge = Duration.ofSeconds(minAge);
+        this.workingDirectories = workingDirectories;
+    }
+
+    /**
+     * Init the metrics and schedule the runs, the first one starts right away.
+     */
+    @PostConstruct
+    public void init() {
+        containersCounter = meterRegistry.counter(WellKnownMetrics.REAPER_RECLAIMED_COUNTER, "type", "container");
+        imagesCounter = meterRegistry.counter(WellKnownMetrics.REAPER_RECLAIMED_COUNTER, "type", "image");
+        executionFoldersCounter = meterRegistry.counter(WellKnownMetrics.REAPER_RECLAIMED_COUNTER, "type", "folder");
+        reclaimedBytesCounter = meterRegistry.counter(WellKnownMetrics.REAPER_RECLAIMED_BYTES_COUNTER);
+        if (!enabled) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "orphaned-artifacts-reaper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::reapQuietly, 0, interval, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stop the scheduled runs.
+     */
+    @PreDestroy
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Override
+    public ReaperReport reap() {
+        Instant threshold = Instant.now().minus(minAge);
+
+        List<String> containers = findOrphans(containerService.listContainers(), CONTAINER_NAME_PREFIXES, threshold);
+        List<String> images = findOrphans(containerService.listImages(), List.of(Execution.IMAGE_PREFIX_NAME), threshold);
+
+        // The containers first, an image can't be removed while a container uses it
+        deleteByBatches(containers, containerService::deleteContainers);
+        deleteByBatches(images, containerService::deleteImages);
+
+        List<String> executionFolders = new ArrayList<>();
+        long reclaimedBytes = 0;
+        for (Path executionFolder : findOrphanedExecutionFolders(threshold)) {
+            try {
+                long size = getSize(executionFolder);
+                FileSystemUtils.deleteRecursively(executionFolder);
+                reclaimedBytes += size;
+                executionFolders.add(executionFolder.toString());
+            } catch (IOException e) {
+                log.warn("Can't delete the orphaned execution folder {}: {}", executionFolder, e.getMessage());
+            }
+        }
+        ReaperReport reaperReport = ReaperReport
+                .builder()
+                .containers(containers)
+                .images(images)
+                .executionFolders(executionFolders)
+                .reclaimedBytes(reclaimedBytes)
+                .build();
+
+        containersCounter.increment(reaperReport.getContainers().size());
+        imagesCounter.increment(reaperReport.getImages().size());
+        executionFoldersCounter.increment(reaperReport.getExecutionFolders().size());
+        reclaimedBytesCounter.increment(reclaimedBytes);
+        log.info("The reaper removed {} orphaned containers, {} images and {} execution folders ({} bytes reclaimed)",
+                reaperReport.getContainers().size(),
+                reaperReport.getImages().size(),
+                reaperReport.getExecutionFolders().size(),
+                reclaimedBytes);
+        return reaperReport;
+    }
+
+    private void reapQuietly() {
+        try {
+            reap();
+        } catch (Exception e) {
+            log.warn("Error while removing the orphaned execution artifacts: {}", e.getMessage());
+        }
+    }
+
+    private static List<String> findOrphans(List<ContainerResource> resources, List<String> prefixes, Instant threshold) {
+        if (resources == null) {
+            return List.of();
+        }
+        return resources
+                .stream()
+                .filter(resource -> prefixes.stream().anyMatch(prefix -> resource.getName().startsWith(prefix)))
+                .filter(resource -> resource.getCreationTime().isBefore(threshold))
+                .map(ContainerResource::getName)
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    private static void deleteByBatches(List<String> names, Consumer<List<String>> delete) {
+        for (int i = 0; i < names.size(); i += MAX_BATCH_SIZE) {
+            delete.accept(names.subList(i, Math.min(names.size(), i + MAX_BATCH_SIZE)));
+        }
+    }
+
+    private List<Path> findOrphanedExecutionFolders(Instant threshold) {
+        Set<String> languageFolders = Arrays.stream(Language.values())
+                .map(Language::getFolderName)
+                .collect(Collectors.toSet());
+        List<Path> orphanedFolders = findOrphanedFolders(
+                workingDirectories
+                        .stream()
+                        .flatMap(workingDirectory -> languageFolders.stream().map(workingDirectory::resolve)),
+                Execution.EXECUTION_FOLDER_PREFIX_NAME,
+                threshold);
+        // The test cases of the json requests that never became an execution
+        orphanedFolders.addAll(findOrphanedFolders(
+                workingDirectories
+                        .stream()
+                        .map(workingDirectory -> workingDirectory.resolve(WellKnownFolders.SPOOL_FOLDER_NAME)),
+                StreamingRequestMapper.SPOOL_DIRECTORY_PREFIX,
+                threshold));
+        return orphanedFolders;
+    }
+
+    private static List<Path> findOrphanedFolders(Stream<Path> parentFolders, String prefix, Instant threshold) {
+        return parentFolders
+                .filter(Files::isDirectory)
+                .flatMap(parentFolder -> {
+                    try (Stream<Path> folders = Files.list(parentFolder)) {
+                        return folders
+                                .filter(Files::isDirectory)
+                                .filter(folder -> folder.getFileName().toString().startsWith(prefix))
+                                .filter(folder -> isOlderThan(folder, threshold))
+                                .collect(Collectors.toList())
+                                .stream();
+                    } catch (IOException e) {
+                        log.warn("Can't list the folders of {}: {}", parentFolder, e.getMessage());
+                        return Stream.empty();
+                    }
+                })
+                .collect(Collectors.toList());
+    }
+
+    private static boolean isOlderThan(Path folder, Instant threshold) {
+        try {
+            return Files.getLastModifiedTime(folder).toInstant().isBefore(threshold);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static long getSize(Path folder) throws IOException {
+        try (Stream<Path> files = Files.walk(folder)) {
+            return files
+                    .filter(Files::isRegularFile)
+                    .mapToLong(file -> file.toFile().length())
+                    .sum();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.cp.compiler.services.pools;
+
+import com.cp.compiler.models.Language;
+import com.cp.compiler.models.processes.ProcessOutput;
+
+import java.util.Optional;
+
+/**
+ * The interface Compile server pool.
+ * Keeps started compile server containers per language, a compile server is a long-lived compiler process
+ * that compiles the source code of an execution without paying the start and the warm-up of the compiler.
+ *
+ * @author Zakaria Maaraki
+ */
+public interface CompileServerPool {
+
+    /**
+     * The directory where the execution workspace is mounted inside a compile server.
+     */
+    String WORKSPACE_DIRECTORY = "/workspace";
+
+    /**
+     * Compile the source code of an execution with an idle compile server.
+     *
+     * @param language           the language
+     * @param executionPath      the execution path, relative to the volume shared with the compilation containers,
+     *                           or under the {@link #WORKSPACE_DIRECTORY} for the executions of the workspace
+     * @param sourceCodeFileName the source code file name, the file is deleted on success
+     * @param timeout            the timeout in ms
+     * @return the output of the compilation, the diagnostics are in stderr and the status is 0 on success,
+     * or empty if no compile server is available, in this case the source code should be compiled in a container
+     */
+    Optional<ProcessOutput> compile(Language language, String executionPath, String sourceCodeFileName, long timeout);
+
+    /**
+     * Gets idle servers count.
+     *
+     * @param language the language
+     * @return the number of idle compile servers
+     */
+    int getIdleServersCount(Language language);
+}
@@ -0,0 +1,352 @@
+package com.cp.compiler.services.pools;
+
+import com.cp.compiler.exceptions.ContainerOperationTimeoutException;
+import com.cp.compiler.models.Language;
+import com.cp.compiler.models.containers.ContainerExecOptions;
+import com.cp.compiler.models.containers.ContainerMount;
+import com.cp.compiler.models.containers.ContainerRunOptions;
+import com.cp.compiler.models.containers.PooledContainer;
+import com.cp.compiler.models.processes.ProcessOutput;
+import com.cp.compiler.services.containers.ContainerService;
+import com.cp.compiler.services.resources.Resources;
+import com.cp.compiler.utils.StatusUtils;
+import com.cp.compiler.wellknownconstants.WellKnownMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The type Compile server pool default.
+ * The compile servers are started from the compile-server.[language] images (see environment/build.sh),
+ * the volume of the executions is mounted like in the compilation containers, as well as the execution workspace
+ * when it's enabled, and the jobs are sent
+ * with docker exec. A compile server is replaced after a number of jobs, so that its memory stays bounded,
+ * and once it reaches half the min age of the reaper.
+ *
+ * @author Zakaria Maaraki
+ */
+@Slf4j
+@Service
+public class CompileServerPoolDefault implements CompileServerPool {
+
+    /**
+     * The languages having a compile server image.
+     */
+    public static final Set<Language> SUPPORTED_LANGUAGES = Set.of(Language.JAVA, Language.KOTLIN, Language.SCALA);
+
+    // Note: these values should not be updated, once updated don't forget to update the compile server images.
+    private static final String IMAGE_PREFIX_NAME = "compile-server.";
+
+    private static final String COMPILE_COMMAND = "/compile-server/compile.sh";
+
+    private static final String WORKING_DIRECTORY = "/app";
+
+    private static final String MAX_HEAP_ENV_VARIABLE = "COMPILE_SERVER_MAX_HEAP";
+
+    // Exit status of compile.sh when the source code doesn't compile
+    private static final int COMPILE_SERVER_COMPILATION_ERROR_STATUS = 65;
+
+    /**
+     * The compile server container name prefix
+     */
+    public static final String CONTAINER_NAME_PREFIX = "compile-server-";
+
+    private static final String NO_NETWORK = "none";
+
+    private final ContainerService containerService;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Resources resources;
+
+    private final int size;
+
+    private final int maxJobs;
+
+    private final String maxHeap;
+
+    private final String volume;
+
+    private final String workspaceRoot;
+
+    private final long maxAge;
+
+    private final Map<Language, BlockingQueue<PooledContainer>> idleServers = new EnumMap<>(Language.class);
+
+    // Idle, claimed and starting servers
+    private final Map<Language, AtomicInteger> serversCount = new EnumMap<>(Language.class);
+
+    private final Map<Language, Counter> hitCounters = new EnumMap<>(Language.class);
+
+    private final Map<Language, Counter> missCounters = new EnumMap<>(Language.class);
+
+    private final ExecutorService threadPool = Executors.newCachedThreadPool();
+
+    private ScheduledExecutorService scheduler;
+
+    private volatile boolean closed = false;
+
+    /**
+     * Instantiates a new Compile server pool default.
+     *
+     * @param containerService the container service
+     * @param meterRegistry    the meter registry
+     * @param resources        the resources
+     * @param size             the number of compile servers per language, 0 disables the compile servers
+     * @param maxJobs          the number of compilations a compile server runs before being replaced
+     * @param maxHeap          the max heap of a compile server, ex: 512m
+     * @param volume           the volume shared with the compilation containers, the working directory if empty
+     * @param workspaceRoot    the root of the execution workspace, empty if disabled
+     * @param reaperMinAge     the age in seconds of the containers removed by the reaper, a compile server is
+     *                         replaced at half this age
+     */
+    public CompileServerPoolDefault(ContainerService containerService,
+                                    MeterRegistry meterRegistry,
+                                    Resources resources,
+                                    @Value("${compiler.compile-server.size:0}") int size,
+                                    @Value("${compiler.compile-server.max-jobs:100}") int maxJobs,
+                                    @Value("${compiler.compile-server.max-heap:512m}") String maxHeap,
+                                    @Value("${compiler.compilation-container.volume:}") String volume,
+                                    @Value("${compiler.workspace.root:}") String workspaceRoot,
+                                    @Value("${compiler.reaper.min-age:3600}") long reaperMinAge) {
+        this.containerService = containerService;
+        this.meterRegistry = meterRegistry;
+        this.resources = resources;
+        this.size = size;
+        this.maxJobs = maxJobs;
+        this.maxHeap = maxHeap;
+        this.volume = volume.isEmpty() ? System.getProperty("user.dir") : volume;
+        this.workspaceRoot = workspaceRoot.isEmpty() ? "" : Path.of(workspaceRoot).toAbsolutePath().normalize().toString();
+        this.maxAge = TimeUnit.SECONDS.toMillis(reaperMinAge) / 2;
+    }
+
+    /**
+     * Init the metrics and start the compile servers of each supported language.
+     */
+    @PostConstruct
+    public void init() {
+        if (size <= 0) {
+            return;
+        }
+        for (Language language : SUPPORTED_LANGUAGES) {
+            var queue = new LinkedBlockingQueue<PooledContainer>();
+            idleServers.put(language, queue);
+            serversCount.put(language, new AtomicInteger());
+
+            String languageTag = language.toString().toLowerCase();
+            hitCounters.put(language, meterRegistry.counter(WellKnownMetrics.COMPILE_SERVER_HIT_COUNTER, "language", languageTag));
+            missCounters.put(language, meterRegistry.counter(WellKnownMetrics.COMPILE_SERVER_MISS_COUNTER, "language", languageTag));
+            meterRegistry.gauge(WellKnownMetrics.COMPILE_SERVER_IDLE_GAUGE, Tags.of("language", languageTag), queue, BlockingQueue::size);
+
+            log.info("Starting {} {} compile servers", size, language);
+            replenish(language);
+        }
+        if (maxAge > 0) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "compile-server-rotation");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::replaceOldServers, maxAge / 2, maxAge / 2, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Delete the idle compile servers.
+     */
+    @PreDestroy
+    public void close() {
+        closed = true;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        threadPool.shutdown();
+        idleServers.values().forEach(queue -> {
+            PooledContainer server;
+            while ((server = queue.poll()) != null) {
+                containerService.deleteContainer(server.getName());
+            }
+        });
+    }
+
+    @Override
+    public Optional<ProcessOutput> compile(Language language,
+                                           String executionPath,
+                                           String sourceCodeFileName,
+                                           long timeout) {
+        BlockingQueue<PooledContainer> queue = idleServers.get(language);
+        if (queue == null || closed) {
+            return Optional.empty();
+        }
+
+        PooledContainer server = queue.poll();
+
+        // Replace the servers that failed to start
+        replenish(language);
+
+        if (server == null) {
+            log.info("No idle {} compile server", language);
+            missCounters.get(language).increment();
+            return Optional.empty();
+        }
+        hitCounters.get(language).increment();
+
+        ProcessOutput output;
+        try {
+            output = containerService.execInContainer(ContainerExecOptions
+                    .builder()
+                    .containerName(server.getName())
+                    .workingDirectory(WORKING_DIRECTORY)
+                    .command(List.of("/bin/sh", COMPILE_COMMAND, executionPath, sourceCodeFileName))
+                    .timeout(timeout)
+                    .build());
+        } catch (ContainerOperationTimeoutException e) {
+            // Compiling again in a container would hit the same timeout, the compiler may still be running
+            log.warn("Time limit exceeded while compiling with the compile server {}", server.getName());
+            server.setReusable(false);
+            release(server);
+            return Optional.of(ProcessOutput
+                    .builder()
+                    .stdOut("")
+                    .stdErr(e.getMessage())
+                    .status(StatusUtils.TIME_LIMIT_EXCEEDED_STATUS)
+                    .executionDuration((int) timeout)
+                    .build());
+        } catch (Exception e) {
+            log.warn("Error while compiling with the compile server {}: {}", server.getName(), e.getMessage());
+            server.setReusable(false);
+            release(server);
+            return Optional.empty();
+        }
+
+        switch (output.getStatus()) {
+            case StatusUtils.ACCEPTED_OR_WRONG_ANSWER_STATUS:
+                release(server);
+                return Optional.of(output);
+            case COMPILE_SERVER_COMPILATION_ERROR_STATUS:
+                release(server);
+                return Optional.of(ProcessOutput
+                        .builder()
+                        .stdOut(output.getStdOut())
+                        .stdErr(output.getStdErr())
+                        .status(StatusUtils.COMPILATION_ERROR_STATUS)
+                        .executionDuration(output.getExecutionDuration())
+                        .build());
+            default:
+                // The compile server is broken, the source code is compiled in a container instead
+                log.warn("Compile server {} failed, status = {}, error = {}",
+                        server.getName(), output.getStatus(), output.getStdErr());
+                server.setReusable(false);
+                release(server);
+                return Optional.empty();
+        }
+    }
+
+    @Override
+    public int getIdleServersCount(Language language) {
+        BlockingQueue<PooledContainer> queue = idleServers.get(language);
+        return queue == null ? 0 : queue.size();
+    }
+
+    private void release(PooledContainer server) {
+        server.incrementUses();
+        if (!closed && server.isReusable() && server.getUses() < maxJobs && !isOld(server)) {
+            idleServers.get(server.getLanguage()).offer(server);
+            return;
+        }
+        threadPool.execute(() -> destroy(server));
+    }
+
+    private void replenish(Language language) {
+        AtomicInteger count = serversCount.get(language);
+        int current;
+        while (!closed && (current = count.get()) < size) {
+            if (count.compareAndSet(current, current + 1)) {
+                threadPool.execute(() -> startServer(language));
+            }
+        }
+    }
+
+    private List<ContainerMount> getMounts() {
+        List<ContainerMount> mounts = new ArrayList<>();
+        mounts.add(ContainerMount
+                .builder()
+                .source(volume)
+                .target(WORKING_DIRECTORY)
+                .build());
+        if (!workspaceRoot.isEmpty()) {
+            mounts.add(ContainerMount
+                    .builder()
+                    .source(workspaceRoot)
+                    .target(WORKSPACE_DIRECTORY)
+                    .build());
+        }
+        return mounts;
+    }
+
+    private void startServer(Language language) {
+        String languageName = language.toString().toLowerCase();
+        String containerName = CONTAINER_NAME_PREFIX + languageName + "-" + UUID.randomUUID();
+        try {
+            containerService.startContainer(ContainerRunOptions
+                    .builder()
+                    .imageName(IMAGE_PREFIX_NAME + languageName)
+                    .containerName(containerName)
+                    .maxCpus(resources.getMaxCpus())
+                    .network(NO_NETWORK)
+                    .envVariables(Map.of(MAX_HEAP_ENV_VARIABLE, maxHeap))
+                    .mounts(getMounts())
+                    .build());
+        } catch (Exception e) {
+            log.warn("Error while starting the compile server {}: {}", containerName, e.getMessage());
+            serversCount.get(language).decrementAndGet();
+            containerService.deleteContainer(containerName);
+            return;
+        }
+        if (closed) {
+            containerService.deleteContainer(containerName);
+            return;
+        }
+        idleServers.get(language).offer(new PooledContainer(containerName, language));
+        log.info("Compile server {} started", containerName);
+    }
+
+    // The reaper of any instance sharing the container engine removes the containers older than its min age
+    private void replaceOldServers() {
+        List<PooledContainer> oldServers = new ArrayList<>();
+        idleServers.values().forEach(queue -> queue.removeIf(server -> isOld(server) && oldServers.add(server)));
+        oldServers.forEach(server -> threadPool.execute(() -> destroy(server)));
+    }
+
+    private boolean isOld(PooledContainer server) {
+        return maxAge > 0 && System.currentTimeMillis() - server.getCreationTime() >= maxAge;
+    }
+
+    private void destroy(PooledContainer server) {
+        log.info("Compile server {} removed after {} compilations", server.getName(), server.getUses());
+        containerService.deleteContainer(server.getName());
+        serversCount.get(server.getLanguage()).decrementAndGet();
+        replenish(server.getLanguage());
+    }
+}
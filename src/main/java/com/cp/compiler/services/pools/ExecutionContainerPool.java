@@ -0,0 +1,57 @@
+package com.cp.compiler.services.pools;
+
+import com.cp.compiler.models.Language;
+import com.cp.compiler.models.containers.PooledContainer;
+
+import java.util.Optional;
+
+/**
+ * The interface Execution container pool.
+ * Keeps started and idle containers per language, so an execution doesn't pay the creation of a container
+ * for each test case.
+ *
+ * @author Zakaria Maaraki
+ */
+public interface ExecutionContainerPool {
+
+    /**
+     * The directory where the execution files are copied inside a pooled container.
+     */
+    String WORKING_DIRECTORY = "/app";
+
+    /**
+     * The user running the test cases inside a pooled container, same uid and gid as the user of the execution images.
+     */
+    String EXECUTION_USER = "111:111";
+
+    /**
+     * Claim an idle container.
+     *
+     * @param language the language
+     * @return the container, or empty if the pool is disabled for this language or no container is available
+     */
+    Optional<PooledContainer> claim(Language language);
+
+    /**
+     * Copy the execution files inside a claimed container.
+     *
+     * @param container     the claimed container
+     * @param executionPath the execution path
+     */
+    void prepare(PooledContainer container, String executionPath);
+
+    /**
+     * Give back a claimed container, it is reset and recycled if it is still reusable, destroyed otherwise.
+     *
+     * @param container the container
+     */
+    void release(PooledContainer container);
+
+    /**
+     * Gets idle containers count.
+     *
+     * @param language the language
+     * @return the number of idle containers
+     */
+    int getIdleContainersCount(Language language);
+}
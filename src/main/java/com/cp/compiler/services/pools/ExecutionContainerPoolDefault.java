@@ -0,0 +1,344 @@
+package com.cp.compiler.services.pools;
+
+import com.cp.compiler.exceptions.ContainerFailedDependencyException;
+import com.cp.compiler.models.Language;
+import com.cp.compiler.models.containers.ContainerExecOptions;
+import com.cp.compiler.models.containers.PooledContainer;
+import com.cp.compiler.models.processes.ProcessOutput;
+import com.cp.compiler.services.businesslogic.ContainerHelper;
+import com.cp.compiler.services.containers.ContainerService;
+import com.cp.compiler.services.resources.Resources;
+import com.cp.compiler.wellknownconstants.WellKnownMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The type Execution container pool default.
+ * Pooled containers are started from the base image of the execution Dockerfile of each language
+ * and stay idle until an execution claims them, the execution files are then copied inside.
+ * A container is replaced after a number of executions or once it reaches half the min age of the reaper.
+ *
+ * @author Zakaria Maaraki
+ */
+@Slf4j
+@Service
+public class ExecutionContainerPoolDefault implements ExecutionContainerPool {
+
+    /**
+     * The pooled container name prefix
+     */
+    public static final String POOLED_CONTAINER_NAME_PREFIX = "pool-";
+
+    private static final String ROOT_USER = "root";
+
+    private static final long COMMAND_TIMEOUT = 10000; // 10 sec
+
+    private static final String PREPARE_COMMAND =
+            "chmod -R a+rX " + WORKING_DIRECTORY + " && chmod a+x " + WORKING_DIRECTORY + "/entrypoint-*.sh";
+
+    private static final String EXECUTION_UID = EXECUTION_USER.split(":")[0];
+
+    // Kills what the previous execution left running (pid 1 is spared), removes the files the execution user wrote
+    // anywhere it can write (home, /dev/shm, /run/lock...) and the files copied into the working directory,
+    // so that nothing is left to the next execution which may belong to another user
+    private static final String RESET_COMMAND = "kill -9 -1; "
+            + "find / -path /proc -prune -o -path /sys -prune -o -user " + EXECUTION_UID + " -exec rm -rf {} + 2>/dev/null; "
+            + "rm -rf " + WORKING_DIRECTORY + "/* " + WORKING_DIRECTORY + "/.[!.]* "
+            + "/tmp/* /tmp/.[!.]* /var/tmp/* /var/tmp/.[!.]* /dev/shm/* /dev/shm/.[!.]*";
+
+    private final ContainerService containerService;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Resources resources;
+
+    private final Map<Language, Integer> poolSizes = new EnumMap<>(Language.class);
+
+    private final int maxUses;
+
+    private final long claimTimeout;
+
+    private final long maxAge;
+
+    private final Map<Language, String> baseImages = new EnumMap<>(Language.class);
+
+    private final Map<Language, BlockingQueue<PooledContainer>> idleContainers = new EnumMap<>(Language.class);
+
+    // Idle, claimed and starting containers
+    private final Map<Language, AtomicInteger> containersCount = new EnumMap<>(Language.class);
+
+    private final Map<Language, Counter> hitCounters = new EnumMap<>(Language.class);
+
+    private final Map<Language, Counter> missCounters = new EnumMap<>(Language.class);
+
+    private final Map<Language, Timer> waitTimers = new EnumMap<>(Language.class);
+
+    private final ExecutorService threadPool = Executors.newCachedThreadPool();
+
+    private ScheduledExecutorService scheduler;
+
+    private volatile boolean closed = false;
+
+    /**
+     * Instantiates a new Execution container pool default.
+     *
+     * @param containerService the container service
+     * @param meterRegistry    the meter registry
+     * @param resources        the resources
+     * @param size             the number of containers kept per language, 0 disables the pool
+     * @param sizes            the sizes overriding the default one for some languages, ex: JAVA:4,PYTHON:2
+     * @param maxUses          the number of executions a container can run before being replaced
+     * @param claimTimeout     the time in ms to wait for a container to be released when none is idle
+     * @param reaperMinAge     the age in seconds of the containers removed by the reaper, a container is replaced
+     *                         at half this age
+     */
+    public ExecutionContainerPoolDefault(ContainerService containerService,
+                                         MeterRegistry meterRegistry,
+                                         Resources resources,
+                                         @Value("${compiler.execution.pool.size:0}") int size,
+                                         @Value("${compiler.execution.pool.sizes:}") String sizes,
+                                         @Value("${compiler.execution.pool.max-uses:50}") int maxUses,
+                                         @Value("${compiler.execution.pool.claim-timeout:0}") long claimTimeout,
+                                         @Value("${compiler.reaper.min-age:3600}") long reaperMinAge) {
+        this.containerService = containerService;
+        this.meterRegistry = meterRegistry;
+        this.resources = resources;
+        this.maxUses = maxUses;
+        this.claimTimeout = claimTimeout;
+        this.maxAge = TimeUnit.SECONDS.toMillis(reaperMinAge) / 2;
+        for (Language language : Language.values()) {
+            poolSizes.put(language, size);
+        }
+        poolSizes.putAll(parseSizes(sizes));
+    }
+
+    /**
+     * Init the metrics and start the containers of each enabled language.
+     */
+    @PostConstruct
+    public void init() {
+        for (Language language : Language.values()) {
+            if (poolSizes.get(language) <= 0) {
+                continue;
+            }
+
+            String baseImage = ContainerHelper.getExecutionBaseImage(language);
+            if (baseImage == null) {
+                log.warn("The execution pool is disabled for {}, the base image can't be found", language);
+                continue;
+            }
+            baseImages.put(language, baseImage);
+
+            var queue = new LinkedBlockingQueue<PooledContainer>();
+            idleContainers.put(language, queue);
+            containersCount.put(language, new AtomicInteger());
+
+            String languageTag = language.toString().toLowerCase();
+            hitCounters.put(language, meterRegistry.counter(WellKnownMetrics.EXECUTION_POOL_HIT_COUNTER, "language", languageTag));
+            missCounters.put(language, meterRegistry.counter(WellKnownMetrics.EXECUTION_POOL_MISS_COUNTER, "language", languageTag));
+            waitTimers.put(language, meterRegistry.timer(WellKnownMetrics.EXECUTION_POOL_WAIT_TIMER, "language", languageTag));
+            meterRegistry.gauge(WellKnownMetrics.EXECUTION_POOL_IDLE_GAUGE, Tags.of("language", languageTag), queue, BlockingQueue::size);
+
+            log.info("Warming up {} {} containers from the image {}", poolSizes.get(language), language, baseImage);
+            replenish(language);
+        }
+        if (!idleContainers.isEmpty() && maxAge > 0) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "execution-pool-rotation");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::replaceOldContainers, maxAge / 2, maxAge / 2, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Delete the idle containers.
+     */
+    @PreDestroy
+    public void close() {
+        closed = true;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        threadPool.shutdown();
+        idleContainers.values().forEach(queue -> {
+            PooledContainer container;
+            while ((container = queue.poll()) != null) {
+                containerService.deleteContainer(container.getName());
+            }
+        });
+    }
+
+    @Override
+    public Optional<PooledContainer> claim(Language language) {
+        BlockingQueue<PooledContainer> queue = idleContainers.get(language);
+        if (queue == null || closed) {
+            return Optional.empty();
+        }
+
+        long start = System.nanoTime();
+        PooledContainer container = queue.poll();
+        if (container == null && claimTimeout > 0) {
+            try {
+                container = queue.poll(claimTimeout, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        waitTimers.get(language).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        // Replace the containers that failed to start
+        replenish(language);
+
+        if (container == null) {
+            log.info("No idle {} container in the pool", language);
+            missCounters.get(language).increment();
+            return Optional.empty();
+        }
+
+        log.info("Container {} claimed from the pool", container.getName());
+        hitCounters.get(language).increment();
+        return Optional.of(container);
+    }
+
+    @Override
+    public void prepare(PooledContainer container, String executionPath) {
+        containerService.copyToContainer(executionPath, container.getName(), WORKING_DIRECTORY);
+        ProcessOutput output = exec(container, PREPARE_COMMAND);
+        if (output.getStatus() != 0) {
+            throw new ContainerFailedDependencyException(
+                    "Error while preparing the container " + container.getName() + ": " + output.getStdErr());
+        }
+    }
+
+    @Override
+    public void release(PooledContainer container) {
+        container.incrementUses();
+        if (closed) {
+            containerService.deleteContainer(container.getName());
+            return;
+        }
+        threadPool.execute(() -> {
+            if (container.isReusable() && container.getUses() < maxUses && !isOld(container) && reset(container)) {
+                idleContainers.get(container.getLanguage()).offer(container);
+                log.info("Container {} recycled", container.getName());
+                return;
+            }
+            destroy(container);
+        });
+    }
+
+    @Override
+    public int getIdleContainersCount(Language language) {
+        BlockingQueue<PooledContainer> queue = idleContainers.get(language);
+        return queue == null ? 0 : queue.size();
+    }
+
+    private void replenish(Language language) {
+        int size = poolSizes.get(language);
+        AtomicInteger count = containersCount.get(language);
+        int current;
+        while (!closed && (current = count.get()) < size) {
+            if (count.compareAndSet(current, current + 1)) {
+                threadPool.execute(() -> startContainer(language));
+            }
+        }
+    }
+
+    private void startContainer(Language language) {
+        String containerName = POOLED_CONTAINER_NAME_PREFIX
+                + language.toString().toLowerCase()
+                + "-"
+                + UUID.randomUUID();
+        try {
+            containerService.startIdleContainer(
+                    baseImages.get(language), containerName, WORKING_DIRECTORY, resources.getMaxCpus());
+        } catch (Exception e) {
+            log.warn("Error while starting the pooled container {}: {}", containerName, e.getMessage());
+            containersCount.get(language).decrementAndGet();
+            containerService.deleteContainer(containerName);
+            return;
+        }
+        if (closed) {
+            containerService.deleteContainer(containerName);
+            return;
+        }
+        idleContainers.get(language).offer(new PooledContainer(containerName, language));
+        log.info("Container {} added to the pool", containerName);
+    }
+
+    // The reaper of any instance sharing the container engine removes the containers older than its min age
+    private void replaceOldContainers() {
+        List<PooledContainer> oldContainers = new ArrayList<>();
+        idleContainers.values().forEach(queue -> queue.removeIf(container -> isOld(container) && oldContainers.add(container)));
+        oldContainers.forEach(container -> threadPool.execute(() -> destroy(container)));
+    }
+
+    private boolean isOld(PooledContainer container) {
+        return maxAge > 0 && System.currentTimeMillis() - container.getCreationTime() >= maxAge;
+    }
+
+    private void destroy(PooledContainer container) {
+        log.info("Container {} removed from the pool after {} executions", container.getName(), container.getUses());
+        containerService.deleteContainer(container.getName());
+        containersCount.get(container.getLanguage()).decrementAndGet();
+        replenish(container.getLanguage());
+    }
+
+    private boolean reset(PooledContainer container) {
+        try {
+            return exec(container, RESET_COMMAND).getStatus() == 0;
+        } catch (Exception e) {
+            log.warn("Error while resetting the pooled container {}: {}", container.getName(), e.getMessage());
+            return false;
+        }
+    }
+
+    private ProcessOutput exec(PooledContainer container, String command) {
+        return containerService.execInContainer(ContainerExecOptions
+                .builder()
+                .containerName(container.getName())
+                .user(ROOT_USER)
+                .workingDirectory(WORKING_DIRECTORY)
+                .command(List.of("/bin/sh", "-c", command))
+                .timeout(COMMAND_TIMEOUT)
+                .build());
+    }
+
+    private static Map<Language, Integer> parseSizes(String sizes) {
+        Map<Language, Integer> parsedSizes = new EnumMap<>(Language.class);
+        if (sizes == null || sizes.isBlank()) {
+            return parsedSizes;
+        }
+        for (String entry : sizes.split(",")) {
+            String[] parts = entry.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid execution pool size: " + entry + ", expected LANGUAGE:size");
+            }
+            parsedSizes.put(Language.valueOf(parts[0].trim().toUpperCase()), Integer.parseInt(parts[1].trim()));
+        }
+        return parsedSizes;
+    }
+}
@@ -0,0 +1,107 @@
+package com.cp.compiler.services.resources;
+
+import com.cp.compiler.models.resources.ExecutionLane;
+import com.cp.compiler.models.resources.ResourceDemand;
+import lombok.Getter;
+
+import java.util.concurrent.locks.Condition;
+
+/**
+ * The type Admission.
+ * A request queued by the admission queue, then admitted when its resources are reserved.
+ *
+ * @author Zakaria Maaraki
+ */
+public class Admission {
+
+    @Getter
+    private final String userId;
+
+    @Getter
+    private final ExecutionLane lane;
+
+    @Getter
+    private final ResourceDemand demand;
+
+    @Getter
+    private final long enqueuedAt; // System.nanoTime
+
+    @Getter
+    private long admittedAt; // System.nanoTime
+
+    // Signaled when the resources are reserved for this admission, null if it was admitted without waiting
+    private final Condition admittedCondition;
+
+    private boolean admitted;
+
+    // The virtual time of the fair queue at which the request can be served
+    private double startTag;
+
+    /**
+     * Instantiates a new Admission.
+     *
+     * @param userId            the id of the user sending the request
+     * @param lane              the lane of the request
+     * @param demand            the resources of the execution
+     * @param enqueuedAt        the time of the arrival of the request
+     * @param admittedCondition the condition signaled when the request is admitted
+     */
+    Admission(String userId, ExecutionLane lane, ResourceDemand demand, long enqueuedAt, Condition admittedCondition) {
+        this.userId = userId;
+        this.lane = lane;
+        this.demand = demand;
+        this.enqueuedAt = enqueuedAt;
+        this.admittedCondition = admittedCondition;
+    }
+
+    /**
+     * Is admitted boolean.
+     *
+     * @return true if the resources are reserved for this admission
+     */
+    public boolean isAdmitted() {
+        return admitted;
+    }
+
+    /**
+     * Gets the start tag.
+     *
+     * @return the start tag
+     */
+    double getStartTag() {
+        return startTag;
+    }
+
+    /**
+     * Sets the start tag.
+     *
+     * @param startTag the start tag
+     */
+    void setStartTag(double startTag) {
+        this.startTag = startTag;
+    }
+
+    /**
+     * Mark the admission as admitted and wake up its request.
+     *
+     * @param admittedAt the time of the admission
+     */
+    void admit(long admittedAt) {
+        this.admitted = true;
+        this.admittedAt = admittedAt;
+        if (admittedCondition != null) {
+            admittedCondition.signal();
+        }
+    }
+
+    /**
+     * Wait to be admitted.
+     *
+     * @param nanos the max time to wait
+     * @return the remaining time
+     * @throws InterruptedException the interrupted exception
+     */
+    long awaitAdmission(long nanos) throws InterruptedException {
+        return admittedCondition.awaitNanos(nanos);
+    }
+}
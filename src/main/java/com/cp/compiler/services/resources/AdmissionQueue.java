@@ -0,0 +1,55 @@
+package com.cp.compiler.services.resources;
+
+import com.cp.compiler.models.resources.ExecutionLane;
+import com.cp.compiler.models.resources.LaneOccupancy;
+import com.cp.compiler.models.resources.ResourceDemand;
+
+import java.util.List;
+
+/**
+ * The interface Admission queue.
+ * Requests wait in the queue until the resources of their execution can be reserved,
+ * the requests of the different users are served fairly.
+ *
+ * @author Zakaria Maaraki
+ */
+public interface AdmissionQueue {
+
+    /**
+     * The constant UNKNOWN_USER, the user of the requests without user id (ex: the requests of the brokers).
+     */
+    String UNKNOWN_USER = "unknown";
+
+    /**
+     * Reserve the resources of an execution, waiting behind the requests served before it.
+     *
+     * @param userId the id of the user sending the request, null if unknown
+     * @param lane   the lane of the request
+     * @param demand the resources of the execution
+     * @return the admission, to be released at the end of the execution
+     * @throws com.cp.compiler.exceptions.CompilerThrottlingException if the queue is full
+     * or if the resources can't be reserved before the max wait
+     */
+    Admission acquire(String userId, ExecutionLane lane, ResourceDemand demand);
+
+    /**
+     * Release the resources of an execution, they're handed over to the next queued request.
+     *
+     * @param admission the admission
+     */
+    void release(Admission admission);
+
+    /**
+     * Gets the number of queued requests.
+     *
+     * @return the number of queued requests
+     */
+    int getQueueDepth();
+
+    /**
+     * Gets the executions and the queued requests of each lane.
+     *
+     * @return the lane occupancies
+     */
+    List<LaneOccupancy> getLaneOccupancies();
+}
@@ -0,0 +1,297 @@
+package com.cp.compiler.services.resources;
+
+import com.cp.compiler.exceptions.CompilerThrottlingException;
+import com.cp.compiler.models.resources.ExecutionLane;
+import com.cp.compiler.models.resources.LaneOccupancy;
+import com.cp.compiler.models.resources.ResourceDemand;
+import com.cp.compiler.wellknownconstants.WellKnownMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The type Admission queue default.
+ * A bounded queue in front of the resources, with a queue per user served by weighted fair queuing so that
+ * a user sending many requests can't take all the executions. When an execution ends, its resources are handed over
+ * to the next queued request before any new request can take them. The next request is not overtaken by smaller
+ * requests whose resources would fit, so that the requests needing a lot of memory or disk are not starved.
+ * The users reaching their max number of executions are skipped until one of their executions ends, so are
+ * the lanes reaching their max number of executions or the executions reserved for the other lanes.
+ * A request is only rejected when the queue is full or when it can't be admitted before the max wait.
+ *
+ * @author Zakaria Maaraki
+ */
+@Slf4j
+@Component
+public class AdmissionQueueDefault implements AdmissionQueue {
+
+    // Weight of the last execution in the average duration of the executions
+    private static final double DURATION_SMOOTHING_FACTOR = 0.2;
+
+    // The tag of the wait timer of the users without configured weight
+    private static final String OTHER_USERS = "other";
+
+    private final Resources resources;
+
+    @Getter
+    private final int capacity;
+
+    @Getter
+    private final long maxWait; // ms
+
+    @Getter
+    private final int maxRequestsPerUser;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final FairQueue queue;
+
+    // The number of executions of each user, the users without executions are removed
+    private final Map<String, Integer> userExecutions = new HashMap<>();
+
+    private final ExecutionLanes lanes;
+
+    private final MeterRegistry meterRegistry;
+
+    // The wait timers by configured user id or tenant, the other users share the same timer
+    private final Map<String, Timer> userWaitTimers = new HashMap<>();
+
+    // Moving average of the time the resources are held by an execution
+    private double averageExecutionDuration; // ns
+
+    private final Timer waitTimer;
+
+    private final Counter queueFullCounter;
+
+    private final Counter deadlineCounter;
+
+    private final Counter timeoutCounter;
+
+    /**
+     * Instantiates a new Admission queue default, without max number of executions per user and with the same weight
+     * for all the users.
+     *
+     * @param resources     the resources
+     * @param meterRegistry the meter registry
+     * @param capacity      the max number of queued requests, 0 throttles the requests immediately
+     * @param maxWait       the max time in ms a request waits in the queue
+     */
+    public AdmissionQueueDefault(Resources resources, MeterRegistry meterRegistry, int capacity, long maxWait) {
+        this(resources, meterRegistry, capacity, maxWait, 0, "", "");
+    }
+
+    /**
+     * Instantiates a new Admission queue default.
+     *
+     * @param resources          the resources
+     * @param meterRegistry      the meter registry
+     * @param capacity           the max number of queued requests, 0 throttles the requests immediately
+     * @param maxWait            the max time in ms a request waits in the queue
+     * @param maxRequestsPerUser the max number of executions of a user, 0 for no limit
+     * @param userWeights        the weights of the users or the tenants, ex: contest:4,acme/alice:2
+     * @param lanes              the reserved and max executions of the lanes, ex: interactive:4:0,broker:0:2
+     */
+    @Autowired
+    public AdmissionQueueDefault(Resources resources,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${compiler.admission.queue-capacity:100}") int capacity,
+                                 @Value("${compiler.admission.max-wait:5000}") long maxWait,
+                                 @Value("${compiler.admission.max-requests-per-user:0}") int maxRequestsPerUser,
+                                 @Value("${compiler.admission.user-weights:}") String userWeights,
+                                 @Value("${compiler.admission.lanes:}") String lanes) {
+        this.resources = resources;
+        this.capacity = capacity;
+        this.maxWait = maxWait;
+        this.maxRequestsPerUser = maxRequestsPerUser;
+        this.queue = new FairQueue(userWeights);
+        this.lanes = new ExecutionLanes(lanes, resources.getMaxRequests());
+        this.meterRegistry = meterRegistry;
+        this.waitTimer = Timer
+                .builder(WellKnownMetrics.ADMISSION_QUEUE_WAIT_TIMER)
+                .description("Time spent in the admission queue")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.queueFullCounter = meterRegistry.counter(WellKnownMetrics.ADMISSION_REJECTED_COUNTER, "reason", "queue-full");
+        this.deadlineCounter = meterRegistry.counter(WellKnownMetrics.ADMISSION_REJECTED_COUNTER, "reason", "deadline");
+        this.timeoutCounter = meterRegistry.counter(WellKnownMetrics.ADMISSION_REJECTED_COUNTER, "reason", "timeout");
+        Gauge.builder(WellKnownMetrics.ADMISSION_QUEUE_DEPTH_GAUGE, this::getQueueDepth)
+                .description("Number of requests waiting for resources")
+                .register(meterRegistry);
+        for (ExecutionLane lane : ExecutionLane.values()) {
+            Gauge.builder(WellKnownMetrics.ADMISSION_LANE_EXECUTIONS_GAUGE, () -> getLaneExecutions(lane))
+                    .description("Current number of executions of the lane")
+                    .tag("lane", lane.toString().toLowerCase())
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public Admission acquire(String userId, ExecutionLane lane, ResourceDemand demand) {
+        long enqueuedAt = System.nanoTime();
+        lock.lock();
+        try {
+            // The request takes its turn among the queued ones, it's admitted right away if it's the next one and fits
+            var admission = new Admission(
+                    userId == null ? UNKNOWN_USER : userId, lane, demand, enqueuedAt, lock.newCondition());
+            queue.addLast(admission);
+            lanes.addQueued(lane, 1);
+            admitQueuedRequests();
+            if (admission.isAdmitted()) {
+                return admission;
+            }
+            if (queue.size() > capacity || maxWait <= 0) {
+                removeQueuedRequest(admission);
+                throw reject(queueFullCounter, "the admission queue is full");
+            }
+            if (!canBeAdmittedBeforeMaxWait(admission)) {
+                removeQueuedRequest(admission);
+                throw reject(deadlineCounter, "the request can't be admitted before " + maxWait + " ms");
+            }
+            return awaitAdmission(admission);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void release(Admission admission) {
+        lock.lock();
+        try {
+            resources.cleanup(admission.getDemand());
+            userExecutions.computeIfPresent(admission.getUserId(), (userId, executions) -> executions > 1 ? executions - 1 : null);
+            lanes.addRunning(admission.getLane(), -1);
+            long executionDuration = System.nanoTime() - admission.getAdmittedAt();
+            averageExecutionDuration = averageExecutionDuration == 0
+                    ? executionDuration
+                    : averageExecutionDuration * (1 - DURATION_SMOOTHING_FACTOR) + executionDuration * DURATION_SMOOTHING_FACTOR;
+            admitQueuedRequests();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<LaneOccupancy> getLaneOccupancies() {
+        lock.lock();
+        try {
+            return lanes.getOccupancies();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int getLaneExecutions(ExecutionLane lane) {
+        lock.lock();
+        try {
+            return lanes.getRunning(lane);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Called with the lock held
+    private Admission awaitAdmission(Admission admission) {
+        long remaining = TimeUnit.MILLISECONDS.toNanos(maxWait);
+        try {
+            while (!admission.isAdmitted()) {
+                if (remaining <= 0) {
+                    removeQueuedRequest(admission);
+                    throw reject(timeoutCounter, "the request waited " + maxWait + " ms in the admission queue");
+                }
+                remaining = admission.awaitAdmission(remaining);
+            }
+            return admission;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (admission.isAdmitted()) {
+                return admission;
+            }
+            removeQueuedRequest(admission);
+            throw new CompilerThrottlingException("Interrupted while waiting in the admission queue");
+        }
+    }
+
+    // Hands over the free resources to the next queued request, called with the lock held
+    private void admitQueuedRequests() {
+        Admission next = queue.peekNext(this::canStartNewExecution);
+        while (next != null && resources.allowNewExecution(next.getDemand())) {
+            queue.poll(next);
+            lanes.addQueued(next.getLane(), -1);
+            admit(next);
+            next = queue.peekNext(this::canStartNewExecution);
+        }
+    }
+
+    // The requests served after the removed one may fit now, called with the lock held
+    private void removeQueuedRequest(Admission admission) {
+        queue.remove(admission);
+        lanes.addQueued(admission.getLane(), -1);
+        admitQueuedRequests();
+    }
+
+    private boolean canStartNewExecution(Admission admission) {
+        return (maxRequestsPerUser <= 0 || userExecutions.getOrDefault(admission.getUserId(), 0) < maxRequestsPerUser)
+                && lanes.canStartNewExecution(admission.getLane(), resources.getMaxRequests());
+    }
+
+    private void admit(Admission admission) {
+        int counter = resources.reserveResources(admission.getDemand());
+        userExecutions.merge(admission.getUserId(), 1, Integer::sum);
+        lanes.addRunning(admission.getLane(), 1);
+        admission.admit(System.nanoTime());
+        long wait = admission.getAdmittedAt() - admission.getEnqueuedAt();
+        waitTimer.record(wait, TimeUnit.NANOSECONDS);
+        getUserWaitTimer(admission.getUserId()).record(wait, TimeUnit.NANOSECONDS);
+        log.info("New request admitted, total: {}, maxRequests: {}, queued: {}",
+                counter, resources.getMaxRequests(), queue.size());
+    }
+
+    // Tagged by configured user id or tenant only, to keep a bounded number of timers
+    private Timer getUserWaitTimer(String userId) {
+        String weightKey = queue.getWeightKey(userId);
+        return userWaitTimers.computeIfAbsent(weightKey == null ? OTHER_USERS : weightKey, user -> Timer
+                .builder(WellKnownMetrics.ADMISSION_USER_WAIT_TIMER)
+                .description("Time spent in the admission queue by user")
+                .tag("user", user)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    // Estimates the wait from the running executions and their average duration, assuming they end one after the other
+    private boolean canBeAdmittedBeforeMaxWait(Admission admission) {
+        if (resources.getMaxRequests() <= 0) {
+            // No execution will ever be allowed
+            return false;
+        }
+        int runningExecutions = Math.max(1, resources.getNumberOfExecutions());
+        double estimatedWait = averageExecutionDuration * (queue.countBefore(admission) + 1) / runningExecutions;
+        return estimatedWait <= TimeUnit.MILLISECONDS.toNanos(maxWait);
+    }
+
+    private CompilerThrottlingException reject(Counter counter, String reason) {
+        counter.increment();
+        return new CompilerThrottlingException("Request has been throttled, " + reason);
+    }
+}
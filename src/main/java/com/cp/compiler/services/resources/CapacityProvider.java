@@ -0,0 +1,19 @@
+package com.cp.compiler.services.resources;
+
+import com.cp.compiler.models.resources.Capacity;
+
+/**
+ * The interface Capacity provider.
+ * Detects the resources of the host running the executions.
+ *
+ * @author Zakaria Maaraki
+ */
+public interface CapacityProvider {
+
+    /**
+     * Gets the last detected capacity.
+     *
+     * @return the capacity
+     */
+    Capacity getCapacity();
+}
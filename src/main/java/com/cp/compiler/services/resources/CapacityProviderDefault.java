@@ -0,0 +1,323 @@
+package com.cp.compiler.services.resources;
+
+import com.cp.compiler.models.containers.ContainerEngineInfo;
+import com.cp.compiler.models.resources.Capacity;
+import com.cp.compiler.models.resources.CapacitySource;
+import com.cp.compiler.services.containers.ContainerService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The type Capacity provider default.
+ * The cpus and the memory are detected in this order, each one falling back to the next source when it's unknown
+ * or unlimited: the container engine running the executions, the cgroup v2 then v1 limits of the compiler
+ * and the host seen by the jvm. They are refreshed periodically, the disk is the usable space at startup
+ * of the file system where the executions are written.
+ * The container engine is only asked in the background, until then the cgroup and the host values are used.
+ *
+ * @author Zakaria Maaraki
+ */
+@Slf4j
+@Component
+public class CapacityProviderDefault implements CapacityProvider {
+
+    /**
+     * The constant AUTO, all the sources are used.
+     */
+    public static final String AUTO = "auto";
+
+    /**
+     * The constant CONTAINER_ENGINE, only the container engine then the host are used.
+     */
+    public static final String CONTAINER_ENGINE = "container-engine";
+
+    /**
+     * The constant CGROUP, only the cgroup limits then the host are used.
+     */
+    public static final String CGROUP = "cgroup";
+
+    /**
+     * The constant HOST, only the host is used.
+     */
+    public static final String HOST = "host";
+
+    private static final List<String> SOURCES = List.of(AUTO, CONTAINER_ENGINE, CGROUP, HOST);
+
+    private static final long MB = 1024 * 1024;
+
+    private final ContainerService containerService;
+
+    private final String source;
+
+    private final long refreshInterval;
+
+    private final long maxMemory; // MB
+
+    private final long disk; // bytes
+
+    private final CapacitySource diskSource;
+
+    private final Path cgroupRoot;
+
+    private volatile Capacity capacity;
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Instantiates a new Capacity provider default, the capacity is detected right away without the container engine.
+     *
+     * @param containerService the container service
+     * @param source           the sources used to detect the cpus and the memory: auto, container-engine, cgroup or host
+     * @param refreshInterval  the interval in seconds between two detections, 0 to detect only once
+     * @param maxMemory        the memory in MB shared by the executions, 0 to detect it
+     * @param maxDisk          the disk in bytes shared by the executions, 0 for the usable space where they are written
+     * @param workspaceRoot    the root of the workspace where the executions are written, empty for the working directory
+     * @param cgroupRoot       the directory where the cgroup file system is mounted
+     */
+    @Autowired
+    public CapacityProviderDefault(ContainerService containerService,
+                                   @Value("${compiler.resources.capacity.source:auto}") String source,
+                                   @Value("${compiler.resources.capacity.refresh-interval:60}") long refreshInterval,
+                                   @Value("${compiler.resources.max-memory:0}") long maxMemory,
+                                   @Value("${compiler.resources.max-disk:0}") long maxDisk,
+                                   @Value("${compiler.workspace.root:}") String workspaceRoot,
+                                   @Value("${compiler.resources.capacity.cgroup-root:/sys/fs/cgroup}") String cgroupRoot) {
+        if (!SOURCES.contains(source)) {
+            throw new IllegalArgumentException("Invalid capacity source " + source + ", expected one of " + SOURCES);
+        }
+        this.containerService = containerService;
+        this.source = source;
+        this.refreshInterval = refreshInterval;
+        this.maxMemory = maxMemory;
+        this.disk = maxDisk > 0 ? maxDisk : getUsableSpace(Path.of(workspaceRoot));
+        this.diskSource = maxDisk > 0 ? CapacitySource.CONFIGURED : CapacitySource.HOST;
+        this.cgroupRoot = Path.of(cgroupRoot);
+        // An unreachable container engine would stall the startup
+        capacity = detect(false);
+        log.info("The capacity of the executions is {}", capacity);
+    }
+
+    /**
+     * Schedule the first detection with the container engine and the periodic refreshes of the capacity.
+     */
+    @PostConstruct
+    public void init() {
+        boolean usesContainerEngine = AUTO.equals(source) || CONTAINER_ENGINE.equals(source);
+        if (refreshInterval <= 0 && !usesContainerEngine) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "capacity-provider");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long initialDelay = usesContainerEngine ? 0 : refreshInterval;
+        if (refreshInterval <= 0) {
+            scheduler.schedule(this::refreshQuietly, initialDelay, TimeUnit.SECONDS);
+            return;
+        }
+        scheduler.scheduleWithFixedDelay(this::refreshQuietly, initialDelay, refreshInterval, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stop the periodic refreshes.
+     */
+    @PreDestroy
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Override
+    public Capacity getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Detect the capacity again.
+     */
+    public void refresh() {
+        Capacity detectedCapacity = detect(true);
+        if (!detectedCapacity.equals(capacity)) {
+            log.info("The capacity of the executions is {}", detectedCapacity);
+        }
+        capacity = detectedCapacity;
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            // Keep the last capacity and the scheduled refreshes
+            log.warn("Can't refresh the capacity of the executions: {}", e.getMessage());
+        }
+    }
+
+    private Capacity detect(boolean withContainerEngine) {
+        var detection = new Detection();
+        if (withContainerEngine && (AUTO.equals(source) || CONTAINER_ENGINE.equals(source))) {
+            detectFromContainerEngine(detection);
+        }
+        if (AUTO.equals(source) || CGROUP.equals(source)) {
+            detectFromCgroup(detection);
+        }
+        detection.setCpus(Runtime.getRuntime().availableProcessors(), CapacitySource.HOST);
+        detection.setMemory(getHostMemory(), CapacitySource.HOST);
+
+        return Capacity
+                .builder()
+                .cpus(detection.cpus)
+                .cpusSource(detection.cpusSource)
+                .memory(maxMemory > 0 ? maxMemory : detection.memory / MB)
+                .memorySource(maxMemory > 0 ? CapacitySource.CONFIGURED : detection.memorySource)
+                .disk(disk)
+                .diskSource(diskSource)
+                .build();
+    }
+
+    private void detectFromContainerEngine(Detection detection) {
+        try {
+            ContainerEngineInfo engineInfo = containerService.getEngineInfo();
+            detection.setCpus(engineInfo.getCpus(), CapacitySource.CONTAINER_ENGINE);
+            detection.setMemory(engineInfo.getMemory(), CapacitySource.CONTAINER_ENGINE);
+        } catch (RuntimeException e) {
+            log.debug("Can't get the container engine info: {}", e.getMessage());
+        }
+    }
+
+    private void detectFromCgroup(Detection detection) {
+        float hostCpus = Runtime.getRuntime().availableProcessors();
+        long hostMemory = getHostMemory();
+        Path cpuMax = cgroupRoot.resolve("cpu.max");
+        if (Files.exists(cpuMax)) {
+            detection.setCpus(Math.min(parseCpuMax(read(cpuMax)), hostCpus), CapacitySource.CGROUP_V2);
+            detection.setMemory(
+                    Math.min(parseMemoryMax(read(cgroupRoot.resolve("memory.max"))), hostMemory),
+                    CapacitySource.CGROUP_V2);
+            return;
+        }
+        Path cpuQuota = cgroupRoot.resolve("cpu").resolve("cpu.cfs_quota_us");
+        Path cpuPeriod = cgroupRoot.resolve("cpu").resolve("cpu.cfs_period_us");
+        if (Files.exists(cpuQuota) && Files.exists(cpuPeriod)) {
+            detection.setCpus(
+                    Math.min(toCpus(parseLong(read(cpuQuota)), parseLong(read(cpuPeriod))), hostCpus),
+                    CapacitySource.CGROUP_V1);
+        }
+        Path memoryLimit = cgroupRoot.resolve("memory").resolve("memory.limit_in_bytes");
+        if (Files.exists(memoryLimit)) {
+            // An unlimited cgroup v1 reports a huge value rounded to the page size
+            long limit = parseLong(read(memoryLimit));
+            detection.setMemory(limit < hostMemory ? limit : 0, CapacitySource.CGROUP_V1);
+        }
+    }
+
+    /**
+     * Parse the cgroup v2 cpu.max file, ex: "200000 100000" or "max 100000".
+     *
+     * @param cpuMax the content of the file
+     * @return the number of cpus, 0 if unlimited or unknown
+     */
+    static float parseCpuMax(String cpuMax) {
+        String[] values = cpuMax.trim().split("\\s+");
+        if (values.length != 2) {
+            return 0;
+        }
+        return toCpus(parseLong(values[0]), parseLong(values[1]));
+    }
+
+    /**
+     * Parse the cgroup v2 memory.max file, ex: "536870912" or "max".
+     *
+     * @param memoryMax the content of the file
+     * @return the memory in bytes, 0 if unlimited or unknown
+     */
+    static long parseMemoryMax(String memoryMax) {
+        return parseLong(memoryMax);
+    }
+
+    /**
+     * Convert a cfs quota to a number of cpus.
+     *
+     * @param quota  the quota in microseconds, negative if unlimited
+     * @param period the period in microseconds
+     * @return the number of cpus, 0 if unlimited or unknown
+     */
+    static float toCpus(long quota, long period) {
+        return quota > 0 && period > 0 ? (float) quota / period : 0;
+    }
+
+    // "max" and the unreadable values are unlimited
+    private static long parseLong(String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static String read(Path path) {
+        try {
+            return Files.readString(path);
+        } catch (IOException e) {
+            log.debug("Can't read {}: {}", path, e.getMessage());
+            return "";
+        }
+    }
+
+    private static long getHostMemory() {
+        var operatingSystem = (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+        return operatingSystem.getTotalPhysicalMemorySize();
+    }
+
+    // The workspace root may not be created yet, its nearest existing parent is on the same file system
+    private static long getUsableSpace(Path path) {
+        File directory = path.toAbsolutePath().normalize().toFile();
+        while (!directory.exists() && directory.getParentFile() != null) {
+            directory = directory.getParentFile();
+        }
+        return directory.getUsableSpace();
+    }
+
+    /**
+     * The cpus and the memory detected so far, the first known value of each one is kept.
+     */
+    private static class Detection {
+
+        private float cpus;
+
+        private CapacitySource cpusSource;
+
+        private long memory; // bytes
+
+        private CapacitySource memorySource;
+
+        private void setCpus(float cpus, CapacitySource source) {
+            if (cpusSource == null && cpus > 0) {
+                this.cpus = cpus;
+                this.cpusSource = source;
+            }
+        }
+
+        private void setMemory(long memory, CapacitySource source) {
+            if (memorySource == null && memory > 0) {
+                this.memory = memory;
+                this.memorySource = source;
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.cp.compiler.services.resources;
+
+import com.cp.compiler.models.resources.ExecutionLane;
+import com.cp.compiler.models.resources.LaneOccupancy;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The type Execution lanes.
+ * The executions of each traffic source: a lane can always start its reserved executions, the other ones can
+ * burst into the executions left by the reservations of the other lanes, up to the max of the lane.
+ * Not thread safe, used under the lock of the admission queue.
+ *
+ * @author Zakaria Maaraki
+ */
+class ExecutionLanes {
+
+    private final Map<ExecutionLane, Lane> lanes = new EnumMap<>(ExecutionLane.class);
+
+    /**
+     * Instantiates new Execution lanes.
+     *
+     * @param lanes       the lanes, ex: interactive:4:0,broker:0:2 (lane:reserved executions:max executions, 0 for no limit)
+     * @param maxRequests the max number of executions of all the lanes
+     */
+    ExecutionLanes(String lanes, int maxRequests) {
+        for (ExecutionLane lane : ExecutionLane.values()) {
+            this.lanes.put(lane, new Lane(lane, 0, 0));
+        }
+        if (lanes == null || lanes.isBlank()) {
+            return;
+        }
+        int reservedExecutions = 0;
+        for (String lane : lanes.split(",")) {
+            String[] values = lane.trim().split(":");
+            if (values.length != 3) {
+                throw new IllegalArgumentException("Invalid lane " + lane
+                        + ", expected lane:reserved executions:max executions");
+            }
+            int reserved = Integer.parseInt(values[1].trim());
+            int max = Integer.parseInt(values[2].trim());
+            if (reserved < 0 || max < 0 || (max > 0 && max < reserved)) {
+                throw new IllegalArgumentException("Invalid lane " + lane
+                        + ", the executions must be positive values and the max can't be lower than the reserved ones");
+            }
+            var executionLane = ExecutionLane.valueOf(values[0].trim().toUpperCase());
+            this.lanes.put(executionLane, new Lane(executionLane, reserved, max));
+            reservedExecutions += reserved;
+        }
+        if (reservedExecutions > maxRequests) {
+            throw new IllegalArgumentException("Invalid lanes " + lanes
+                    + ", the reserved executions can't exceed the max number of requests " + maxRequests);
+        }
+    }
+
+    /**
+     * Can start new execution boolean.
+     *
+     * @param lane        the lane of the execution
+     * @param maxRequests the max number of executions of all the lanes
+     * @return true if the execution is under the max of its lane and doesn't take an execution reserved for another lane
+     */
+    boolean canStartNewExecution(ExecutionLane lane, int maxRequests) {
+        Lane executionLane = lanes.get(lane);
+        if (executionLane.max > 0 && executionLane.running >= executionLane.max) {
+            return false;
+        }
+        int runningExecutions = 0;
+        int otherReservations = 0;
+        for (Lane other : lanes.values()) {
+            runningExecutions += other.running;
+            if (other != executionLane) {
+                otherReservations += Math.max(0, other.reserved - other.running);
+            }
+        }
+        return runningExecutions + 1 + otherReservations <= maxRequests;
+    }
+
+    /**
+     * Count a queued request.
+     *
+     * @param lane the lane of the request
+     * @param delta 1 when the request is queued, -1 when it leaves the queue
+     */
+    void addQueued(ExecutionLane lane, int delta) {
+        lanes.get(lane).queued += delta;
+    }
+
+    /**
+     * Count a running execution.
+     *
+     * @param lane  the lane of the execution
+     * @param delta 1 when the execution starts, -1 when it ends
+     */
+    void addRunning(ExecutionLane lane, int delta) {
+        lanes.get(lane).running += delta;
+    }
+
+    /**
+     * Gets the running executions of a lane.
+     *
+     * @param lane the lane
+     * @return the number of executions
+     */
+    int getRunning(ExecutionLane lane) {
+        return lanes.get(lane).running;
+    }
+
+    /**
+     * Gets the occupancy of each lane.
+     *
+     * @return the occupancies
+     */
+    List<LaneOccupancy> getOccupancies() {
+        List<LaneOccupancy> occupancies = new ArrayList<>();
+        for (Lane lane : lanes.values()) {
+            occupancies.add(LaneOccupancy
+                    .builder()
+                    .lane(lane.lane)
+                    .reservedExecutions(lane.reserved)
+                    .maxExecutions(lane.max)
+                    .currentExecutions(lane.running)
+                    .queuedRequests(lane.queued)
+                    .build());
+        }
+        return occupancies;
+    }
+
+    /**
+     * The configuration and the counters of a lane.
+     */
+    private static class Lane {
+
+        private final ExecutionLane lane;
+
+        private final int reserved;
+
+        private final int max;
+
+        private int running;
+
+        private int queued;
+
+        private Lane(ExecutionLane lane, int reserved, int max) {
+            this.lane = lane;
+            this.reserved = reserved;
+            this.max = max;
+        }
+    }
+}
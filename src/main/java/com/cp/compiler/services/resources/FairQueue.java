@@ -0,0 +1,202 @@
+package com.cp.compiler.services.resources;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * The type Fair queue.
+ * A queue per user served by start-time fair queuing: each request is tagged with the virtual time at which
+ * its user's previous request ends, a request costing 1 / weight of its user, and the request with the smallest tag
+ * is served first. A user sending many requests doesn't delay the other users more than its weight allows,
+ * the requests of each user are served in their order of arrival.
+ * Not thread safe, used under the lock of the admission queue.
+ *
+ * @author Zakaria Maaraki
+ */
+class FairQueue {
+
+    /**
+     * The separator of the tenant and the user in a user id, ex: acme/alice.
+     */
+    static final String TENANT_SEPARATOR = "/";
+
+    private static final int DEFAULT_WEIGHT = 1;
+
+    // The configured weights, by user id or tenant
+    private final Map<String, Integer> weights = new HashMap<>();
+
+    // The users with queued requests or with a finish tag ahead of the virtual time
+    private final Map<String, UserQueue> userQueues = new LinkedHashMap<>();
+
+    // The start tag of the last served request
+    private double virtualTime;
+
+    private int size;
+
+    /**
+     * Instantiates a new Fair queue.
+     *
+     * @param weights the weights of the users or the tenants, ex: contest:4,acme/alice:2 (user id or tenant:weight)
+     */
+    FairQueue(String weights) {
+        if (weights == null || weights.isBlank()) {
+            return;
+        }
+        for (String weight : weights.split(",")) {
+            int separatorIndex = weight.lastIndexOf(':');
+            if (separatorIndex <= 0) {
+                throw new IllegalArgumentException("Invalid user weight " + weight + ", expected user id or tenant:weight");
+            }
+            int value = Integer.parseInt(weight.substring(separatorIndex + 1).trim());
+            if (value <= 0) {
+                throw new IllegalArgumentException("Invalid user weight " + weight + ", weights must be positive values");
+            }
+            this.weights.put(weight.substring(0, separatorIndex).trim(), value);
+        }
+    }
+
+    /**
+     * Add a request behind the other requests of its user.
+     *
+     * @param admission the admission
+     */
+    void addLast(Admission admission) {
+        UserQueue userQueue = userQueues.computeIfAbsent(admission.getUserId(), UserQueue::new);
+        admission.setStartTag(Math.max(virtualTime, userQueue.finishTag));
+        userQueue.finishTag = admission.getStartTag() + 1.0 / userQueue.weight;
+        userQueue.admissions.addLast(admission);
+        size++;
+    }
+
+    /**
+     * Gets the next request to serve, the one with the smallest start tag among the heads of the user queues
+     * accepted by the filter.
+     *
+     * @param filter the requests which can be served
+     * @return the admission, null if none
+     */
+    Admission peekNext(Predicate<Admission> filter) {
+        Admission next = null;
+        for (UserQueue userQueue : userQueues.values()) {
+            Admission head = userQueue.admissions.peekFirst();
+            if (head != null && filter.test(head) && (next == null || isBefore(head, next))) {
+                next = head;
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Remove the request returned by {@link #peekNext(Predicate)}, the virtual time moves to its start tag.
+     *
+     * @param admission the admission
+     */
+    void poll(Admission admission) {
+        userQueues.get(admission.getUserId()).admissions.removeFirst();
+        size--;
+        virtualTime = admission.getStartTag();
+        // Forget the users who have nothing left to be delayed for
+        userQueues.values().removeIf(userQueue ->
+                userQueue.admissions.isEmpty() && userQueue.finishTag <= virtualTime);
+    }
+
+    /**
+     * Remove a request which won't be served.
+     *
+     * @param admission the admission
+     */
+    void remove(Admission admission) {
+        UserQueue userQueue = userQueues.get(admission.getUserId());
+        if (userQueue == null || !userQueue.admissions.remove(admission)) {
+            return;
+        }
+        size--;
+        if (userQueue.admissions.isEmpty() || userQueue.admissions.peekLast().getStartTag() < admission.getStartTag()) {
+            // The last request of the user is given back
+            userQueue.finishTag = admission.getStartTag();
+        }
+    }
+
+    /**
+     * Gets the number of requests served before a queued request.
+     *
+     * @param admission the admission
+     * @return the number of requests
+     */
+    int countBefore(Admission admission) {
+        int count = 0;
+        for (UserQueue userQueue : userQueues.values()) {
+            for (Iterator<Admission> iterator = userQueue.admissions.iterator(); iterator.hasNext(); ) {
+                Admission queued = iterator.next();
+                if (!isBefore(queued, admission)) {
+                    break;
+                }
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Gets the number of queued requests.
+     *
+     * @return the size
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Gets the configured key of the weight of a user: its user id or its tenant.
+     *
+     * @param userId the user id
+     * @return the key, null if the weight of the user is not configured
+     */
+    String getWeightKey(String userId) {
+        if (weights.containsKey(userId)) {
+            return userId;
+        }
+        int separatorIndex = userId.indexOf(TENANT_SEPARATOR);
+        String tenant = separatorIndex > 0 ? userId.substring(0, separatorIndex) : null;
+        return tenant != null && weights.containsKey(tenant) ? tenant : null;
+    }
+
+    /**
+     * Gets the weight of a user.
+     *
+     * @param userId the user id
+     * @return the weight
+     */
+    int getWeight(String userId) {
+        String weightKey = getWeightKey(userId);
+        return weightKey == null ? DEFAULT_WEIGHT : weights.get(weightKey);
+    }
+
+    // The ties are served in their order of arrival
+    private static boolean isBefore(Admission admission, Admission other) {
+        return admission.getStartTag() < other.getStartTag()
+                || (admission.getStartTag() == other.getStartTag() && admission.getEnqueuedAt() < other.getEnqueuedAt());
+    }
+
+    /**
+     * The queued requests of a user.
+     */
+    private class UserQueue {
+
+        private final int weight;
+
+        private final Deque<Admission> admissions = new ArrayDeque<>();
+
+        // The finish tag of the last queued request of the user
+        private double finishTag;
+
+        private UserQueue(String userId) {
+            this.weight = getWeight(userId);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.cp.compiler.services.resources;
+
+import com.cp.compiler.models.Language;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The type Resource profiles.
+ * The resources used by an execution beyond the limits of its request, for each language:
+ * the memory of the runtime (ex: the JVM) and the disk of the compiled artifacts and of the image layer.
+ *
+ * @author Zakaria Maaraki
+ */
+class ResourceProfiles {
+
+    private static final long MB = 1024 * 1024;
+
+    // In MB
+    private final Map<Language, Long> memoryOverheads = new EnumMap<>(Language.class);
+
+    // In MB
+    private final Map<Language, Long> diskOverheads = new EnumMap<>(Language.class);
+
+    /**
+     * Instantiates new Resource profiles.
+     *
+     * @param profiles the profiles overriding the default ones, ex: JAVA:512:8,PYTHON:64:1
+     *                 (language:memory overhead in MB:disk overhead in MB)
+     */
+    ResourceProfiles(String profiles) {
+        // The default profiles
+        put(Language.PYTHON, 32, 1);
+        put(Language.RUBY, 32, 1);
+        put(Language.C, 8, 4);
+        put(Language.CPP, 8, 8);
+        put(Language.GO, 32, 16);
+        put(Language.RUST, 16, 16);
+        put(Language.HASKELL, 64, 32);
+        put(Language.CS, 128, 16);
+        put(Language.JAVA, 256, 8);
+        put(Language.KOTLIN, 256, 16);
+        put(Language.SCALA, 256, 16);
+        if (profiles == null || profiles.isBlank()) {
+            return;
+        }
+        for (String profile : profiles.split(",")) {
+            String[] values = profile.trim().split(":");
+            if (values.length != 3) {
+                throw new IllegalArgumentException("Invalid resource profile " + profile
+                        + ", expected language:memory overhead in MB:disk overhead in MB");
+            }
+            long memoryOverhead = Long.parseLong(values[1].trim());
+            long diskOverhead = Long.parseLong(values[2].trim());
+            if (memoryOverhead < 0 || diskOverhead < 0) {
+                throw new IllegalArgumentException("Invalid resource profile " + profile + ", overheads must be positive values");
+            }
+            put(Language.valueOf(values[0].trim().toUpperCase()), memoryOverhead, diskOverhead);
+        }
+    }
+
+    /**
+     * Gets the memory overhead.
+     *
+     * @param language the language
+     * @return the memory overhead in MB
+     */
+    long getMemoryOverhead(Language language) {
+        return memoryOverheads.getOrDefault(language, 0L);
+    }
+
+    /**
+     * Gets the disk overhead.
+     *
+     * @param language the language
+     * @return the disk overhead in bytes
+     */
+    long getDiskOverhead(Language language) {
+        return diskOverheads.getOrDefault(language, 0L) * MB;
+    }
+
+    private void put(Language language, long memoryOverhead, long diskOverhead) {
+        memoryOverheads.put(language, memoryOverhead);
+        diskOverheads.put(language, diskOverhead);
+    }
+}
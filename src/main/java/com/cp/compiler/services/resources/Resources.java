@@ -1,6 +1,9 @@
 package com.cp.compiler.services.resources;
 
+import com.cp.compiler.executions.Execution;
 import com.cp.compiler.models.resources.AvailableResources;
+import com.cp.compiler.models.resources.ResourceDemand;
+import com.cp.compiler.models.resources.ResourceType;
 
 /**
  * The interface Cpu resources.
@@ -23,6 +26,14 @@ public interface Resources {
      */
     boolean allowNewExecution();
     
+    /**
+     * Allow new execution boolean, every resource of the demand should fit.
+     *
+     * @param demand the resources of the execution
+     * @return the boolean
+     */
+    boolean allowNewExecution(ResourceDemand demand);
+    
     /**
      * Increment number of executions.
      *
@@ -30,6 +41,14 @@ public interface Resources {
      */
     int reserveResources();
     
+    /**
+     * Increment number of executions and reserve the resources of the execution.
+     *
+     * @param demand the resources of the execution
+     * @return the number of current executions
+     */
+    int reserveResources(ResourceDemand demand);
+    
     /**
      * Decrement number of executions.
      *
@@ -37,6 +56,39 @@ public interface Resources {
      */
     int cleanup();
     
+    /**
+     * Decrement number of executions and release the resources of the execution.
+     *
+     * @param demand the resources of the execution
+     * @return the number of current executions
+     */
+    int cleanup(ResourceDemand demand);
+    
+    /**
+     * Gets the resources reserved by an execution, from the limits of the request and the profile of its language.
+     *
+     * @param execution the execution
+     * @return the resource demand
+     */
+    ResourceDemand getDemand(Execution execution);
+    
+    /**
+     * Gets the number of test cases of an execution run at the same time, its demand holds the cpus and the memory
+     * of as many containers.
+     *
+     * @param execution the execution
+     * @return the parallelism, at least 1
+     */
+    int getParallelism(Execution execution);
+    
+    /**
+     * Gets the reserved part of a resource.
+     *
+     * @param resourceType the resource type
+     * @return the utilization between 0 and 1 (more when a single execution exceeds the resource)
+     */
+    float getUtilization(ResourceType resourceType);
+    
     /**
      * Number of executions int.
      *
@@ -1,7 +1,12 @@
 package com.cp.compiler.services.resources;
 
+import com.cp.compiler.executions.Execution;
 import com.cp.compiler.models.resources.AvailableResources;
+import com.cp.compiler.models.resources.Capacity;
+import com.cp.compiler.models.resources.ResourceDemand;
+import com.cp.compiler.models.resources.ResourceType;
 import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -9,12 +14,14 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * The type Resources default.
+ * Each execution reserves cpus, memory and disk, a new execution is allowed only when all of them fit
+ * in the capacity detected by the capacity provider. The cpus and the memory are reserved for each container
+ * of the test cases run at the same time.
  *
  * @author Zakaria Maaraki
  */
 @Component
 public class ResourcesDefault implements Resources {
-    
 
     private final Float maxCpus;
     
@@ -23,16 +30,77 @@ public class ResourcesDefault implements Resources {
     @Getter
     private final int maxRequests;
     
+    private final CapacityProvider capacityProvider;
+    
+    private final ResourceProfiles resourceProfiles;
+    
+    private final int parallelism;
+    
+    // The reserved resources, updated together under the lock of this object
+    private long reservedMilliCpus;
+    
+    private long reservedMemory; // MB
+    
+    private long reservedDisk; // bytes
+    
     /**
-     * Instantiates a new Resources default.
+     * Instantiates a new Resources default, the memory and the disk are the ones of the host.
+     *
+     * @param maxCpus     the max cpus
+     * @param maxRequests the max requests
+     */
+    public ResourcesDefault(float maxCpus, int maxRequests) {
+        this(maxCpus, maxRequests, 0, 0, "");
+    }
+    
+    /**
+     * Instantiates a new Resources default, the cpus and the memory are the ones of the host detected once.
      *
      * @param maxCpus     the max cpus
      * @param maxRequests the max requests
+     * @param maxMemory   the memory in MB shared by the executions, 0 for the physical memory of the host
+     * @param maxDisk     the disk in bytes shared by the executions, 0 for the usable space of the working directory
+     * @param profiles    the resource profiles overriding the default ones, ex: JAVA:512:8,PYTHON:64:1
+     */
+    public ResourcesDefault(float maxCpus, int maxRequests, long maxMemory, long maxDisk, String profiles) {
+        this(maxCpus, maxRequests, profiles,
+                new CapacityProviderDefault(null, CapacityProviderDefault.HOST, 0, maxMemory, maxDisk, "", ""));
+    }
+    
+    /**
+     * Instantiates a new Resources default, the test cases of an execution are run one at a time.
+     *
+     * @param maxCpus          the max cpus
+     * @param maxRequests      the max requests
+     * @param profiles         the resource profiles overriding the default ones, ex: JAVA:512:8,PYTHON:64:1
+     * @param capacityProvider the provider of the resources shared by the executions
+     */
+    public ResourcesDefault(float maxCpus, int maxRequests, String profiles, CapacityProvider capacityProvider) {
+        this(maxCpus, maxRequests, profiles, 1, false, capacityProvider);
+    }
+    
+    /**
+     * Instantiates a new Resources default.
+     *
+     * @param maxCpus          the max cpus
+     * @param maxRequests      the max requests
+     * @param profiles         the resource profiles overriding the default ones, ex: JAVA:512:8,PYTHON:64:1
+     * @param parallelism      the max number of test cases of an execution running at the same time
+     * @param singleContainer  true if all the test cases of an execution run inside one container
+     * @param capacityProvider the provider of the resources shared by the executions
      */
+    @Autowired
     public ResourcesDefault(@Value("${compiler.execution.max-cpus}")float maxCpus,
-                            @Value("${compiler.max-requests}")int maxRequests) {
+                            @Value("${compiler.max-requests}")int maxRequests,
+                            @Value("${compiler.resources.profiles:}") String profiles,
+                            @Value("${compiler.execution.parallelism:1}") int parallelism,
+                            @Value("${compiler.execution.single-container:false}") boolean singleContainer,
+                            CapacityProvider capacityProvider) {
         this.maxCpus = maxCpus;
         this.maxRequests = maxRequests;
+        this.capacityProvider = capacityProvider;
+        this.resourceProfiles = new ResourceProfiles(profiles);
+        this.parallelism = singleContainer ? 1 : Math.max(1, parallelism);
     }
     
     @Override
@@ -42,46 +110,118 @@ public class ResourcesDefault implements Resources {
     
     @Override
     public boolean allowNewExecution() {
-        return executionsCounter.get() < maxRequests && cpuIsAvailable();
+        return allowNewExecution(getDefaultDemand());
     }
     
-    private boolean cpuIsAvailable() {
-        return maxCpus == 0f || maxCpus * executionsCounter.get() < getSystemCpus();
+    @Override
+    public synchronized boolean allowNewExecution(ResourceDemand demand) {
+        Capacity capacity = capacityProvider.getCapacity();
+        return executionsCounter.get() < maxRequests
+                && fits(reservedMilliCpus, toMilliCpus(demand.getCpus()), toMilliCpus(capacity.getCpus()))
+                && fits(reservedMemory, demand.getMemory(), capacity.getMemory())
+                && fits(reservedDisk, demand.getDisk(), capacity.getDisk());
+    }
+    
+    // An execution needing more than the whole resource can still run alone
+    private boolean fits(long reserved, long demand, long capacity) {
+        return demand == 0 || reserved + demand <= capacity || executionsCounter.get() == 0;
     }
     
     @Override
     public int reserveResources() {
+        return reserveResources(getDefaultDemand());
+    }
+    
+    @Override
+    public synchronized int reserveResources(ResourceDemand demand) {
+        reservedMilliCpus += toMilliCpus(demand.getCpus());
+        reservedMemory += demand.getMemory();
+        reservedDisk += demand.getDisk();
         return executionsCounter.incrementAndGet();
     }
     
     @Override
     public int cleanup() {
+        return cleanup(getDefaultDemand());
+    }
+    
+    @Override
+    public synchronized int cleanup(ResourceDemand demand) {
         if (executionsCounter.get() == 0) {
             return 0;
         }
+        reservedMilliCpus -= toMilliCpus(demand.getCpus());
+        reservedMemory -= demand.getMemory();
+        reservedDisk -= demand.getDisk();
         return executionsCounter.decrementAndGet();
     }
     
+    @Override
+    public ResourceDemand getDemand(Execution execution) {
+        // Each container running a test case can use the max cpus and the memory limit
+        int containers = getParallelism(execution);
+        return ResourceDemand
+                .builder()
+                .cpus(getMaxCpus() * containers)
+                .memory((long) execution.getMemoryLimit() * containers
+                        + resourceProfiles.getMemoryOverhead(execution.getLanguage()))
+                .disk(execution.getInputSize() + resourceProfiles.getDiskOverhead(execution.getLanguage()))
+                .build();
+    }
+    
+    @Override
+    public int getParallelism(Execution execution) {
+        return Math.max(1, Math.min(parallelism, execution.getTestCases().size()));
+    }
+    
+    @Override
+    public synchronized float getUtilization(ResourceType resourceType) {
+        Capacity capacity = capacityProvider.getCapacity();
+        switch (resourceType) {
+            case CPU:
+                return reservedMilliCpus / 1000f / capacity.getCpus();
+            case MEMORY:
+                return (float) reservedMemory / capacity.getMemory();
+            case DISK:
+                return (float) reservedDisk / capacity.getDisk();
+            default:
+                throw new IllegalArgumentException("Unknown resource type " + resourceType);
+        }
+    }
+    
     @Override
     public int getNumberOfExecutions() {
         return executionsCounter.get();
     }
     
     @Override
-    public AvailableResources getAvailableResources() {
+    public synchronized AvailableResources getAvailableResources() {
         
         int numberOfExecutions = getNumberOfExecutions();
-        float availableCpus = getSystemCpus() - (numberOfExecutions * maxCpus);
+        Capacity capacity = capacityProvider.getCapacity();
+        float availableCpus = capacity.getCpus() - reservedMilliCpus / 1000f;
         
         return AvailableResources
                 .builder()
                 .availableCpus(availableCpus)
+                .availableMemory(capacity.getMemory() - reservedMemory)
+                .availableDisk(capacity.getDisk() - reservedDisk)
                 .maxNumberOfExecutions(getMaxRequests())
                 .currentExecutions(numberOfExecutions)
+                .capacity(capacity)
                 .build();
     }
     
+    // The demand of an execution without its request, only the cpus are known
+    private ResourceDemand getDefaultDemand() {
+        return new ResourceDemand(getMaxCpus(), 0, 0);
+    }
+    
+    private static long toMilliCpus(float cpus) {
+        return Math.round(cpus * 1000);
+    }
+    
     private float getSystemCpus() {
-        return Runtime.getRuntime().availableProcessors();
+        return capacityProvider.getCapacity().getCpus();
     }
 }
@@ -8,18 +8,28 @@ import com.cp.compiler.models.Verdict;
 import com.cp.compiler.models.containers.ContainerInfo;
 import com.cp.compiler.models.processes.ProcessOutput;
 import com.cp.compiler.services.businesslogic.ContainerHelper;
+import com.cp.compiler.services.cache.CompilationCache;
 import com.cp.compiler.services.containers.ContainerService;
+import com.cp.compiler.services.janitor.ContainerJanitor;
+import com.cp.compiler.services.pools.CompileServerPool;
+import com.cp.compiler.services.pools.ExecutionContainerPool;
 import com.cp.compiler.services.resources.Resources;
+import com.cp.compiler.utils.FileUtils;
 import com.cp.compiler.utils.StatusUtils;
 import com.cp.compiler.wellknownconstants.WellKnownMetrics;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -40,33 +50,47 @@ public class CompiledLanguagesExecutionStrategy extends ExecutionStrategy {
     // Note: this value should not be updated, once update don't forget to update it also in all compilation Dockerfiles.
     private static final String EXECUTION_PATH_INSIDE_CONTAINER = "/app";
     
-    @Value("${compiler.compilation-container.volume:}")
-    private String compilationContainerVolume;
-    
     private final MeterRegistry meterRegistry;
     
     private Timer compilationTimer;
     
     private final ContainerService containerService;
     
+    private final CompilationCache compilationCache;
+    
+    private final CompileServerPool compileServerPool;
+    
+    private final ContainerJanitor containerJanitor;
+    
     /**
      * The compilation container name prefix
      */
-    private static final String COMPILATION_CONTAINER_NAME_PREFIX = "compilation-";
+    public static final String COMPILATION_CONTAINER_NAME_PREFIX = "compilation-";
     
     /**
      * Instantiates a new Compiled languages execution strategy.
      *
-     * @param containerService the container service
-     * @param meterRegistry    the meter registry
-     * @param resources        the resources
+     * @param containerService       the container service
+     * @param meterRegistry          the meter registry
+     * @param resources              the resources
+     * @param executionContainerPool the execution container pool
+     * @param compilationCache       the compilation cache
+     * @param compileServerPool      the compile server pool
+     * @param containerJanitor       the container janitor
      */
     public CompiledLanguagesExecutionStrategy(ContainerService containerService,
                                               MeterRegistry meterRegistry,
-                                              Resources resources) {
-        super(containerService, meterRegistry, resources);
+                                              Resources resources,
+                                              ExecutionContainerPool executionContainerPool,
+                                              CompilationCache compilationCache,
+                                              CompileServerPool compileServerPool,
+                                              ContainerJanitor containerJanitor) {
+        super(containerService, meterRegistry, resources, executionContainerPool, containerJanitor);
         this.containerService = containerService;
         this.meterRegistry = meterRegistry;
+        this.compilationCache = compilationCache;
+        this.compileServerPool = compileServerPool;
+        this.containerJanitor = containerJanitor;
     }
     
     /**
@@ -85,18 +109,52 @@ public class CompiledLanguagesExecutionStrategy extends ExecutionStrategy {
         String compilationImageName = IMAGE_PREFIX_NAME + execution.getLanguage().toString().toLowerCase();
     
         // If the app is running inside a container, we should share the same volume with the compilation container.
-        final String volume = compilationContainerVolume.isEmpty()
-                                    ? System.getProperty("user.dir")
-                                    : compilationContainerVolume;
+        // The executions of the workspace are mounted from the workspace root instead.
+        final String volume = execution.getWorkspaceRoot().isEmpty() ? getVolume() : execution.getWorkspaceRoot();
     
         String sourceCodeFileName = execution.getSourceCodeFile().getOriginalFilename();
+        
+        String cacheKey = compilationCache.getKey(execution, compilationImageName);
+        if (compilationCache.restore(cacheKey, execution)) {
+            // Same state as after a successful compilation
+            deleteSourceCodeFile(execution, sourceCodeFileName);
+            return CompilationResponse
+                    .builder()
+                    .verdict(Verdict.ACCEPTED)
+                    .error("")
+                    .compilationDuration(0)
+                    .build();
+        }
+        
+        Set<Path> filesBeforeCompilation = cacheKey == null ? Set.of() : listExecutionFiles(execution);
+        
+        // A compile server saves the start and the warm-up of the compiler, ex: javac
+        String compileServerExecutionPath = execution.getWorkspaceRoot().isEmpty()
+                ? execution.getRelativePath()
+                : CompileServerPool.WORKSPACE_DIRECTORY + "/" + execution.getRelativePath();
+        Optional<ProcessOutput> compileServerOutput = compileServerPool.compile(
+                execution.getLanguage(), compileServerExecutionPath, sourceCodeFileName, COMPILATION_TIME_OUT);
+        if (compileServerOutput.isPresent()) {
+            ProcessOutput compilationOutput = compileServerOutput.get();
+            compilationTimer.record(compilationOutput.getExecutionDuration(), TimeUnit.MILLISECONDS);
+            Verdict verdict = getVerdict(compilationOutput);
+            if (verdict == Verdict.ACCEPTED) {
+                compilationCache.store(cacheKey, execution, filesBeforeCompilation);
+            }
+            return CompilationResponse
+                    .builder()
+                    .verdict(verdict)
+                    .error(compilationOutput.getStdErr())
+                    .compilationDuration(compilationOutput.getExecutionDuration())
+                    .build();
+        }
     
         String containerName = COMPILATION_CONTAINER_NAME_PREFIX + execution.getImageName();
     
         var processOutput = new AtomicReference<ProcessOutput>();
         compilationTimer.record(() -> {
             processOutput.set(
-                    compile(volume, compilationImageName, containerName, execution.getPath(), sourceCodeFileName)
+                    compile(volume, compilationImageName, containerName, execution.getRelativePath(), sourceCodeFileName)
             );
         });
     
@@ -114,7 +172,11 @@ public class CompiledLanguagesExecutionStrategy extends ExecutionStrategy {
                                                     containerInfo == null ? null : containerInfo.getEndTime(),
                                                     compilationDuration);
     
-        ContainerHelper.deleteContainer(containerName, containerService, threadPool);
+        containerJanitor.deleteContainer(containerName);
+        
+        if (verdict == Verdict.ACCEPTED) {
+            compilationCache.store(cacheKey, execution, filesBeforeCompilation);
+        }
         
         return CompilationResponse
                 .builder()
@@ -124,6 +186,23 @@ public class CompiledLanguagesExecutionStrategy extends ExecutionStrategy {
                 .build();
     }
     
+    private static Set<Path> listExecutionFiles(Execution execution) {
+        try {
+            return FileUtils.listFiles(Path.of(execution.getPath()));
+        } catch (IOException e) {
+            log.warn("Can't list the files of the execution {}: {}", execution.getId(), e.getMessage());
+            return Set.of();
+        }
+    }
+    
+    private static void deleteSourceCodeFile(Execution execution, String sourceCodeFileName) {
+        try {
+            Files.deleteIfExists(Path.of(execution.getPath(), sourceCodeFileName));
+        } catch (IOException e) {
+            log.warn("Can't delete the source code file of the execution {}: {}", execution.getId(), e.getMessage());
+        }
+    }
+    
     private Verdict getVerdict(ProcessOutput compilationOutput) {
         
         switch (compilationOutput.getStatus()) {
@@ -1,32 +1,50 @@
 package com.cp.compiler.services.strategies;
 
+import com.cp.compiler.checkers.CheckerFactory;
+import com.cp.compiler.exceptions.CompilerServerInternalException;
 import com.cp.compiler.exceptions.ContainerOperationTimeoutException;
 import com.cp.compiler.executions.Execution;
 import com.cp.compiler.models.CompilationResponse;
 import com.cp.compiler.models.ExecutionResponse;
 import com.cp.compiler.models.Verdict;
+import com.cp.compiler.models.containers.ContainerExecOptions;
 import com.cp.compiler.models.containers.ContainerInfo;
+import com.cp.compiler.models.containers.ContainerMount;
+import com.cp.compiler.models.containers.ContainerRunOptions;
+import com.cp.compiler.models.containers.PooledContainer;
+import com.cp.compiler.models.processes.OutputListener;
 import com.cp.compiler.models.processes.ProcessOutput;
 import com.cp.compiler.models.testcases.ConvertedTestCase;
 import com.cp.compiler.models.testcases.TestCaseResult;
 import com.cp.compiler.services.businesslogic.ContainerHelper;
 import com.cp.compiler.services.containers.ContainerService;
+import com.cp.compiler.services.janitor.ContainerJanitor;
+import com.cp.compiler.services.pools.ExecutionContainerPool;
 import com.cp.compiler.services.resources.Resources;
-import com.cp.compiler.utils.CmdUtils;
+import com.cp.compiler.utils.RunnerOutputParser;
 import com.cp.compiler.utils.StatusUtils;
 import com.cp.compiler.wellknownconstants.WellKnownFiles;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 
 /**
  * The type Execution strategy.
@@ -54,26 +72,79 @@ public abstract class ExecutionStrategy {
     
     private final Resources resources;
     
+    private final ExecutionContainerPool executionContainerPool;
+    
+    private final ContainerJanitor containerJanitor;
+    
     private static final String TEST_CASE_ID_ENV_VARIABLE = "TEST_CASE_ID";
     
+    // Same entrypoint as the one of the execution images
+    private static final String EXECUTION_IMAGE_ENTRYPOINT = "./"
+            + WellKnownFiles.ENTRYPOINT_FILE_NAME_PREFIX
+            + "$" + TEST_CASE_ID_ENV_VARIABLE
+            + WellKnownFiles.ENTRYPOINT_FILE_EXTENSION;
+    
+    /**
+     * The default max number of bytes a test case can write to stdout.
+     */
+    @Value("${compiler.execution.max-output-bytes:10485760}")
+    private long maxOutputBytes;
+    
+    /**
+     * The execution mode, image: an image is built for each execution,
+     * mount: the execution folder is mounted read-only inside the stock runtime image.
+     */
+    @Value("${compiler.execution.mode:image}")
+    private String executionMode;
+    
+    private static final String MOUNT_EXECUTION_MODE = "mount";
+    
+    /**
+     * Run all the test cases inside one container using the runner instead of one container per test case.
+     */
+    @Value("${compiler.execution.single-container:false}")
+    private boolean singleContainer;
+    
+    private static final String RUNNER_MAX_FILE_BLOCKS_ENV_VARIABLE = "RUNNER_MAX_FILE_BLOCKS";
+    
+    // Size of the blocks used by the ulimit -f of the runner's shell
+    private static final long RUNNER_FILE_BLOCK_SIZE = 512;
+    
+    // Frame headers and shell messages written by the runner for each test case
+    private static final long RUNNER_FRAME_OVERHEAD = 4096;
+    
+    /**
+     * The volume shared with the containers, the app's working directory when empty.
+     */
+    @Value("${compiler.compilation-container.volume:}")
+    private String compilationContainerVolume;
+    
     /**
      * The execution container name prefix
      */
-    private static final String EXECUTION_CONTAINER_NAME_PREFIX = "execution-";
+    public static final String EXECUTION_CONTAINER_NAME_PREFIX = "execution-";
+    
+    private static final String RUNNER_CONTAINER_NAME_PREFIX = "runner-";
     
     /**
      * Instantiates a new Execution strategy.
      *
-     * @param containerService the container service
-     * @param meterRegistry    the meter registry
-     * @param resources        the resources
+     * @param containerService       the container service
+     * @param meterRegistry          the meter registry
+     * @param resources              the resources
+     * @param executionContainerPool the execution container pool
+     * @param containerJanitor       the container janitor
      */
     protected ExecutionStrategy(ContainerService containerService,
                                 MeterRegistry meterRegistry,
-                                Resources resources) {
+                                Resources resources,
+                                ExecutionContainerPool executionContainerPool,
+                                ContainerJanitor containerJanitor) {
         this.containerService = containerService;
         this.threadPool = Executors.newCachedThreadPool();
         this.resources = resources;
+        this.executionContainerPool = executionContainerPool;
+        this.containerJanitor = containerJanitor;
     
         // Init verdict counter
         Arrays.stream(Verdict.values())
@@ -98,7 +169,7 @@ public abstract class ExecutionStrategy {
      */
     protected void buildContainerImage(Execution execution) {
         
-        execution.createEntrypointFiles(); // Creates an entrypoint file for each test case
+        createExecutionFiles(execution);
 
         containerService.buildImage(
                 execution.getPath(),
@@ -106,8 +177,21 @@ public abstract class ExecutionStrategy {
                 WellKnownFiles.EXECUTION_DOCKERFILE_NAME);
     }
     
+    /**
+     * Gets the volume shared with the containers.
+     * If the app is running inside a container, it's the volume mounted on its working directory.
+     *
+     * @return the volume name, or the app's working directory
+     */
+    protected String getVolume() {
+        return compilationContainerVolume.isEmpty() ? System.getProperty("user.dir") : compilationContainerVolume;
+    }
+    
     /**
      * Run execution response.
+     * The test cases are run inside a container claimed from the execution pool when one is available,
+     * otherwise a new container is run for each test case, either from an image built for the execution
+     * or from the stock runtime image with the execution folder mounted (mount mode).
      *
      * @param execution                 the execution
      * @param deleteImageAfterExecution the delete image after execution
@@ -115,36 +199,95 @@ public abstract class ExecutionStrategy {
      */
     public ExecutionResponse run(Execution execution, boolean deleteImageAfterExecution) {
         
-        buildContainerImage(execution);
+        PooledContainer pooledContainer = claimPooledContainer(execution);
+        boolean mountExecutionFolder = pooledContainer == null && isMountModeEnabled(execution);
+        boolean imageBuilt = false;
+        if (mountExecutionFolder) {
+            createExecutionFiles(execution);
+        } else if (pooledContainer == null) {
+            buildContainerImage(execution);
+            imageBuilt = true;
+        }
     
         var testCasesResult = new LinkedHashMap<String, TestCaseResult>();
         Verdict verdict = null;
         String err = "";
     
-        for (ConvertedTestCase testCase : execution.getTestCases()) {
-    
-            TestCaseResult testCaseResult = executeTestCase(execution, testCase);
-    
-            testCasesResult.put(testCase.getTestCaseId(), testCaseResult);
-            
-            verdict = testCaseResult.getVerdict();
+        List<ConvertedTestCase> testCases = execution.getTestCases();
         
-            log.info("Status response for the test case {} is {}", testCase.getTestCaseId(), verdict.getStatusResponse());
+        // A pooled container has a single cpu budget, its test cases are not run in parallel
+        int testCasesParallelism = singleContainer || pooledContainer != null ? 1 : resources.getParallelism(execution);
         
-            // Update metrics
-            verdictsCounters.get(verdict.getStatusResponse()).increment();
+        boolean useRunner = singleContainer;
         
-            if (verdict != Verdict.ACCEPTED) {
-                // Don't continue if the current test case failed
-                log.info("Test case id: {} failed, abort executions", testCase.getTestCaseId());
-                err = testCaseResult.getError();
-                break;
+        try {
+            int nextTestCase = 0;
+            while (nextTestCase < testCases.size() && (verdict == null || verdict == Verdict.ACCEPTED)) {
+                
+                List<ConvertedTestCase> remainingTestCases = testCases.subList(nextTestCase, testCases.size());
+                
+                List<TestCaseResult> results;
+                if (useRunner) {
+                    results = executeTestCasesInOneContainer(
+                            execution, remainingTestCases, pooledContainer, mountExecutionFolder);
+                    if (results.isEmpty()) {
+                        // The remaining test cases are run one container each
+                        useRunner = false;
+                        if (pooledContainer != null) {
+                            // The runner may still be running inside it, the container is deleted once released
+                            pooledContainer.setReusable(false);
+                            executionContainerPool.release(pooledContainer);
+                            pooledContainer = null;
+                            mountExecutionFolder = isMountModeEnabled(execution);
+                            if (!mountExecutionFolder) {
+                                buildContainerImage(execution);
+                                imageBuilt = true;
+                            }
+                        }
+                        continue;
+                    }
+                } else if (testCasesParallelism > 1) {
+                    results = executeTestCasesInParallel(
+                            execution, remainingTestCases, mountExecutionFolder, testCasesParallelism);
+                } else {
+                    results = List.of(executeTestCase(execution, testCases.get(nextTestCase), pooledContainer, mountExecutionFolder));
+                }
+                
+                for (TestCaseResult testCaseResult : results) {
+                    
+                    ConvertedTestCase testCase = testCases.get(nextTestCase++);
+                    
+                    testCasesResult.put(testCase.getTestCaseId(), testCaseResult);
+                    
+                    verdict = testCaseResult.getVerdict();
+                    
+                    log.info("Status response for the test case {} is {}", testCase.getTestCaseId(), verdict.getStatusResponse());
+                    
+                    // Update metrics
+                    verdictsCounters.get(verdict.getStatusResponse()).increment();
+                    
+                    if (verdict != Verdict.ACCEPTED) {
+                        // Don't continue if the current test case failed
+                        log.info("Test case id: {} failed, abort executions", testCase.getTestCaseId());
+                        err = testCaseResult.getError();
+                        break;
+                    }
+                }
+            }
+        } catch (RuntimeException exception) {
+            if (pooledContainer != null) {
+                pooledContainer.setReusable(false);
+            }
+            throw exception;
+        } finally {
+            if (pooledContainer != null) {
+                executionContainerPool.release(pooledContainer);
             }
         }
     
         // Delete container image asynchronously
-        if (deleteImageAfterExecution) {
-            ContainerHelper.deleteImage(execution.getImageName(), containerService, threadPool);
+        if (deleteImageAfterExecution && imageBuilt) {
+            containerJanitor.deleteImage(execution.getImageName());
         }
         
         return ExecutionResponse
@@ -155,8 +298,120 @@ public abstract class ExecutionStrategy {
                 .build();
     }
     
+    /**
+     * Runs the test cases in separate containers, at most parallelism at the same time.
+     * The results are returned in order up to the first failed test case, the test cases after it are cancelled.
+     */
+    private List<TestCaseResult> executeTestCasesInParallel(Execution execution,
+                                                            List<ConvertedTestCase> testCases,
+                                                            boolean mountExecutionFolder,
+                                                            int parallelism) {
+        
+        log.info("Start running {} test cases, {} at a time", testCases.size(), parallelism);
+        
+        List<Future<TestCaseResult>> futures = new ArrayList<>();
+        List<TestCaseResult> results = new ArrayList<>();
+        Set<String> runningContainers = ConcurrentHashMap.newKeySet();
+        try {
+            for (int i = 0; i < testCases.size(); i++) {
+                // Keep the next test cases running while waiting for the current one
+                while (futures.size() < testCases.size() && futures.size() < i + parallelism) {
+                    ConvertedTestCase testCase = testCases.get(futures.size());
+                    String containerName = getExecutionContainerName(execution.getImageName(), testCase.getTestCaseId());
+                    futures.add(threadPool.submit(() -> {
+                        runningContainers.add(containerName);
+                        TestCaseResult testCaseResult = executeTestCase(execution, testCase, null, mountExecutionFolder);
+                        // Kept otherwise, an interrupted test case may return before its container is killed
+                        runningContainers.remove(containerName);
+                        return testCaseResult;
+                    }));
+                }
+                
+                TestCaseResult testCaseResult = getTestCaseResult(futures.get(i));
+                results.add(testCaseResult);
+                
+                if (testCaseResult.getVerdict() != Verdict.ACCEPTED) {
+                    break;
+                }
+            }
+        } finally {
+            // Interrupting a test case only stops the wait on its container, the container itself has to be killed
+            futures.forEach(future -> future.cancel(true));
+            killContainers(new ArrayList<>(runningContainers));
+        }
+        return results;
+    }
+    
+    private void killContainers(List<String> containerNames) {
+        if (containerNames.isEmpty()) {
+            return;
+        }
+        log.info("Killing the containers of the cancelled test cases: {}", containerNames);
+        try {
+            containerService.deleteContainers(containerNames);
+        } catch (RuntimeException exception) {
+            // The containers that are left are deleted by the janitor
+            log.warn("Error while killing the containers of the cancelled test cases: {}", exception.getMessage());
+        }
+    }
+    
+    private TestCaseResult getTestCaseResult(Future<TestCaseResult> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new CompilerServerInternalException("Interrupted while waiting for a test case result");
+        } catch (ExecutionException exception) {
+            if (exception.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) exception.getCause();
+            }
+            throw new CompilerServerInternalException("Error while running a test case: " + exception.getCause());
+        }
+    }
+    
+    private void createExecutionFiles(Execution execution) {
+        execution.createEntrypointFiles(); // Creates an entrypoint file for each test case
+        if (singleContainer) {
+            execution.createRunnerFiles();
+        }
+    }
+    
+    private boolean isMountModeEnabled(Execution execution) {
+        if (!MOUNT_EXECUTION_MODE.equalsIgnoreCase(executionMode)) {
+            return false;
+        }
+        if (ContainerHelper.getExecutionBaseImage(execution.getLanguage()) == null) {
+            log.warn("The base image of {} can't be found, an image will be built for the execution",
+                    execution.getLanguage());
+            return false;
+        }
+        return true;
+    }
+    
+    private PooledContainer claimPooledContainer(Execution execution) {
+        Optional<PooledContainer> claimedContainer = executionContainerPool.claim(execution.getLanguage());
+        if (claimedContainer.isEmpty()) {
+            return null;
+        }
+        PooledContainer pooledContainer = claimedContainer.get();
+        try {
+            createExecutionFiles(execution);
+            executionContainerPool.prepare(pooledContainer, execution.getPath());
+            return pooledContainer;
+        } catch (Exception exception) {
+            log.warn("Can't prepare the pooled container {}, a new container will be used: {}",
+                    pooledContainer.getName(),
+                    exception.getMessage());
+            pooledContainer.setReusable(false);
+            executionContainerPool.release(pooledContainer);
+            return null;
+        }
+    }
+    
     private TestCaseResult executeTestCase(Execution execution,
-                                           ConvertedTestCase testCase) {
+                                           ConvertedTestCase testCase,
+                                           PooledContainer pooledContainer,
+                                           boolean mountExecutionFolder) {
         
         log.info("Start running test case id = {}", testCase.getTestCaseId());
         
@@ -167,15 +422,23 @@ public abstract class ExecutionStrategy {
         
         var result = new AtomicReference<TestCaseResult>();
         executionTimer.record(() -> {
-            // Run the execution container
-            result.set(runContainer(execution, testCase.getTestCaseId(), expectedOutput));
+            if (pooledContainer != null) {
+                // Run the entrypoint inside the pooled container
+                result.set(runInPooledContainer(execution, pooledContainer, testCase.getTestCaseId(), expectedOutput));
+            } else {
+                // Run the execution container
+                result.set(runContainer(execution, testCase.getTestCaseId(), expectedOutput, mountExecutionFolder));
+            }
         });
         
         TestCaseResult testCaseResult = result.get();
         return testCaseResult;
     }
     
-    private TestCaseResult runContainer(Execution execution, String testCaseId, String expectedOutput) {
+    private TestCaseResult runContainer(Execution execution,
+                                        String testCaseId,
+                                        String expectedOutput,
+                                        boolean mountExecutionFolder) {
         
         String containerName = getExecutionContainerName(execution.getImageName(), testCaseId);
         
@@ -185,20 +448,16 @@ public abstract class ExecutionStrategy {
         
         try {
             log.info("Start running the container: {}", containerName);
+            long outputLimit = getOutputLimit(execution);
             ProcessOutput containerOutput = containerService.runContainer(
-                    execution.getImageName(),
-                    containerName,
-                    EXECUTION_TIME_OUT,
-                    resources.getMaxCpus(),
-                    envVariables);
+                    buildRunOptions(execution, containerName, envVariables, EXECUTION_TIME_OUT, outputLimit, mountExecutionFolder)
+                            .build());
             
-            if (!containerOutput.getStdErr().isEmpty()) {
-                log.warn("Potential error occurred during execution of test case id = {}, error: {}",
-                        testCaseId,
-                        containerOutput.getStdErr());
+            if (containerOutput.isOutputLimitExceeded()) {
+                return buildOutputLimitExceededResult(testCaseId, containerOutput, expectedOutput, outputLimit);
             }
             
-            Verdict verdict = getVerdict(containerOutput, expectedOutput);
+            Verdict verdict = getVerdict(execution, containerOutput, expectedOutput, testCaseId);
             
             ContainerHelper.cleanStdErrOutput(containerOutput, execution);
             
@@ -225,23 +484,308 @@ public abstract class ExecutionStrategy {
             ContainerInfo containerInfo =  containerService.inspect(containerName);
             ContainerHelper.logContainerInfo(containerName, containerInfo);
             
+            return buildTimeLimitExceededResult(execution, expectedOutput);
+        } finally {
+            containerJanitor.deleteContainer(containerName);
+        }
+    }
+    
+    private ContainerRunOptions.ContainerRunOptionsBuilder buildRunOptions(Execution execution,
+                                                                          String containerName,
+                                                                          Map<String, String> envVariables,
+                                                                          long timeout,
+                                                                          long outputLimit,
+                                                                          boolean mountExecutionFolder) {
+        var runOptions = ContainerRunOptions
+                .builder()
+                .imageName(execution.getImageName())
+                .containerName(containerName)
+                .timeout(timeout)
+                .maxCpus(resources.getMaxCpus())
+                .envVariables(envVariables)
+                .maxOutputBytes(outputLimit);
+        if (mountExecutionFolder) {
+            // Same user, working directory and entrypoint as the ones of the execution images
+            runOptions
+                    .imageName(ContainerHelper.getExecutionBaseImage(execution.getLanguage()))
+                    .user(ExecutionContainerPool.EXECUTION_USER)
+                    .workingDirectory(ExecutionContainerPool.WORKING_DIRECTORY)
+                    .entrypoint(List.of("/bin/sh", "-c", EXECUTION_IMAGE_ENTRYPOINT))
+                    .mounts(List.of(getExecutionFolderMount(execution)));
+        }
+        return runOptions;
+    }
+    
+    /**
+     * Runs the given test cases in order inside one container using the runner.
+     * The frames are checked while the runner is running and the runner is stopped at the first failed test case.
+     * Returns the results of the test cases run before the runner stopped,
+     * or no result when the runner didn't report anything or its output can't be trusted.
+     */
+    private List<TestCaseResult> executeTestCasesInOneContainer(Execution execution,
+                                                                List<ConvertedTestCase> testCases,
+                                                                PooledContainer pooledContainer,
+                                                                boolean mountExecutionFolder) {
+        
+        List<String> testCaseIds = testCases.stream().map(ConvertedTestCase::getTestCaseId).collect(Collectors.toList());
+        
+        log.info("Start running the test cases {} inside one container", testCaseIds);
+        
+        long outputLimit = getOutputLimit(execution);
+        
+        Map<String, String> envVariables = new HashMap<>();
+        if (outputLimit > 0) {
+            envVariables.put(RUNNER_MAX_FILE_BLOCKS_ENV_VARIABLE, String.valueOf(outputLimit / RUNNER_FILE_BLOCK_SIZE + 1));
+        }
+        
+        List<String> command = new ArrayList<>(List.of("/bin/sh", "./" + WellKnownFiles.RUNNER_FILE_NAME));
+        command.addAll(testCaseIds);
+        
+        long timeout = EXECUTION_TIME_OUT * testCases.size();
+        
+        // Each test case can write up to the limit on both stdout and stderr
+        long runnerOutputLimit = outputLimit > 0 ? (2 * outputLimit + RUNNER_FRAME_OVERHEAD) * testCases.size() : 0;
+        
+        List<TestCaseResult> results = new ArrayList<>();
+        var parser = new RunnerOutputParser(testCases.size(), frame -> {
+            ConvertedTestCase testCase = testCases.get(results.size());
+            TestCaseResult testCaseResult = toTestCaseResult(
+                    execution, testCase.getTestCaseId(), frame, testCase.getExpectedOutput(), outputLimit);
+            results.add(testCaseResult);
+            // The next test cases would be thrown away
+            return testCaseResult.getVerdict() == Verdict.ACCEPTED;
+        });
+        
+        var result = new AtomicReference<ProcessOutput>();
+        try {
+            executionTimer.record(() -> result.set(runRunner(
+                    execution,
+                    testCaseIds.get(0),
+                    pooledContainer,
+                    mountExecutionFolder,
+                    command,
+                    envVariables,
+                    timeout,
+                    runnerOutputLimit,
+                    parser)));
+        } catch (ContainerOperationTimeoutException exception) {
+            // The test case that timed out is unknown, the test cases are run again one container each
+            log.warn("Time limit exceeded while running the test cases inside one container: {}", exception.getMessage());
+            return List.of();
+        }
+        
+        ProcessOutput runnerOutput = result.get();
+        if ((runnerOutput.isOutputLimitExceeded() || runnerOutput.isStopped()) && pooledContainer != null) {
+            // The program may still be running
+            pooledContainer.setReusable(false);
+        }
+        
+        if (parser.isInvalid()) {
+            // Only the executed program can write something else than the frames of the runner
+            log.warn("The output of the runner is invalid, the test cases are run again one container each");
+            return List.of();
+        }
+        
+        if (!runnerOutput.isStopped()
+                && parser.getFrames() < testCases.size()
+                && runnerOutput.isOutputLimitExceeded()) {
+            // The runner was stopped while writing the frame of the next test case
+            ConvertedTestCase testCase = testCases.get(parser.getFrames());
+            results.add(buildOutputLimitExceededResult(
+                    testCase.getTestCaseId(), runnerOutput, testCase.getExpectedOutput(), outputLimit));
+        }
+        
+        if (results.isEmpty()) {
+            log.warn("The runner didn't report any result, status: {}, error: {}",
+                    runnerOutput.getStatus(),
+                    runnerOutput.getStdErr());
+        }
+        
+        return acceptResults(testCases, results);
+    }
+    
+    // The expected outputs are kept until the results are accepted, the test cases may be run again otherwise
+    private static List<TestCaseResult> acceptResults(List<ConvertedTestCase> testCases, List<TestCaseResult> results) {
+        for (int i = 0; i < results.size(); i++) {
+            testCases.get(i).freeMemorySpace();
+        }
+        return results;
+    }
+    
+    private ProcessOutput runRunner(Execution execution,
+                                    String firstTestCaseId,
+                                    PooledContainer pooledContainer,
+                                    boolean mountExecutionFolder,
+                                    List<String> command,
+                                    Map<String, String> envVariables,
+                                    long timeout,
+                                    long outputLimit,
+                                    OutputListener stdOutListener) {
+        
+        if (pooledContainer != null) {
+            return containerService.execInContainer(ContainerExecOptions
+                    .builder()
+                    .containerName(pooledContainer.getName())
+                    .user(ExecutionContainerPool.EXECUTION_USER)
+                    .workingDirectory(ExecutionContainerPool.WORKING_DIRECTORY)
+                    .command(command)
+                    .envVariables(envVariables)
+                    .timeout(timeout)
+                    .maxOutputBytes(outputLimit)
+                    .stdOutListener(stdOutListener)
+                    .build());
+        }
+        
+        // The runner can be restarted from the next test case when it stops before the last one
+        String containerName = getExecutionContainerName(execution.getImageName(), RUNNER_CONTAINER_NAME_PREFIX + firstTestCaseId);
+        try {
+            log.info("Start running the container: {}", containerName);
+            return containerService.runContainer(
+                    buildRunOptions(execution, containerName, envVariables, timeout, outputLimit, mountExecutionFolder)
+                            .entrypoint(command)
+                            .stdOutListener(stdOutListener)
+                            .build());
+        } finally {
+            containerJanitor.deleteContainer(containerName);
+        }
+    }
+    
+    private TestCaseResult toTestCaseResult(Execution execution,
+                                            String testCaseId,
+                                            ProcessOutput output,
+                                            String expectedOutput,
+                                            long outputLimit) {
+        
+        if (output.isOutputLimitExceeded()
+                || (outputLimit > 0 && output.getStdOutBytes() > outputLimit)) {
+            return buildOutputLimitExceededResult(testCaseId, output, expectedOutput, outputLimit);
+        }
+        
+        Verdict verdict = getVerdict(execution, output, expectedOutput, testCaseId);
+        
+        ContainerHelper.cleanStdErrOutput(output, execution);
+        
+        return new TestCaseResult(
+                verdict,
+                output.getStdOut(),
+                output.getStdErr(),
+                expectedOutput,
+                output.getExecutionDuration());
+    }
+    
+    private TestCaseResult runInPooledContainer(Execution execution,
+                                                PooledContainer pooledContainer,
+                                                String testCaseId,
+                                                String expectedOutput) {
+        try {
+            log.info("Start running test case id = {} inside the container: {}", testCaseId, pooledContainer.getName());
+            long outputLimit = getOutputLimit(execution);
+            ProcessOutput containerOutput = containerService.execInContainer(ContainerExecOptions
+                    .builder()
+                    .containerName(pooledContainer.getName())
+                    .user(ExecutionContainerPool.EXECUTION_USER)
+                    .workingDirectory(ExecutionContainerPool.WORKING_DIRECTORY)
+                    .command(List.of("/bin/sh", "-c", EXECUTION_IMAGE_ENTRYPOINT))
+                    .envVariables(Map.of(TEST_CASE_ID_ENV_VARIABLE, testCaseId))
+                    .timeout(EXECUTION_TIME_OUT)
+                    .maxOutputBytes(outputLimit)
+                    .build());
+            
+            if (containerOutput.isOutputLimitExceeded()) {
+                // The program may still be writing
+                pooledContainer.setReusable(false);
+                return buildOutputLimitExceededResult(testCaseId, containerOutput, expectedOutput, outputLimit);
+            }
+            
+            Verdict verdict = getVerdict(execution, containerOutput, expectedOutput, testCaseId);
+            
+            ContainerHelper.cleanStdErrOutput(containerOutput, execution);
+            
             return new TestCaseResult(
-                    Verdict.TIME_LIMIT_EXCEEDED,
-                    "",
-                    "The execution exceeded the time limit",
+                    verdict,
+                    containerOutput.getStdOut(),
+                    containerOutput.getStdErr(),
                     expectedOutput,
-                    execution.getTimeLimit() + 1);
-        } finally {
-            ContainerHelper.deleteContainer(containerName, containerService, threadPool);
+                    containerOutput.getExecutionDuration());
+            
+        } catch(ContainerOperationTimeoutException exception) {
+            // Should be caught inside the container
+            log.warn("Tme limit exceeded during the execution: {}", exception);
+            pooledContainer.setReusable(false);
+            return buildTimeLimitExceededResult(execution, expectedOutput);
+        }
+    }
+    
+    private TestCaseResult buildOutputLimitExceededResult(String testCaseId,
+                                                          ProcessOutput containerOutput,
+                                                          String expectedOutput,
+                                                          long outputLimit) {
+        log.warn("Output limit exceeded during the execution of test case id = {}, {} bytes written",
+                testCaseId,
+                containerOutput.getStdOutBytes());
+        
+        return new TestCaseResult(
+                Verdict.OUTPUT_LIMIT_EXCEEDED,
+                "",
+                "The output exceeded the limit of " + outputLimit + " bytes",
+                expectedOutput,
+                containerOutput.getExecutionDuration());
+    }
+    
+    private TestCaseResult buildTimeLimitExceededResult(Execution execution, String expectedOutput) {
+        return new TestCaseResult(
+                Verdict.TIME_LIMIT_EXCEEDED,
+                "",
+                "The execution exceeded the time limit",
+                expectedOutput,
+                execution.getTimeLimit() + 1);
+    }
+    
+    private long getOutputLimit(Execution execution) {
+        // The limit of the request can only be lower than the default one
+        if (execution.getMaxOutputBytes() > 0 && (maxOutputBytes <= 0 || execution.getMaxOutputBytes() < maxOutputBytes)) {
+            return execution.getMaxOutputBytes();
         }
+        return maxOutputBytes;
+    }
+    
+    private ContainerMount getExecutionFolderMount(Execution execution) {
+        if (!execution.getWorkspaceRoot().isEmpty()) {
+            // The workspace is a directory of the host
+            return ContainerMount
+                    .builder()
+                    .source(execution.getPath())
+                    .target(ExecutionContainerPool.WORKING_DIRECTORY)
+                    .readOnly(true)
+                    .build();
+        }
+        String volume = getVolume();
+        // A host directory is mounted directly, a named volume is mounted from the execution sub directory
+        boolean isHostDirectory = volume.startsWith("/");
+        return ContainerMount
+                .builder()
+                .source(isHostDirectory ? volume + "/" + execution.getPath() : volume)
+                .subpath(isHostDirectory ? null : execution.getPath())
+                .target(ExecutionContainerPool.WORKING_DIRECTORY)
+                .readOnly(true)
+                .build();
     }
     
     private String getExecutionContainerName(String imageName, String testCaseId) {
         return EXECUTION_CONTAINER_NAME_PREFIX + testCaseId + "-" + imageName;
     }
     
-    private Verdict getVerdict(ProcessOutput containerOutput, String expectedOutput) {
-        boolean result = CmdUtils.compareOutput(containerOutput.getStdOut(), expectedOutput);
+    private Verdict getVerdict(Execution execution,
+                               ProcessOutput containerOutput,
+                               String expectedOutput,
+                               String testCaseId) {
+        if (!containerOutput.getStdErr().isEmpty()) {
+            log.warn("Potential error occurred during execution of test case id = {}, error: {}",
+                    testCaseId,
+                    containerOutput.getStdErr());
+        }
+        boolean result = CheckerFactory.createChecker(execution.getChecker())
+                .check(containerOutput.getStdOut(), expectedOutput);
         return StatusUtils.statusResponse(containerOutput.getStatus(), result);
     }
 }
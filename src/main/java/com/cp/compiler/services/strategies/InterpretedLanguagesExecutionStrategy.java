@@ -4,6 +4,8 @@ import com.cp.compiler.executions.Execution;
 import com.cp.compiler.models.CompilationResponse;
 import com.cp.compiler.models.Verdict;
 import com.cp.compiler.services.containers.ContainerService;
+import com.cp.compiler.services.janitor.ContainerJanitor;
+import com.cp.compiler.services.pools.ExecutionContainerPool;
 import com.cp.compiler.services.resources.Resources;
 import com.cp.compiler.wellknownconstants.WellKnownMetrics;
 import io.micrometer.core.instrument.MeterRegistry;
@@ -26,14 +28,18 @@ public class InterpretedLanguagesExecutionStrategy extends ExecutionStrategy {
     /**
      * Instantiates a new Interpreted languages execution strategy.
      *
-     * @param containerService the container service
-     * @param meterRegistry    the meter registry
-     * @param resources        the resources
+     * @param containerService       the container service
+     * @param meterRegistry          the meter registry
+     * @param resources              the resources
+     * @param executionContainerPool the execution container pool
+     * @param containerJanitor       the container janitor
      */
     public InterpretedLanguagesExecutionStrategy(ContainerService containerService,
                                                  MeterRegistry meterRegistry,
-                                                 Resources resources) {
-        super(containerService, meterRegistry, resources);
+                                                 Resources resources,
+                                                 ExecutionContainerPool executionContainerPool,
+                                                 ContainerJanitor containerJanitor) {
+        super(containerService, meterRegistry, resources, executionContainerPool, containerJanitor);
         this.meterRegistry = meterRegistry;
     }
     
@@ -0,0 +1,54 @@
+package com.cp.compiler.services.workspaces;
+
+import com.cp.compiler.executions.Execution;
+
+import java.nio.file.Path;
+
+/**
+ * The interface Workspace allocator.
+ * Chooses where the execution directories are written: in the RAM-backed workspace (tmpfs) when it has room,
+ * otherwise in the working directory on disk.
+ *
+ * @author Zakaria Maaraki
+ */
+public interface WorkspaceAllocator {
+    
+    /**
+     * Reserve the quota of the execution in the workspace and set its workspace root,
+     * the execution stays on disk when the workspace is disabled or full.
+     * It should be called before creating the execution directory.
+     *
+     * @param execution the execution
+     */
+    void allocate(Execution execution);
+    
+    /**
+     * Move the execution directory to the disk when it outgrew the quota of the execution, ex: with the files
+     * written by the compilation. It should be called before running the test cases.
+     *
+     * @param execution the execution
+     */
+    void enforceQuota(Execution execution);
+    
+    /**
+     * Release the quota reserved by the execution, it should be called once its directory is deleted.
+     *
+     * @param execution the execution
+     */
+    void release(Execution execution);
+    
+    /**
+     * Gets the bytes of the workspace reserved by the running executions.
+     *
+     * @return the used bytes
+     */
+    long getUsedBytes();
+    
+    /**
+     * Gets the directory where the test cases of the json requests are written while being parsed,
+     * it's in the workspace when enabled so that the inputs are moved to the execution directories with a rename.
+     *
+     * @return the spool directory
+     */
+    Path getSpoolDirectory();
+}
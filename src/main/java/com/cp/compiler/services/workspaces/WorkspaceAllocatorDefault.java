@@ -0,0 +1,168 @@
+package com.cp.compiler.services.workspaces;
+
+import com.cp.compiler.executions.Execution;
+import com.cp.compiler.utils.FileUtils;
+import com.cp.compiler.wellknownconstants.WellKnownFolders;
+import com.cp.compiler.wellknownconstants.WellKnownMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.FileSystemUtils;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The type Workspace allocator default.
+ * Each execution written to the workspace reserves a fixed quota of its size, the executions whose uploaded files
+ * exceed the quota, or arriving when the quota can't be reserved, are written to the disk instead.
+ * The executions that outgrow the quota once compiled are moved to the disk.
+ * The workspace root is mounted directly by the compilation and execution containers, so it should be
+ * an absolute path of the host (ex: a tmpfs mount), with the same path inside the app's container if any.
+ *
+ * @author Zakaria Maaraki
+ */
+@Slf4j
+@Service
+public class WorkspaceAllocatorDefault implements WorkspaceAllocator {
+    
+    private final MeterRegistry meterRegistry;
+    
+    private final long size;
+    
+    private final long executionQuota;
+    
+    private String root;
+    
+    private final AtomicLong usedBytes = new AtomicLong();
+    
+    // Ids of the executions holding a quota
+    private final Set<String> allocatedExecutions = ConcurrentHashMap.newKeySet();
+    
+    private Counter fallbackCounter;
+    
+    /**
+     * Instantiates a new Workspace allocator default.
+     *
+     * @param meterRegistry  the meter registry
+     * @param root           the workspace root, empty to disable the workspace
+     * @param size           the size in bytes of the workspace
+     * @param executionQuota the size in bytes reserved by each execution
+     */
+    public WorkspaceAllocatorDefault(MeterRegistry meterRegistry,
+                                     @Value("${compiler.workspace.root:}") String root,
+                                     @Value("${compiler.workspace.size:268435456}") long size,
+                                     @Value("${compiler.workspace.execution-quota:16777216}") long executionQuota) {
+        this.meterRegistry = meterRegistry;
+        this.root = root.isEmpty() ? "" : Path.of(root).toAbsolutePath().normalize().toString();
+        this.size = size;
+        this.executionQuota = executionQuota;
+    }
+    
+    /**
+     * Init the metrics and create the workspace root.
+     */
+    @PostConstruct
+    public void init() {
+        meterRegistry.gauge(WellKnownMetrics.WORKSPACE_USAGE_GAUGE, usedBytes);
+        fallbackCounter = meterRegistry.counter(WellKnownMetrics.WORKSPACE_FALLBACK_COUNTER);
+        if (root.isEmpty()) {
+            return;
+        }
+        try {
+            Files.createDirectories(Path.of(root));
+            log.info("Execution workspace: {}, size = {} bytes, quota per execution = {} bytes", root, size, executionQuota);
+        } catch (IOException e) {
+            log.warn("Can't create the execution workspace {}, the executions are written to the disk: {}",
+                    root, e.getMessage());
+            root = "";
+        }
+    }
+    
+    @Override
+    public void allocate(Execution execution) {
+        if (root.isEmpty()) {
+            return;
+        }
+        long inputSize = execution.getInputSize();
+        if (inputSize > executionQuota || !reserve()) {
+            log.info("Not enough room in the workspace for the execution {} ({} bytes uploaded), "
+                    + "falling back to the disk", execution.getId(), inputSize);
+            fallbackCounter.increment();
+            return;
+        }
+        allocatedExecutions.add(execution.getId());
+        execution.setWorkspaceRoot(root);
+    }
+    
+    @Override
+    public void enforceQuota(Execution execution) {
+        if (!allocatedExecutions.contains(execution.getId())) {
+            return;
+        }
+        Path directory = Path.of(execution.getPath());
+        Path diskDirectory = Path.of(execution.getRelativePath());
+        try {
+            long executionSize = FileUtils.size(directory);
+            if (executionSize <= executionQuota) {
+                return;
+            }
+            log.info("The execution {} takes {} bytes of the workspace, moving it to the disk",
+                    execution.getId(), executionSize);
+            Files.createDirectories(diskDirectory);
+            FileSystemUtils.copyRecursively(directory, diskDirectory);
+        } catch (IOException e) {
+            log.warn("Can't move the execution {} to the disk, it stays in the workspace: {}",
+                    execution.getId(), e.getMessage());
+            deleteQuietly(diskDirectory);
+            return;
+        }
+        execution.setWorkspaceRoot("");
+        deleteQuietly(directory);
+        release(execution);
+        fallbackCounter.increment();
+    }
+    
+    @Override
+    public void release(Execution execution) {
+        if (allocatedExecutions.remove(execution.getId())) {
+            usedBytes.addAndGet(-executionQuota);
+        }
+    }
+    
+    @Override
+    public long getUsedBytes() {
+        return usedBytes.get();
+    }
+    
+    @Override
+    public Path getSpoolDirectory() {
+        return root.isEmpty() ? Path.of(WellKnownFolders.SPOOL_FOLDER_NAME) : Path.of(root, WellKnownFolders.SPOOL_FOLDER_NAME);
+    }
+    
+    private static void deleteQuietly(Path directory) {
+        try {
+            FileSystemUtils.deleteRecursively(directory);
+        } catch (IOException e) {
+            log.warn("Can't delete the directory {}: {}", directory, e.getMessage());
+        }
+    }
+    
+    private boolean reserve() {
+        long current;
+        do {
+            current = usedBytes.get();
+            if (current + executionQuota > size) {
+                return false;
+            }
+        } while (!usedBytes.compareAndSet(current, current + executionQuota));
+        return true;
+    }
+}
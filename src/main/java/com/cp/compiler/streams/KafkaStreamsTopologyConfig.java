@@ -2,6 +2,7 @@ package com.cp.compiler.streams;
 
 import com.cp.compiler.wellknownconstants.WellKnownMetrics;
 import com.cp.compiler.services.businesslogic.CompilerService;
+import com.cp.compiler.services.workspaces.WorkspaceAllocator;
 import com.cp.compiler.streams.transformers.CompilerTransformer;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
@@ -65,6 +66,7 @@ public class KafkaStreamsTopologyConfig {
      * @param throttlingDuration the throttling duration
      * @param builder            the topology builder
      * @param compilerService    the compiler service
+     * @param workspaceAllocator the workspace allocator
      * @return the topology
      */
     @Bean
@@ -72,11 +74,13 @@ public class KafkaStreamsTopologyConfig {
                              @Value("${spring.kafka.topics.output-topic}") String outputTopic,
                              @Value("${spring.kafka.throttling-duration}") long throttlingDuration,
                              @Autowired StreamsBuilder builder,
-                             @Qualifier("proxy") @Autowired CompilerService compilerService) {
+                             @Qualifier("proxy") @Autowired CompilerService compilerService,
+                             @Autowired WorkspaceAllocator workspaceAllocator) {
         
         builder.stream(inputTopic, Consumed.with(stringSerde, stringSerde))
                 .transformValues((ValueTransformerSupplier) () -> {
-                    return new CompilerTransformer(compilerService, throttlingDuration, throttlingRetriesCounter);
+                    return new CompilerTransformer(
+                            compilerService, workspaceAllocator, throttlingDuration, throttlingRetriesCounter);
                 })
                 .to(outputTopic, Produced.with(stringSerde, stringSerde));
     
@@ -3,6 +3,7 @@ package com.cp.compiler.streams.transformers;
 import com.cp.compiler.exceptions.CompilerThrottlingException;
 import com.cp.compiler.mappers.JsonMapper;
 import com.cp.compiler.services.businesslogic.CompilerService;
+import com.cp.compiler.services.workspaces.WorkspaceAllocator;
 import io.micrometer.core.instrument.Counter;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
@@ -19,6 +20,8 @@ public class CompilerTransformer implements ValueTransformer<String, String> {
     
     private CompilerService compilerService;
     
+    private WorkspaceAllocator workspaceAllocator;
+    
     private long throttlingDuration;
     
     private Counter throttlingRetriesCounter;
@@ -27,13 +30,16 @@ public class CompilerTransformer implements ValueTransformer<String, String> {
      * Instantiates a new Compiler transformer.
      *
      * @param compilerService          the compiler service
+     * @param workspaceAllocator       the workspace allocator
      * @param throttlingDuration       the throttling duration
      * @param throttlingRetriesCounter the throttling retries counter
      */
     public CompilerTransformer(CompilerService compilerService,
+                               WorkspaceAllocator workspaceAllocator,
                                long throttlingDuration,
                                Counter throttlingRetriesCounter) {
         this.compilerService = compilerService;
+        this.workspaceAllocator = workspaceAllocator;
         this.throttlingDuration = throttlingDuration;
         this.throttlingRetriesCounter = throttlingRetriesCounter;
     }
@@ -47,7 +53,7 @@ public class CompilerTransformer implements ValueTransformer<String, String> {
     @Override
     public String transform(String jsonRequest) {
         try {
-            return JsonMapper.transform(jsonRequest, compilerService);
+            return JsonMapper.transform(jsonRequest, compilerService, workspaceAllocator.getSpoolDirectory());
         } catch (CompilerThrottlingException throttlingException) {
             log.info("Request has been throttled {}, retrying after {}", throttlingException, throttlingDuration);
             return retryAfter(jsonRequest);
@@ -0,0 +1,83 @@
+package com.cp.compiler.templates;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The type Compiled template.
+ * A template split once into its literal parts and its attributes, rendered by concatenation.
+ * Only the unescaped inlined expressions of the attributes are supported: [(${compiler.attributeName})].
+ *
+ * @author Zakaria Maaraki
+ */
+public class CompiledTemplate {
+
+    private static final Pattern ATTRIBUTE_EXPRESSION = Pattern.compile("\\[\\(\\$\\{compiler\\.(\\w+)}\\)]");
+
+    // The other syntaxes of the template engine in text mode, such a template can't be compiled
+    private static final List<String> UNSUPPORTED_SYNTAXES = List.of("[[", "[(", "[#", "[/");
+
+    // One more literal than attributes, a literal can be empty
+    private final String[] literals;
+
+    private final String[] attributeNames;
+
+    private final int literalsLength;
+
+    private CompiledTemplate(List<String> literals, List<String> attributeNames) {
+        this.literals = literals.toArray(new String[0]);
+        this.attributeNames = attributeNames.toArray(new String[0]);
+        this.literalsLength = literals.stream().mapToInt(String::length).sum();
+    }
+
+    /**
+     * Compile a template.
+     *
+     * @param template the content of the template
+     * @return the compiled template, empty if the template uses another syntax of the template engine
+     */
+    public static Optional<CompiledTemplate> compile(String template) {
+        List<String> literals = new ArrayList<>();
+        List<String> attributeNames = new ArrayList<>();
+        Matcher matcher = ATTRIBUTE_EXPRESSION.matcher(template);
+        int literalStart = 0;
+        while (matcher.find()) {
+            literals.add(template.substring(literalStart, matcher.start()));
+            attributeNames.add(matcher.group(1));
+            literalStart = matcher.end();
+        }
+        literals.add(template.substring(literalStart));
+
+        boolean isSupported = literals
+                .stream()
+                .noneMatch(literal -> UNSUPPORTED_SYNTAXES.stream().anyMatch(literal::contains));
+        return isSupported ? Optional.of(new CompiledTemplate(literals, attributeNames)) : Optional.empty();
+    }
+
+    /**
+     * Render the template, a missing attribute is rendered as an empty string like the template engine does.
+     *
+     * @param attributes the attributes
+     * @return the content
+     */
+    public String render(Map<String, String> attributes) {
+        int length = literalsLength;
+        for (String attributeName : attributeNames) {
+            String value = attributes.get(attributeName);
+            length += value == null ? 0 : value.length();
+        }
+        var content = new StringBuilder(length);
+        for (int i = 0; i < attributeNames.length; i++) {
+            content.append(literals[i]);
+            String value = attributes.get(attributeNames[i]);
+            if (value != null) {
+                content.append(value);
+            }
+        }
+        return content.append(literals[attributeNames.length]).toString();
+    }
+}
@@ -1,27 +1,78 @@
 package com.cp.compiler.templates;
 
-import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.thymeleaf.ThymeleafProperties;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
 import org.springframework.stereotype.Component;
 import org.thymeleaf.context.Context;
 import org.thymeleaf.spring5.SpringTemplateEngine;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The type Entry point file generator.
+ * Each template is compiled once, then rendered by concatenation for each test case
+ * (see {@link CompiledTemplate}), the template engine is only used by the templates that can't be compiled.
  *
  * @author Zakaria Maaraki
  */
+@Slf4j
 @Component
-@AllArgsConstructor
 public class EntrypointFileGeneratorDefault implements EntrypointFileGenerator {
     
     private final SpringTemplateEngine templateEngine;
     
+    private final ResourceLoader resourceLoader;
+    
+    private final ThymeleafProperties thymeleafProperties;
+    
+    // Empty when the template is rendered by the template engine
+    private final Map<String, Optional<CompiledTemplate>> compiledTemplates = new ConcurrentHashMap<>();
+    
+    /**
+     * Instantiates a new Entrypoint file generator default.
+     *
+     * @param templateEngine      the template engine
+     * @param resourceLoader      the resource loader
+     * @param thymeleafProperties the thymeleaf properties (location and encoding of the templates)
+     */
+    public EntrypointFileGeneratorDefault(SpringTemplateEngine templateEngine,
+                                          ResourceLoader resourceLoader,
+                                          ThymeleafProperties thymeleafProperties) {
+        this.templateEngine = templateEngine;
+        this.resourceLoader = resourceLoader;
+        this.thymeleafProperties = thymeleafProperties;
+    }
+    
     @Override
     public String createEntrypointFile(String templatePath, Map<String, String> attributes) {
+        Optional<CompiledTemplate> compiledTemplate = compiledTemplates.computeIfAbsent(templatePath, this::compile);
+        if (compiledTemplate.isPresent()) {
+            return compiledTemplate.get().render(attributes);
+        }
         Context context = new Context();
         context.setVariable("compiler", attributes);
         return templateEngine.process(templatePath, context);
     }
+    
+    private Optional<CompiledTemplate> compile(String templatePath) {
+        Resource resource = resourceLoader.getResource(
+                thymeleafProperties.getPrefix() + templatePath + thymeleafProperties.getSuffix());
+        try (InputStream inputStream = resource.getInputStream()) {
+            Optional<CompiledTemplate> compiledTemplate = CompiledTemplate.compile(
+                    new String(inputStream.readAllBytes(), thymeleafProperties.getEncoding()));
+            if (compiledTemplate.isEmpty()) {
+                log.info("The template {} can't be compiled, it's rendered by the template engine", templatePath);
+            }
+            return compiledTemplate;
+        } catch (IOException e) {
+            log.warn("Can't read the template {}, it's rendered by the template engine: {}", templatePath, e.getMessage());
+            return Optional.empty();
+        }
+    }
 }
@@ -0,0 +1,110 @@
+package com.cp.compiler.utils;
+
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * The type Bounded output buffer.
+ * An in-memory output stream that keeps at most a given number of bytes, extra bytes are counted and dropped.
+ *
+ * @author Zakaria Maaraki
+ */
+public class BoundedOutputBuffer extends OutputStream {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final int capacity;
+
+    private byte[] buffer;
+
+    private int size = 0;
+
+    private long totalBytes = 0;
+
+    /**
+     * Instantiates a new Bounded output buffer.
+     *
+     * @param capacity the maximum number of bytes kept in memory
+     */
+    public BoundedOutputBuffer(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity should be a positive value");
+        }
+        this.capacity = capacity;
+        this.buffer = new byte[Math.min(capacity, INITIAL_CAPACITY)];
+    }
+
+    @Override
+    public void write(int b) {
+        totalBytes++;
+        if (size < capacity) {
+            ensureCapacity(size + 1);
+            buffer[size++] = (byte) b;
+        }
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) {
+        totalBytes += length;
+        int toCopy = Math.min(length, capacity - size);
+        if (toCopy > 0) {
+            ensureCapacity(size + toCopy);
+            System.arraycopy(bytes, offset, buffer, size, toCopy);
+            size += toCopy;
+        }
+    }
+
+    /**
+     * Gets the total number of bytes written, including the dropped ones.
+     *
+     * @return the total bytes
+     */
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * Gets the number of bytes kept in memory.
+     *
+     * @return the size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Is truncated boolean.
+     *
+     * @return true if some bytes were dropped
+     */
+    public boolean isTruncated() {
+        return totalBytes > size;
+    }
+
+    /**
+     * Is full boolean.
+     *
+     * @return true if no more bytes can be kept
+     */
+    public boolean isFull() {
+        return size >= capacity;
+    }
+
+    /**
+     * Decode the kept bytes.
+     *
+     * @param charset the charset
+     * @return the string
+     */
+    public String toString(Charset charset) {
+        return new String(buffer, 0, size, charset);
+    }
+
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity > buffer.length) {
+            int newCapacity = (int) Math.min(capacity, Math.max(minCapacity, (long) buffer.length * 2));
+            buffer = Arrays.copyOf(buffer, newCapacity);
+        }
+    }
+}
@@ -2,12 +2,15 @@ package com.cp.compiler.utils;
 
 import com.cp.compiler.exceptions.ProcessExecutionException;
 import com.cp.compiler.exceptions.ProcessExecutionTimeoutException;
+import com.cp.compiler.models.processes.OutputListener;
 import com.cp.compiler.models.processes.ProcessOutput;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -19,6 +22,23 @@ import java.util.concurrent.TimeUnit;
 public abstract class CmdUtils {
 
     private static final int MAX_ERROR_LENGTH = 1000; // number of chars
+    
+    /**
+     * The constant MAX_ERROR_BYTES, bytes kept from stderr (enough to build the error output).
+     */
+    public static final int MAX_ERROR_BYTES = MAX_ERROR_LENGTH * 4;
+    
+    /**
+     * The constant MAX_OUTPUT_BYTES, bytes kept from stdout.
+     */
+    public static final int MAX_OUTPUT_BYTES = 32 * 1024 * 1024; // 32 MB
+    
+    private static final int READ_CHUNK_SIZE = 8192;
+    
+    private static final long MIN_POLL_INTERVAL = 1; // ms
+    
+    private static final long MAX_POLL_INTERVAL = 10; // ms
+    
     /**
      * The constant LONG_MESSAGE_TRAIL.
      */
@@ -47,26 +67,14 @@ public abstract class CmdUtils {
     
     /**
      * Compare output boolean.
+     * The outputs are compared while being walked, see {@link OutputComparator}.
      *
      * @param output         the output
      * @param expectedOutput the expected output
      * @return the boolean
      */
     public static boolean compareOutput(String output, String expectedOutput) {
-        return trimText(output).equals(trimText(expectedOutput));
-    }
-
-    /**
-     * Remove extra white space and trailing carriage returns
-     *
-     * @param text
-     * @return cleaned text
-     */
-    private static String trimText(String text) {
-        return text
-          .trim()
-          .replaceAll("\\s+", " ")
-          .replace("/n","");
+        return OutputComparator.equals(output, expectedOutput);
     }
     
     /**
@@ -85,6 +93,8 @@ public abstract class CmdUtils {
     
     /**
      * Execute process process output.
+     * Stdout and stderr are drained by the calling thread while the process is running,
+     * so a process writing more than the pipe buffer size never blocks.
      *
      * @param commands the commands
      * @param timeout  the timeout
@@ -94,6 +104,44 @@ public abstract class CmdUtils {
      */
     public static ProcessOutput executeProcess(String[] commands, long timeout)
             throws ProcessExecutionException, ProcessExecutionTimeoutException {
+        return executeProcess(commands, timeout, 0);
+    }
+    
+    /**
+     * Execute process process output.
+     * If the process writes more than maxOutputBytes to stdout, it is destroyed
+     * and the returned output is flagged with {@link ProcessOutput#isOutputLimitExceeded()}.
+     *
+     * @param commands       the commands
+     * @param timeout        the timeout
+     * @param maxOutputBytes the max number of bytes the process can write to stdout, 0 means no limit
+     * @return the process output
+     * @throws ProcessExecutionException        the process execution exception
+     * @throws ProcessExecutionTimeoutException the process execution timeout exception
+     */
+    public static ProcessOutput executeProcess(String[] commands, long timeout, long maxOutputBytes)
+            throws ProcessExecutionException, ProcessExecutionTimeoutException {
+        return executeProcess(commands, timeout, maxOutputBytes, null);
+    }
+    
+    /**
+     * Execute process process output.
+     * The stdout is also given to the listener while the process is running, once the listener asks for it
+     * the process is destroyed and the returned output is flagged with {@link ProcessOutput#isStopped()}.
+     *
+     * @param commands       the commands
+     * @param timeout        the timeout
+     * @param maxOutputBytes the max number of bytes the process can write to stdout, 0 means no limit
+     * @param stdOutListener the stdout listener, null if not needed
+     * @return the process output
+     * @throws ProcessExecutionException        the process execution exception
+     * @throws ProcessExecutionTimeoutException the process execution timeout exception
+     */
+    public static ProcessOutput executeProcess(String[] commands,
+                                               long timeout,
+                                               long maxOutputBytes,
+                                               OutputListener stdOutListener)
+            throws ProcessExecutionException, ProcessExecutionTimeoutException {
         
         if (timeout <= 0) {
             throw new IllegalArgumentException("timeout should be a positive value");
@@ -103,51 +151,165 @@ public abstract class CmdUtils {
             throw new IllegalArgumentException("commands should have at least one element");
         }
         
+        Process process = null;
         try {
             ProcessBuilder processbuilder = new ProcessBuilder(commands);
-            Process process = processbuilder.start();
+            process = processbuilder.start();
             long executionStartTime = System.currentTimeMillis();
-    
-            // Do not let the process exceed the timeout
-            process.waitFor(timeout, TimeUnit.MILLISECONDS);
+            long deadline = executionStartTime + timeout;
+            
+            InputStream stdOutStream = process.getInputStream();
+            InputStream stdErrStream = process.getErrorStream();
+            long outputLimit = maxOutputBytes > 0 ? Math.min(maxOutputBytes, MAX_OUTPUT_BYTES) : 0;
+            var stdOutBuffer = new BoundedOutputBuffer(outputLimit > 0 ? (int) outputLimit : MAX_OUTPUT_BYTES);
+            var stdErrBuffer = new BoundedOutputBuffer(MAX_ERROR_BYTES);
+            byte[] chunk = new byte[READ_CHUNK_SIZE];
+            
+            // Do not let the process exceed the timeout, and do not let it block on a full pipe
+            long pollInterval = MIN_POLL_INTERVAL;
+            boolean outputLimitExceeded = false;
+            boolean stopped = false;
+            while (process.isAlive()) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    break;
+                }
+                boolean drained = drainAvailable(stdOutStream, stdOutBuffer, chunk, stdOutListener)
+                        | drainAvailable(stdErrStream, stdErrBuffer, chunk, null);
+                if (outputLimit > 0 && stdOutBuffer.getTotalBytes() > outputLimit) {
+                    outputLimitExceeded = true;
+                    break;
+                }
+                if (stdOutListener != null && stdOutListener.isStopRequested()) {
+                    stopped = true;
+                    break;
+                }
+                if (drained) {
+                    pollInterval = MIN_POLL_INTERVAL;
+                    continue;
+                }
+                process.waitFor(Math.min(pollInterval, remaining), TimeUnit.MILLISECONDS);
+                pollInterval = Math.min(pollInterval * 2, MAX_POLL_INTERVAL);
+            }
             long executionEndTime = System.currentTimeMillis();
     
-            int status = 0;
-            String stdOut = "";
-            String stdErr = "";
-    
             // Check if the process is alive,
             // if it's so then destroy it and return a timeout status
-            if (process.isAlive()) {
+            if (!outputLimitExceeded && !stopped && process.isAlive()) {
                 log.info("The process exceeded the {} Millis allowed for its execution", timeout);
                 process.destroy();
                 throw new ProcessExecutionTimeoutException(timeout);
-            } else {
+            }
+            
+            if (stopped) {
+                log.info("The process was stopped by its stdout listener");
+                process.destroy();
+                return ProcessOutput
+                        .builder()
+                        .stdOut(toLines(stdOutBuffer))
+                        .stdErr(CmdUtils.buildErrorOutput(toLines(stdErrBuffer)))
+                        .stopped(true)
+                        .executionDuration((int)(executionEndTime - executionStartTime))
+                        .stdOutBytes(stdOutBuffer.getTotalBytes())
+                        .stdErrBytes(stdErrBuffer.getTotalBytes())
+                        .stdOutTruncated(stdOutBuffer.isTruncated())
+                        .stdErrTruncated(stdErrBuffer.isTruncated())
+                        .build();
+            }
+            
+            int status = 0;
+            if (!outputLimitExceeded) {
                 status = process.exitValue();
-        
-                BufferedReader containerOutputReader =
-                        new BufferedReader(new InputStreamReader(process.getInputStream()));
-                stdOut = CmdUtils.readOutput(containerOutputReader);
-        
-                BufferedReader containerErrorReader =
-                        new BufferedReader(new InputStreamReader(process.getErrorStream()));
-                stdErr = CmdUtils.buildErrorOutput(CmdUtils.readOutput(containerErrorReader));
+                // The process is done, what is left in the pipes is bounded by their size
+                drainToEnd(stdOutStream, stdOutBuffer, chunk, stdOutListener);
+                drainToEnd(stdErrStream, stdErrBuffer, chunk, null);
+            }
+            
+            if (outputLimit > 0 && stdOutBuffer.getTotalBytes() > outputLimit) {
+                log.info("The process exceeded the {} bytes allowed for its output", outputLimit);
+                process.destroy();
+                return ProcessOutput
+                        .builder()
+                        .stdOut(toLines(stdOutBuffer))
+                        .stdErr("")
+                        .outputLimitExceeded(true)
+                        .executionDuration((int)(executionEndTime - executionStartTime))
+                        .stdOutBytes(stdOutBuffer.getTotalBytes())
+                        .stdErrBytes(stdErrBuffer.getTotalBytes())
+                        .stdOutTruncated(true)
+                        .stdErrTruncated(stdErrBuffer.isTruncated())
+                        .build();
+            }
+            
+            if (stdOutBuffer.isTruncated()) {
+                log.warn("The process wrote {} bytes to stdout, only the first {} bytes are kept",
+                        stdOutBuffer.getTotalBytes(),
+                        stdOutBuffer.size());
             }
     
             return ProcessOutput
                     .builder()
-                    .stdOut(stdOut)
-                    .stdErr(stdErr)
+                    .stdOut(toLines(stdOutBuffer))
+                    .stdErr(CmdUtils.buildErrorOutput(toLines(stdErrBuffer)))
                     .status(status)
                     .executionDuration((int)(executionEndTime - executionStartTime))
+                    .stdOutBytes(stdOutBuffer.getTotalBytes())
+                    .stdErrBytes(stdErrBuffer.getTotalBytes())
+                    .stdOutTruncated(stdOutBuffer.isTruncated())
+                    .stdErrTruncated(stdErrBuffer.isTruncated())
                     .build();
             
         } catch(RuntimeException | InterruptedException | IOException exception) {
             if (exception instanceof ProcessExecutionTimeoutException) {
                 throw (ProcessExecutionTimeoutException) exception;
             }
+            if (process != null && process.isAlive()) {
+                process.destroyForcibly();
+            }
             log.error("Unexpected error: {}", exception);
             throw new ProcessExecutionException("Fatal error for command " + commands + " : " + exception.getMessage());
         }
     }
+    
+    // Reads what is available without blocking, returns true if some bytes were read
+    private static boolean drainAvailable(InputStream inputStream,
+                                          BoundedOutputBuffer buffer,
+                                          byte[] chunk,
+                                          OutputListener listener) throws IOException {
+        int available = inputStream.available();
+        if (available <= 0) {
+            return false;
+        }
+        int read = inputStream.read(chunk, 0, Math.min(available, chunk.length));
+        if (read > 0) {
+            write(buffer, listener, chunk, read);
+            return true;
+        }
+        return false;
+    }
+    
+    private static void drainToEnd(InputStream inputStream,
+                                   BoundedOutputBuffer buffer,
+                                   byte[] chunk,
+                                   OutputListener listener) throws IOException {
+        int read;
+        while ((read = inputStream.read(chunk)) != -1) {
+            write(buffer, listener, chunk, read);
+        }
+    }
+    
+    private static void write(BoundedOutputBuffer buffer, OutputListener listener, byte[] chunk, int length) {
+        buffer.write(chunk, 0, length);
+        if (listener != null) {
+            listener.onOutput(chunk, 0, length);
+        }
+    }
+    
+    // Same line separators as readOutput
+    private static String toLines(BoundedOutputBuffer buffer) throws IOException {
+        if (buffer.size() == 0) {
+            return "";
+        }
+        return readOutput(new BufferedReader(new StringReader(buffer.toString(StandardCharsets.UTF_8))));
+    }
 }
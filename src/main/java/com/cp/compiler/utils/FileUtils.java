@@ -8,6 +8,9 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * The type Files util.
@@ -22,6 +25,7 @@ public abstract class FileUtils {
     
     /**
      * Save uploaded files.
+     * The content is streamed to the file, it's never loaded in a byte array.
      *
      * @param file the file that we want to save locally
      * @param name the path where the file will be saved
@@ -30,9 +34,8 @@ public abstract class FileUtils {
     public static void saveUploadedFiles(MultipartFile file, String name) throws IOException {
         if (file.isEmpty())
             return;
-        byte[] bytes = file.getBytes();
-        Path path = Paths.get(name);
-        Files.write(path, bytes);
+        // Absolute, otherwise an uploaded part would be written relatively to the temporary directory of the server
+        file.transferTo(Paths.get(name).toAbsolutePath());
     }
     
     /**
@@ -47,4 +50,36 @@ public abstract class FileUtils {
         Path originalPath = Paths.get(src);
         Files.copy(originalPath, copied, StandardCopyOption.REPLACE_EXISTING);
     }
+    
+    /**
+     * List the regular files of a directory and its sub directories.
+     *
+     * @param directory the directory
+     * @return the paths of the files relative to the directory
+     * @throws IOException the io exception
+     */
+    public static Set<Path> listFiles(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            return paths
+                    .filter(Files::isRegularFile)
+                    .map(directory::relativize)
+                    .collect(Collectors.toSet());
+        }
+    }
+    
+    /**
+     * Gets the size of the regular files of a directory and its sub directories.
+     *
+     * @param directory the directory
+     * @return the size in bytes
+     * @throws IOException the io exception
+     */
+    public static long size(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            return paths
+                    .filter(Files::isRegularFile)
+                    .mapToLong(path -> path.toFile().length())
+                    .sum();
+        }
+    }
 }
@@ -0,0 +1,135 @@
+package com.cp.compiler.utils;
+
+/**
+ * The type Output comparator.
+ * Compares two outputs while walking them char by char, with the same semantics as comparing
+ * {@code text.trim().replaceAll("\\s+", " ").replace("/n", "")} of both sides, but without the regex
+ * and without any intermediate copy of the outputs.
+ *
+ * @author Zakaria Maaraki
+ */
+public abstract class OutputComparator {
+
+    private static final int END = -1;
+
+    private static final int NONE = -2;
+
+    private OutputComparator() {}
+
+    /**
+     * Compare two outputs ignoring the leading and trailing white spaces,
+     * the size of the white space sequences and the "/n" sequences.
+     *
+     * @param output         the output
+     * @param expectedOutput the expected output
+     * @return true if both outputs are equal
+     */
+    public static boolean equals(CharSequence output, CharSequence expectedOutput) {
+        return equals(output, expectedOutput, false);
+    }
+
+    /**
+     * Same as {@link #equals(CharSequence, CharSequence)}, ignoring the case like {@link String#equalsIgnoreCase}.
+     *
+     * @param output         the output
+     * @param expectedOutput the expected output
+     * @return true if both outputs are equal
+     */
+    public static boolean equalsIgnoreCase(CharSequence output, CharSequence expectedOutput) {
+        return equals(output, expectedOutput, true);
+    }
+
+    private static boolean equals(CharSequence output, CharSequence expectedOutput, boolean ignoreCase) {
+        var outputCursor = new NormalizingCursor(output);
+        var expectedOutputCursor = new NormalizingCursor(expectedOutput);
+        while (true) {
+            int c = outputCursor.next();
+            int expected = expectedOutputCursor.next();
+            if (c != expected && !(ignoreCase && c >= 0 && expected >= 0 && equalsIgnoreCase((char) c, (char) expected))) {
+                return false;
+            }
+            if (c == END) {
+                return true;
+            }
+        }
+    }
+
+    // Same as String.regionMatches ignoring the case
+    private static boolean equalsIgnoreCase(char c, char expected) {
+        char upperCase = Character.toUpperCase(c);
+        char expectedUpperCase = Character.toUpperCase(expected);
+        return upperCase == expectedUpperCase
+                || Character.toLowerCase(upperCase) == Character.toLowerCase(expectedUpperCase);
+    }
+
+    // Same as the \s class of java.util.regex
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /**
+     * Returns the chars of the normalized text one by one.
+     */
+    private static class NormalizingCursor {
+
+        private final CharSequence text;
+
+        private final int end;
+
+        private int position;
+
+        // A char read ahead while looking for a "/n" sequence
+        private int pending = NONE;
+
+        private NormalizingCursor(CharSequence text) {
+            this.text = text;
+            // Same as String.trim, the chars lower or equal to a space are removed at both ends
+            int start = 0;
+            int last = text.length();
+            while (start < last && text.charAt(start) <= ' ') {
+                start++;
+            }
+            while (last > start && text.charAt(last - 1) <= ' ') {
+                last--;
+            }
+            this.position = start;
+            this.end = last;
+        }
+
+        /**
+         * Gets the next char of the normalized text.
+         *
+         * @return the char or END
+         */
+        private int next() {
+            while (true) {
+                int c = pending != NONE ? pending : nextCollapsed();
+                pending = NONE;
+                if (c != '/') {
+                    return c;
+                }
+                // Same as String.replace, the "/n" sequences are removed from left to right
+                int following = nextCollapsed();
+                if (following != 'n') {
+                    pending = following;
+                    return c;
+                }
+            }
+        }
+
+        // A sequence of white spaces is read as one space
+        private int nextCollapsed() {
+            if (position >= end) {
+                return END;
+            }
+            char c = text.charAt(position++);
+            if (!isWhitespace(c)) {
+                return c;
+            }
+            while (position < end && isWhitespace(text.charAt(position))) {
+                position++;
+            }
+            return ' ';
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.cp.compiler.utils;
+
+import com.cp.compiler.models.processes.OutputListener;
+import com.cp.compiler.models.processes.ProcessOutput;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.Predicate;
+
+/**
+ * The type Runner output parser.
+ * Parses the frames written by the runner, the script running all the test cases inside one container,
+ * while the runner is running. Each frame is made of a header line (status, duration in ms, stdout size and stderr
+ * size in bytes) followed by the stdout and the stderr of a test case. The outputs are delimited by their sizes,
+ * so whatever the executed program writes stays inside its own frame.
+ *
+ * @author Zakaria Maaraki
+ */
+public class RunnerOutputParser implements OutputListener {
+    
+    private static final int MAX_HEADER_LENGTH = 64;
+    
+    private static final int HEADER_FIELDS = 4;
+    
+    // Any longer number could overflow a long
+    private static final int MAX_NUMBER_LENGTH = 18;
+    
+    private static final int STATUS = 0;
+    
+    private static final int DURATION = 1;
+    
+    private static final int STDOUT_SIZE = 2;
+    
+    private static final int STDERR_SIZE = 3;
+    
+    private final int maxFrames;
+    
+    private final Predicate<ProcessOutput> frameConsumer;
+    
+    private final StringBuilder header = new StringBuilder();
+    
+    private long[] fields;
+    
+    private BoundedOutputBuffer stdOut;
+    
+    private BoundedOutputBuffer stdErr;
+    
+    private int frames = 0;
+    
+    private boolean invalid = false;
+    
+    private boolean stopRequested = false;
+    
+    /**
+     * Instantiates a new Runner output parser.
+     *
+     * @param maxFrames     the number of test cases given to the runner, more frames make the output invalid
+     * @param frameConsumer called with each complete frame in order, returns false to stop the runner
+     */
+    public RunnerOutputParser(int maxFrames, Predicate<ProcessOutput> frameConsumer) {
+        this.maxFrames = maxFrames;
+        this.frameConsumer = frameConsumer;
+    }
+    
+    @Override
+    public void onOutput(byte[] bytes, int offset, int length) {
+        int position = offset;
+        int end = offset + length;
+        while (position < end && !stopRequested) {
+            if (fields == null) {
+                position = readHeader(bytes, position, end);
+            } else {
+                position = readOutputs(bytes, position, end);
+            }
+        }
+    }
+    
+    @Override
+    public boolean isStopRequested() {
+        return stopRequested;
+    }
+    
+    /**
+     * Gets the number of complete frames.
+     *
+     * @return the number of frames
+     */
+    public int getFrames() {
+        return frames;
+    }
+    
+    /**
+     * Is invalid boolean.
+     * The output is invalid when it doesn't follow the format of the runner, or has more frames than test cases.
+     *
+     * @return true if the output can't be trusted
+     */
+    public boolean isInvalid() {
+        return invalid;
+    }
+    
+    private int readHeader(byte[] bytes, int position, int end) {
+        if (frames >= maxFrames) {
+            // The runner writes one frame per test case
+            fail();
+            return end;
+        }
+        while (position < end) {
+            byte b = bytes[position++];
+            if (b == '\n') {
+                fields = parseHeader(header.toString());
+                header.setLength(0);
+                if (fields == null) {
+                    fail();
+                    return end;
+                }
+                stdOut = new BoundedOutputBuffer(CmdUtils.MAX_OUTPUT_BYTES);
+                stdErr = new BoundedOutputBuffer(CmdUtils.MAX_ERROR_BYTES);
+                completeFrameIfRead();
+                return position;
+            }
+            if (header.length() >= MAX_HEADER_LENGTH) {
+                fail();
+                return end;
+            }
+            header.append((char) b);
+        }
+        return position;
+    }
+    
+    private int readOutputs(byte[] bytes, int position, int end) {
+        long stdOutLeft = fields[STDOUT_SIZE] - stdOut.getTotalBytes();
+        if (stdOutLeft > 0) {
+            int toWrite = (int) Math.min(stdOutLeft, end - position);
+            stdOut.write(bytes, position, toWrite);
+            position += toWrite;
+        }
+        long stdErrLeft = fields[STDERR_SIZE] - stdErr.getTotalBytes();
+        if (stdErrLeft > 0 && position < end) {
+            int toWrite = (int) Math.min(stdErrLeft, end - position);
+            stdErr.write(bytes, position, toWrite);
+            position += toWrite;
+        }
+        completeFrameIfRead();
+        return position;
+    }
+    
+    private void completeFrameIfRead() {
+        if (stdOut.getTotalBytes() < fields[STDOUT_SIZE] || stdErr.getTotalBytes() < fields[STDERR_SIZE]) {
+            return;
+        }
+        ProcessOutput frame = ProcessOutput
+                .builder()
+                .stdOut(stdOut.toString(StandardCharsets.UTF_8))
+                .stdErr(stdErr.toString(StandardCharsets.UTF_8))
+                .status((int) fields[STATUS])
+                .executionDuration((int) fields[DURATION])
+                .stdOutBytes(stdOut.getTotalBytes())
+                .stdErrBytes(stdErr.getTotalBytes())
+                .stdOutTruncated(stdOut.isTruncated())
+                .stdErrTruncated(stdErr.isTruncated())
+                .build();
+        fields = null;
+        stdOut = null;
+        stdErr = null;
+        frames++;
+        if (!frameConsumer.test(frame)) {
+            stopRequested = true;
+        }
+    }
+    
+    private void fail() {
+        invalid = true;
+        stopRequested = true;
+    }
+    
+    private static long[] parseHeader(String header) {
+        String[] values = header.split(" ");
+        if (values.length != HEADER_FIELDS) {
+            return null;
+        }
+        long[] fields = new long[HEADER_FIELDS];
+        for (int i = 0; i < HEADER_FIELDS; i++) {
+            String value = values[i];
+            if (value.isEmpty() || value.length() > MAX_NUMBER_LENGTH || !value.chars().allMatch(Character::isDigit)) {
+                return null;
+            }
+            fields[i] = Long.parseLong(value);
+        }
+        // The status and the duration are ints
+        return fields[STATUS] > Integer.MAX_VALUE || fields[DURATION] > Integer.MAX_VALUE ? null : fields;
+    }
+}
@@ -89,6 +89,11 @@ public abstract class WellKnownFiles {
      */
     public static final String ENTRYPOINT_FILE_EXTENSION = ".sh";
     
+    /**
+     * The constant RUNNER_FILE_NAME.
+     */
+    public static final String RUNNER_FILE_NAME = "runner.sh";
+    
     /**
      * The constant FILE_NAME_REGEX.
      */
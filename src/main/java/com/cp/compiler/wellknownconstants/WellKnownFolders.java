@@ -63,4 +63,9 @@ public abstract class WellKnownFolders {
      * The constant HASKELL_EXECUTION_FOLDER_NAME.
      */
     public static final String HASKELL_EXECUTION_FOLDER_NAME = "executions/utility_hs";
+    
+    /**
+     * The constant SPOOL_FOLDER_NAME, where the test cases of the json requests are written while being parsed.
+     */
+    public static final String SPOOL_FOLDER_NAME = "executions/spool";
 }
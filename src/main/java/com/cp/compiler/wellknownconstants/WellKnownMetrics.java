@@ -143,4 +143,160 @@ public abstract class WellKnownMetrics {
      * The constant OUT_OF_MEMORY_VERDICT_COUNTER.
      */
     public static final String OUT_OF_MEMORY_VERDICT_COUNTER = "statusResponse.out-of-memory.counter";
+    
+    /**
+     * The constant OUTPUT_LIMIT_EXCEEDED_VERDICT_COUNTER.
+     */
+    public static final String OUTPUT_LIMIT_EXCEEDED_VERDICT_COUNTER = "statusResponse.output-limit-exceeded.counter";
+    
+    /**
+     * The constant EXECUTION_POOL_HIT_COUNTER.
+     */
+    public static final String EXECUTION_POOL_HIT_COUNTER = "execution-pool.hit.counter";
+    
+    /**
+     * The constant EXECUTION_POOL_MISS_COUNTER.
+     */
+    public static final String EXECUTION_POOL_MISS_COUNTER = "execution-pool.miss.counter";
+    
+    /**
+     * The constant EXECUTION_POOL_WAIT_TIMER.
+     */
+    public static final String EXECUTION_POOL_WAIT_TIMER = "execution-pool.wait";
+    
+    /**
+     * The constant EXECUTION_POOL_IDLE_GAUGE.
+     */
+    public static final String EXECUTION_POOL_IDLE_GAUGE = "execution-pool.idle";
+    
+    /**
+     * The constant COMPILATION_CACHE_HIT_COUNTER.
+     */
+    public static final String COMPILATION_CACHE_HIT_COUNTER = "compilation-cache.hit.counter";
+    
+    /**
+     * The constant COMPILATION_CACHE_MISS_COUNTER.
+     */
+    public static final String COMPILATION_CACHE_MISS_COUNTER = "compilation-cache.miss.counter";
+    
+    /**
+     * The constant COMPILATION_CACHE_HIT_RATIO_GAUGE.
+     */
+    public static final String COMPILATION_CACHE_HIT_RATIO_GAUGE = "compilation-cache.hit.ratio";
+    
+    /**
+     * The constant COMPILATION_CACHE_SAVED_BYTES_COUNTER.
+     */
+    public static final String COMPILATION_CACHE_SAVED_BYTES_COUNTER = "compilation-cache.saved.bytes";
+    
+    /**
+     * The constant COMPILATION_CACHE_SIZE_GAUGE.
+     */
+    public static final String COMPILATION_CACHE_SIZE_GAUGE = "compilation-cache.size.bytes";
+    
+    /**
+     * The constant RESULT_CACHE_HIT_COUNTER.
+     */
+    public static final String RESULT_CACHE_HIT_COUNTER = "result-cache.hit.counter";
+    
+    /**
+     * The constant RESULT_CACHE_MISS_COUNTER.
+     */
+    public static final String RESULT_CACHE_MISS_COUNTER = "result-cache.miss.counter";
+    
+    /**
+     * The constant COMPILE_SERVER_HIT_COUNTER.
+     */
+    public static final String COMPILE_SERVER_HIT_COUNTER = "compile-server.hit.counter";
+    
+    /**
+     * The constant COMPILE_SERVER_MISS_COUNTER.
+     */
+    public static final String COMPILE_SERVER_MISS_COUNTER = "compile-server.miss.counter";
+    
+    /**
+     * The constant COMPILE_SERVER_IDLE_GAUGE.
+     */
+    public static final String COMPILE_SERVER_IDLE_GAUGE = "compile-server.idle";
+    
+    /**
+     * The constant CONTAINER_EVENTS_HIT_COUNTER.
+     */
+    public static final String CONTAINER_EVENTS_HIT_COUNTER = "container-events.hit.counter";
+    
+    /**
+     * The constant CONTAINER_EVENTS_MISS_COUNTER.
+     */
+    public static final String CONTAINER_EVENTS_MISS_COUNTER = "container-events.miss.counter";
+    
+    /**
+     * The constant CONTAINER_EVENTS_TRACKED_GAUGE.
+     */
+    public static final String CONTAINER_EVENTS_TRACKED_GAUGE = "container-events.tracked";
+    
+    /**
+     * The constant JANITOR_QUEUE_DEPTH_GAUGE.
+     */
+    public static final String JANITOR_QUEUE_DEPTH_GAUGE = "janitor.queue.depth";
+    
+    /**
+     * The constant JANITOR_BATCH_SIZE_SUMMARY.
+     */
+    public static final String JANITOR_BATCH_SIZE_SUMMARY = "janitor.batch.size";
+    
+    /**
+     * The constant JANITOR_LAG_TIMER, time between the queuing and the deletion of a resource.
+     */
+    public static final String JANITOR_LAG_TIMER = "janitor.lag";
+    
+    /**
+     * The constant REAPER_RECLAIMED_COUNTER, number of orphaned containers, images and execution folders removed.
+     */
+    public static final String REAPER_RECLAIMED_COUNTER = "reaper.reclaimed.counter";
+    
+    /**
+     * The constant REAPER_RECLAIMED_BYTES_COUNTER.
+     */
+    public static final String REAPER_RECLAIMED_BYTES_COUNTER = "reaper.reclaimed.bytes";
+    
+    /**
+     * The constant WORKSPACE_USAGE_GAUGE, bytes of the RAM workspace reserved by the running executions.
+     */
+    public static final String WORKSPACE_USAGE_GAUGE = "workspace.usage";
+    
+    /**
+     * The constant WORKSPACE_FALLBACK_COUNTER, executions written to the disk because the RAM workspace was full.
+     */
+    public static final String WORKSPACE_FALLBACK_COUNTER = "workspace.fallback.counter";
+    
+    /**
+     * The constant ADMISSION_QUEUE_WAIT_TIMER, time spent by the admitted requests in the admission queue.
+     */
+    public static final String ADMISSION_QUEUE_WAIT_TIMER = "admission.queue.wait";
+    
+    /**
+     * The constant ADMISSION_USER_WAIT_TIMER, time spent by the admitted requests in the admission queue,
+     * tagged by configured user id or tenant.
+     */
+    public static final String ADMISSION_USER_WAIT_TIMER = "admission.user.wait";
+    
+    /**
+     * The constant ADMISSION_QUEUE_DEPTH_GAUGE, number of requests waiting for resources.
+     */
+    public static final String ADMISSION_QUEUE_DEPTH_GAUGE = "admission.queue.depth";
+    
+    /**
+     * The constant ADMISSION_LANE_EXECUTIONS_GAUGE, current number of executions, tagged by lane.
+     */
+    public static final String ADMISSION_LANE_EXECUTIONS_GAUGE = "admission.lane.executions";
+    
+    /**
+     * The constant ADMISSION_REJECTED_COUNTER, requests rejected by the admission queue, tagged by reason.
+     */
+    public static final String ADMISSION_REJECTED_COUNTER = "admission.rejected.counter";
+    
+    /**
+     * The constant RESOURCES_UTILIZATION_GAUGE, reserved part of the cpus, memory and disk, tagged by resource.
+     */
+    public static final String RESOURCES_UTILIZATION_GAUGE = "resources.utilization";
 }
@@ -18,4 +18,9 @@ public abstract class WellKnownTemplates {
      * The constant SCALA_ENTRYPOINT_TEMPLATE.
      */
     public static final String SCALA_ENTRYPOINT_TEMPLATE = "scala-entrypoint-template";
+    
+    /**
+     * The constant RUNNER_TEMPLATE.
+     */
+    public static final String RUNNER_TEMPLATE = "runner-template";
 }
@@ -0,0 +1,48 @@
+#!/bin/sh
+
+# Runs the entrypoint of each test case given as argument in sequence, each one keeps its own timeout and ulimit.
+# One frame is written per test case:
+#   <status> <duration in ms> <stdout size in bytes> <stderr size in bytes>
+#   <stdout><stderr>
+# The outputs are delimited by their sizes instead of a marker, so the executed program can't forge a frame.
+# The runner stops at the first test case exiting with a non zero status, the outputs are only checked by the service
+# so the expected outputs never enter the container, the service kills the runner at the first failed test case.
+
+now() {
+  t=$(date +%s%N)
+  case "$t" in
+    *N) echo $(( $(date +%s) * 1000 )) ;;
+    *) echo $(( t / 1000000 )) ;;
+  esac
+}
+
+out=""
+err=""
+trap 'rm -f "$out" "$err"' EXIT
+
+for testCaseId in "$@"; do
+  # New files for each test case, a process left running by the previous one can't write to them
+  out=$(mktemp)
+  err=$(mktemp)
+  start=$(now)
+  (
+    if [ -n "$RUNNER_MAX_FILE_BLOCKS" ]; then
+      ulimit -f "$RUNNER_MAX_FILE_BLOCKS"
+    fi
+    exec "./entrypoint-$testCaseId.sh"
+  ) > "$out" 2> "$err"
+  status=$?
+  end=$(now)
+
+  # Only the measured bytes are written, even if the files keep growing
+  outSize=$(( $(wc -c < "$out") ))
+  errSize=$(( $(wc -c < "$err") ))
+  printf '%s %s %s %s\n' "$status" "$((end - start))" "$outSize" "$errSize"
+  head -c "$outSize" "$out"
+  head -c "$errSize" "$err"
+  rm -f "$out" "$err"
+
+  if [ "$status" -ne 0 ]; then
+    exit 0
+  fi
+done
@@ -15,12 +15,14 @@ import com.cp.compiler.models.Verdict;
 import com.cp.compiler.models.testcases.ConvertedTestCase;
 import com.cp.compiler.models.testcases.TestCaseResult;
 import com.cp.compiler.services.businesslogic.CompilerService;
+import com.cp.compiler.services.workspaces.WorkspaceAllocator;
 
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -31,6 +33,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -50,6 +53,12 @@ public class RabbitmqConsumerTests {
     @Mock
     private Counter counter;
     
+    @Mock
+    private WorkspaceAllocator workspaceAllocator;
+    
+    @TempDir
+    Path spoolDirectory;
+    
     @InjectMocks
     private RabbitConsumer rabbitConsumer;
     
@@ -65,6 +74,7 @@ public class RabbitmqConsumerTests {
     @BeforeEach
     public void setUp() {
         rabbitConsumer.init();
+        when(workspaceAllocator.getSpoolDirectory()).thenReturn(spoolDirectory);
     }
     
     @Test
@@ -0,0 +1,68 @@
+package com.cp.compiler.checkers;
+
+import com.cp.compiler.models.checkers.Checker;
+import com.cp.compiler.models.checkers.CheckerType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class CheckerFactoryTests {
+
+    @ParameterizedTest
+    @CsvSource(value = {
+            "DEFAULT|' 1  2\n'|'1 2'|true",
+            "DEFAULT|'1 2'|'1 3'|false",
+            "EXACT|'1 2\r\n3\n\n'|'1 2\n3'|true",
+            "EXACT|'1  2\n3\n'|'1 2\n3\n'|false",
+            "EXACT|' 1'|'1'|false",
+            "TOKEN|'1\t 2\n\n3\n'|'1 2 3'|true",
+            "TOKEN|'1 2/n3'|'1 23'|false",
+            "TOKEN|'1 2'|'1 2 3'|false",
+            "FLOAT|'0.3333334 1e3 x'|'0.333333 1000.0 x'|true",
+            "FLOAT|'0.3334'|'0.3333'|false",
+            "FLOAT|'NaN'|'1'|false",
+            "FLOAT|'1.0 y'|'1 x'|false",
+            "FLOAT|'1d'|'1'|false",
+            "UNORDERED_LINES|'b 1\na 2  \r\n\n'|'a 2\nb 1'|true",
+            "UNORDERED_LINES|'a\na\nb'|'a\nb\nb'|false",
+            "UNORDERED_LINES|'a b'|'b a'|false",
+            "CASE_INSENSITIVE|'YES\n'|'yes'|true",
+            "CASE_INSENSITIVE|'YES'|'no'|false"
+    }, delimiter = '|')
+    void checkerShouldJudgeTheOutput(CheckerType type, String output, String expectedOutput, boolean expectedResult) {
+        // Given
+        OutputChecker checker = CheckerFactory.createChecker(new Checker(type, null, null));
+
+        // When
+        boolean result = checker.check(output, expectedOutput);
+
+        // Then
+        Assertions.assertEquals(expectedResult, result);
+    }
+
+    @Test
+    void floatCheckerShouldAcceptTheNumbersWithinTheAbsoluteOrTheRelativeEpsilon() {
+        // Given
+        OutputChecker absolute = CheckerFactory.createChecker(new Checker(CheckerType.FLOAT, 0.01, 0.0));
+        OutputChecker relative = CheckerFactory.createChecker(new Checker(CheckerType.FLOAT, 0.0, 0.01));
+
+        // When / Then
+        Assertions.assertTrue(absolute.check("1.005", "1"));
+        Assertions.assertFalse(absolute.check("1005", "1000"));
+        Assertions.assertTrue(relative.check("1005", "1000"));
+        Assertions.assertFalse(relative.check("0.005", "0"));
+    }
+
+    @Test
+    void withoutCheckerShouldReturnTheDefaultChecker() {
+        // When
+        OutputChecker checker = CheckerFactory.createChecker(null);
+
+        // Then
+        Assertions.assertTrue(checker instanceof DefaultChecker);
+        Assertions.assertTrue(CheckerFactory.createChecker(new Checker()) instanceof DefaultChecker);
+        Assertions.assertEquals(FloatChecker.DEFAULT_EPSILON,
+                ((FloatChecker) CheckerFactory.createChecker(new Checker(CheckerType.FLOAT, null, null))).getAbsoluteEpsilon());
+    }
+}
@@ -7,6 +7,7 @@ import com.cp.compiler.wellknownconstants.WellKnownFiles;
 import com.cp.compiler.templates.EntrypointFileGenerator;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.mock.web.MockMultipartFile;
@@ -51,6 +52,27 @@ class ExecutionTests {
         execution.deleteExecutionDirectory();
     }
     
+    @Test
+    void shouldCreateTheExecutionEnvironmentInTheWorkspace(@TempDir Path workspaceRoot) throws IOException {
+        // Given
+        var testCase = new ConvertedTestCase("id", file, "test");
+        Execution execution = ExecutionFactory.createExecution(
+                file, List.of(testCase), 10, 500, Language.JAVA);
+        
+        // When
+        execution.setWorkspaceRoot(workspaceRoot.toString());
+        execution.createExecutionDirectory();
+        
+        // Then
+        Path executionFolder = workspaceRoot.resolve(execution.getRelativePath());
+        Assertions.assertEquals(executionFolder.toString(), execution.getPath());
+        Assertions.assertTrue(Files.isDirectory(executionFolder));
+        Assertions.assertTrue(Files.exists(executionFolder.resolve(WellKnownFiles.EXECUTION_DOCKERFILE_NAME)));
+        
+        // Clean up
+        execution.deleteExecutionDirectory();
+    }
+    
     @Test
     void shouldDeleteTheExecutionEnvironment() throws IOException {
         // Given
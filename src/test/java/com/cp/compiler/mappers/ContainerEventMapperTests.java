@@ -0,0 +1,40 @@
+package com.cp.compiler.mappers;
+
+import com.cp.compiler.models.containers.ContainerEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+public class ContainerEventMapperTests {
+
+    @Test
+    void shouldConvertJsonToContainerEvent() throws JsonProcessingException {
+        // Given
+        String jsonContainerEvent = "{\"status\":\"die\",\"id\":\"4f5a\",\"from\":\"java.123\",\"Type\":\"container\"," +
+                "\"Action\":\"die\",\"Actor\":{\"ID\":\"4f5a\",\"Attributes\":{\"exitCode\":\"124\",\"image\":\"java.123\"," +
+                "\"name\":\"java.123.1\"}},\"scope\":\"local\",\"time\":1672567200,\"timeNano\":1672567200123456789}";
+
+        // When
+        ContainerEvent containerEvent = ContainerEventMapper.toContainerEvent(jsonContainerEvent);
+
+        // Then
+        Assertions.assertNotNull(containerEvent);
+        Assertions.assertEquals("java.123.1", containerEvent.getContainerName());
+        Assertions.assertEquals("die", containerEvent.getAction());
+        Assertions.assertEquals(124, containerEvent.getExitCode());
+        Assertions.assertEquals(1672567200123456789L, containerEvent.getTimeNano());
+        Assertions.assertEquals(LocalDateTime.of(2023, 1, 1, 10, 0, 0, 123456789), containerEvent.getTime());
+    }
+
+    @Test
+    void shouldIgnoreTheEventsThatAreNotAboutContainers() throws JsonProcessingException {
+        // Given
+        String jsonImageEvent = "{\"Type\":\"image\",\"Action\":\"delete\",\"Actor\":{\"ID\":\"sha256:1\"," +
+                "\"Attributes\":{\"name\":\"java.123\"}},\"time\":1672567200}";
+
+        // When / Then
+        Assertions.assertNull(ContainerEventMapper.toContainerEvent(jsonImageEvent));
+    }
+}
@@ -0,0 +1,53 @@
+package com.cp.compiler.mappers;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+public class ContainerTableMapperTests {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static final Instant NOW = Instant.ofEpochSecond(1672567200);
+
+    @Test
+    void shouldFormatTheContainersAsTheDockerPsTable() throws JsonProcessingException {
+        // Given
+        String containers = "[{\"Id\":\"4f5a6b7c8d9e0f1a2b3c\",\"Names\":[\"/compile-server-1\"],\"Image\":\"gcc:latest\"," +
+                "\"Command\":\"/bin/sh -c 'sleep infinity'\",\"Created\":" + (NOW.getEpochSecond() - 2 * 3600) + "," +
+                "\"Status\":\"Up 2 hours\",\"Ports\":[{\"IP\":\"0.0.0.0\",\"PrivatePort\":80,\"PublicPort\":8080," +
+                "\"Type\":\"tcp\"}]}]";
+
+        // When
+        String table = ContainerTableMapper.toContainersTable(objectMapper.readTree(containers), NOW);
+
+        // Then
+        Assertions.assertEquals(
+                "CONTAINER ID   IMAGE        COMMAND                  CREATED       STATUS       PORTS                  NAMES\n" +
+                "4f5a6b7c8d9e   gcc:latest   \"/bin/sh -c 'sleep i…\"   2 hours ago   Up 2 hours   0.0.0.0:8080->80/tcp   compile-server-1\n",
+                table);
+    }
+
+    @Test
+    void shouldFormatTheImagesAsTheDockerImagesTable() throws JsonProcessingException {
+        // Given
+        String images = "[{\"Id\":\"sha256:0123456789abcdef\",\"RepoTags\":[\"gcc:latest\",\"gcc:12\"]," +
+                "\"Created\":" + (NOW.getEpochSecond() - 3 * 24 * 3600) + ",\"Size\":1234567890}," +
+                "{\"Id\":\"sha256:fedcba9876543210\",\"RepoTags\":null,\"Created\":" + (NOW.getEpochSecond() - 30) +
+                ",\"Size\":5000}]";
+
+        // When
+        String table = ContainerTableMapper.toImagesTable(objectMapper.readTree(images), NOW);
+
+        // Then
+        Assertions.assertEquals(
+                "REPOSITORY   TAG       IMAGE ID       CREATED          SIZE\n" +
+                "gcc          latest    0123456789ab   3 days ago       1.23GB\n" +
+                "gcc          12        0123456789ab   3 days ago       1.23GB\n" +
+                "<none>       <none>    fedcba987654   30 seconds ago   5kB\n",
+                table);
+    }
+}
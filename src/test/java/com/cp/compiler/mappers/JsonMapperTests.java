@@ -9,6 +9,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.ArgumentMatchers;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -18,6 +19,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.test.annotation.DirtiesContext;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.LinkedHashMap;
 
@@ -28,6 +30,9 @@ class JsonMapperTests {
     @Mock
     private CompilerService compilerService;
     
+    @TempDir
+    Path spoolDirectory;
+    
     private static final ObjectMapper objectMapper = new ObjectMapper();
     
     private static LinkedHashMap<String, TestCase> testCases;
@@ -113,7 +118,7 @@ class JsonMapperTests {
         Mockito.when(compilerService.execute(ArgumentMatchers.any())).thenReturn(ResponseEntity.ok(response));
         
         // When
-        String jsonResponse = JsonMapper.transform(jsonRequest, compilerService);
+        String jsonResponse = JsonMapper.transform(jsonRequest, compilerService, spoolDirectory);
         
         // Then
         Assertions.assertNotNull(jsonResponse);
@@ -142,7 +147,7 @@ class JsonMapperTests {
                 .thenReturn(ResponseEntity.ok(response));
         
         // When
-        String jsonResponse = JsonMapper.transform(jsonRequest, compilerService);
+        String jsonResponse = JsonMapper.transform(jsonRequest, compilerService, spoolDirectory);
         
         // Then
         Assertions.assertEquals(response, toResponse(jsonResponse));
@@ -155,7 +160,7 @@ class JsonMapperTests {
                 .thenReturn(new ResponseEntity(HttpStatus.TOO_MANY_REQUESTS));
         
         // When / Then
-        Assertions.assertThrows(CompilerThrottlingException.class, () -> JsonMapper.transform(jsonRequest, compilerService));
+        Assertions.assertThrows(CompilerThrottlingException.class, () -> JsonMapper.transform(jsonRequest, compilerService, spoolDirectory));
     }
     
     @Test
@@ -166,7 +171,7 @@ class JsonMapperTests {
                 .thenReturn(ResponseEntity.ok("test"));
     
         // When
-        var jsonResponse = JsonMapper.transform(jsonRequest, compilerService);
+        var jsonResponse = JsonMapper.transform(jsonRequest, compilerService, spoolDirectory);
         
         // Then
         Assertions.assertEquals(null, jsonResponse);
@@ -0,0 +1,100 @@
+package com.cp.compiler.mappers;
+
+import com.cp.compiler.exceptions.CompilerBadRequestException;
+import com.cp.compiler.executions.Execution;
+import com.cp.compiler.models.Language;
+import com.cp.compiler.models.SpooledMultipartFile;
+import com.cp.compiler.models.checkers.Checker;
+import com.cp.compiler.models.checkers.CheckerType;
+import com.cp.compiler.models.testcases.ConvertedTestCase;
+import com.cp.compiler.wellknownconstants.WellKnownFiles;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@DirtiesContext
+@SpringBootTest
+class StreamingRequestMapperTests {
+
+    private final static String jsonRequest = "{\"sourcecode\": \"print(input())\", \"language\": \"PYTHON\"," +
+            "\"unknown\": {\"a\": [1, 2]}, \"checker\": {\"type\": \"FLOAT\", \"absoluteEpsilon\": 0.001}," +
+            "\"timeLimit\": 15, \"memoryLimit\": 500, \"maxOutputBytes\": 1024," +
+            "\"testCases\": {" +
+            "\"b\": {\"input\": \"é\\n1\", \"expectedOutput\": \"é\\n1\"}," +
+            "\"a\": {\"input\": \"\", \"expectedOutput\": \"2\"}}}";
+
+    @TempDir
+    Path spoolRoot;
+
+    @Test
+    void shouldSpoolTheTestCasesInTheOrderOfTheRequest() throws IOException {
+        // When
+        Execution execution = StreamingRequestMapper.toExecution(
+                new ByteArrayInputStream(jsonRequest.getBytes(StandardCharsets.UTF_8)), spoolRoot);
+
+        // Then
+        Assertions.assertEquals(Language.PYTHON, execution.getLanguage());
+        Assertions.assertEquals(15, execution.getTimeLimit());
+        Assertions.assertEquals(500, execution.getMemoryLimit());
+        Assertions.assertEquals(1024, execution.getMaxOutputBytes());
+        Assertions.assertEquals(new Checker(CheckerType.FLOAT, 0.001, null), execution.getChecker());
+
+        ConvertedTestCase first = execution.getTestCases().get(0);
+        ConvertedTestCase second = execution.getTestCases().get(1);
+        Assertions.assertEquals("b", first.getTestCaseId());
+        Assertions.assertEquals("a", second.getTestCaseId());
+
+        Path spooledInput = ((SpooledMultipartFile) first.getInputFile()).getFile();
+        Assertions.assertTrue(spooledInput.startsWith(spoolRoot));
+        Assertions.assertEquals("é\n1", Files.readString(spooledInput, StandardCharsets.UTF_8));
+        Assertions.assertEquals("b-" + WellKnownFiles.INPUT_FILE_NAME, first.getInputFile().getOriginalFilename());
+        Assertions.assertEquals("é\n1", first.getExpectedOutput());
+
+        // An empty input is no input
+        Assertions.assertNull(second.getInputFile());
+        Assertions.assertEquals("2", second.getExpectedOutput());
+    }
+
+    @Test
+    void deleteExecutionDirectoryShouldDeleteTheSpooledTestCases() throws IOException {
+        // Given
+        Execution execution = StreamingRequestMapper.toExecution(jsonRequest, spoolRoot);
+
+        // When
+        execution.deleteExecutionDirectory();
+
+        // Then
+        Assertions.assertEquals(0, listSpoolRoot().size());
+    }
+
+    @Test
+    void givenABadRequestShouldThrowABadRequestExceptionAndDeleteTheSpooledTestCases() throws IOException {
+        // Given
+        String missingLanguage = "{\"sourcecode\": \"print(1)\", \"testCases\": {\"a\": {\"expectedOutput\": \"1\"}}}";
+        String invalidJson = "{\"sourcecode\": \"print(1)\", \"testCases\": {\"a\": {\"expectedOutput\": \"1";
+
+        // When / Then
+        Assertions.assertThrows(CompilerBadRequestException.class,
+                () -> StreamingRequestMapper.toExecution(missingLanguage, spoolRoot));
+        Assertions.assertThrows(CompilerBadRequestException.class,
+                () -> StreamingRequestMapper.toExecution(invalidJson, spoolRoot));
+        Assertions.assertEquals(0, listSpoolRoot().size());
+    }
+
+    private List<Path> listSpoolRoot() throws IOException {
+        try (Stream<Path> files = Files.list(spoolRoot)) {
+            return files.collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.cp.compiler.models;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+class StringMultipartFileTests {
+
+    // Bigger than the encoding buffer, with 1, 2, 3 and 4 bytes characters and an unpaired surrogate
+    private static final String CONTENT = "input é € 😀 \uD800 end\n".repeat(1000);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void transferToShouldWriteTheContentEncodedInUtf8() throws IOException {
+        // Given
+        var file = new StringMultipartFile("input.txt", CONTENT);
+        Path dest = tempDir.resolve("input.txt");
+        Files.writeString(dest, "previous content that should be truncated".repeat(1000));
+
+        // When
+        file.transferTo(dest);
+
+        // Then
+        Assertions.assertArrayEquals(CONTENT.getBytes(StandardCharsets.UTF_8), Files.readAllBytes(dest));
+    }
+
+    @Test
+    void getInputStreamShouldReturnTheContentEncodedInUtf8() throws IOException {
+        // Given
+        var file = new StringMultipartFile("input.txt", CONTENT);
+
+        // When
+        byte[] bytes;
+        try (InputStream inputStream = file.getInputStream()) {
+            bytes = inputStream.readAllBytes();
+        }
+
+        // Then
+        Assertions.assertArrayEquals(CONTENT.getBytes(StandardCharsets.UTF_8), bytes);
+    }
+
+    @Test
+    void getSizeShouldReturnTheNumberOfEncodedBytes() {
+        // Given
+        var file = new StringMultipartFile("input.txt", CONTENT);
+
+        // When
+        long size = file.getSize();
+
+        // Then
+        Assertions.assertEquals(CONTENT.getBytes(StandardCharsets.UTF_8).length, size);
+        Assertions.assertEquals("input.txt", file.getOriginalFilename());
+        Assertions.assertFalse(file.isEmpty());
+        Assertions.assertTrue(new StringMultipartFile("input.txt", "").isEmpty());
+    }
+}
@@ -0,0 +1,123 @@
+package com.cp.compiler.services;
+
+import com.cp.compiler.exceptions.CompilerThrottlingException;
+import com.cp.compiler.executions.Execution;
+import com.cp.compiler.models.Language;
+import com.cp.compiler.models.Response;
+import com.cp.compiler.models.Verdict;
+import com.cp.compiler.models.testcases.ConvertedTestCase;
+import com.cp.compiler.services.businesslogic.AdmissionCompilerService;
+import com.cp.compiler.services.businesslogic.CachedCompilerService;
+import com.cp.compiler.services.businesslogic.CompilerService;
+import com.cp.compiler.services.resources.Admission;
+import com.cp.compiler.services.resources.AdmissionQueue;
+import com.cp.compiler.services.resources.Resources;
+import com.cp.compiler.wellknownconstants.WellKnownMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+class AdmissionCompilerServiceTests {
+
+    private CompilerService compilerService;
+
+    private AdmissionQueue admissionQueue;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private AdmissionCompilerService admissionCompilerService;
+
+    @BeforeEach
+    void setUp() {
+        compilerService = Mockito.mock(CompilerService.class);
+        admissionQueue = Mockito.mock(AdmissionQueue.class);
+        meterRegistry = new SimpleMeterRegistry();
+        admissionCompilerService = new AdmissionCompilerService(
+                compilerService, admissionQueue, Mockito.mock(Resources.class), meterRegistry);
+    }
+
+    @Test
+    void theResourcesShouldBeReleasedAtTheEndOfTheExecution() {
+        // Given
+        var admission = Mockito.mock(Admission.class);
+        Mockito.when(admissionQueue.acquire(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any()))
+                .thenReturn(admission);
+        ResponseEntity<Object> responseEntity = ResponseEntity.ok(response(Verdict.ACCEPTED));
+        Mockito.when(compilerService.execute(ArgumentMatchers.any())).thenReturn(responseEntity);
+
+        // When
+        var result = admissionCompilerService.execute(createExecution());
+
+        // Then
+        Assertions.assertEquals(responseEntity, result);
+        Mockito.verify(admissionQueue).release(admission);
+    }
+
+    @Test
+    void aThrottledRequestShouldNotBeExecuted() {
+        // Given
+        Mockito.when(admissionQueue.acquire(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any()))
+                .thenThrow(new CompilerThrottlingException("Throttled"));
+
+        // When / Then
+        Assertions.assertThrows(CompilerThrottlingException.class,
+                () -> admissionCompilerService.execute(createExecution()));
+        Mockito.verify(compilerService, Mockito.never()).execute(ArgumentMatchers.any());
+        Assertions.assertEquals(1.0, meterRegistry.get(WellKnownMetrics.THROTTLING_COUNTER_NAME).counter().count());
+    }
+
+    @Test
+    void aResultCacheHitShouldNotBeAdmitted() {
+        // Given
+        var cachedCompilerService = new CachedCompilerService(admissionCompilerService, meterRegistry, true, 300, 10);
+        var admission = Mockito.mock(Admission.class);
+        Mockito.when(admissionQueue.acquire(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any()))
+                .thenReturn(admission)
+                .thenThrow(new CompilerThrottlingException("Throttled"));
+        ResponseEntity<Object> responseEntity = ResponseEntity.ok(response(Verdict.ACCEPTED));
+        Mockito.when(compilerService.execute(ArgumentMatchers.any())).thenReturn(responseEntity);
+        cachedCompilerService.execute(createExecution());
+
+        // When
+        var result = cachedCompilerService.execute(createExecution());
+
+        // Then
+        Assertions.assertTrue(((Response) result.getBody()).isCached());
+        Mockito.verify(admissionQueue, Mockito.times(1))
+                .acquire(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any());
+    }
+
+    private static Response response(Verdict verdict) {
+        return new Response(
+                verdict.getStatusResponse(),
+                verdict.getStatusCode(),
+                "",
+                new LinkedHashMap<>(),
+                0,
+                10,
+                100,
+                Language.PYTHON,
+                LocalDateTime.now());
+    }
+
+    private static Execution createExecution() {
+        var sourceCodeFile = new MockMultipartFile("sourceCode", "test.py", null, "print(input())".getBytes());
+        var inputFile = new MockMultipartFile("input", "input.txt", null, "1".getBytes());
+        Execution execution = Mockito.mock(Execution.class);
+        Mockito.when(execution.getLanguage()).thenReturn(Language.PYTHON);
+        Mockito.when(execution.getSourceCodeFile()).thenReturn(sourceCodeFile);
+        Mockito.when(execution.getTestCases()).thenReturn(List.of(new ConvertedTestCase("1", inputFile, "1")));
+        Mockito.when(execution.getTimeLimit()).thenReturn(10);
+        Mockito.when(execution.getMemoryLimit()).thenReturn(100);
+        return execution;
+    }
+}
@@ -0,0 +1,154 @@
+package com.cp.compiler.services;
+
+import com.cp.compiler.executions.Execution;
+import com.cp.compiler.models.Language;
+import com.cp.compiler.models.Response;
+import com.cp.compiler.models.Verdict;
+import com.cp.compiler.models.testcases.ConvertedTestCase;
+import com.cp.compiler.services.businesslogic.CachedCompilerService;
+import com.cp.compiler.services.businesslogic.CompilerService;
+import com.cp.compiler.wellknownconstants.WellKnownMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+class CachedCompilerServiceTests {
+
+    private CompilerService compilerService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        compilerService = Mockito.mock(CompilerService.class);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void identicalRequestsShouldBeServedFromTheCache() throws IOException {
+        // Given
+        var cachedCompilerService = new CachedCompilerService(compilerService, meterRegistry, true, 300, 10);
+        Mockito.when(compilerService.execute(ArgumentMatchers.any()))
+                .thenReturn(ResponseEntity.ok(response(Verdict.ACCEPTED)));
+        cachedCompilerService.execute(createExecution("print(input())", "1"));
+
+        Execution execution = createExecution("print(input())", "1");
+
+        // When
+        ResponseEntity responseEntity = cachedCompilerService.execute(execution);
+
+        // Then
+        Response response = (Response) responseEntity.getBody();
+        Assertions.assertTrue(response.isCached());
+        Assertions.assertEquals(Verdict.ACCEPTED.getStatusResponse(), response.getVerdict());
+        Assertions.assertEquals(response(Verdict.ACCEPTED), response);
+        Mockito.verify(compilerService, Mockito.times(1)).execute(ArgumentMatchers.any());
+        Assertions.assertEquals(1.0,
+                meterRegistry.get(WellKnownMetrics.RESULT_CACHE_HIT_COUNTER).counter().count());
+        // The execution directory is never created, the spooled test cases are deleted right away
+        Mockito.verify(execution).deleteSpoolDirectory();
+    }
+
+    @Test
+    void requestsWithDifferentTestCasesShouldNotShareTheirResponses() {
+        // Given
+        var cachedCompilerService = new CachedCompilerService(compilerService, meterRegistry, true, 300, 10);
+        Mockito.when(compilerService.execute(ArgumentMatchers.any()))
+                .thenReturn(ResponseEntity.ok(response(Verdict.ACCEPTED)));
+        cachedCompilerService.execute(createExecution("print(input())", "1"));
+
+        // When
+        ResponseEntity responseEntity = cachedCompilerService.execute(createExecution("print(input())", "2"));
+
+        // Then
+        Assertions.assertFalse(((Response) responseEntity.getBody()).isCached());
+        Mockito.verify(compilerService, Mockito.times(2)).execute(ArgumentMatchers.any());
+    }
+
+    @Test
+    void nonDeterministicVerdictsShouldNotBeCached() {
+        // Given
+        var cachedCompilerService = new CachedCompilerService(compilerService, meterRegistry, true, 300, 10);
+        Mockito.when(compilerService.execute(ArgumentMatchers.any()))
+                .thenReturn(ResponseEntity.ok(response(Verdict.TIME_LIMIT_EXCEEDED)));
+        cachedCompilerService.execute(createExecution("while True: pass", "1"));
+
+        // When
+        ResponseEntity responseEntity = cachedCompilerService.execute(createExecution("while True: pass", "1"));
+
+        // Then
+        Assertions.assertFalse(((Response) responseEntity.getBody()).isCached());
+        Mockito.verify(compilerService, Mockito.times(2)).execute(ArgumentMatchers.any());
+    }
+
+    @Test
+    void expiredAndEvictedResponsesShouldNotBeServed() {
+        // Given
+        var expiringCompilerService = new CachedCompilerService(compilerService, meterRegistry, true, 0, 10);
+        var smallCompilerService = new CachedCompilerService(compilerService, meterRegistry, true, 300, 1);
+        Mockito.when(compilerService.execute(ArgumentMatchers.any()))
+                .thenReturn(ResponseEntity.ok(response(Verdict.WRONG_ANSWER)));
+        expiringCompilerService.execute(createExecution("print(1)", "1"));
+        smallCompilerService.execute(createExecution("print(1)", "1"));
+        smallCompilerService.execute(createExecution("print(2)", "1"));
+
+        // When
+        ResponseEntity expiredResponse = expiringCompilerService.execute(createExecution("print(1)", "1"));
+        ResponseEntity evictedResponse = smallCompilerService.execute(createExecution("print(1)", "1"));
+
+        // Then
+        Assertions.assertFalse(((Response) expiredResponse.getBody()).isCached());
+        Assertions.assertFalse(((Response) evictedResponse.getBody()).isCached());
+        Mockito.verify(compilerService, Mockito.times(5)).execute(ArgumentMatchers.any());
+    }
+
+    @Test
+    void theCacheShouldBeSkippedWhenItIsDisabled() {
+        // Given
+        var cachedCompilerService = new CachedCompilerService(compilerService, meterRegistry, false, 300, 10);
+        Mockito.when(compilerService.execute(ArgumentMatchers.any()))
+                .thenReturn(ResponseEntity.ok(response(Verdict.ACCEPTED)));
+        cachedCompilerService.execute(createExecution("print(input())", "1"));
+
+        // When
+        cachedCompilerService.execute(createExecution("print(input())", "1"));
+
+        // Then
+        Mockito.verify(compilerService, Mockito.times(2)).execute(ArgumentMatchers.any());
+    }
+
+    private static Response response(Verdict verdict) {
+        return new Response(
+                verdict.getStatusResponse(),
+                verdict.getStatusCode(),
+                "",
+                new LinkedHashMap<>(),
+                0,
+                10,
+                100,
+                Language.PYTHON,
+                LocalDateTime.now());
+    }
+
+    private static Execution createExecution(String sourceCode, String input) {
+        var sourceCodeFile = new MockMultipartFile("sourceCode", "test.py", null, sourceCode.getBytes());
+        var inputFile = new MockMultipartFile("input", "input.txt", null, input.getBytes());
+        Execution execution = Mockito.mock(Execution.class);
+        Mockito.when(execution.getLanguage()).thenReturn(Language.PYTHON);
+        Mockito.when(execution.getSourceCodeFile()).thenReturn(sourceCodeFile);
+        Mockito.when(execution.getTestCases()).thenReturn(List.of(new ConvertedTestCase("1", inputFile, input)));
+        Mockito.when(execution.getTimeLimit()).thenReturn(10);
+        Mockito.when(execution.getMemoryLimit()).thenReturn(100);
+        return execution;
+    }
+}
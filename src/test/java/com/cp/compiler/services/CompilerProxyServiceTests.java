@@ -3,6 +3,8 @@ package com.cp.compiler.services;
 import com.cp.compiler.exceptions.CompilerBadRequestException;
 import com.cp.compiler.executions.Execution;
 import com.cp.compiler.executions.ExecutionFactory;
+import com.cp.compiler.models.checkers.Checker;
+import com.cp.compiler.models.checkers.CheckerType;
 import com.cp.compiler.models.testcases.ConvertedTestCase;
 import com.cp.compiler.models.Language;
 import com.cp.compiler.repositories.HooksRepository;
@@ -113,6 +115,20 @@ class CompilerProxyServiceTests {
         });
     }
     
+    @Test
+    void WhenTheEpsilonOfTheCheckerIsNegativeShouldThrowCompilerBadRequest() {
+        // Given
+        var testCase = new ConvertedTestCase("id", null, "test");
+        Execution execution =
+                ExecutionFactory.createExecution(validFileName, List.of(testCase), 10, 500, Language.JAVA);
+        execution.setChecker(new Checker(CheckerType.FLOAT, -1.0, null));
+        
+        // When / Then
+        Assertions.assertThrows(CompilerBadRequestException.class, () -> {
+            compilerProxy.execute(execution);
+        });
+    }
+    
     @Test
     void shouldCallLongRunningOperation() {
         // Given
@@ -4,6 +4,7 @@ import com.cp.compiler.exceptions.ContainerBuildException;
 import com.cp.compiler.exceptions.ContainerOperationTimeoutException;
 import com.cp.compiler.executions.Execution;
 import com.cp.compiler.executions.ExecutionFactory;
+import com.cp.compiler.models.containers.ContainerRunOptions;
 import com.cp.compiler.models.*;
 import com.cp.compiler.models.processes.ProcessOutput;
 import com.cp.compiler.models.testcases.ConvertedTestCase;
@@ -85,12 +86,7 @@ class CompilerServiceDecoratorTests {
                 .status(StatusUtils.ACCEPTED_OR_WRONG_ANSWER_STATUS)
                 .build();
 
-        Mockito.when(containerService.runContainer(
-                ArgumentMatchers.any(),
-                ArgumentMatchers.anyString(),
-                ArgumentMatchers.anyLong(),
-                ArgumentMatchers.anyFloat(),
-                ArgumentMatchers.anyMap())).thenReturn(containerOutput);
+        Mockito.when(containerService.runContainer(ArgumentMatchers.any(ContainerRunOptions.class))).thenReturn(containerOutput);
         
         Mockito.when(containerService.runContainer(
                 ArgumentMatchers.any(),
@@ -3,6 +3,7 @@ package com.cp.compiler.services;
 import com.cp.compiler.exceptions.*;
 import com.cp.compiler.executions.Execution;
 import com.cp.compiler.executions.ExecutionFactory;
+import com.cp.compiler.models.containers.ContainerRunOptions;
 import com.cp.compiler.models.*;
 import com.cp.compiler.models.processes.ProcessOutput;
 import com.cp.compiler.models.testcases.ConvertedTestCase;
@@ -203,12 +204,7 @@ class CompilerServiceTests {
                 .build();
     
         // Execution Container
-        Mockito.when(containerService.runContainer(
-                ArgumentMatchers.any(),
-                ArgumentMatchers.anyString(),
-                ArgumentMatchers.anyLong(),
-                ArgumentMatchers.anyFloat(),
-                ArgumentMatchers.anyMap())).thenReturn(containerOutput);
+        Mockito.when(containerService.runContainer(ArgumentMatchers.any(ContainerRunOptions.class))).thenReturn(containerOutput);
     
         // Compilation Container
         Mockito.when(containerService.runContainer(
@@ -277,12 +273,7 @@ class CompilerServiceTests {
                 .build();
     
         // Execution Container
-        Mockito.when(containerService.runContainer(
-                ArgumentMatchers.any(),
-                ArgumentMatchers.anyString(),
-                ArgumentMatchers.anyLong(),
-                ArgumentMatchers.anyFloat(),
-                ArgumentMatchers.anyMap())).thenReturn(containerOutput);
+        Mockito.when(containerService.runContainer(ArgumentMatchers.any(ContainerRunOptions.class))).thenReturn(containerOutput);
     
         // Compilation Container
         Mockito.when(containerService.runContainer(
@@ -335,12 +326,7 @@ class CompilerServiceTests {
                 .build();
     
         // Execution Container
-        Mockito.when(containerService.runContainer(
-                ArgumentMatchers.any(),
-                ArgumentMatchers.anyString(),
-                ArgumentMatchers.anyLong(),
-                ArgumentMatchers.anyFloat(),
-                ArgumentMatchers.anyMap())).thenReturn(containerOutput);
+        Mockito.when(containerService.runContainer(ArgumentMatchers.any(ContainerRunOptions.class))).thenReturn(containerOutput);
     
         // Compilation Container
         Mockito.when(containerService.runContainer(
@@ -401,12 +387,7 @@ class CompilerServiceTests {
                 .build();
     
         // Execution Container
-        Mockito.when(containerService.runContainer(
-                ArgumentMatchers.any(),
-                ArgumentMatchers.anyString(),
-                ArgumentMatchers.anyLong(),
-                ArgumentMatchers.anyFloat(),
-                ArgumentMatchers.anyMap())).thenReturn(executionContainerOutput);
+        Mockito.when(containerService.runContainer(ArgumentMatchers.any(ContainerRunOptions.class))).thenReturn(executionContainerOutput);
     
         // Compilation Container
         Mockito.when(containerService.runContainer(
@@ -467,12 +448,7 @@ class CompilerServiceTests {
                 .build();
     
         // Execution Container
-        Mockito.when(containerService.runContainer(
-                ArgumentMatchers.any(),
-                ArgumentMatchers.anyString(),
-                ArgumentMatchers.anyLong(),
-                ArgumentMatchers.anyFloat(),
-                ArgumentMatchers.anyMap())).thenReturn(executionContainerOutput);
+        Mockito.when(containerService.runContainer(ArgumentMatchers.any(ContainerRunOptions.class))).thenReturn(executionContainerOutput);
     
         // Compilation Container
         Mockito.when(containerService.runContainer(
@@ -533,12 +509,7 @@ class CompilerServiceTests {
                 .build();
     
         // Execution Container
-        Mockito.when(containerService.runContainer(
-                ArgumentMatchers.any(),
-                ArgumentMatchers.anyString(),
-                ArgumentMatchers.anyLong(),
-                ArgumentMatchers.anyFloat(),
-                ArgumentMatchers.anyMap())).thenReturn(executionContainerOutput);
+        Mockito.when(containerService.runContainer(ArgumentMatchers.any(ContainerRunOptions.class))).thenReturn(executionContainerOutput);
     
         // Compilation Container
         Mockito.when(containerService.runContainer(
@@ -590,12 +561,7 @@ class CompilerServiceTests {
                 .build();
     
         // Execution container
-        Mockito.when(containerService.runContainer(
-                ArgumentMatchers.any(),
-                ArgumentMatchers.anyString(),
-                ArgumentMatchers.anyLong(),
-                ArgumentMatchers.anyFloat(),
-                ArgumentMatchers.anyMap())).thenReturn(containerOutput);
+        Mockito.when(containerService.runContainer(ArgumentMatchers.any(ContainerRunOptions.class))).thenReturn(containerOutput);
     
         // Compilation container
         Mockito.when(containerService.runContainer(
@@ -635,12 +601,7 @@ class CompilerServiceTests {
         );
         
         // Execution container
-        Mockito.when(containerService.runContainer(
-                ArgumentMatchers.any(),
-                ArgumentMatchers.anyString(),
-                ArgumentMatchers.anyLong(),
-                ArgumentMatchers.anyFloat(),
-                ArgumentMatchers.anyMap())).thenThrow(new ContainerFailedDependencyException("Docker engine error"));
+        Mockito.when(containerService.runContainer(ArgumentMatchers.any(ContainerRunOptions.class))).thenThrow(new ContainerFailedDependencyException("Docker engine error"));
     
         // Compilation container
         Mockito.when(containerService.runContainer(
@@ -785,12 +746,7 @@ class CompilerServiceTests {
                         .status(StatusUtils.ACCEPTED_OR_WRONG_ANSWER_STATUS)
                         .build();
         
-        Mockito.when(containerService.runContainer(
-                ArgumentMatchers.anyString(),
-                ArgumentMatchers.anyString(),
-                ArgumentMatchers.anyLong(),
-                ArgumentMatchers.anyFloat(),
-                ArgumentMatchers.anyMap())).thenReturn(processOutput);
+        Mockito.when(containerService.runContainer(ArgumentMatchers.any(ContainerRunOptions.class))).thenReturn(processOutput);
         
         // Should compile
         Mockito.when(containerService.runContainer(
@@ -1,12 +1,15 @@
 package com.cp.compiler.services;
 
 import com.cp.compiler.executions.ExecutionFactory;
+import com.cp.compiler.models.containers.ContainerRunOptions;
 import com.cp.compiler.models.testcases.ConvertedTestCase;
 import com.cp.compiler.models.processes.ProcessOutput;
 import com.cp.compiler.models.Language;
+import com.cp.compiler.models.resources.ExecutionLane;
 import com.cp.compiler.repositories.HooksRepository;
 import com.cp.compiler.services.businesslogic.LongRunningCompilerService;
 import com.cp.compiler.services.containers.ContainerService;
+import com.cp.compiler.services.resources.AdmissionQueue;
 import com.cp.compiler.utils.StatusUtils;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -22,6 +25,7 @@ import org.springframework.web.client.RestTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @DirtiesContext
 @SpringBootTest
@@ -39,6 +43,9 @@ class LongRunningCompilerServiceTests {
     @MockBean
     private HooksRepository hooksRepository;
     
+    @Autowired
+    private AdmissionQueue admissionQueue;
+    
     @Test
     void registrationTest() {
         Assertions.assertNotNull(compilerService.getCompilerService());
@@ -67,12 +74,7 @@ class LongRunningCompilerServiceTests {
                 .status(StatusUtils.ACCEPTED_OR_WRONG_ANSWER_STATUS)
                 .build();
         
-        Mockito.when(containerService.runContainer(
-                ArgumentMatchers.any(),
-                ArgumentMatchers.anyString(),
-                ArgumentMatchers.anyLong(),
-                ArgumentMatchers.anyFloat(),
-                ArgumentMatchers.anyMap())).thenReturn(containerOutput);
+        Mockito.when(containerService.runContainer(ArgumentMatchers.any(ContainerRunOptions.class))).thenReturn(containerOutput);
         
         // When
         var compilationResult = compilerService.execute(execution);
@@ -104,12 +106,7 @@ class LongRunningCompilerServiceTests {
                 .status(StatusUtils.ACCEPTED_OR_WRONG_ANSWER_STATUS)
                 .build();
         
-        Mockito.when(containerService.runContainer(
-                ArgumentMatchers.any(),
-                ArgumentMatchers.anyString(),
-                ArgumentMatchers.anyLong(),
-                ArgumentMatchers.anyFloat(),
-                ArgumentMatchers.anyMap())).thenReturn(containerOutput);
+        Mockito.when(containerService.runContainer(ArgumentMatchers.any(ContainerRunOptions.class))).thenReturn(containerOutput);
     
         Mockito.when(hooksRepository.get(ArgumentMatchers.any())).thenReturn("http://localhost/post");
         
@@ -148,12 +145,7 @@ class LongRunningCompilerServiceTests {
                 .status(StatusUtils.ACCEPTED_OR_WRONG_ANSWER_STATUS)
                 .build();
         
-        Mockito.when(containerService.runContainer(
-                ArgumentMatchers.anyString(),
-                ArgumentMatchers.anyString(),
-                ArgumentMatchers.anyLong(),
-                ArgumentMatchers.anyFloat(),
-                ArgumentMatchers.anyMap())).thenReturn(containerOutput);
+        Mockito.when(containerService.runContainer(ArgumentMatchers.any(ContainerRunOptions.class))).thenReturn(containerOutput);
     
         Mockito.when(containerService.runContainer(
                 ArgumentMatchers.anyString(),
@@ -175,4 +167,56 @@ class LongRunningCompilerServiceTests {
         Mockito.verify(restTemplate)
                 .postForEntity(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any());
     }
+    
+    @Test
+    void shouldKeepTheResourcesReservedUntilTheEndOfTheExecution() throws Exception {
+        // Given
+        MultipartFile file = new MockMultipartFile(
+                "test.py",
+                "test.py",
+                null,
+                (byte[]) null);
+        
+        var testCase = new ConvertedTestCase("id", file, "test");
+        
+        var execution = ExecutionFactory.createExecution(
+                file, List.of(testCase), 10, 100, Language.PYTHON);
+        execution.setLane(ExecutionLane.PUSH);
+        
+        Mockito.when(containerService.buildImage(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any()))
+                .thenReturn("build log");
+        
+        var executionsDuringTheRun = new AtomicInteger(-1);
+        Mockito.when(containerService.runContainer(ArgumentMatchers.any(ContainerRunOptions.class)))
+                .thenAnswer(invocation -> {
+                    executionsDuringTheRun.set(getPushExecutions());
+                    return ProcessOutput
+                            .builder()
+                            .stdErr("")
+                            .stdOut("test")
+                            .status(StatusUtils.ACCEPTED_OR_WRONG_ANSWER_STATUS)
+                            .build();
+                });
+        
+        Mockito.when(hooksRepository.get(ArgumentMatchers.any())).thenReturn("http://localhost/post");
+        
+        // When
+        compilerService.execute(execution);
+        
+        // Wait for the end of execution
+        Thread.sleep(2000);
+        
+        // Then
+        Assertions.assertEquals(1, executionsDuringTheRun.get());
+        Assertions.assertEquals(0, getPushExecutions());
+    }
+    
+    private int getPushExecutions() {
+        return admissionQueue.getLaneOccupancies()
+                .stream()
+                .filter(occupancy -> occupancy.getLane() == ExecutionLane.PUSH)
+                .findFirst()
+                .orElseThrow()
+                .getCurrentExecutions();
+    }
 }
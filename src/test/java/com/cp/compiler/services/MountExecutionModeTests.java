@@ -0,0 +1,94 @@
+package com.cp.compiler.services;
+
+import com.cp.compiler.executions.Execution;
+import com.cp.compiler.executions.ExecutionFactory;
+import com.cp.compiler.models.Language;
+import com.cp.compiler.models.Response;
+import com.cp.compiler.models.Verdict;
+import com.cp.compiler.models.containers.ContainerMount;
+import com.cp.compiler.models.containers.ContainerRunOptions;
+import com.cp.compiler.models.processes.ProcessOutput;
+import com.cp.compiler.models.testcases.ConvertedTestCase;
+import com.cp.compiler.services.businesslogic.CompilerService;
+import com.cp.compiler.services.containers.ContainerService;
+import com.cp.compiler.services.pools.ExecutionContainerPool;
+import com.cp.compiler.utils.StatusUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.List;
+
+/**
+ * The type Mount execution mode tests.
+ */
+@DirtiesContext
+@SpringBootTest(properties = "compiler.execution.mode=mount")
+class MountExecutionModeTests {
+
+    @MockBean
+    private ContainerService containerService;
+
+    @Qualifier("proxy")
+    @Autowired
+    private CompilerService compilerService;
+
+    @Test
+    void shouldRunTheTestCasesFromTheStockImageWithoutBuildingAnImage() {
+        // Given
+        String output = "test";
+
+        var file = new MockMultipartFile(
+                "file",
+                "test.py",
+                MediaType.TEXT_PLAIN_VALUE,
+                "print(\"test\")".getBytes());
+
+        ProcessOutput containerOutput = ProcessOutput
+                .builder()
+                .stdOut(output)
+                .stdErr("")
+                .status(StatusUtils.ACCEPTED_OR_WRONG_ANSWER_STATUS)
+                .build();
+
+        Mockito.when(containerService.runContainer(ArgumentMatchers.any(ContainerRunOptions.class))).thenReturn(containerOutput);
+
+        var testCase = new ConvertedTestCase("id", null, output);
+
+        Execution execution =
+                ExecutionFactory.createExecution(file, List.of(testCase), 10, 100, Language.PYTHON);
+
+        // When
+        ResponseEntity<Object> responseEntity = compilerService.execute(execution);
+
+        // Then
+        Response response = (Response) responseEntity.getBody();
+        Assertions.assertEquals(Verdict.ACCEPTED.getStatusResponse(), response.getVerdict());
+
+        Mockito.verify(containerService, Mockito.never())
+                .buildImage(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any());
+        Mockito.verify(containerService, Mockito.never()).deleteImage(ArgumentMatchers.any());
+        Mockito.verify(containerService, Mockito.never()).deleteImages(ArgumentMatchers.any());
+
+        var runOptions = ArgumentCaptor.forClass(ContainerRunOptions.class);
+        Mockito.verify(containerService).runContainer(runOptions.capture());
+        Assertions.assertEquals("python:3", runOptions.getValue().getImageName());
+        Assertions.assertEquals(ExecutionContainerPool.EXECUTION_USER, runOptions.getValue().getUser());
+        Assertions.assertEquals("/bin/sh", runOptions.getValue().getEntrypoint().get(0));
+
+        ContainerMount mount = runOptions.getValue().getMounts().get(0);
+        Assertions.assertTrue(mount.isReadOnly());
+        Assertions.assertEquals(ExecutionContainerPool.WORKING_DIRECTORY, mount.getTarget());
+        Assertions.assertTrue(mount.getSource().endsWith(execution.getPath()));
+    }
+}
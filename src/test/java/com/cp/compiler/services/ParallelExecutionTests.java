@@ -0,0 +1,229 @@
+package com.cp.compiler.services;
+
+import com.cp.compiler.exceptions.ContainerFailedDependencyException;
+import com.cp.compiler.executions.Execution;
+import com.cp.compiler.executions.ExecutionFactory;
+import com.cp.compiler.models.Language;
+import com.cp.compiler.models.Response;
+import com.cp.compiler.models.Verdict;
+import com.cp.compiler.models.containers.ContainerRunOptions;
+import com.cp.compiler.models.processes.ProcessOutput;
+import com.cp.compiler.models.testcases.ConvertedTestCase;
+import com.cp.compiler.services.businesslogic.CompilerService;
+import com.cp.compiler.services.containers.ContainerService;
+import com.cp.compiler.services.strategies.ExecutionStrategy;
+import com.cp.compiler.utils.StatusUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The type Parallel execution tests.
+ */
+@DirtiesContext
+@SpringBootTest(properties = {"compiler.execution.parallelism=2", "compiler.execution.max-cpus=0.5"})
+class ParallelExecutionTests {
+
+    @MockBean
+    private ContainerService containerService;
+
+    @Qualifier("proxy")
+    @Autowired
+    private CompilerService compilerService;
+
+    private final MockMultipartFile file = new MockMultipartFile(
+            "file",
+            "test.py",
+            MediaType.TEXT_PLAIN_VALUE,
+            "print(input())".getBytes());
+
+    @Test
+    void shouldRunTheTestCasesInParallelAndKeepTheirOrder() {
+        // Given
+        var runningContainers = new AtomicInteger();
+        var maxRunningContainers = new AtomicInteger();
+        Mockito.when(containerService.runContainer(ArgumentMatchers.any(ContainerRunOptions.class)))
+                .thenAnswer(invocation -> {
+                    ContainerRunOptions options = invocation.getArgument(0);
+                    String testCaseId = options.getEnvVariables().get("TEST_CASE_ID");
+                    maxRunningContainers.accumulateAndGet(runningContainers.incrementAndGet(), Math::max);
+                    // The first test case finishes last
+                    Thread.sleep(testCaseId.equals("1") ? 500 : 100);
+                    runningContainers.decrementAndGet();
+                    return output(testCaseId);
+                });
+
+        var testCases = List.of(
+                new ConvertedTestCase("1", null, "1"),
+                new ConvertedTestCase("2", null, "2"),
+                new ConvertedTestCase("3", null, "3"));
+
+        Execution execution =
+                ExecutionFactory.createExecution(file, testCases, 10, 100, Language.PYTHON);
+
+        // When
+        ResponseEntity<Object> responseEntity = compilerService.execute(execution);
+
+        // Then
+        Response response = (Response) responseEntity.getBody();
+        Assertions.assertEquals(Verdict.ACCEPTED.getStatusResponse(), response.getVerdict());
+        Assertions.assertEquals(List.of("1", "2", "3"), new ArrayList<>(response.getTestCasesResult().keySet()));
+        Assertions.assertEquals(2, maxRunningContainers.get());
+    }
+
+    @Test
+    void shouldStopAtTheFirstFailedTestCase() {
+        // Given
+        Mockito.when(containerService.runContainer(ArgumentMatchers.any(ContainerRunOptions.class)))
+                .thenAnswer(invocation -> {
+                    ContainerRunOptions options = invocation.getArgument(0);
+                    String testCaseId = options.getEnvVariables().get("TEST_CASE_ID");
+                    // The second test case fails after the third one starts
+                    Thread.sleep(testCaseId.equals("2") ? 300 : 10);
+                    return output(testCaseId.equals("2") ? "wrong answer" : testCaseId);
+                });
+
+        var testCases = new ArrayList<ConvertedTestCase>();
+        for (int i = 1; i <= 6; i++) {
+            testCases.add(new ConvertedTestCase(String.valueOf(i), null, String.valueOf(i)));
+        }
+
+        Execution execution =
+                ExecutionFactory.createExecution(file, testCases, 10, 100, Language.PYTHON);
+
+        // When
+        ResponseEntity<Object> responseEntity = compilerService.execute(execution);
+
+        // Then
+        Response response = (Response) responseEntity.getBody();
+        Assertions.assertEquals(Verdict.WRONG_ANSWER.getStatusResponse(), response.getVerdict());
+        Assertions.assertEquals(List.of("1", "2"), new ArrayList<>(response.getTestCasesResult().keySet()));
+        // Only the test case following the failed one was started
+        Mockito.verify(containerService, Mockito.times(3)).runContainer(ArgumentMatchers.any(ContainerRunOptions.class));
+    }
+
+    @Test
+    void shouldKillTheContainersOfTheCancelledTestCases() {
+        // Given
+        var secondStarted = new CountDownLatch(1);
+        var secondKilled = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> {
+            secondKilled.countDown();
+            return null;
+        }).when(containerService).deleteContainers(
+                ArgumentMatchers.argThat(containerNames -> containerNames.stream().anyMatch(name -> name.contains("-2-"))));
+        Mockito.when(containerService.runContainer(ArgumentMatchers.any(ContainerRunOptions.class)))
+                .thenAnswer(invocation -> {
+                    ContainerRunOptions options = invocation.getArgument(0);
+                    String testCaseId = options.getEnvVariables().get("TEST_CASE_ID");
+                    if (testCaseId.equals("1")) {
+                        // The first test case fails while the second one is still running
+                        secondStarted.await(5, TimeUnit.SECONDS);
+                        return output("wrong answer");
+                    }
+                    secondStarted.countDown();
+                    // The container keeps running even if the wait on it is interrupted
+                    awaitUninterruptibly(secondKilled);
+                    return output(testCaseId);
+                });
+
+        var testCases = List.of(
+                new ConvertedTestCase("1", null, "1"),
+                new ConvertedTestCase("2", null, "2"));
+
+        Execution execution =
+                ExecutionFactory.createExecution(file, testCases, 10, 100, Language.PYTHON);
+
+        // When
+        ResponseEntity<Object> responseEntity = compilerService.execute(execution);
+
+        // Then
+        Response response = (Response) responseEntity.getBody();
+        Assertions.assertEquals(Verdict.WRONG_ANSWER.getStatusResponse(), response.getVerdict());
+        Assertions.assertEquals(0, secondKilled.getCount());
+        Mockito.verify(containerService, Mockito.atLeastOnce()).deleteContainers(
+                List.of(ExecutionStrategy.EXECUTION_CONTAINER_NAME_PREFIX + "2-" + execution.getImageName()));
+    }
+
+    @Test
+    void shouldKillTheContainersOfTheTestCasesInterruptedWhileWaiting() {
+        // Given
+        var secondStarted = new CountDownLatch(1);
+        // The janitor deletes the container later, the request has to kill it before returning
+        var requestThread = Thread.currentThread();
+        var killedByTheRequest = new AtomicBoolean();
+        Mockito.doAnswer(invocation -> {
+            killedByTheRequest.compareAndSet(false, Thread.currentThread() == requestThread);
+            return null;
+        }).when(containerService).deleteContainers(
+                ArgumentMatchers.argThat(containerNames -> containerNames.stream().anyMatch(name -> name.contains("-2-"))));
+        Mockito.when(containerService.runContainer(ArgumentMatchers.any(ContainerRunOptions.class)))
+                .thenAnswer(invocation -> {
+                    ContainerRunOptions options = invocation.getArgument(0);
+                    String testCaseId = options.getEnvVariables().get("TEST_CASE_ID");
+                    if (testCaseId.equals("1")) {
+                        secondStarted.await(5, TimeUnit.SECONDS);
+                        return output("wrong answer");
+                    }
+                    secondStarted.countDown();
+                    try {
+                        Thread.sleep(5000);
+                    } catch (InterruptedException e) {
+                        // The wait on the container returns at once, the container is still running
+                        throw new ContainerFailedDependencyException("Interrupted");
+                    }
+                    return output(testCaseId);
+                });
+
+        var testCases = List.of(
+                new ConvertedTestCase("1", null, "1"),
+                new ConvertedTestCase("2", null, "2"));
+
+        Execution execution =
+                ExecutionFactory.createExecution(file, testCases, 10, 100, Language.PYTHON);
+
+        // When
+        ResponseEntity<Object> responseEntity = compilerService.execute(execution);
+
+        // Then
+        Response response = (Response) responseEntity.getBody();
+        Assertions.assertEquals(Verdict.WRONG_ANSWER.getStatusResponse(), response.getVerdict());
+        Assertions.assertTrue(killedByTheRequest.get());
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (latch.getCount() > 0 && System.currentTimeMillis() < deadline) {
+            try {
+                latch.await(deadline - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                // Keep waiting
+            }
+        }
+    }
+
+    private static ProcessOutput output(String stdOut) {
+        return ProcessOutput
+                .builder()
+                .stdOut(stdOut)
+                .stdErr("")
+                .status(StatusUtils.ACCEPTED_OR_WRONG_ANSWER_STATUS)
+                .build();
+    }
+}
@@ -0,0 +1,244 @@
+package com.cp.compiler.services;
+
+import com.cp.compiler.exceptions.ContainerOperationTimeoutException;
+import com.cp.compiler.executions.Execution;
+import com.cp.compiler.executions.ExecutionFactory;
+import com.cp.compiler.models.Language;
+import com.cp.compiler.models.Response;
+import com.cp.compiler.models.Verdict;
+import com.cp.compiler.models.containers.ContainerRunOptions;
+import com.cp.compiler.models.processes.OutputListener;
+import com.cp.compiler.models.processes.ProcessOutput;
+import com.cp.compiler.models.testcases.ConvertedTestCase;
+import com.cp.compiler.services.businesslogic.CompilerService;
+import com.cp.compiler.services.containers.ContainerService;
+import com.cp.compiler.utils.StatusUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The type Single container execution tests.
+ */
+@DirtiesContext
+@SpringBootTest(properties = "compiler.execution.single-container=true")
+class SingleContainerExecutionTests {
+
+    @MockBean
+    private ContainerService containerService;
+
+    @Qualifier("proxy")
+    @Autowired
+    private CompilerService compilerService;
+
+    private final MockMultipartFile file = new MockMultipartFile(
+            "file",
+            "test.py",
+            MediaType.TEXT_PLAIN_VALUE,
+            "print(input())".getBytes());
+
+    @Test
+    void shouldMapTheFramesOfTheRunnerAndStopAtTheFirstFailedTestCase() {
+        // Given
+        var stoppedAfterSecondFrame = new AtomicBoolean();
+        Mockito.when(containerService.runContainer(ArgumentMatchers.any(ContainerRunOptions.class)))
+                .thenAnswer(invocation -> {
+                    ContainerRunOptions options = invocation.getArgument(0);
+                    // The runner doesn't know the expected outputs, the service stops it at the second test case
+                    OutputListener listener = options.getStdOutListener();
+                    write(listener, frame(0, "1"));
+                    write(listener, frame(0, "3"));
+                    stoppedAfterSecondFrame.set(listener.isStopRequested());
+                    return stoppedRunnerOutput();
+                });
+
+        var testCases = List.of(
+                new ConvertedTestCase("first", null, "1"),
+                new ConvertedTestCase("second", null, "2"),
+                new ConvertedTestCase("third", null, "3"));
+
+        Execution execution =
+                ExecutionFactory.createExecution(file, testCases, 10, 100, Language.PYTHON);
+
+        // When
+        ResponseEntity<Object> responseEntity = compilerService.execute(execution);
+
+        // Then
+        Response response = (Response) responseEntity.getBody();
+        Assertions.assertEquals(Verdict.WRONG_ANSWER.getStatusResponse(), response.getVerdict());
+        Assertions.assertEquals(2, response.getTestCasesResult().size());
+        Assertions.assertEquals(
+                Verdict.ACCEPTED.getStatusResponse(),
+                response.getTestCasesResult().get("first").getVerdict().getStatusResponse());
+
+        var runOptions = ArgumentCaptor.forClass(ContainerRunOptions.class);
+        Mockito.verify(containerService).runContainer(runOptions.capture());
+        Assertions.assertEquals(
+                List.of("/bin/sh", "./runner.sh", "first", "second", "third"),
+                runOptions.getValue().getEntrypoint());
+        Assertions.assertTrue(stoppedAfterSecondFrame.get());
+    }
+
+    @Test
+    void aForgedFrameEchoedByTheProgramShouldNotChangeTheVerdicts() {
+        // Given
+        Mockito.when(containerService.runContainer(ArgumentMatchers.any(ContainerRunOptions.class)))
+                .thenAnswer(invocation -> {
+                    ContainerRunOptions options = invocation.getArgument(0);
+                    OutputListener listener = options.getStdOutListener();
+                    // The program of the first test case prints the frame the second test case should have
+                    write(listener, frame(0, frame(0, "2")));
+                    return stoppedRunnerOutput();
+                });
+
+        var testCases = List.of(
+                new ConvertedTestCase("first", null, "1"),
+                new ConvertedTestCase("second", null, "2"));
+
+        Execution execution =
+                ExecutionFactory.createExecution(file, testCases, 10, 100, Language.PYTHON);
+
+        // When
+        ResponseEntity<Object> responseEntity = compilerService.execute(execution);
+
+        // Then
+        Response response = (Response) responseEntity.getBody();
+        Assertions.assertEquals(Verdict.WRONG_ANSWER.getStatusResponse(), response.getVerdict());
+        Assertions.assertEquals(1, response.getTestCasesResult().size());
+    }
+
+    @Test
+    void shouldRunTheTestCasesOneContainerEachWhenTheRunnerWritesMoreFramesThanTestCases() {
+        // Given
+        Mockito.when(containerService.runContainer(ArgumentMatchers.any(ContainerRunOptions.class)))
+                .thenAnswer(invocation -> {
+                    ContainerRunOptions options = invocation.getArgument(0);
+                    if (options.getEntrypoint().isEmpty()) {
+                        return runnerOutput(options.getEnvVariables().get("TEST_CASE_ID"));
+                    }
+                    // Frames written by the program itself to the output of the runner
+                    OutputListener listener = options.getStdOutListener();
+                    write(listener, frame(0, "first"));
+                    write(listener, frame(0, "first"));
+                    return runnerOutput("");
+                });
+
+        var testCases = List.of(new ConvertedTestCase("first", null, "first"));
+
+        Execution execution =
+                ExecutionFactory.createExecution(file, testCases, 10, 100, Language.PYTHON);
+
+        // When
+        ResponseEntity<Object> responseEntity = compilerService.execute(execution);
+
+        // Then
+        Response response = (Response) responseEntity.getBody();
+        Assertions.assertEquals(Verdict.ACCEPTED.getStatusResponse(), response.getVerdict());
+        Mockito.verify(containerService, Mockito.times(2))
+                .runContainer(ArgumentMatchers.any(ContainerRunOptions.class));
+    }
+
+    @Test
+    void shouldRestartTheRunnerFromTheNextTestCaseWhenItStoppedOnAnAcceptedOutput() {
+        // Given
+        Mockito.when(containerService.runContainer(ArgumentMatchers.any(ContainerRunOptions.class)))
+                .thenAnswer(invocation -> {
+                    ContainerRunOptions options = invocation.getArgument(0);
+                    write(options.getStdOutListener(), frame(0, "1"));
+                    return runnerOutput("");
+                });
+
+        var testCases = List.of(
+                new ConvertedTestCase("first", null, "1"),
+                new ConvertedTestCase("second", null, "1"));
+
+        Execution execution =
+                ExecutionFactory.createExecution(file, testCases, 10, 100, Language.PYTHON);
+
+        // When
+        ResponseEntity<Object> responseEntity = compilerService.execute(execution);
+
+        // Then
+        Response response = (Response) responseEntity.getBody();
+        Assertions.assertEquals(Verdict.ACCEPTED.getStatusResponse(), response.getVerdict());
+        Assertions.assertEquals(2, response.getTestCasesResult().size());
+
+        var runOptions = ArgumentCaptor.forClass(ContainerRunOptions.class);
+        Mockito.verify(containerService, Mockito.times(2)).runContainer(runOptions.capture());
+        Assertions.assertEquals(
+                List.of("/bin/sh", "./runner.sh", "second"),
+                runOptions.getAllValues().get(1).getEntrypoint());
+    }
+
+    @Test
+    void shouldRunTheRemainingTestCasesOneContainerEachWhenTheRunnerTimesOut() {
+        // Given
+        Mockito.when(containerService.runContainer(ArgumentMatchers.any(ContainerRunOptions.class)))
+                .thenAnswer(invocation -> {
+                    ContainerRunOptions options = invocation.getArgument(0);
+                    if (!options.getEntrypoint().isEmpty()) {
+                        throw new ContainerOperationTimeoutException("The runner timed out");
+                    }
+                    return runnerOutput(options.getEnvVariables().get("TEST_CASE_ID"));
+                });
+
+        var testCases = List.of(
+                new ConvertedTestCase("first", null, "first"),
+                new ConvertedTestCase("second", null, "second"));
+
+        Execution execution =
+                ExecutionFactory.createExecution(file, testCases, 10, 100, Language.PYTHON);
+
+        // When
+        ResponseEntity<Object> responseEntity = compilerService.execute(execution);
+
+        // Then
+        Response response = (Response) responseEntity.getBody();
+        Assertions.assertEquals(Verdict.ACCEPTED.getStatusResponse(), response.getVerdict());
+        Assertions.assertEquals(2, response.getTestCasesResult().size());
+        Mockito.verify(containerService, Mockito.times(3))
+                .runContainer(ArgumentMatchers.any(ContainerRunOptions.class));
+    }
+
+    private static ProcessOutput runnerOutput(String stdOut) {
+        return ProcessOutput
+                .builder()
+                .stdOut(stdOut)
+                .stdErr("")
+                .status(StatusUtils.ACCEPTED_OR_WRONG_ANSWER_STATUS)
+                .build();
+    }
+
+    private static ProcessOutput stoppedRunnerOutput() {
+        return ProcessOutput
+                .builder()
+                .stdOut("")
+                .stdErr("")
+                .stopped(true)
+                .build();
+    }
+
+    private static void write(OutputListener listener, String output) {
+        byte[] bytes = output.getBytes(StandardCharsets.UTF_8);
+        listener.onOutput(bytes, 0, bytes.length);
+    }
+
+    // Same format as the one written by the runner
+    private static String frame(int status, String stdOut) {
+        return status + " 10 " + stdOut.getBytes(StandardCharsets.UTF_8).length + " 0\n" + stdOut;
+    }
+}
@@ -0,0 +1,195 @@
+package com.cp.compiler.services.cache;
+
+import com.cp.compiler.executions.Execution;
+import com.cp.compiler.models.Language;
+import com.cp.compiler.services.containers.ContainerService;
+import com.cp.compiler.utils.FileUtils;
+import com.cp.compiler.wellknownconstants.WellKnownMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+class CompilationCacheTests {
+
+    @TempDir
+    Path temporaryDirectory;
+
+    private ContainerService containerService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        containerService = Mockito.mock(ContainerService.class);
+        Mockito.when(containerService.getImageId("compiler.c")).thenReturn("sha256:1");
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void restoreShouldCopyTheArtifactsOfAPreviousCompilationOfTheSameSourceCode() throws IOException {
+        // Given
+        var cache = createCache(1000);
+        Execution firstExecution = createExecution("first", "int main() {}");
+        String key = cache.getKey(firstExecution, "compiler.c");
+        Set<Path> filesBeforeCompilation = FileUtils.listFiles(Path.of(firstExecution.getPath()));
+        Path binary = Path.of(firstExecution.getPath(), "exec");
+        Files.writeString(binary, "binary");
+        binary.toFile().setExecutable(true);
+        cache.store(key, firstExecution, filesBeforeCompilation);
+
+        Execution secondExecution = createExecution("second", "int main() {}");
+
+        // When
+        boolean restored = cache.restore(cache.getKey(secondExecution, "compiler.c"), secondExecution);
+
+        // Then
+        Assertions.assertTrue(restored);
+        Path restoredBinary = Path.of(secondExecution.getPath(), "exec");
+        Assertions.assertEquals("binary", Files.readString(restoredBinary));
+        Assertions.assertTrue(Files.isExecutable(restoredBinary));
+        // The input file isn't an artifact
+        Assertions.assertEquals("second", Files.readString(Path.of(secondExecution.getPath(), "input.txt")));
+        Assertions.assertEquals(1.0, cache.getHitRatio());
+        Assertions.assertEquals(6.0,
+                meterRegistry.get(WellKnownMetrics.COMPILATION_CACHE_SAVED_BYTES_COUNTER).counter().count());
+    }
+
+    @Test
+    void theKeyShouldDependOnTheSourceCodeAndTheCompilationImage() throws IOException {
+        // Given
+        var cache = createCache(1000);
+        Execution execution = createExecution("first", "int main() {}");
+        Execution otherSourceCode = createExecution("second", "int main() { return 1; }");
+        Mockito.when(containerService.getImageId("compiler.cpp")).thenReturn("sha256:2");
+
+        // When
+        String key = cache.getKey(execution, "compiler.c");
+
+        // Then
+        Assertions.assertEquals(key, cache.getKey(createExecution("third", "int main() {}"), "compiler.c"));
+        Assertions.assertNotEquals(key, cache.getKey(otherSourceCode, "compiler.c"));
+        Assertions.assertNotEquals(key, cache.getKey(execution, "compiler.cpp"));
+    }
+
+    @Test
+    void storeShouldEvictTheLeastRecentlyUsedEntries() throws IOException {
+        // Given
+        var cache = createCache(10);
+        Execution firstExecution = compile(cache, "first", "int main() {}", "123456");
+        Execution secondExecution = compile(cache, "second", "int main() { return 1; }", "123456");
+
+        // When
+        boolean firstRestored = cache.restore(cache.getKey(firstExecution, "compiler.c"), firstExecution);
+        boolean secondRestored = cache.restore(cache.getKey(secondExecution, "compiler.c"), secondExecution);
+
+        // Then
+        Assertions.assertFalse(firstRestored);
+        Assertions.assertTrue(secondRestored);
+        Assertions.assertEquals(6, cache.getTotalBytes());
+    }
+
+    @Test
+    void anEntryBeingRestoredShouldBeEvictedOnceTheCopyIsDone() throws Exception {
+        // Given
+        var cache = createCache(10);
+        Execution firstExecution = compile(cache, "first", "int main() {}", "123456");
+        String key = cache.getKey(firstExecution, "compiler.c");
+        Path firstEntry = temporaryDirectory.resolve("cache").resolve(key);
+        String firstPath = firstExecution.getPath();
+        var copyStarted = new CountDownLatch(1);
+        var storeDone = new CountDownLatch(1);
+        Mockito.when(firstExecution.getPath()).thenAnswer(invocation -> {
+            copyStarted.countDown();
+            storeDone.await(5, TimeUnit.SECONDS);
+            return firstPath;
+        });
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        // When
+        Future<Boolean> restored = executor.submit(() -> cache.restore(key, firstExecution));
+        copyStarted.await(5, TimeUnit.SECONDS);
+        // The lock isn't held during the copy, the entry being restored is kept
+        compile(cache, "second", "int main() { return 1; }", "123456");
+        boolean keptDuringTheCopy = Files.exists(firstEntry);
+        storeDone.countDown();
+
+        // Then
+        Assertions.assertTrue(restored.get(5, TimeUnit.SECONDS));
+        Assertions.assertTrue(keptDuringTheCopy);
+        Assertions.assertEquals("123456", Files.readString(Path.of(firstPath, "exec")));
+        Assertions.assertEquals(6, cache.getTotalBytes());
+        executor.shutdown();
+    }
+
+    @Test
+    void initShouldLoadTheEntriesStoredByAPreviousRun() throws IOException {
+        // Given
+        Execution execution = compile(createCache(1000), "first", "int main() {}", "binary");
+
+        // When
+        var cache = createCache(1000);
+
+        // Then
+        Assertions.assertEquals(6, cache.getTotalBytes());
+        Assertions.assertTrue(cache.restore(cache.getKey(execution, "compiler.c"), execution));
+    }
+
+    @Test
+    void theCacheShouldBeSkippedWhenItIsDisabled() throws IOException {
+        // Given
+        var cache = new CompilationCacheDefault(
+                containerService, meterRegistry, false, temporaryDirectory.resolve("cache").toString(), 1000);
+        cache.init();
+        Execution execution = createExecution("first", "int main() {}");
+
+        // When
+        String key = cache.getKey(execution, "compiler.c");
+
+        // Then
+        Assertions.assertNull(key);
+        Assertions.assertFalse(cache.restore(key, execution));
+        Mockito.verify(containerService, Mockito.never()).getImageId(Mockito.anyString());
+    }
+
+    private CompilationCacheDefault createCache(long maxBytes) throws IOException {
+        var cache = new CompilationCacheDefault(
+                containerService, meterRegistry, true, temporaryDirectory.resolve("cache").toString(), maxBytes);
+        cache.init();
+        return cache;
+    }
+
+    private Execution compile(CompilationCache cache, String name, String sourceCode, String binary) throws IOException {
+        Execution execution = createExecution(name, sourceCode);
+        String key = cache.getKey(execution, "compiler.c");
+        Set<Path> filesBeforeCompilation = FileUtils.listFiles(Path.of(execution.getPath()));
+        Files.writeString(Path.of(execution.getPath(), "exec"), binary);
+        cache.store(key, execution, filesBeforeCompilation);
+        return execution;
+    }
+
+    private Execution createExecution(String name, String sourceCode) throws IOException {
+        Path executionDirectory = Files.createDirectory(temporaryDirectory.resolve(name));
+        Files.writeString(executionDirectory.resolve("main.c"), sourceCode);
+        Files.writeString(executionDirectory.resolve("input.txt"), name);
+        Execution execution = Mockito.mock(Execution.class);
+        Mockito.when(execution.getPath()).thenReturn(executionDirectory.toString());
+        Mockito.when(execution.getLanguage()).thenReturn(Language.C);
+        Mockito.when(execution.getSourceCodeFile())
+                .thenReturn(new MockMultipartFile("sourceCode", "main.c", null, sourceCode.getBytes()));
+        return execution;
+    }
+}
@@ -0,0 +1,155 @@
+package com.cp.compiler.services.containers;
+
+import com.cp.compiler.models.containers.ContainerEvent;
+import com.cp.compiler.models.containers.ContainerInfo;
+import com.cp.compiler.wellknownconstants.WellKnownMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+class ContainerLifecycleTrackerTests {
+
+    private static final long ASYNC_TIMEOUT = 5000;
+
+    private static final LocalDateTime START_TIME = LocalDateTime.of(2023, 1, 1, 10, 0, 0);
+
+    private ContainerService containerService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ContainerLifecycleTrackerDefault tracker;
+
+    @BeforeEach
+    void setUp() {
+        containerService = Mockito.mock(ContainerService.class);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (tracker != null) {
+            tracker.close();
+        }
+    }
+
+    @Test
+    void getContainerInfoShouldReturnTheLifecycleReceivedFromTheEvents() throws InterruptedException {
+        // Given
+        tracker = createTracker(true, List.of(
+                event("container", "create", START_TIME.minusSeconds(1), 0),
+                event("container", "start", START_TIME, 0),
+                event("container", "die", START_TIME.plusNanos(250_000_000), 139)));
+
+        // When
+        ContainerInfo containerInfo = tracker.getContainerInfo("container");
+
+        // Then
+        Assertions.assertNotNull(containerInfo);
+        Assertions.assertEquals("exited", containerInfo.getStatus());
+        Assertions.assertEquals(139, containerInfo.getExitCode());
+        Assertions.assertEquals(START_TIME.minusSeconds(1), containerInfo.getCreationTime());
+        Assertions.assertEquals(START_TIME, containerInfo.getStartTime());
+        Assertions.assertEquals(START_TIME.plusNanos(250_000_000), containerInfo.getEndTime());
+        Assertions.assertEquals(1, meterRegistry.get(WellKnownMetrics.CONTAINER_EVENTS_HIT_COUNTER).counter().count());
+    }
+
+    @Test
+    void getContainerInfoShouldReturnNullWhenTheLifecycleIsUnknownOrIncomplete() throws InterruptedException {
+        // Given
+        tracker = createTracker(true, List.of(
+                event("running", "start", START_TIME, 0),
+                event("destroyed", "start", START_TIME, 0),
+                event("destroyed", "die", START_TIME.plusSeconds(1), 0),
+                event("destroyed", "destroy", START_TIME.plusSeconds(1), 0)));
+
+        // When / Then
+        // The die event of the running container never comes
+        Assertions.assertNull(tracker.getContainerInfo("running"));
+        Assertions.assertNull(tracker.getContainerInfo("destroyed"));
+        Assertions.assertNull(tracker.getContainerInfo("unknown"));
+        Assertions.assertEquals(1, tracker.getTrackedContainersCount());
+        Assertions.assertEquals(3, meterRegistry.get(WellKnownMetrics.CONTAINER_EVENTS_MISS_COUNTER).counter().count());
+    }
+
+    @Test
+    void getContainerInfoShouldReturnNullWhenTheTrackerIsDisabled() throws InterruptedException {
+        // Given
+        tracker = createTracker(false, List.of());
+
+        // When / Then
+        Assertions.assertNull(tracker.getContainerInfo("container"));
+        Mockito.verify(containerService, Mockito.never())
+                .streamEvents(ArgumentMatchers.anyLong(), ArgumentMatchers.anyLong(), ArgumentMatchers.any());
+    }
+
+    @Test
+    void theSubscriptionShouldBeReopenedFromTheLastReceivedEventAfterAFailure() throws InterruptedException {
+        // Given
+        ContainerEvent lastEvent = event("container", "start", START_TIME, 0);
+
+        // When
+        tracker = createTracker(true, List.of(lastEvent), true);
+
+        // Then
+        Mockito.verify(containerService, Mockito.timeout(ASYNC_TIMEOUT))
+                .streamEvents(
+                        ArgumentMatchers.eq(lastEvent.getTimeNano()),
+                        ArgumentMatchers.eq(ContainerLifecycleTrackerDefault.STREAM_WINDOW),
+                        ArgumentMatchers.any());
+    }
+
+    private ContainerLifecycleTrackerDefault createTracker(boolean enabled, List<ContainerEvent> events)
+            throws InterruptedException {
+        return createTracker(enabled, events, false);
+    }
+
+    // The events are streamed by the first subscription, the following ones stay open until the tracker is closed
+    private ContainerLifecycleTrackerDefault createTracker(boolean enabled,
+                                                           List<ContainerEvent> events,
+                                                           boolean failAfterTheEvents) throws InterruptedException {
+        var streamed = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> {
+            if (streamed.getCount() == 0) {
+                Thread.sleep(ContainerLifecycleTrackerDefault.STREAM_WINDOW);
+                return null;
+            }
+            Consumer<ContainerEvent> consumer = invocation.getArgument(2);
+            events.forEach(consumer);
+            streamed.countDown();
+            if (failAfterTheEvents) {
+                throw new IllegalStateException("The connection to the docker engine was lost");
+            }
+            return null;
+        }).when(containerService).streamEvents(ArgumentMatchers.anyLong(), ArgumentMatchers.anyLong(), ArgumentMatchers.any());
+
+        var containerLifecycleTracker = new ContainerLifecycleTrackerDefault(containerService, meterRegistry, enabled, 100, 50);
+        containerLifecycleTracker.init();
+        if (enabled) {
+            Assertions.assertTrue(streamed.await(ASYNC_TIMEOUT, TimeUnit.MILLISECONDS));
+        }
+        return containerLifecycleTracker;
+    }
+
+    private static ContainerEvent event(String containerName, String action, LocalDateTime time, int exitCode) {
+        long timeNano = time.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + time.getNano();
+        return ContainerEvent
+                .builder()
+                .containerName(containerName)
+                .action(action)
+                .exitCode(exitCode)
+                .time(time)
+                .timeNano(timeNano)
+                .build();
+    }
+}
@@ -1,5 +1,6 @@
 package com.cp.compiler.services.containers;
 
+import com.cp.compiler.models.containers.ContainerEngineInfo;
 import com.cp.compiler.models.processes.ProcessOutput;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -98,6 +99,21 @@ public class ContainerServiceDecoratorTests {
         Assertions.assertEquals(expectedOutput, output);
     }
     
+    @Test
+    void getEngineInfoShouldHaveTheSameBehaviour() {
+        // Given
+        var containerServiceMock = Mockito.mock(ContainerService.class);
+        ContainerServiceDecorator containerServiceDecorator = getContainerServiceDecorator(containerServiceMock);
+        var expectedOutput = new ContainerEngineInfo(8, 1024);
+        Mockito.when(containerServiceMock.getEngineInfo()).thenReturn(expectedOutput);
+        
+        // When
+        ContainerEngineInfo output = containerServiceDecorator.getEngineInfo();
+        
+        // Then
+        Assertions.assertEquals(expectedOutput, output);
+    }
+    
     private ContainerServiceDecorator getContainerServiceDecorator(ContainerService containerServiceMock) {
         return new ContainerServiceDecorator(containerServiceMock) {
             @Override
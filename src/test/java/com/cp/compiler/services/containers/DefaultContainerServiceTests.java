@@ -1,6 +1,7 @@
 package com.cp.compiler.services.containers;
 
 import com.cp.compiler.exceptions.*;
+import com.cp.compiler.models.containers.ContainerInfo;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentMatchers;
@@ -262,4 +263,22 @@ public class DefaultContainerServiceTests {
                         "executionPath",
                         "sourcecode"));
     }
+    
+    @Test
+    void inspectShouldUseTheTrackedLifecycleAndFallBackToTheInspectionOnAMiss() {
+        // Given
+        var containerService = Mockito.mock(ContainerService.class);
+        var containerLifecycleTracker = Mockito.mock(ContainerLifecycleTracker.class);
+        var trackedContainerInfo = new ContainerInfo();
+        var inspectedContainerInfo = new ContainerInfo();
+        Mockito.when(containerLifecycleTracker.getContainerInfo("tracked")).thenReturn(trackedContainerInfo);
+        Mockito.when(containerService.inspect("untracked")).thenReturn(inspectedContainerInfo);
+        
+        var defaultContainerService = new DefaultContainerService(containerService, containerLifecycleTracker);
+        
+        // When / Then
+        Assertions.assertSame(trackedContainerInfo, defaultContainerService.inspect("tracked"));
+        Assertions.assertSame(inspectedContainerInfo, defaultContainerService.inspect("untracked"));
+        Mockito.verify(containerService, Mockito.never()).inspect("tracked");
+    }
 }
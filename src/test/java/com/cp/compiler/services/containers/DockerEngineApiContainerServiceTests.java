@@ -0,0 +1,399 @@
+package com.cp.compiler.services.containers;
+
+import com.cp.compiler.exceptions.ContainerFailedDependencyException;
+import com.cp.compiler.exceptions.ProcessExecutionTimeoutException;
+import com.cp.compiler.models.containers.ContainerEngineInfo;
+import com.cp.compiler.models.containers.ContainerExecOptions;
+import com.cp.compiler.models.containers.ContainerInfo;
+import com.cp.compiler.models.containers.ContainerMount;
+import com.cp.compiler.models.containers.ContainerRunOptions;
+import com.cp.compiler.models.processes.OutputListener;
+import com.cp.compiler.models.processes.ProcessOutput;
+import com.cp.compiler.services.containers.FakeDockerEngine.FakeResponse;
+import com.cp.compiler.services.containers.engine.DockerEngineClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+class DockerEngineApiContainerServiceTests {
+
+    private FakeDockerEngine engine;
+
+    private DockerEngineClient engineClient;
+
+    private DockerEngineApiContainerService containerService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        engine = new FakeDockerEngine();
+        engineClient = new DockerEngineClient(engine.getHost(), 4);
+        containerService = new DockerEngineApiContainerService(new SimpleMeterRegistry(), engineClient);
+        containerService.init();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        containerService.close();
+        engine.close();
+    }
+
+    @Test
+    void isUpShouldReturnTrueWhenTheEngineAnswersThePing() {
+        // Given
+        engine.route("GET", "/_ping", request -> FakeResponse.json(200, "OK"));
+
+        // When
+        boolean isUp = containerService.isUp();
+
+        // Then
+        Assertions.assertTrue(isUp);
+    }
+
+    @Test
+    void getEngineInfoShouldReturnTheCpusAndTheMemoryOfTheHost() {
+        // Given
+        engine.route("GET", "/info", request -> FakeResponse.json(200,
+                "{\"NCPU\": 8, \"MemTotal\": 16777216000, \"OperatingSystem\": \"Ubuntu\"}"));
+
+        // When
+        ContainerEngineInfo engineInfo = containerService.getEngineInfo();
+
+        // Then
+        Assertions.assertEquals(new ContainerEngineInfo(8, 16777216000L), engineInfo);
+    }
+
+    @Test
+    void isUpShouldReturnFalseWhenTheEngineIsNotReachable() {
+        // Given
+        var service = new DockerEngineApiContainerService(
+                new SimpleMeterRegistry(), new DockerEngineClient("unix:///does/not/exist.sock", 1));
+
+        // When
+        boolean isUp = service.isUp();
+
+        // Then
+        Assertions.assertFalse(isUp);
+    }
+
+    @Test
+    void runContainerShouldDemultiplexTheLogsAndReturnTheExitCode() {
+        // Given
+        engine.route("POST", "/containers/create", request -> FakeResponse.json(201, "{\"Id\": \"id\"}"));
+        engine.route("POST", "/containers/execution-1/start", request -> FakeResponse.empty(204));
+        engine.route("GET", "/containers/execution-1/logs", request -> FakeResponse.multiplexedLogs("hello\n", "warning"));
+        engine.route("POST", "/containers/execution-1/wait", request -> FakeResponse.json(200, "{\"StatusCode\": 1}"));
+
+        // When
+        ProcessOutput processOutput = containerService.runContainer(
+                "image", "execution-1", 5000, 0.5f, Map.of("TEST_CASE_ID", "1"));
+
+        // Then
+        Assertions.assertEquals("hello\n", processOutput.getStdOut());
+        Assertions.assertEquals("warning", processOutput.getStdErr());
+        Assertions.assertEquals(1, processOutput.getStatus());
+
+        String createBody = engine.getRequests().get(0).getBodyAsString();
+        Assertions.assertTrue(createBody.contains("\"Image\":\"image\""));
+        Assertions.assertTrue(createBody.contains("\"TEST_CASE_ID=1\""));
+        Assertions.assertTrue(createBody.contains("\"NanoCpus\":500000000"));
+    }
+
+    @Test
+    void runContainerWithVolumeShouldBindTheVolume() {
+        // Given
+        engine.route("POST", "/containers/create", request -> FakeResponse.json(201, "{\"Id\": \"id\"}"));
+        engine.route("POST", "/containers/compilation-1/start", request -> FakeResponse.empty(204));
+        engine.route("GET", "/containers/compilation-1/logs", request -> FakeResponse.multiplexedLogs("", ""));
+        engine.route("POST", "/containers/compilation-1/wait", request -> FakeResponse.json(200, "{\"StatusCode\": 0}"));
+
+        // When
+        ProcessOutput processOutput = containerService.runContainer(
+                "compiler.java", "compilation-1", 5000, "compiler:/compiler", "executions/java", "Main.java");
+
+        // Then
+        Assertions.assertEquals(0, processOutput.getStatus());
+        String createBody = engine.getRequests().get(0).getBodyAsString();
+        Assertions.assertTrue(createBody.contains("\"Binds\":[\"compiler:/compiler\"]"));
+        Assertions.assertTrue(createBody.contains("\"SOURCE_CODE_FILE_NAME=Main.java\""));
+    }
+
+    @Test
+    void runContainerShouldMountTheExecutionFolderAndOverrideTheEntrypoint() {
+        // Given
+        engine.route("POST", "/containers/create", request -> FakeResponse.json(201, "{\"Id\": \"id\"}"));
+        engine.route("POST", "/containers/execution-1/start", request -> FakeResponse.empty(204));
+        engine.route("GET", "/containers/execution-1/logs", request -> FakeResponse.multiplexedLogs("", ""));
+        engine.route("POST", "/containers/execution-1/wait", request -> FakeResponse.json(200, "{\"StatusCode\": 0}"));
+
+        // When
+        containerService.runContainer(ContainerRunOptions
+                .builder()
+                .imageName("python:3")
+                .containerName("execution-1")
+                .timeout(5000)
+                .user("111:111")
+                .workingDirectory("/app")
+                .entrypoint(List.of("/bin/sh", "-c", "./entrypoint-$TEST_CASE_ID.sh"))
+                .mounts(List.of(
+                        ContainerMount.builder().source("/compiler/executions/1").target("/app").readOnly(true).build(),
+                        ContainerMount.builder().source("compiler").subpath("executions/2").target("/data").build()))
+                .build());
+
+        // Then
+        String createBody = engine.getRequests().get(0).getBodyAsString();
+        Assertions.assertTrue(createBody.contains("\"User\":\"111:111\""));
+        Assertions.assertTrue(createBody.contains("\"WorkingDir\":\"/app\""));
+        Assertions.assertTrue(createBody.contains("\"Entrypoint\":[\"/bin/sh\"]"));
+        Assertions.assertTrue(createBody.contains("\"Cmd\":[\"-c\",\"./entrypoint-$TEST_CASE_ID.sh\"]"));
+        Assertions.assertTrue(createBody.contains("\"Binds\":[\"/compiler/executions/1:/app:ro\"]"));
+        Assertions.assertTrue(createBody.contains("\"Source\":\"compiler\""));
+        Assertions.assertTrue(createBody.contains("\"VolumeOptions\":{\"Subpath\":\"executions/2\"}"));
+    }
+
+    @Test
+    void runContainerShouldKillTheContainerWhenTheStdOutListenerAsksForIt() {
+        // Given
+        engine.route("POST", "/containers/create", request -> FakeResponse.json(201, "{\"Id\": \"id\"}"));
+        engine.route("POST", "/containers/execution-1/start", request -> FakeResponse.empty(204));
+        engine.route("GET", "/containers/execution-1/logs", request -> FakeResponse.multiplexedLogs("stop", ""));
+        engine.route("POST", "/containers/execution-1/kill", request -> FakeResponse.empty(204));
+        var listener = new OutputListener() {
+            private boolean stopRequested;
+
+            @Override
+            public void onOutput(byte[] bytes, int offset, int length) {
+                stopRequested = true;
+            }
+
+            @Override
+            public boolean isStopRequested() {
+                return stopRequested;
+            }
+        };
+
+        // When
+        ProcessOutput processOutput = containerService.runContainer(ContainerRunOptions
+                .builder()
+                .imageName("image")
+                .containerName("execution-1")
+                .timeout(5000)
+                .stdOutListener(listener)
+                .build());
+
+        // Then
+        Assertions.assertTrue(processOutput.isStopped());
+        Assertions.assertEquals("stop", processOutput.getStdOut());
+        Assertions.assertTrue(engine.getRequests()
+                                    .stream()
+                                    .anyMatch(request -> request.path.equals("/containers/execution-1/kill")));
+    }
+
+    @Test
+    void runContainerShouldThrowProcessTimeoutExceptionAndKillTheContainer() {
+        // Given
+        engine.route("POST", "/containers/create", request -> FakeResponse.json(201, "{\"Id\": \"id\"}"));
+        engine.route("POST", "/containers/execution-1/start", request -> FakeResponse.empty(204));
+        engine.route("GET", "/containers/execution-1/logs", request -> FakeResponse.hanging());
+        engine.route("POST", "/containers/execution-1/kill", request -> FakeResponse.empty(204));
+
+        // When / Then
+        Assertions.assertThrows(
+                ProcessExecutionTimeoutException.class,
+                () -> containerService.runContainer("image", "execution-1", 200, 0, Map.of()));
+        Assertions.assertTrue(engine.getRequests()
+                                    .stream()
+                                    .anyMatch(request -> request.path.equals("/containers/execution-1/kill")));
+    }
+
+    @Test
+    void runContainerShouldThrowContainerFailedDependencyExceptionIfTheImageDoesNotExist() {
+        // Given
+        engine.route("POST", "/containers/create", request -> FakeResponse.json(404, "{\"message\": \"No such image\"}"));
+
+        // When / Then
+        var exception = Assertions.assertThrows(
+                ContainerFailedDependencyException.class,
+                () -> containerService.runContainer("does not exist", "execution-1", 1000, 0, Map.of()));
+        Assertions.assertTrue(exception.getMessage().contains("No such image"));
+    }
+
+    @Test
+    void execInContainerShouldDemultiplexTheOutputAndReturnTheExitCode() {
+        // Given
+        engine.route("POST", "/containers/pool-1/exec", request -> FakeResponse.json(201, "{\"Id\": \"exec-1\"}"));
+        engine.route("POST", "/exec/exec-1/start", request -> FakeResponse.multiplexedLogs("hello\n", "warning"));
+        engine.route("GET", "/exec/exec-1/json", request -> FakeResponse.json(200, "{\"ExitCode\": 3}"));
+
+        // When
+        ProcessOutput processOutput = containerService.execInContainer(ContainerExecOptions
+                .builder()
+                .containerName("pool-1")
+                .user("111:111")
+                .workingDirectory("/app")
+                .command(List.of("/bin/sh", "-c", "./entrypoint-$TEST_CASE_ID.sh"))
+                .envVariables(Map.of("TEST_CASE_ID", "1"))
+                .timeout(5000)
+                .build());
+
+        // Then
+        Assertions.assertEquals("hello\n", processOutput.getStdOut());
+        Assertions.assertEquals("warning", processOutput.getStdErr());
+        Assertions.assertEquals(3, processOutput.getStatus());
+
+        String execBody = engine.getRequests().get(0).getBodyAsString();
+        Assertions.assertTrue(execBody.contains("\"User\":\"111:111\""));
+        Assertions.assertTrue(execBody.contains("\"Cmd\":[\"/bin/sh\",\"-c\",\"./entrypoint-$TEST_CASE_ID.sh\"]"));
+        Assertions.assertTrue(execBody.contains("\"TEST_CASE_ID=1\""));
+    }
+
+    @Test
+    void startIdleContainerShouldOverrideTheEntrypointAndDisableTheNetwork() {
+        // Given
+        engine.route("POST", "/containers/create", request -> FakeResponse.json(201, "{\"Id\": \"id\"}"));
+        engine.route("POST", "/containers/pool-1/start", request -> FakeResponse.empty(204));
+
+        // When
+        containerService.startIdleContainer("python:3", "pool-1", "/app", 1);
+
+        // Then
+        Assertions.assertEquals("/containers/create?name=pool-1", engine.getRequests().get(0).path);
+        String createBody = engine.getRequests().get(0).getBodyAsString();
+        Assertions.assertTrue(createBody.contains("\"Entrypoint\":[\"tail\"]"));
+        Assertions.assertTrue(createBody.contains("\"NetworkMode\":\"none\""));
+        Assertions.assertTrue(createBody.contains("\"WorkingDir\":\"/app\""));
+    }
+
+    @Test
+    void startContainerShouldStartTheContainerWithoutWaitingForIt() {
+        // Given
+        engine.route("POST", "/containers/create", request -> FakeResponse.json(201, "{\"Id\": \"id\"}"));
+        engine.route("POST", "/containers/compile-server-1/start", request -> FakeResponse.empty(204));
+
+        // When
+        containerService.startContainer(ContainerRunOptions
+                .builder()
+                .imageName("compile-server.java")
+                .containerName("compile-server-1")
+                .network("none")
+                .envVariables(Map.of("COMPILE_SERVER_MAX_HEAP", "512m"))
+                .mounts(List.of(ContainerMount.builder().source("/compiler").target("/app").build()))
+                .build());
+
+        // Then
+        Assertions.assertEquals(2, engine.getRequests().size());
+        String createBody = engine.getRequests().get(0).getBodyAsString();
+        Assertions.assertTrue(createBody.contains("\"NetworkMode\":\"none\""));
+        Assertions.assertTrue(createBody.contains("\"COMPILE_SERVER_MAX_HEAP=512m\""));
+        Assertions.assertTrue(createBody.contains("\"Binds\":[\"/compiler:/app\"]"));
+    }
+
+    @Test
+    void inspectShouldMapTheContainerState() {
+        // Given
+        engine.route("GET", "/containers/execution-1/json", request -> FakeResponse.json(200,
+                "{\"Created\": \"2022-09-04T10:15:30.000000001Z\", \"State\": {\"Status\": \"exited\", " +
+                        "\"ExitCode\": 137, \"Error\": \"\", \"StartedAt\": \"2022-09-04T10:15:31Z\", " +
+                        "\"FinishedAt\": \"2022-09-04T10:15:32Z\"}}"));
+
+        // When
+        ContainerInfo containerInfo = containerService.inspect("execution-1");
+
+        // Then
+        Assertions.assertEquals("exited", containerInfo.getStatus());
+        Assertions.assertEquals(137, containerInfo.getExitCode());
+        Assertions.assertEquals(31, containerInfo.getStartTime().getSecond());
+        Assertions.assertEquals(32, containerInfo.getEndTime().getSecond());
+    }
+
+    @Test
+    void buildImageShouldSendTheContextAndFailOnErrorMessages() throws IOException {
+        // Given
+        Path context = Files.createTempDirectory("context");
+        Files.writeString(context.resolve("Dockerfile.test"), "FROM scratch");
+        engine.route("POST", "/build", request -> FakeResponse.json(200, "{\"stream\": \"Step 1/1\"}\n{\"error\": \"failed\"}"));
+
+        // When / Then
+        Assertions.assertThrows(
+                ContainerFailedDependencyException.class,
+                () -> containerService.buildImage(context.toString(), "image-1", "Dockerfile.test"));
+        var request = engine.getRequests().get(0);
+        Assertions.assertEquals("/build?t=image-1&dockerfile=Dockerfile.test&rm=1", request.path);
+        // One 512 bytes header, one block of content and two empty blocks
+        Assertions.assertEquals(4 * 512, request.body.length);
+        Assertions.assertTrue(request.getBodyAsString().startsWith("Dockerfile.test"));
+    }
+
+    @Test
+    void deleteContainerShouldIgnoreAlreadyDeletedContainers() {
+        // Given
+        engine.route("DELETE", "/containers/execution-1", request -> FakeResponse.json(404, "{\"message\": \"No such container\"}"));
+
+        // When / Then
+        Assertions.assertDoesNotThrow(() -> containerService.deleteContainer("execution-1"));
+    }
+
+    @Test
+    void getRunningContainersAndGetImagesShouldReturnTheSameTablesAsTheDockerCli() {
+        // Given
+        engine.route("GET", "/containers/json", request -> FakeResponse.json(200,
+                "[{\"Id\": \"4f5a6b7c8d9e0f1a\", \"Names\": [\"/execution-1\"], \"Image\": \"image\", \"Command\": \"sh\", " +
+                        "\"Created\": 0, \"Status\": \"Up 1 second\", \"Ports\": []}]"));
+        engine.route("GET", "/images/json", request -> FakeResponse.json(200,
+                "[{\"Id\": \"sha256:0123456789abcdef\", \"RepoTags\": [\"image:latest\"], \"Created\": 0, \"Size\": 1000}]"));
+
+        // When
+        String containers = containerService.getRunningContainers();
+        String images = containerService.getImages();
+
+        // Then
+        Assertions.assertTrue(containers.startsWith("CONTAINER ID   IMAGE"));
+        Assertions.assertTrue(containers.contains("4f5a6b7c8d9e   image"));
+        Assertions.assertTrue(containers.trim().endsWith("execution-1"));
+        Assertions.assertTrue(images.startsWith("REPOSITORY   TAG"));
+        Assertions.assertTrue(images.contains("image        latest    0123456789ab"));
+        Assertions.assertTrue(images.trim().endsWith("1kB"));
+    }
+
+    @Test
+    void deleteContainersShouldDeleteTheOtherContainersWhenOneFails() {
+        // Given
+        engine.route("DELETE", "/containers/execution-1", request -> FakeResponse.json(500, "{\"message\": \"Driver error\"}"));
+        engine.route("DELETE", "/containers/execution-2", request -> FakeResponse.empty(204));
+
+        // When / Then
+        Assertions.assertThrows(
+                ContainerFailedDependencyException.class,
+                () -> containerService.deleteContainers(List.of("execution-1", "execution-2")));
+        Assertions.assertEquals(2, engine.getRequests().size());
+        Assertions.assertTrue(engine.getRequests().get(1).path.startsWith("/containers/execution-2?force=1"));
+    }
+
+    @Test
+    void connectionsShouldBeReusedBetweenRequests() {
+        // Given
+        engine.route("GET", "/_ping", request -> FakeResponse.json(200, "OK"));
+        int numberOfRequests = 200;
+
+        // When
+        long start = System.nanoTime();
+        for (int i = 0; i < numberOfRequests; i++) {
+            Assertions.assertTrue(containerService.isUp());
+        }
+        long averageLatency = (System.nanoTime() - start) / numberOfRequests;
+
+        // Then
+        log.info("Average latency of a request to the docker engine: {} µs", averageLatency / 1000);
+        Assertions.assertEquals(1, engine.getAcceptedConnections());
+        Assertions.assertEquals(1, engineClient.getOpenedConnectionsCount());
+    }
+}
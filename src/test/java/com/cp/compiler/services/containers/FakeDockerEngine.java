@@ -0,0 +1,252 @@
+package com.cp.compiler.services.containers;
+
+import org.newsclub.net.unix.AFUNIXServerSocket;
+import org.newsclub.net.unix.AFUNIXSocketAddress;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Minimal docker engine listening on a unix socket, used to test the engine api client.
+ * Routes are matched on "METHOD path" prefixes, connections are kept alive like the real engine does.
+ */
+class FakeDockerEngine implements Closeable {
+
+    private final Path socketFile;
+
+    private final AFUNIXServerSocket serverSocket;
+
+    private final Map<String, Function<FakeRequest, FakeResponse>> routes = new ConcurrentHashMap<>();
+
+    private final List<FakeRequest> requests = new CopyOnWriteArrayList<>();
+
+    private final List<Socket> sockets = new CopyOnWriteArrayList<>();
+
+    private final AtomicInteger acceptedConnections = new AtomicInteger();
+
+    FakeDockerEngine() throws IOException {
+        socketFile = Files.createTempDirectory("engine").resolve("docker.sock");
+        serverSocket = AFUNIXServerSocket.newInstance();
+        serverSocket.bind(new AFUNIXSocketAddress(socketFile.toFile()));
+        Thread acceptThread = new Thread(this::acceptConnections, "fake-docker-engine");
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+    }
+
+    String getHost() {
+        return "unix://" + socketFile.toAbsolutePath();
+    }
+
+    int getAcceptedConnections() {
+        return acceptedConnections.get();
+    }
+
+    List<FakeRequest> getRequests() {
+        return requests;
+    }
+
+    void route(String method, String pathPrefix, Function<FakeRequest, FakeResponse> handler) {
+        routes.put(method + " " + pathPrefix, handler);
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        for (Socket socket : sockets) {
+            socket.close();
+        }
+        Files.deleteIfExists(socketFile);
+    }
+
+    private void acceptConnections() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                acceptedConnections.incrementAndGet();
+                sockets.add(socket);
+                Thread connectionThread = new Thread(() -> serve(socket), "fake-docker-engine-connection");
+                connectionThread.setDaemon(true);
+                connectionThread.start();
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket) {
+            InputStream inputStream = new BufferedInputStream(socket.getInputStream());
+            OutputStream outputStream = socket.getOutputStream();
+            FakeRequest request;
+            while ((request = readRequest(inputStream)) != null) {
+                requests.add(request);
+                FakeResponse response = handle(request);
+                outputStream.write(response.head().getBytes(StandardCharsets.US_ASCII));
+                outputStream.write(response.body);
+                outputStream.flush();
+                if (response.hang) {
+                    // Never finishes the response, like a container that keeps running
+                    while (socket.getInputStream().read() != -1) {
+                        // wait for the client to close the connection
+                    }
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            // connection closed by the client
+        }
+    }
+
+    private FakeResponse handle(FakeRequest request) {
+        String key = request.method + " " + request.path;
+        return routes.entrySet()
+                .stream()
+                .filter(route -> key.startsWith(route.getKey()))
+                .max((first, second) -> Integer.compare(first.getKey().length(), second.getKey().length()))
+                .map(route -> route.getValue().apply(request))
+                .orElse(FakeResponse.json(404, "{\"message\": \"page not found\"}"));
+    }
+
+    private static FakeRequest readRequest(InputStream inputStream) throws IOException {
+        String requestLine = readLine(inputStream);
+        if (requestLine == null || requestLine.isEmpty()) {
+            return null;
+        }
+        String[] parts = requestLine.split(" ");
+        Map<String, String> headers = new ConcurrentHashMap<>();
+        String line;
+        while ((line = readLine(inputStream)) != null && !line.isEmpty()) {
+            int separator = line.indexOf(':');
+            headers.put(line.substring(0, separator).trim().toLowerCase(Locale.ROOT), line.substring(separator + 1).trim());
+        }
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        if ("chunked".equals(headers.get("transfer-encoding"))) {
+            int size;
+            while ((size = Integer.parseInt(readLine(inputStream), 16)) > 0) {
+                body.write(inputStream.readNBytes(size));
+                readLine(inputStream);
+            }
+            readLine(inputStream);
+        } else if (headers.containsKey("content-length")) {
+            body.write(inputStream.readNBytes(Integer.parseInt(headers.get("content-length"))));
+        }
+        return new FakeRequest(parts[0], parts[1], body.toByteArray());
+    }
+
+    private static String readLine(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int b;
+        while ((b = inputStream.read()) != -1 && b != '\n') {
+            if (b != '\r') {
+                line.write(b);
+            }
+        }
+        if (b == -1 && line.size() == 0) {
+            return null;
+        }
+        return line.toString(StandardCharsets.US_ASCII);
+    }
+
+    static class FakeRequest {
+
+        final String method;
+
+        final String path;
+
+        final byte[] body;
+
+        FakeRequest(String method, String path, byte[] body) {
+            this.method = method;
+            this.path = path;
+            this.body = body;
+        }
+
+        String getBodyAsString() {
+            return new String(body, StandardCharsets.UTF_8);
+        }
+    }
+
+    static class FakeResponse {
+
+        private final int status;
+
+        private final byte[] body;
+
+        private final boolean chunked;
+
+        private final boolean hang;
+
+        private FakeResponse(int status, byte[] body, boolean chunked, boolean hang) {
+            this.status = status;
+            this.body = body;
+            this.chunked = chunked;
+            this.hang = hang;
+        }
+
+        static FakeResponse json(int status, String json) {
+            return new FakeResponse(status, json.getBytes(StandardCharsets.UTF_8), false, false);
+        }
+
+        static FakeResponse empty(int status) {
+            return new FakeResponse(status, new byte[0], false, false);
+        }
+
+        // Logs of a container created without a tty, sent with chunked transfer encoding
+        static FakeResponse multiplexedLogs(String stdOut, String stdErr) {
+            ByteArrayOutputStream frames = new ByteArrayOutputStream();
+            writeFrame(frames, 1, stdOut);
+            writeFrame(frames, 2, stdErr);
+            byte[] content = frames.toByteArray();
+            ByteArrayOutputStream chunked = new ByteArrayOutputStream();
+            // one byte per chunk for the first frame header to exercise partial reads
+            int offset = 0;
+            while (offset < content.length) {
+                int size = offset < 8 ? 1 : content.length - offset;
+                chunked.writeBytes((Integer.toHexString(size) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+                chunked.write(content, offset, size);
+                chunked.writeBytes("\r\n".getBytes(StandardCharsets.US_ASCII));
+                offset += size;
+            }
+            chunked.writeBytes("0\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+            return new FakeResponse(200, chunked.toByteArray(), true, false);
+        }
+
+        static FakeResponse hanging() {
+            return new FakeResponse(200, new byte[0], true, true);
+        }
+
+        private static void writeFrame(ByteArrayOutputStream frames, int stream, String content) {
+            byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+            int size = bytes.length;
+            frames.writeBytes(new byte[]{(byte) stream, 0, 0, 0,
+                    (byte) (size >>> 24), (byte) (size >>> 16), (byte) (size >>> 8), (byte) size});
+            frames.writeBytes(bytes);
+        }
+
+        private String head() {
+            StringBuilder head = new StringBuilder("HTTP/1.1 ").append(status).append(" OK\r\n")
+                    .append("Content-Type: application/json\r\n");
+            if (chunked) {
+                head.append("Transfer-Encoding: chunked\r\n");
+            } else {
+                head.append("Content-Length: ").append(body.length).append("\r\n");
+            }
+            return head.append("\r\n").toString();
+        }
+    }
+}
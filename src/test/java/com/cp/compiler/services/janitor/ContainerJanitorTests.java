@@ -0,0 +1,127 @@
+package com.cp.compiler.services.janitor;
+
+import com.cp.compiler.services.containers.ContainerService;
+import com.cp.compiler.wellknownconstants.WellKnownMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+class ContainerJanitorTests {
+
+    private static final long ASYNC_TIMEOUT = 5000;
+
+    private ContainerService containerService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ContainerJanitorDefault janitor;
+
+    // The worker is blocked while deleting the first container, until the test releases it
+    private final CountDownLatch workerBlocked = new CountDownLatch(1);
+
+    private final CountDownLatch workersReleased = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        containerService = Mockito.mock(ContainerService.class);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        workersReleased.countDown();
+        if (janitor != null) {
+            janitor.close();
+        }
+    }
+
+    @Test
+    void deletionsShouldBeCoalescedIntoBatchesWithTheContainersBeforeTheImages() throws InterruptedException {
+        // Given
+        janitor = createJanitor(10, 10);
+        blockWorkerOnFirstContainer();
+
+        // When
+        janitor.deleteImage("image-1");
+        janitor.deleteContainer("execution-1");
+        janitor.deleteContainer("execution-2");
+        janitor.deleteContainer("execution-2");
+        workersReleased.countDown();
+
+        // Then
+        InOrder inOrder = Mockito.inOrder(containerService);
+        inOrder.verify(containerService, Mockito.timeout(ASYNC_TIMEOUT)).deleteContainers(List.of("first"));
+        inOrder.verify(containerService, Mockito.timeout(ASYNC_TIMEOUT)).deleteContainers(List.of("execution-1", "execution-2"));
+        inOrder.verify(containerService, Mockito.timeout(ASYNC_TIMEOUT)).deleteImages(List.of("image-1"));
+        Mockito.verify(containerService, Mockito.never()).deleteContainer(ArgumentMatchers.any());
+        Mockito.verify(containerService, Mockito.never()).deleteImage(ArgumentMatchers.any());
+
+        var batchSize = meterRegistry.get(WellKnownMetrics.JANITOR_BATCH_SIZE_SUMMARY).summary();
+        long deadline = System.currentTimeMillis() + ASYNC_TIMEOUT;
+        while (batchSize.count() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertEquals(2, batchSize.count());
+        Assertions.assertEquals(5, batchSize.totalAmount());
+        Assertions.assertEquals(5, meterRegistry.get(WellKnownMetrics.JANITOR_LAG_TIMER).timer().count());
+    }
+
+    @Test
+    void batchesShouldNotExceedTheMaxBatchSize() throws InterruptedException {
+        // Given
+        janitor = createJanitor(10, 2);
+        blockWorkerOnFirstContainer();
+
+        // When
+        janitor.deleteContainer("execution-1");
+        janitor.deleteContainer("execution-2");
+        janitor.deleteContainer("execution-3");
+        Assertions.assertEquals(3, janitor.getQueueDepth());
+        workersReleased.countDown();
+
+        // Then
+        Mockito.verify(containerService, Mockito.timeout(ASYNC_TIMEOUT)).deleteContainers(List.of("execution-1", "execution-2"));
+        Mockito.verify(containerService, Mockito.timeout(ASYNC_TIMEOUT)).deleteContainers(List.of("execution-3"));
+    }
+
+    @Test
+    void theCallerShouldDeleteTheResourceWhenTheQueueIsFull() throws InterruptedException {
+        // Given
+        janitor = createJanitor(1, 10);
+        blockWorkerOnFirstContainer();
+        janitor.deleteContainer("queued");
+
+        // When
+        janitor.deleteContainer("overflow");
+
+        // Then
+        // Deleted by the test thread, while the worker is still blocked
+        Mockito.verify(containerService).deleteContainers(List.of("overflow"));
+        Assertions.assertEquals(1, janitor.getQueueDepth());
+        Assertions.assertEquals(1.0, meterRegistry.get(WellKnownMetrics.JANITOR_QUEUE_DEPTH_GAUGE).gauge().value());
+    }
+
+    private ContainerJanitorDefault createJanitor(int queueCapacity, int maxBatchSize) {
+        var containerJanitor = new ContainerJanitorDefault(containerService, meterRegistry, 1, queueCapacity, maxBatchSize, 10);
+        containerJanitor.init();
+        return containerJanitor;
+    }
+
+    private void blockWorkerOnFirstContainer() throws InterruptedException {
+        Mockito.doAnswer(invocation -> {
+            workerBlocked.countDown();
+            return workersReleased.await(ASYNC_TIMEOUT, TimeUnit.MILLISECONDS);
+        }).when(containerService).deleteContainers(List.of("first"));
+        janitor.deleteContainer("first");
+        Assertions.assertTrue(workerBlocked.await(ASYNC_TIMEOUT, TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,134 @@
+package com.cp.compiler.services.janitor;
+
+import com.cp.compiler.models.Language;
+import com.cp.compiler.models.containers.ContainerResource;
+import com.cp.compiler.models.containers.ReaperReport;
+import com.cp.compiler.services.containers.ContainerService;
+import com.cp.compiler.wellknownconstants.WellKnownFolders;
+import com.cp.compiler.wellknownconstants.WellKnownMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+class OrphanedArtifactsReaperTests {
+
+    private static final long MIN_AGE = 3600;
+
+    private static final Instant OLD = Instant.now().minus(Duration.ofHours(2));
+
+    private static final Instant RECENT = Instant.now().minus(Duration.ofMinutes(5));
+
+    @TempDir
+    Path workingDirectory;
+
+    private ContainerService containerService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private OrphanedArtifactsReaperDefault reaper;
+
+    @BeforeEach
+    void setUp() {
+        containerService = Mockito.mock(ContainerService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        reaper = new OrphanedArtifactsReaperDefault(
+                containerService, meterRegistry, false, 600, MIN_AGE, List.of(workingDirectory));
+        reaper.init();
+    }
+
+    @Test
+    void reapShouldRemoveTheOldContainersAndImagesMatchingTheExecutionPrefixes() {
+        // Given
+        Mockito.when(containerService.listContainers()).thenReturn(List.of(
+                new ContainerResource("compilation-image-1", OLD),
+                new ContainerResource("execution-1-image-1", OLD),
+                new ContainerResource("execution-runner-1-image-1", OLD),
+                new ContainerResource("execution-1-image-2", RECENT),
+                new ContainerResource("pool-java-1", OLD),
+                new ContainerResource("compile-server-java-1", OLD),
+                // Replaced by the pools of a running instance before reaching the min age
+                new ContainerResource("pool-java-2", RECENT),
+                new ContainerResource("compile-server-java-2", RECENT),
+                new ContainerResource("database", OLD)));
+        Mockito.when(containerService.listImages()).thenReturn(List.of(
+                new ContainerResource("image-1:latest", OLD),
+                new ContainerResource("image-2:latest", RECENT),
+                new ContainerResource("python:3", OLD)));
+
+        // When
+        ReaperReport report = reaper.reap();
+
+        // Then
+        var inOrder = Mockito.inOrder(containerService);
+        inOrder.verify(containerService).deleteContainers(List.of(
+                "compilation-image-1",
+                "execution-1-image-1",
+                "execution-runner-1-image-1",
+                "pool-java-1",
+                "compile-server-java-1"));
+        inOrder.verify(containerService).deleteImages(List.of("image-1:latest"));
+        Mockito.verify(containerService, Mockito.times(1)).deleteContainers(ArgumentMatchers.any());
+        Assertions.assertEquals(5, report.getContainers().size());
+        Assertions.assertEquals(List.of("image-1:latest"), report.getImages());
+        Assertions.assertEquals(5,
+                meterRegistry.get(WellKnownMetrics.REAPER_RECLAIMED_COUNTER).tag("type", "container").counter().count());
+    }
+
+    @Test
+    void reapShouldRemoveTheOldExecutionFolders() throws IOException {
+        // Given
+        Path languageFolder = workingDirectory.resolve(Language.PYTHON.getFolderName());
+        Path oldExecution = createExecutionFolder(languageFolder.resolve("execution-1"), OLD);
+        Path recentExecution = createExecutionFolder(languageFolder.resolve("execution-2"), RECENT);
+        Path otherFolder = createExecutionFolder(languageFolder.resolve("other"), OLD);
+
+        // When
+        ReaperReport report = reaper.reap();
+
+        // Then
+        Assertions.assertFalse(Files.exists(oldExecution));
+        Assertions.assertTrue(Files.exists(recentExecution));
+        Assertions.assertTrue(Files.exists(otherFolder));
+        Assertions.assertEquals(List.of(oldExecution.toString()), report.getExecutionFolders());
+        Assertions.assertEquals(5, report.getReclaimedBytes());
+        Assertions.assertEquals(5, meterRegistry.get(WellKnownMetrics.REAPER_RECLAIMED_BYTES_COUNTER).counter().count());
+        Mockito.verify(containerService, Mockito.never()).deleteContainers(ArgumentMatchers.any());
+        Mockito.verify(containerService, Mockito.never()).deleteImages(ArgumentMatchers.any());
+    }
+
+    @Test
+    void reapShouldRemoveTheOldSpooledRequests() throws IOException {
+        // Given
+        Path spoolFolder = workingDirectory.resolve(WellKnownFolders.SPOOL_FOLDER_NAME);
+        Path oldRequest = createExecutionFolder(spoolFolder.resolve("request-1"), OLD);
+        Path recentRequest = createExecutionFolder(spoolFolder.resolve("request-2"), RECENT);
+
+        // When
+        ReaperReport report = reaper.reap();
+
+        // Then
+        Assertions.assertFalse(Files.exists(oldRequest));
+        Assertions.assertTrue(Files.exists(recentRequest));
+        Assertions.assertEquals(List.of(oldRequest.toString()), report.getExecutionFolders());
+    }
+
+    private static Path createExecutionFolder(Path folder, Instant lastModifiedTime) throws IOException {
+        Files.createDirectories(folder);
+        Files.writeString(folder.resolve("main.py"), "print", StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(folder, FileTime.from(lastModifiedTime));
+        return folder;
+    }
+}
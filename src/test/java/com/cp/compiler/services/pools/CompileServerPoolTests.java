@@ -0,0 +1,198 @@
+package com.cp.compiler.services.pools;
+
+import com.cp.compiler.exceptions.ContainerOperationTimeoutException;
+import com.cp.compiler.models.Language;
+import com.cp.compiler.models.containers.ContainerExecOptions;
+import com.cp.compiler.models.containers.ContainerRunOptions;
+import com.cp.compiler.models.processes.ProcessOutput;
+import com.cp.compiler.services.containers.ContainerService;
+import com.cp.compiler.services.resources.Resources;
+import com.cp.compiler.utils.StatusUtils;
+import com.cp.compiler.wellknownconstants.WellKnownMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import java.util.List;
+
+class CompileServerPoolTests {
+
+    private static final long ASYNC_TIMEOUT = 5000;
+
+    private static final long COMPILATION_TIMEOUT = 60000;
+
+    private ContainerService containerService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private CompileServerPoolDefault pool;
+
+    @BeforeEach
+    void setUp() {
+        containerService = Mockito.mock(ContainerService.class);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    @Test
+    void compileShouldReturnEmptyWhenTheCompileServersAreDisabledOrNotSupported() throws InterruptedException {
+        // Given
+        var disabledPool = createPool(0, 100);
+        pool = createPool(1, 100);
+        waitForIdleServers(Language.JAVA, 1);
+
+        // When / Then
+        Assertions.assertTrue(disabledPool.compile(Language.JAVA, "executions/1", "Main.java", COMPILATION_TIMEOUT).isEmpty());
+        Assertions.assertTrue(pool.compile(Language.C, "executions/1", "main.c", COMPILATION_TIMEOUT).isEmpty());
+        Mockito.verify(containerService, Mockito.never()).execInContainer(ArgumentMatchers.any());
+    }
+
+    @Test
+    void initShouldStartTheCompileServersWithTheVolumeMountedAndNoNetwork() throws InterruptedException {
+        // Given
+        pool = createPool(1, 100);
+
+        // When
+        waitForIdleServers(Language.KOTLIN, 1);
+
+        // Then
+        var runOptions = ArgumentCaptor.forClass(ContainerRunOptions.class);
+        Mockito.verify(containerService, Mockito.timeout(ASYNC_TIMEOUT).times(3)).startContainer(runOptions.capture());
+        ContainerRunOptions kotlinServer = runOptions.getAllValues()
+                .stream()
+                .filter(options -> options.getImageName().equals("compile-server.kotlin"))
+                .findFirst()
+                .orElseThrow();
+        Assertions.assertTrue(kotlinServer.getContainerName().startsWith("compile-server-kotlin-"));
+        Assertions.assertEquals("none", kotlinServer.getNetwork());
+        Assertions.assertEquals("256m", kotlinServer.getEnvVariables().get("COMPILE_SERVER_MAX_HEAP"));
+        Assertions.assertEquals("/volume", kotlinServer.getMounts().get(0).getSource());
+        Assertions.assertEquals("/app", kotlinServer.getMounts().get(0).getTarget());
+    }
+
+    @Test
+    void compileShouldSendTheJobToAnIdleServerAndMapCompilationErrors() throws InterruptedException {
+        // Given
+        pool = createPool(1, 100);
+        waitForIdleServers(Language.JAVA, 1);
+        Mockito.when(containerService.execInContainer(ArgumentMatchers.any(ContainerExecOptions.class)))
+                .thenReturn(output(65, "Main.java:1: error: ';' expected"));
+
+        // When
+        var compilationOutput = pool.compile(Language.JAVA, "executions/1", "Main.java", COMPILATION_TIMEOUT);
+
+        // Then
+        Assertions.assertTrue(compilationOutput.isPresent());
+        Assertions.assertEquals(StatusUtils.COMPILATION_ERROR_STATUS, compilationOutput.get().getStatus());
+        Assertions.assertEquals("Main.java:1: error: ';' expected", compilationOutput.get().getStdErr());
+        Mockito.verify(containerService).execInContainer(ArgumentMatchers.argThat(options ->
+                options.getCommand().equals(List.of("/bin/sh", "/compile-server/compile.sh", "executions/1", "Main.java"))
+                        && options.getTimeout() == COMPILATION_TIMEOUT));
+        // The server is given back to the pool
+        Assertions.assertEquals(1, pool.getIdleServersCount(Language.JAVA));
+        Assertions.assertEquals(1,
+                meterRegistry.get(WellKnownMetrics.COMPILE_SERVER_HIT_COUNTER).tag("language", "java").counter().count());
+    }
+
+    @Test
+    void serversShouldBeReplacedAfterMaxJobsOrWhenTheyFail() throws InterruptedException {
+        // Given
+        pool = createPool(1, 2);
+        waitForIdleServers(Language.SCALA, 1);
+        Mockito.when(containerService.execInContainer(ArgumentMatchers.any(ContainerExecOptions.class)))
+                .thenReturn(output(0, ""))
+                .thenReturn(output(0, ""))
+                .thenReturn(output(70, "The compile server ran out of memory"));
+
+        // When
+        var firstOutput = pool.compile(Language.SCALA, "executions/1", "Main.scala", COMPILATION_TIMEOUT);
+        var secondOutput = pool.compile(Language.SCALA, "executions/2", "Main.scala", COMPILATION_TIMEOUT);
+        waitForIdleServers(Language.SCALA, 1);
+        var failedOutput = pool.compile(Language.SCALA, "executions/3", "Main.scala", COMPILATION_TIMEOUT);
+
+        // Then
+        Assertions.assertEquals(0, firstOutput.orElseThrow().getStatus());
+        Assertions.assertEquals(0, secondOutput.orElseThrow().getStatus());
+        // The source code should be compiled in a container instead
+        Assertions.assertTrue(failedOutput.isEmpty());
+        Mockito.verify(containerService, Mockito.timeout(ASYNC_TIMEOUT).times(2))
+                .deleteContainer(ArgumentMatchers.startsWith("compile-server-scala-"));
+        waitForIdleServers(Language.SCALA, 1);
+    }
+
+    @Test
+    void compileShouldReturnATimeLimitExceededOutputAndDiscardTheServerWhenTheCompilationTimesOut()
+            throws InterruptedException {
+        // Given
+        pool = createPool(1, 100);
+        waitForIdleServers(Language.JAVA, 1);
+        Mockito.when(containerService.execInContainer(ArgumentMatchers.any(ContainerExecOptions.class)))
+                .thenThrow(new ContainerOperationTimeoutException("The compilation timed out"));
+
+        // When
+        var compilationOutput = pool.compile(Language.JAVA, "executions/1", "Main.java", COMPILATION_TIMEOUT);
+
+        // Then
+        // The source code shouldn't be compiled again in a container
+        Assertions.assertTrue(compilationOutput.isPresent());
+        Assertions.assertEquals(StatusUtils.TIME_LIMIT_EXCEEDED_STATUS, compilationOutput.get().getStatus());
+        Mockito.verify(containerService, Mockito.timeout(ASYNC_TIMEOUT))
+                .deleteContainer(ArgumentMatchers.startsWith("compile-server-java-"));
+    }
+
+    @Test
+    void idleServersShouldBeReplacedBeforeTheReaperRemovesThem() throws InterruptedException {
+        // Given
+        pool = createPool(1, 100, 1);
+        waitForIdleServers(Language.JAVA, 1);
+
+        // When
+        Mockito.verify(containerService, Mockito.timeout(ASYNC_TIMEOUT))
+                .deleteContainer(ArgumentMatchers.startsWith("compile-server-java-"));
+
+        // Then
+        waitForIdleServers(Language.JAVA, 1);
+    }
+
+    private CompileServerPoolDefault createPool(int size, int maxJobs) {
+        return createPool(size, maxJobs, 3600);
+    }
+
+    private CompileServerPoolDefault createPool(int size, int maxJobs, long reaperMinAge) {
+        var resources = Mockito.mock(Resources.class);
+        Mockito.when(resources.getMaxCpus()).thenReturn(1f);
+        var compileServerPool =
+                new CompileServerPoolDefault(
+                        containerService, meterRegistry, resources, size, maxJobs, "256m", "/volume", "", reaperMinAge);
+        compileServerPool.init();
+        return compileServerPool;
+    }
+
+    private void waitForIdleServers(Language language, int expectedCount) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + ASYNC_TIMEOUT;
+        while (pool.getIdleServersCount(language) != expectedCount && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertEquals(expectedCount, pool.getIdleServersCount(language));
+    }
+
+    private static ProcessOutput output(int status, String stdErr) {
+        return ProcessOutput
+                .builder()
+                .stdOut("")
+                .stdErr(stdErr)
+                .status(status)
+                .build();
+    }
+}
@@ -0,0 +1,186 @@
+package com.cp.compiler.services.pools;
+
+import com.cp.compiler.exceptions.ContainerFailedDependencyException;
+import com.cp.compiler.models.Language;
+import com.cp.compiler.models.containers.ContainerExecOptions;
+import com.cp.compiler.models.containers.PooledContainer;
+import com.cp.compiler.models.processes.ProcessOutput;
+import com.cp.compiler.services.containers.ContainerService;
+import com.cp.compiler.services.resources.Resources;
+import com.cp.compiler.wellknownconstants.WellKnownMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+class ExecutionContainerPoolTests {
+
+    private static final long ASYNC_TIMEOUT = 5000;
+
+    private ContainerService containerService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ExecutionContainerPoolDefault pool;
+
+    @BeforeEach
+    void setUp() {
+        containerService = Mockito.mock(ContainerService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        Mockito.when(containerService.execInContainer(ArgumentMatchers.any(ContainerExecOptions.class)))
+                .thenReturn(ProcessOutput.builder().stdOut("").stdErr("").status(0).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    @Test
+    void claimShouldReturnEmptyWhenThePoolIsDisabled() {
+        // Given
+        pool = createPool(0, "");
+
+        // When / Then
+        Assertions.assertTrue(pool.claim(Language.JAVA).isEmpty());
+        Mockito.verify(containerService, Mockito.never())
+                .startIdleContainer(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.anyFloat());
+    }
+
+    @Test
+    void initShouldStartContainersFromTheBaseImageOfTheExecutionDockerfile() throws InterruptedException {
+        // Given
+        pool = createPool(0, "PYTHON:2");
+
+        // When
+        waitForIdleContainers(Language.PYTHON, 2);
+
+        // Then
+        Mockito.verify(containerService, Mockito.times(2)).startIdleContainer(
+                ArgumentMatchers.eq("python:3"),
+                ArgumentMatchers.startsWith("pool-python-"),
+                ArgumentMatchers.eq(ExecutionContainerPool.WORKING_DIRECTORY),
+                ArgumentMatchers.anyFloat());
+        Assertions.assertEquals(0, pool.getIdleContainersCount(Language.JAVA));
+    }
+
+    @Test
+    void claimShouldCountHitsAndMisses() throws InterruptedException {
+        // Given
+        pool = createPool(1, "");
+        waitForIdleContainers(Language.JAVA, 1);
+
+        // When
+        var firstClaim = pool.claim(Language.JAVA);
+        var secondClaim = pool.claim(Language.JAVA);
+
+        // Then
+        Assertions.assertTrue(firstClaim.isPresent());
+        Assertions.assertTrue(secondClaim.isEmpty());
+        Assertions.assertEquals(1,
+                meterRegistry.get(WellKnownMetrics.EXECUTION_POOL_HIT_COUNTER).tag("language", "java").counter().count());
+        Assertions.assertEquals(1,
+                meterRegistry.get(WellKnownMetrics.EXECUTION_POOL_MISS_COUNTER).tag("language", "java").counter().count());
+        Assertions.assertEquals(2,
+                meterRegistry.get(WellKnownMetrics.EXECUTION_POOL_WAIT_TIMER).tag("language", "java").timer().count());
+    }
+
+    @Test
+    void releaseShouldResetAndRecycleReusableContainers() throws InterruptedException {
+        // Given
+        pool = createPool(1, "");
+        waitForIdleContainers(Language.JAVA, 1);
+        PooledContainer container = pool.claim(Language.JAVA).orElseThrow();
+
+        // When
+        pool.release(container);
+
+        // Then
+        waitForIdleContainers(Language.JAVA, 1);
+        Assertions.assertSame(container, pool.claim(Language.JAVA).orElseThrow());
+        Mockito.verify(containerService).execInContainer(ArgumentMatchers.argThat(options ->
+                options.getContainerName().equals(container.getName())
+                        && "root".equals(options.getUser())
+                        && options.getCommand().get(2).contains("-user 111")
+                        && options.getCommand().get(2).contains("/dev/shm/*")));
+        Mockito.verify(containerService, Mockito.never()).deleteContainer(container.getName());
+    }
+
+    @Test
+    void releaseShouldReplaceContainersThatAreNotReusable() throws InterruptedException {
+        // Given
+        pool = createPool(1, "");
+        waitForIdleContainers(Language.JAVA, 1);
+        PooledContainer container = pool.claim(Language.JAVA).orElseThrow();
+        container.setReusable(false);
+
+        // When
+        pool.release(container);
+
+        // Then
+        Mockito.verify(containerService, Mockito.timeout(ASYNC_TIMEOUT)).deleteContainer(container.getName());
+        waitForIdleContainers(Language.JAVA, 1);
+        Assertions.assertNotEquals(container.getName(), pool.claim(Language.JAVA).orElseThrow().getName());
+    }
+
+    @Test
+    void containersThatFailToStartShouldBeReplacedOnTheNextClaim() throws InterruptedException {
+        // Given
+        Mockito.doThrow(new ContainerFailedDependencyException("docker is down"))
+                .doNothing()
+                .when(containerService)
+                .startIdleContainer(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.anyFloat());
+        // Only one language, so that the failed start is the one of its container
+        pool = createPool(0, "JAVA:1");
+        Mockito.verify(containerService, Mockito.timeout(ASYNC_TIMEOUT)).deleteContainer(ArgumentMatchers.anyString());
+
+        // When
+        var claim = pool.claim(Language.JAVA);
+
+        // Then
+        Assertions.assertTrue(claim.isEmpty());
+        waitForIdleContainers(Language.JAVA, 1);
+    }
+
+    @Test
+    void idleContainersShouldBeReplacedBeforeTheReaperRemovesThem() throws InterruptedException {
+        // Given
+        pool = createPool(1, "", 1);
+        waitForIdleContainers(Language.JAVA, 1);
+        PooledContainer container = pool.claim(Language.JAVA).orElseThrow();
+        pool.release(container);
+
+        // When
+        Mockito.verify(containerService, Mockito.timeout(ASYNC_TIMEOUT)).deleteContainer(container.getName());
+
+        // Then
+        waitForIdleContainers(Language.JAVA, 1);
+        Assertions.assertNotEquals(container.getName(), pool.claim(Language.JAVA).orElseThrow().getName());
+    }
+
+    private ExecutionContainerPoolDefault createPool(int size, String sizes) {
+        return createPool(size, sizes, 3600);
+    }
+
+    private ExecutionContainerPoolDefault createPool(int size, String sizes, long reaperMinAge) {
+        var resources = Mockito.mock(Resources.class);
+        Mockito.when(resources.getMaxCpus()).thenReturn(1f);
+        var executionContainerPool =
+                new ExecutionContainerPoolDefault(containerService, meterRegistry, resources, size, sizes, 50, 0, reaperMinAge);
+        executionContainerPool.init();
+        return executionContainerPool;
+    }
+
+    private void waitForIdleContainers(Language language, int expectedCount) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + ASYNC_TIMEOUT;
+        while (pool.getIdleContainersCount(language) != expectedCount && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertEquals(expectedCount, pool.getIdleContainersCount(language));
+    }
+}
@@ -0,0 +1,207 @@
+package com.cp.compiler.services.resources;
+
+import com.cp.compiler.exceptions.CompilerThrottlingException;
+import com.cp.compiler.models.resources.ExecutionLane;
+import com.cp.compiler.models.resources.LaneOccupancy;
+import com.cp.compiler.models.resources.ResourceDemand;
+import com.cp.compiler.wellknownconstants.WellKnownMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+class AdmissionQueueTests {
+
+    private static final float MAX_CPUS = 0.2f;
+
+    private static final ResourceDemand DEMAND = new ResourceDemand(MAX_CPUS, 64, 1024);
+
+    private static final String USER = "user";
+
+    private static final ExecutionLane LANE = ExecutionLane.INTERACTIVE;
+
+    @Test
+    void acquireShouldAdmitTheRequestWhenTheResourcesAreAvailable() {
+        // Given
+        var resources = new ResourcesDefault(MAX_CPUS, 1);
+        var admissionQueue = new AdmissionQueueDefault(resources, new SimpleMeterRegistry(), 10, 1000);
+
+        // When
+        Admission admission = admissionQueue.acquire(USER, LANE, DEMAND);
+
+        // Then
+        Assertions.assertTrue(admission.isAdmitted());
+        Assertions.assertEquals(1, resources.getNumberOfExecutions());
+
+        admissionQueue.release(admission);
+        Assertions.assertEquals(0, resources.getNumberOfExecutions());
+    }
+
+    @Test
+    void releaseShouldHandOverTheResourcesToTheQueuedRequest() throws Exception {
+        // Given
+        var resources = new ResourcesDefault(MAX_CPUS, 1);
+        var admissionQueue = new AdmissionQueueDefault(resources, new SimpleMeterRegistry(), 10, 10000);
+        Admission first = admissionQueue.acquire(USER, LANE, DEMAND);
+        CompletableFuture<Admission> second = CompletableFuture.supplyAsync(() -> admissionQueue.acquire(USER, LANE, DEMAND));
+        awaitQueueDepth(admissionQueue, 1);
+
+        // When
+        admissionQueue.release(first);
+
+        // Then
+        Admission admission = second.get(5, TimeUnit.SECONDS);
+        Assertions.assertTrue(admission.isAdmitted());
+        Assertions.assertEquals(0, admissionQueue.getQueueDepth());
+        Assertions.assertEquals(1, resources.getNumberOfExecutions());
+    }
+
+    @Test
+    void acquireShouldThrowAThrottlingExceptionWhenTheQueueIsFull() throws Exception {
+        // Given
+        var resources = new ResourcesDefault(MAX_CPUS, 1);
+        var admissionQueue = new AdmissionQueueDefault(resources, new SimpleMeterRegistry(), 1, 10000);
+        Admission first = admissionQueue.acquire(USER, LANE, DEMAND);
+        CompletableFuture<Admission> second = CompletableFuture.supplyAsync(() -> admissionQueue.acquire(USER, LANE, DEMAND));
+        awaitQueueDepth(admissionQueue, 1);
+
+        // When / Then
+        Assertions.assertThrows(CompilerThrottlingException.class, () -> admissionQueue.acquire(USER, LANE, DEMAND));
+
+        // Clean up
+        admissionQueue.release(first);
+        admissionQueue.release(second.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void acquireShouldThrowAThrottlingExceptionAfterTheMaxWait() {
+        // Given
+        var resources = new ResourcesDefault(MAX_CPUS, 1);
+        var admissionQueue = new AdmissionQueueDefault(resources, new SimpleMeterRegistry(), 10, 100);
+        admissionQueue.acquire(USER, LANE, DEMAND);
+
+        // When / Then
+        Assertions.assertThrows(CompilerThrottlingException.class, () -> admissionQueue.acquire(USER, LANE, DEMAND));
+        Assertions.assertEquals(0, admissionQueue.getQueueDepth());
+        Assertions.assertEquals(1, resources.getNumberOfExecutions());
+    }
+
+    @Test
+    void acquireShouldThrowAThrottlingExceptionWhenNoExecutionIsAllowed() {
+        // Given
+        var resources = new ResourcesDefault(MAX_CPUS, 0);
+        var admissionQueue = new AdmissionQueueDefault(resources, new SimpleMeterRegistry(), 10, 60000);
+
+        // When / Then
+        Assertions.assertTimeoutPreemptively(Duration.ofSeconds(5), () ->
+                Assertions.assertThrows(CompilerThrottlingException.class, () -> admissionQueue.acquire(USER, LANE, DEMAND)));
+    }
+
+    @Test
+    void releaseShouldServeTheOtherUsersBeforeTheNextRequestsOfAHeavyUser() throws Exception {
+        // Given
+        var resources = new ResourcesDefault(MAX_CPUS, 1);
+        var admissionQueue = new AdmissionQueueDefault(resources, new SimpleMeterRegistry(), 10, 10000);
+        ExecutorService executor = Executors.newCachedThreadPool();
+        Admission first = admissionQueue.acquire("heavy", LANE, DEMAND);
+        for (int i = 1; i <= 3; i++) {
+            executor.submit(() -> admissionQueue.release(admissionQueue.acquire("heavy", LANE, DEMAND)));
+            awaitQueueDepth(admissionQueue, i);
+        }
+        CompletableFuture<Admission> light = CompletableFuture.supplyAsync(() -> admissionQueue.acquire("light", LANE, DEMAND), executor);
+        awaitQueueDepth(admissionQueue, 4);
+
+        // When
+        admissionQueue.release(first);
+
+        // Then
+        Admission admission = light.get(5, TimeUnit.SECONDS);
+        Assertions.assertEquals("light", admission.getUserId());
+        Assertions.assertEquals(3, admissionQueue.getQueueDepth());
+
+        // Clean up
+        admissionQueue.release(admission);
+        awaitQueueDepth(admissionQueue, 0);
+        executor.shutdown();
+    }
+
+    @Test
+    void acquireShouldNotAdmitMoreThanTheMaxRequestsPerUser() throws Exception {
+        // Given
+        var resources = new ResourcesDefault(MAX_CPUS, 10);
+        var admissionQueue = new AdmissionQueueDefault(resources, new SimpleMeterRegistry(), 10, 10000, 1, "", "");
+        Admission first = admissionQueue.acquire(USER, LANE, DEMAND);
+        CompletableFuture<Admission> second = CompletableFuture.supplyAsync(() -> admissionQueue.acquire(USER, LANE, DEMAND));
+        awaitQueueDepth(admissionQueue, 1);
+
+        // When
+        Admission otherUser = admissionQueue.acquire("other", LANE, DEMAND);
+        Admission unknownUser = admissionQueue.acquire(null, LANE, DEMAND);
+
+        // Then
+        Assertions.assertTrue(otherUser.isAdmitted());
+        Assertions.assertEquals(AdmissionQueue.UNKNOWN_USER, unknownUser.getUserId());
+        Assertions.assertFalse(second.isDone());
+
+        admissionQueue.release(first);
+        Assertions.assertTrue(second.get(5, TimeUnit.SECONDS).isAdmitted());
+        Assertions.assertEquals(3, resources.getNumberOfExecutions());
+    }
+
+    @Test
+    void admittedRequestsShouldBeTimedByConfiguredUserOrTenant() {
+        // Given
+        var meterRegistry = new SimpleMeterRegistry();
+        var resources = new ResourcesDefault(MAX_CPUS, 10);
+        var admissionQueue = new AdmissionQueueDefault(resources, meterRegistry, 10, 1000, 0, "contest:4", "");
+
+        // When
+        admissionQueue.acquire("contest/alice", LANE, DEMAND);
+        admissionQueue.acquire("contest/bob", LANE, DEMAND);
+        admissionQueue.acquire("alice", LANE, DEMAND);
+        admissionQueue.acquire("bob", LANE, DEMAND);
+
+        // Then
+        Assertions.assertEquals(2, meterRegistry.get(WellKnownMetrics.ADMISSION_USER_WAIT_TIMER).tag("user", "contest").timer().count());
+        Assertions.assertEquals(2, meterRegistry.get(WellKnownMetrics.ADMISSION_USER_WAIT_TIMER).tag("user", "other").timer().count());
+        Assertions.assertEquals(2, meterRegistry.get(WellKnownMetrics.ADMISSION_USER_WAIT_TIMER).timers().size());
+    }
+
+    @Test
+    void theExecutionsReservedForALaneShouldNotBeTakenByTheOtherLanes() throws Exception {
+        // Given
+        var resources = new ResourcesDefault(MAX_CPUS, 2);
+        var admissionQueue = new AdmissionQueueDefault(resources, new SimpleMeterRegistry(), 10, 10000, 0, "", "interactive:1:0");
+        Admission broker = admissionQueue.acquire(null, ExecutionLane.BROKER, DEMAND);
+        CompletableFuture<Admission> queuedBroker = CompletableFuture.supplyAsync(
+                () -> admissionQueue.acquire(null, ExecutionLane.BROKER, DEMAND));
+        awaitQueueDepth(admissionQueue, 1);
+
+        // When
+        Admission interactive = admissionQueue.acquire(USER, ExecutionLane.INTERACTIVE, DEMAND);
+        List<LaneOccupancy> occupancies = admissionQueue.getLaneOccupancies();
+
+        // Then
+        Assertions.assertTrue(interactive.isAdmitted());
+        Assertions.assertEquals(LaneOccupancy.builder().lane(ExecutionLane.INTERACTIVE)
+                .reservedExecutions(1).currentExecutions(1).build(), occupancies.get(0));
+        Assertions.assertEquals(LaneOccupancy.builder().lane(ExecutionLane.BROKER)
+                .currentExecutions(1).queuedRequests(1).build(), occupancies.get(2));
+
+        admissionQueue.release(broker);
+        Assertions.assertTrue(queuedBroker.get(5, TimeUnit.SECONDS).isAdmitted());
+    }
+
+    private void awaitQueueDepth(AdmissionQueue admissionQueue, int depth) throws InterruptedException {
+        for (int i = 0; i < 500 && admissionQueue.getQueueDepth() != depth; i++) {
+            Thread.sleep(10);
+        }
+        Assertions.assertEquals(depth, admissionQueue.getQueueDepth());
+    }
+}
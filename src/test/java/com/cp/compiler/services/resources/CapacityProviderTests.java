@@ -0,0 +1,158 @@
+package com.cp.compiler.services.resources;
+
+import com.cp.compiler.exceptions.ContainerFailedDependencyException;
+import com.cp.compiler.models.containers.ContainerEngineInfo;
+import com.cp.compiler.models.resources.Capacity;
+import com.cp.compiler.models.resources.CapacitySource;
+import com.cp.compiler.services.containers.ContainerService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+class CapacityProviderTests {
+
+    private static final long MB = 1024 * 1024;
+
+    @TempDir
+    Path cgroupRoot;
+
+    @ParameterizedTest
+    @CsvSource(value = {
+            "'150000 100000'|1.5",
+            "'max 100000'|0",
+            "'50000 100000\n'|0.5",
+            "''|0"
+    }, delimiter = '|')
+    void parseCpuMaxShouldReturnTheNumberOfCpus(String cpuMax, float expectedCpus) {
+        // When
+        float cpus = CapacityProviderDefault.parseCpuMax(cpuMax);
+
+        // Then
+        Assertions.assertEquals(expectedCpus, cpus);
+    }
+
+    @Test
+    void shouldReadTheCgroupV2Limits() throws IOException {
+        // Given
+        Files.writeString(cgroupRoot.resolve("cpu.max"), "50000 100000\n");
+        Files.writeString(cgroupRoot.resolve("memory.max"), 256 * MB + "\n");
+
+        // When
+        Capacity capacity = newCapacityProvider(null, CapacityProviderDefault.CGROUP, 0).getCapacity();
+
+        // Then
+        Assertions.assertEquals(0.5f, capacity.getCpus());
+        Assertions.assertEquals(CapacitySource.CGROUP_V2, capacity.getCpusSource());
+        Assertions.assertEquals(256, capacity.getMemory());
+        Assertions.assertEquals(CapacitySource.CGROUP_V2, capacity.getMemorySource());
+    }
+
+    @Test
+    void unlimitedCgroupShouldFallBackToTheHost() throws IOException {
+        // Given
+        Files.writeString(cgroupRoot.resolve("cpu.max"), "max 100000\n");
+        Files.writeString(cgroupRoot.resolve("memory.max"), "max\n");
+
+        // When
+        Capacity capacity = newCapacityProvider(null, CapacityProviderDefault.CGROUP, 0).getCapacity();
+
+        // Then
+        Assertions.assertEquals(Runtime.getRuntime().availableProcessors(), capacity.getCpus());
+        Assertions.assertEquals(CapacitySource.HOST, capacity.getCpusSource());
+        Assertions.assertEquals(CapacitySource.HOST, capacity.getMemorySource());
+    }
+
+    @Test
+    void shouldReadTheCgroupV1Limits() throws IOException {
+        // Given
+        Files.createDirectories(cgroupRoot.resolve("cpu"));
+        Files.createDirectories(cgroupRoot.resolve("memory"));
+        Files.writeString(cgroupRoot.resolve("cpu").resolve("cpu.cfs_quota_us"), "25000\n");
+        Files.writeString(cgroupRoot.resolve("cpu").resolve("cpu.cfs_period_us"), "100000\n");
+        // The value of an unlimited cgroup v1
+        Files.writeString(cgroupRoot.resolve("memory").resolve("memory.limit_in_bytes"), "9223372036854771712\n");
+
+        // When
+        Capacity capacity = newCapacityProvider(null, CapacityProviderDefault.CGROUP, 0).getCapacity();
+
+        // Then
+        Assertions.assertEquals(0.25f, capacity.getCpus());
+        Assertions.assertEquals(CapacitySource.CGROUP_V1, capacity.getCpusSource());
+        Assertions.assertEquals(CapacitySource.HOST, capacity.getMemorySource());
+    }
+
+    @Test
+    void shouldPreferTheContainerEngineAndFallBackWhenItIsNotReachable() throws IOException {
+        // Given
+        Files.writeString(cgroupRoot.resolve("cpu.max"), "50000 100000\n");
+        var containerService = Mockito.mock(ContainerService.class);
+        Mockito.when(containerService.getEngineInfo())
+                .thenReturn(new ContainerEngineInfo(16, 64 * 1024 * MB))
+                .thenThrow(new ContainerFailedDependencyException("docker is down"));
+        var capacityProvider = newCapacityProvider(containerService, CapacityProviderDefault.AUTO, 1000);
+        // The container engine isn't asked while the bean is created
+        Capacity initialCapacity = capacityProvider.getCapacity();
+
+        // When
+        capacityProvider.refresh();
+        Capacity capacity = capacityProvider.getCapacity();
+        capacityProvider.refresh();
+        Capacity refreshedCapacity = capacityProvider.getCapacity();
+
+        // Then
+        Assertions.assertEquals(CapacitySource.CGROUP_V2, initialCapacity.getCpusSource());
+        Assertions.assertEquals(16f, capacity.getCpus());
+        Assertions.assertEquals(CapacitySource.CONTAINER_ENGINE, capacity.getCpusSource());
+        Assertions.assertEquals(1000, capacity.getMemory());
+        Assertions.assertEquals(CapacitySource.CONFIGURED, capacity.getMemorySource());
+        Assertions.assertEquals(0.5f, refreshedCapacity.getCpus());
+        Assertions.assertEquals(CapacitySource.CGROUP_V2, refreshedCapacity.getCpusSource());
+    }
+
+    @Test
+    void initShouldDetectTheCapacityWithTheContainerEngineInTheBackground() {
+        // Given
+        var containerService = Mockito.mock(ContainerService.class);
+        Mockito.when(containerService.getEngineInfo()).thenReturn(new ContainerEngineInfo(16, 64 * 1024 * MB));
+        var capacityProvider = newCapacityProvider(containerService, CapacityProviderDefault.CONTAINER_ENGINE, 0);
+
+        // When
+        capacityProvider.init();
+
+        // Then
+        Mockito.verify(containerService, Mockito.timeout(5000)).getEngineInfo();
+        capacityProvider.close();
+    }
+
+    @Test
+    void theDiskShouldBeTheUsableSpaceOfTheWorkspaceWhenItIsEnabled() {
+        // Given
+        var capacityProvider = new CapacityProviderDefault(
+                null, CapacityProviderDefault.HOST, 0, 0, 0, cgroupRoot.resolve("workspace").toString(), "");
+
+        // When
+        Capacity capacity = capacityProvider.getCapacity();
+
+        // Then
+        Assertions.assertEquals(cgroupRoot.toFile().getUsableSpace(), capacity.getDisk(), 64 * MB);
+        Assertions.assertEquals(CapacitySource.HOST, capacity.getDiskSource());
+    }
+
+    @Test
+    void invalidSourceShouldThrowAnIllegalArgumentException() {
+        // When / Then
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> newCapacityProvider(null, "kubernetes", 0));
+    }
+
+    private CapacityProviderDefault newCapacityProvider(ContainerService containerService, String source, long maxMemory) {
+        return new CapacityProviderDefault(containerService, source, 0, maxMemory, 2000, "", cgroupRoot.toString());
+    }
+}
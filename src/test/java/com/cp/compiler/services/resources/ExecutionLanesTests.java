@@ -0,0 +1,77 @@
+package com.cp.compiler.services.resources;
+
+import com.cp.compiler.models.resources.ExecutionLane;
+import com.cp.compiler.models.resources.LaneOccupancy;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class ExecutionLanesTests {
+
+    private static final int MAX_REQUESTS = 4;
+
+    @Test
+    void canStartNewExecutionShouldKeepTheReservedExecutionsAndTheMaxOfEachLane() {
+        // Given
+        var lanes = new ExecutionLanes("interactive:2:0, broker:0:1", MAX_REQUESTS);
+
+        // When
+        lanes.addRunning(ExecutionLane.BROKER, 1);
+        boolean secondBroker = lanes.canStartNewExecution(ExecutionLane.BROKER, MAX_REQUESTS);
+        boolean firstPush = lanes.canStartNewExecution(ExecutionLane.PUSH, MAX_REQUESTS);
+        lanes.addRunning(ExecutionLane.PUSH, 1);
+        boolean secondPush = lanes.canStartNewExecution(ExecutionLane.PUSH, MAX_REQUESTS);
+        boolean interactive = lanes.canStartNewExecution(ExecutionLane.INTERACTIVE, MAX_REQUESTS);
+        lanes.addRunning(ExecutionLane.INTERACTIVE, 1);
+        boolean secondInteractive = lanes.canStartNewExecution(ExecutionLane.INTERACTIVE, MAX_REQUESTS);
+
+        // Then
+        Assertions.assertFalse(secondBroker);
+        Assertions.assertTrue(firstPush);
+        Assertions.assertFalse(secondPush);
+        Assertions.assertTrue(interactive);
+        Assertions.assertTrue(secondInteractive);
+    }
+
+    @Test
+    void withoutLanesEveryLaneShouldShareAllTheExecutions() {
+        // Given
+        var lanes = new ExecutionLanes("", MAX_REQUESTS);
+
+        // When
+        lanes.addRunning(ExecutionLane.BROKER, MAX_REQUESTS - 1);
+        boolean lastExecution = lanes.canStartNewExecution(ExecutionLane.INTERACTIVE, MAX_REQUESTS);
+        lanes.addRunning(ExecutionLane.INTERACTIVE, 1);
+        boolean noExecutionLeft = lanes.canStartNewExecution(ExecutionLane.PUSH, MAX_REQUESTS);
+
+        // Then
+        Assertions.assertTrue(lastExecution);
+        Assertions.assertFalse(noExecutionLeft);
+    }
+
+    @Test
+    void getOccupanciesShouldReturnTheCountersOfEachLane() {
+        // Given
+        var lanes = new ExecutionLanes("push:1:2", MAX_REQUESTS);
+        lanes.addRunning(ExecutionLane.PUSH, 1);
+        lanes.addQueued(ExecutionLane.PUSH, 1);
+
+        // When
+        List<LaneOccupancy> occupancies = lanes.getOccupancies();
+
+        // Then
+        Assertions.assertEquals(ExecutionLane.values().length, occupancies.size());
+        Assertions.assertEquals(LaneOccupancy.builder().lane(ExecutionLane.PUSH).reservedExecutions(1).maxExecutions(2)
+                .currentExecutions(1).queuedRequests(1).build(), occupancies.get(1));
+    }
+
+    @Test
+    void invalidLanesShouldThrowAnIllegalArgumentException() {
+        // When / Then
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new ExecutionLanes("interactive:2", MAX_REQUESTS));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new ExecutionLanes("interactive:2:1", MAX_REQUESTS));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new ExecutionLanes("interactive:3:0,push:2:0", MAX_REQUESTS));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new ExecutionLanes("batch:1:1", MAX_REQUESTS));
+    }
+}
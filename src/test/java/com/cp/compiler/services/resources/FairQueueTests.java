@@ -0,0 +1,81 @@
+package com.cp.compiler.services.resources;
+
+import com.cp.compiler.models.resources.ExecutionLane;
+import com.cp.compiler.models.resources.ResourceDemand;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class FairQueueTests {
+
+    private static final ResourceDemand DEMAND = new ResourceDemand(0.2f, 64, 1024);
+
+    private static final ExecutionLane LANE = ExecutionLane.INTERACTIVE;
+
+    @Test
+    void pollShouldServeTheUsersInProportionOfTheirWeights() {
+        // Given
+        var fairQueue = new FairQueue("heavy:2");
+        long enqueuedAt = 0;
+        for (int i = 0; i < 4; i++) {
+            fairQueue.addLast(new Admission("heavy", LANE, DEMAND, enqueuedAt++, null));
+        }
+        for (int i = 0; i < 2; i++) {
+            fairQueue.addLast(new Admission("light", LANE, DEMAND, enqueuedAt++, null));
+        }
+
+        // When
+        List<String> users = new ArrayList<>();
+        for (Admission next = fairQueue.peekNext(admission -> true); next != null; next = fairQueue.peekNext(admission -> true)) {
+            fairQueue.poll(next);
+            users.add(next.getUserId());
+        }
+
+        // Then
+        Assertions.assertEquals(List.of("heavy", "light", "heavy", "heavy", "light", "heavy"), users);
+        Assertions.assertEquals(0, fairQueue.size());
+    }
+
+    @Test
+    void peekNextShouldSkipTheFilteredUsersAndKeepTheOrderOfEachUser() {
+        // Given
+        var fairQueue = new FairQueue("");
+        var first = new Admission("a", LANE, DEMAND, 0, null);
+        var second = new Admission("a", LANE, DEMAND, 1, null);
+        var other = new Admission("b", LANE, DEMAND, 2, null);
+        fairQueue.addLast(first);
+        fairQueue.addLast(second);
+        fairQueue.addLast(other);
+
+        // When / Then
+        Assertions.assertSame(first, fairQueue.peekNext(admission -> true));
+        Assertions.assertSame(other, fairQueue.peekNext(admission -> !admission.getUserId().equals("a")));
+        Assertions.assertEquals(2, fairQueue.countBefore(second));
+
+        fairQueue.remove(first);
+        Assertions.assertSame(other, fairQueue.peekNext(admission -> true));
+        Assertions.assertEquals(2, fairQueue.size());
+    }
+
+    @Test
+    void getWeightShouldUseTheUserIdThenTheTenant() {
+        // Given
+        var fairQueue = new FairQueue("contest:4, contest/alice:2");
+
+        // When / Then
+        Assertions.assertEquals(2, fairQueue.getWeight("contest/alice"));
+        Assertions.assertEquals(4, fairQueue.getWeight("contest/bob"));
+        Assertions.assertEquals(1, fairQueue.getWeight("bob"));
+        Assertions.assertEquals("contest", fairQueue.getWeightKey("contest/bob"));
+        Assertions.assertNull(fairQueue.getWeightKey("bob"));
+    }
+
+    @Test
+    void invalidWeightsShouldThrowAnIllegalArgumentException() {
+        // When / Then
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new FairQueue("contest"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new FairQueue("contest:0"));
+    }
+}
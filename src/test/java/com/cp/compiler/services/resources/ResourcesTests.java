@@ -1,8 +1,18 @@
 package com.cp.compiler.services.resources;
 
+import com.cp.compiler.executions.Execution;
+import com.cp.compiler.models.Language;
 import com.cp.compiler.models.resources.AvailableResources;
+import com.cp.compiler.models.resources.Capacity;
+import com.cp.compiler.models.resources.CapacitySource;
+import com.cp.compiler.models.resources.ResourceDemand;
+import com.cp.compiler.models.resources.ResourceType;
+import com.cp.compiler.models.testcases.ConvertedTestCase;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.Collections;
 
 
 public class ResourcesTests {
@@ -112,4 +122,158 @@ public class ResourcesTests {
         Assertions.assertEquals(resources.getNumberOfExecutions(), availableResources.getCurrentExecutions());
         Assertions.assertEquals(resources.getMaxRequests(), availableResources.getMaxNumberOfExecutions());
     }
+    
+    @Test
+    void allowNewExecutionShouldReturnFalseIfTheMemoryOrTheDiskDoesNotFit() {
+        // Given
+        var resources = new ResourcesDefault(MAX_CPUS, MAX_REQUESTS, 1000, 1000, "");
+        resources.reserveResources(new ResourceDemand(MAX_CPUS, 600, 600));
+        
+        // When / Then
+        Assertions.assertFalse(resources.allowNewExecution(new ResourceDemand(MAX_CPUS, 500, 100)));
+        Assertions.assertFalse(resources.allowNewExecution(new ResourceDemand(MAX_CPUS, 100, 500)));
+        Assertions.assertTrue(resources.allowNewExecution(new ResourceDemand(MAX_CPUS, 400, 400)));
+    }
+    
+    @Test
+    void allowNewExecutionShouldReturnFalseIfTheCpusDoNotFit() {
+        // Given
+        var capacityProvider = Mockito.mock(CapacityProvider.class);
+        Mockito.when(capacityProvider.getCapacity())
+                .thenReturn(Capacity.builder().cpus(1).memory(1000).disk(1000).build());
+        var resources = new ResourcesDefault(MAX_CPUS, MAX_REQUESTS, "", capacityProvider);
+        resources.reserveResources(new ResourceDemand(0.9f, 0, 0));
+        
+        // When / Then
+        Assertions.assertFalse(resources.allowNewExecution(new ResourceDemand(8, 0, 0)));
+        Assertions.assertFalse(resources.allowNewExecution(new ResourceDemand(0.2f, 0, 0)));
+        Assertions.assertTrue(resources.allowNewExecution(new ResourceDemand(0.1f, 0, 0)));
+    }
+    
+    @Test
+    void getDemandShouldReserveTheCpusOfTheSystemWhenTheMaxCpusIsNotSet() {
+        // Given
+        var capacityProvider = Mockito.mock(CapacityProvider.class);
+        Mockito.when(capacityProvider.getCapacity())
+                .thenReturn(Capacity.builder().cpus(4).memory(1000).disk(1000).build());
+        var resources = new ResourcesDefault(0, MAX_REQUESTS, "PYTHON:100:2", capacityProvider);
+        var execution = Mockito.mock(Execution.class);
+        Mockito.when(execution.getMemoryLimit()).thenReturn(500);
+        Mockito.when(execution.getLanguage()).thenReturn(Language.PYTHON);
+        Mockito.when(execution.getTestCases()).thenReturn(Collections.nCopies(2, new ConvertedTestCase("id", null, "")));
+        
+        // When
+        ResourceDemand demand = resources.getDemand(execution);
+        
+        // Then
+        Assertions.assertEquals(4f, demand.getCpus());
+    }
+    
+    @Test
+    void anExecutionNeedingMoreThanTheWholeResourceShouldOnlyRunAlone() {
+        // Given
+        var resources = new ResourcesDefault(MAX_CPUS, MAX_REQUESTS, 1000, 1000, "");
+        var demand = new ResourceDemand(MAX_CPUS, 2000, 100);
+        
+        // When
+        boolean allowAlone = resources.allowNewExecution(demand);
+        resources.reserveResources(new ResourceDemand(MAX_CPUS, 10, 10));
+        boolean allowWithAnotherExecution = resources.allowNewExecution(demand);
+        
+        // Then
+        Assertions.assertTrue(allowAlone);
+        Assertions.assertFalse(allowWithAnotherExecution);
+    }
+    
+    @Test
+    void cleanupShouldReleaseTheReservedResources() {
+        // Given
+        var resources = new ResourcesDefault(MAX_CPUS, MAX_REQUESTS, 1000, 2000, "");
+        var demand = new ResourceDemand(MAX_CPUS, 250, 1000);
+        resources.reserveResources(demand);
+        
+        // When
+        float memoryUtilization = resources.getUtilization(ResourceType.MEMORY);
+        float diskUtilization = resources.getUtilization(ResourceType.DISK);
+        resources.cleanup(demand);
+        AvailableResources availableResources = resources.getAvailableResources();
+        
+        // Then
+        Assertions.assertEquals(0.25f, memoryUtilization);
+        Assertions.assertEquals(0.5f, diskUtilization);
+        Assertions.assertEquals(1000, availableResources.getAvailableMemory());
+        Assertions.assertEquals(2000, availableResources.getAvailableDisk());
+        Assertions.assertEquals(0f, resources.getUtilization(ResourceType.CPU));
+    }
+    
+    @Test
+    void getDemandShouldAddTheProfileOfTheLanguageToTheLimitsOfTheRequest() {
+        // Given
+        var resources = new ResourcesDefault(MAX_CPUS, MAX_REQUESTS, 0, 0, "PYTHON:100:2");
+        var execution = Mockito.mock(Execution.class);
+        Mockito.when(execution.getMemoryLimit()).thenReturn(500);
+        Mockito.when(execution.getInputSize()).thenReturn(1000L);
+        Mockito.when(execution.getLanguage()).thenReturn(Language.PYTHON);
+        
+        // When
+        ResourceDemand demand = resources.getDemand(execution);
+        
+        // Then
+        Assertions.assertEquals(new ResourceDemand(MAX_CPUS, 600, 1000 + 2 * 1024 * 1024), demand);
+    }
+    
+    @Test
+    void getDemandShouldReserveTheCpusAndTheMemoryOfTheTestCasesRunInParallel() {
+        // Given
+        var capacityProvider = Mockito.mock(CapacityProvider.class);
+        var resources = new ResourcesDefault(MAX_CPUS, MAX_REQUESTS, "PYTHON:100:2", 3, false, capacityProvider);
+        var singleContainerResources = new ResourcesDefault(MAX_CPUS, MAX_REQUESTS, "PYTHON:100:2", 3, true, capacityProvider);
+        var execution = Mockito.mock(Execution.class);
+        Mockito.when(execution.getMemoryLimit()).thenReturn(500);
+        Mockito.when(execution.getInputSize()).thenReturn(1000L);
+        Mockito.when(execution.getLanguage()).thenReturn(Language.PYTHON);
+        Mockito.when(execution.getTestCases()).thenReturn(Collections.nCopies(5, new ConvertedTestCase("id", null, "")));
+        
+        // When
+        ResourceDemand demand = resources.getDemand(execution);
+        ResourceDemand singleContainerDemand = singleContainerResources.getDemand(execution);
+        
+        // Then
+        Assertions.assertEquals(3, resources.getParallelism(execution));
+        Assertions.assertEquals(new ResourceDemand(MAX_CPUS * 3, 3 * 500 + 100, 1000 + 2 * 1024 * 1024), demand);
+        Assertions.assertEquals(new ResourceDemand(MAX_CPUS, 600, 1000 + 2 * 1024 * 1024), singleContainerDemand);
+    }
+    
+    @Test
+    void allowNewExecutionShouldFollowTheDetectedCapacity() {
+        // Given
+        var capacityProvider = Mockito.mock(CapacityProvider.class);
+        var capacity = Capacity.builder().cpus(1).memory(1000).disk(1000).cpusSource(CapacitySource.CGROUP_V2).build();
+        var shrunkCapacity = Capacity.builder().cpus(1).memory(100).disk(1000).cpusSource(CapacitySource.CGROUP_V2).build();
+        Mockito.when(capacityProvider.getCapacity()).thenReturn(capacity, capacity, shrunkCapacity);
+        var resources = new ResourcesDefault(MAX_CPUS, MAX_REQUESTS, "", capacityProvider);
+        var demand = new ResourceDemand(MAX_CPUS, 250, 10);
+        resources.reserveResources(demand);
+        
+        // When
+        AvailableResources availableResources = resources.getAvailableResources();
+        boolean allowNewExecution = resources.allowNewExecution(demand);
+        boolean allowNewExecutionAfterShrink = resources.allowNewExecution(demand);
+        
+        // Then
+        Assertions.assertEquals(1 - MAX_CPUS, availableResources.getAvailableCpus(), 0.001f);
+        Assertions.assertEquals(750, availableResources.getAvailableMemory());
+        Assertions.assertEquals(capacity, availableResources.getCapacity());
+        Assertions.assertTrue(allowNewExecution);
+        Assertions.assertFalse(allowNewExecutionAfterShrink);
+    }
+    
+    @Test
+    void invalidResourceProfilesShouldThrowAnIllegalArgumentException() {
+        // When / Then
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new ResourcesDefault(MAX_CPUS, MAX_REQUESTS, 0, 0, "PYTHON:100"));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new ResourcesDefault(MAX_CPUS, MAX_REQUESTS, 0, 0, "PYTHON:-1:0"));
+    }
 }
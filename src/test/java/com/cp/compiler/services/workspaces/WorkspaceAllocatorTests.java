@@ -0,0 +1,150 @@
+package com.cp.compiler.services.workspaces;
+
+import com.cp.compiler.executions.Execution;
+import com.cp.compiler.models.testcases.ConvertedTestCase;
+import com.cp.compiler.wellknownconstants.WellKnownMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+class WorkspaceAllocatorTests {
+    
+    private static final long SIZE = 100;
+    
+    private static final long EXECUTION_QUOTA = 40;
+    
+    @TempDir
+    Path workspaceRoot;
+    
+    private SimpleMeterRegistry meterRegistry;
+    
+    private WorkspaceAllocatorDefault workspaceAllocator;
+    
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        workspaceAllocator = new WorkspaceAllocatorDefault(
+                meterRegistry, workspaceRoot.toString(), SIZE, EXECUTION_QUOTA);
+        workspaceAllocator.init();
+    }
+    
+    @Test
+    void shouldFallBackToTheDiskWhenTheWorkspaceIsFull() {
+        // Given
+        Execution first = mockExecution(10);
+        Execution second = mockExecution(10);
+        Execution third = mockExecution(10);
+        
+        // When
+        workspaceAllocator.allocate(first);
+        workspaceAllocator.allocate(second);
+        workspaceAllocator.allocate(third);
+        
+        // Then
+        Mockito.verify(first).setWorkspaceRoot(workspaceRoot.toString());
+        Mockito.verify(second).setWorkspaceRoot(workspaceRoot.toString());
+        Mockito.verify(third, Mockito.never()).setWorkspaceRoot(ArgumentMatchers.anyString());
+        Assertions.assertEquals(2 * EXECUTION_QUOTA, workspaceAllocator.getUsedBytes());
+        Assertions.assertEquals(2 * EXECUTION_QUOTA,
+                meterRegistry.get(WellKnownMetrics.WORKSPACE_USAGE_GAUGE).gauge().value());
+        Assertions.assertEquals(1, meterRegistry.get(WellKnownMetrics.WORKSPACE_FALLBACK_COUNTER).counter().count());
+    }
+    
+    @Test
+    void shouldFallBackToTheDiskWhenTheUploadedFilesExceedTheQuota() {
+        // Given
+        Execution execution = mockExecution(EXECUTION_QUOTA + 1);
+        
+        // When
+        workspaceAllocator.allocate(execution);
+        
+        // Then
+        Mockito.verify(execution, Mockito.never()).setWorkspaceRoot(ArgumentMatchers.anyString());
+        Assertions.assertEquals(0, workspaceAllocator.getUsedBytes());
+    }
+    
+    @Test
+    void releaseShouldFreeTheQuotaOnlyOnce() {
+        // Given
+        Execution execution = mockExecution(10);
+        workspaceAllocator.allocate(execution);
+        
+        // When
+        workspaceAllocator.release(execution);
+        workspaceAllocator.release(execution);
+        
+        // Then
+        Assertions.assertEquals(0, workspaceAllocator.getUsedBytes());
+    }
+    
+    @Test
+    void enforceQuotaShouldMoveTheExecutionsThatOutgrewTheirQuotaToTheDisk() throws IOException {
+        // Given
+        Execution small = mockExecution(10);
+        Execution large = mockExecution(10);
+        workspaceAllocator.allocate(small);
+        workspaceAllocator.allocate(large);
+        Path smallDirectory = createExecutionDirectory(small, EXECUTION_QUOTA);
+        // The compilation wrote more than the quota
+        Path largeDirectory = createExecutionDirectory(large, EXECUTION_QUOTA + 1);
+        
+        // When
+        workspaceAllocator.enforceQuota(small);
+        workspaceAllocator.enforceQuota(large);
+        
+        // Then
+        Assertions.assertTrue(Files.exists(smallDirectory));
+        Mockito.verify(small, Mockito.never()).setWorkspaceRoot("");
+        Assertions.assertFalse(Files.exists(largeDirectory));
+        Assertions.assertEquals(EXECUTION_QUOTA + 1,
+                Files.size(Path.of(large.getRelativePath(), "main")));
+        Mockito.verify(large).setWorkspaceRoot("");
+        Assertions.assertEquals(EXECUTION_QUOTA, workspaceAllocator.getUsedBytes());
+    }
+    
+    @Test
+    void shouldKeepTheExecutionsOnDiskWhenTheWorkspaceIsDisabled() {
+        // Given
+        workspaceAllocator = new WorkspaceAllocatorDefault(meterRegistry, "", SIZE, EXECUTION_QUOTA);
+        workspaceAllocator.init();
+        Execution execution = mockExecution(10);
+        
+        // When
+        workspaceAllocator.allocate(execution);
+        
+        // Then
+        Mockito.verify(execution, Mockito.never()).setWorkspaceRoot(ArgumentMatchers.anyString());
+    }
+    
+    private Path createExecutionDirectory(Execution execution, long size) throws IOException {
+        String id = execution.getId();
+        Path directory = workspaceRoot.resolve(id);
+        Files.createDirectories(directory);
+        Files.write(directory.resolve("main"), new byte[(int) size]);
+        Mockito.when(execution.getPath()).thenReturn(directory.toString());
+        Mockito.when(execution.getRelativePath()).thenReturn(workspaceRoot.resolve("disk").resolve(id).toString());
+        return directory;
+    }
+    
+    private static Execution mockExecution(long inputSize) {
+        Execution execution = Mockito.mock(Execution.class);
+        Mockito.when(execution.getId()).thenReturn(UUID.randomUUID().toString());
+        Mockito.when(execution.getSourceCodeFile())
+                .thenReturn(new MockMultipartFile("main.py", "main.py", null, new byte[(int) inputSize]));
+        Mockito.when(execution.getTestCases())
+                .thenReturn(List.of(new ConvertedTestCase("1", null, null)));
+        Mockito.when(execution.getInputSize()).thenReturn(inputSize);
+        return execution;
+    }
+}
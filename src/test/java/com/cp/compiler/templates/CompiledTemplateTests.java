@@ -0,0 +1,32 @@
+package com.cp.compiler.templates;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Optional;
+
+class CompiledTemplateTests {
+
+    @Test
+    void shouldRenderTheAttributesOfTheTemplate() {
+        // Given
+        Optional<CompiledTemplate> template =
+                CompiledTemplate.compile("ulimit -s [(${compiler.memoryLimit})]\n[(${compiler.command})][(${compiler.missing})] end");
+
+        // When
+        String content = template.orElseThrow().render(Map.of("memoryLimit", "500", "command", "cmd"));
+
+        // Then
+        Assertions.assertEquals("ulimit -s 500\ncmd end", content);
+    }
+
+    @Test
+    void shouldNotCompileTheOtherSyntaxesOfTheTemplateEngine() {
+        // When / Then
+        Assertions.assertTrue(CompiledTemplate.compile("[[${compiler.escaped}]]").isEmpty());
+        Assertions.assertTrue(CompiledTemplate.compile("[# th:each=\"i : ${compiler.items}\"][/]").isEmpty());
+        Assertions.assertTrue(CompiledTemplate.compile("[(${compiler.name} + 1)]").isEmpty());
+        Assertions.assertTrue(CompiledTemplate.compile("if [ -f \"$file\" ]; then echo [$1]; fi").isPresent());
+    }
+}
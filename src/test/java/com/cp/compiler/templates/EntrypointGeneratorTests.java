@@ -5,7 +5,10 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring5.SpringTemplateEngine;
 
+import java.util.List;
 import java.util.Map;
 
 @SpringBootTest
@@ -14,6 +17,9 @@ class EntrypointGeneratorTests {
     @Autowired
     private EntrypointFileGenerator entrypointFileGenerator;
     
+    @Autowired
+    private SpringTemplateEngine templateEngine;
+    
     @Test
     void shouldParseAndGenerateAnEntrypointContent() {
         // Given
@@ -29,4 +35,27 @@ class EntrypointGeneratorTests {
         // Then
         Assertions.assertNotNull(content);
     }
+    
+    @Test
+    void theCompiledTemplatesShouldRenderTheSameContentAsTheTemplateEngine() {
+        // Given
+        Map<String, String> attributes = Map.of(
+                "timeLimit", "10",
+                "memoryLimit", "500",
+                "executionCommand", "java Main < test-é-input.txt\n");
+        var context = new Context();
+        context.setVariable("compiler", attributes);
+        
+        for (String template : List.of(
+                WellKnownTemplates.ENTRYPOINT_TEMPLATE,
+                WellKnownTemplates.SCALA_ENTRYPOINT_TEMPLATE,
+                WellKnownTemplates.RUNNER_TEMPLATE)) {
+            
+            // When
+            String content = entrypointFileGenerator.createEntrypointFile(template, attributes);
+            
+            // Then
+            Assertions.assertEquals(templateEngine.process(template, context), content);
+        }
+    }
 }
@@ -0,0 +1,57 @@
+package com.cp.compiler.utils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+class BoundedOutputBufferTests {
+    
+    @Test
+    void shouldKeepAllBytesBelowTheCapacity() {
+        // Given
+        var buffer = new BoundedOutputBuffer(10);
+        
+        // When
+        buffer.write("hello".getBytes(StandardCharsets.UTF_8), 0, 5);
+        buffer.write('!');
+        
+        // Then
+        Assertions.assertEquals("hello!", buffer.toString(StandardCharsets.UTF_8));
+        Assertions.assertEquals(6, buffer.getTotalBytes());
+        Assertions.assertFalse(buffer.isTruncated());
+    }
+    
+    @Test
+    void shouldDropBytesAboveTheCapacityAndCountThem() {
+        // Given
+        var buffer = new BoundedOutputBuffer(4);
+        byte[] bytes = "abcdefgh".getBytes(StandardCharsets.UTF_8);
+        
+        // When
+        buffer.write(bytes, 0, 3);
+        buffer.write(bytes, 3, 5);
+        buffer.write('z');
+        
+        // Then
+        Assertions.assertEquals("abcd", buffer.toString(StandardCharsets.UTF_8));
+        Assertions.assertEquals(9, buffer.getTotalBytes());
+        Assertions.assertTrue(buffer.isTruncated());
+        Assertions.assertTrue(buffer.isFull());
+    }
+    
+    @Test
+    void shouldGrowUpToTheCapacity() {
+        // Given
+        var buffer = new BoundedOutputBuffer(5000);
+        byte[] bytes = new byte[3000];
+        
+        // When
+        buffer.write(bytes, 0, bytes.length);
+        buffer.write(bytes, 0, bytes.length);
+        
+        // Then
+        Assertions.assertEquals(5000, buffer.size());
+        Assertions.assertEquals(6000, buffer.getTotalBytes());
+    }
+}
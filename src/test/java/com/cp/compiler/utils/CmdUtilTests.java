@@ -2,6 +2,7 @@ package com.cp.compiler.utils;
 
 import com.cp.compiler.exceptions.ProcessExecutionException;
 import com.cp.compiler.exceptions.ProcessExecutionTimeoutException;
+import com.cp.compiler.models.processes.OutputListener;
 import com.cp.compiler.models.processes.ProcessOutput;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -111,6 +112,65 @@ class CmdUtilTests {
         Assertions.assertEquals("", output.getStdErr());
     }
     
+    @Test
+    void executeProcessShouldNotBlockWhenTheOutputExceedsThePipeBuffer() throws ProcessExecutionException {
+        // Given (the pipe buffer is about 64 KB)
+        String[] cmd = new String[] {"sh", "-c", "head -c 1000000 /dev/zero | tr '\\0' 'a'; head -c 200000 /dev/zero >&2"};
+        
+        // When
+        ProcessOutput output = CmdUtils.executeProcess(cmd, 5000);
+        
+        // Then
+        Assertions.assertEquals(0, output.getStatus());
+        Assertions.assertEquals(1000000, output.getStdOutBytes());
+        Assertions.assertEquals(200000, output.getStdErrBytes());
+        Assertions.assertFalse(output.isStdOutTruncated());
+        Assertions.assertTrue(output.isStdErrTruncated());
+        Assertions.assertEquals(1000000 + System.getProperty("line.separator").length(), output.getStdOut().length());
+    }
+    
+    @Test
+    void executeProcessShouldFlagTheOutputWhenItExceedsTheLimit() throws ProcessExecutionException {
+        // Given
+        String[] cmd = new String[] {"sh", "-c", "while true; do echo aaaaaaaaaa; done"};
+
+        // When
+        ProcessOutput output = CmdUtils.executeProcess(cmd, 5000, 1000);
+
+        // Then
+        Assertions.assertTrue(output.isOutputLimitExceeded());
+        Assertions.assertTrue(output.isStdOutTruncated());
+        Assertions.assertTrue(output.getStdOutBytes() > 1000);
+    }
+
+    @Test
+    void executeProcessShouldStopTheProcessWhenTheListenerAsksForIt() throws ProcessExecutionException {
+        // Given
+        String[] cmd = new String[] {"sh", "-c", "echo stop; sleep 10"};
+        var listener = new OutputListener() {
+            private final StringBuilder output = new StringBuilder();
+            
+            @Override
+            public void onOutput(byte[] bytes, int offset, int length) {
+                output.append(new String(bytes, offset, length));
+            }
+            
+            @Override
+            public boolean isStopRequested() {
+                return output.toString().contains("stop");
+            }
+        };
+
+        // When
+        long start = System.currentTimeMillis();
+        ProcessOutput output = CmdUtils.executeProcess(cmd, 5000, 0, listener);
+
+        // Then
+        Assertions.assertTrue(output.isStopped());
+        Assertions.assertTrue(System.currentTimeMillis() - start < 5000);
+        Assertions.assertEquals("stop\n", listener.output.toString());
+    }
+
     @Test
     void executeProcessShouldReturnAnError() {
         // Given
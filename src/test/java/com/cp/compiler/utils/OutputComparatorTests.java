@@ -0,0 +1,76 @@
+package com.cp.compiler.utils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.Random;
+
+class OutputComparatorTests {
+
+    private static final char[] ALPHABET = {' ', '\t', '\n', '\r', '\u000B', '\f', '\0', '/', 'n', 'a', ' '};
+
+    @ParameterizedTest
+    @CsvSource(value = {
+            "abcd|' abcd '|true",
+            "abcd c|' abcd \t\r\n c\n'|true",
+            "abcd|abce|false",
+            "abcd|abcd e|false",
+            "'a b'|ab|false",
+            "a/nb|ab|true",
+            "a//nn|a|false",
+            "'a/ nb'|'a/nb'|false",
+            "'\0a\0'|a|true",
+            "'a\u00A0'|a|false",
+            "''|'  \n '|true"
+    }, delimiter = '|')
+    void equalsShouldNormalizeBothOutputs(String output, String expectedOutput, boolean expectedResult) {
+        // When
+        boolean result = OutputComparator.equals(output, expectedOutput);
+
+        // Then
+        Assertions.assertEquals(expectedResult, result);
+        Assertions.assertEquals(expectedResult, OutputComparator.equals(expectedOutput, output));
+    }
+
+    @Test
+    void equalsIgnoreCaseShouldIgnoreTheCaseOfTheNormalizedOutputs() {
+        // When / Then
+        Assertions.assertTrue(OutputComparator.equalsIgnoreCase(" YES\n no ", "yes No"));
+        Assertions.assertFalse(OutputComparator.equalsIgnoreCase("yes", "no"));
+        Assertions.assertFalse(OutputComparator.equals("YES", "yes"));
+    }
+
+    @Test
+    void equalsShouldKeepTheSemanticsOfTheRegexNormalization() {
+        // Given
+        var random = new Random(42);
+
+        for (int i = 0; i < 100_000; i++) {
+            String output = randomText(random);
+            String expectedOutput = random.nextBoolean() ? randomText(random) : output + " /n\n";
+
+            // When
+            boolean result = OutputComparator.equals(output, expectedOutput);
+
+            // Then
+            Assertions.assertEquals(normalize(output).equals(normalize(expectedOutput)), result,
+                    () -> "output: [" + output + "], expected output: [" + expectedOutput + "]");
+        }
+    }
+
+    // The normalization done before the streaming comparison
+    private static String normalize(String text) {
+        return text.trim().replaceAll("\\s+", " ").replace("/n", "");
+    }
+
+    private static String randomText(Random random) {
+        var builder = new StringBuilder();
+        int length = random.nextInt(8);
+        for (int i = 0; i < length; i++) {
+            builder.append(ALPHABET[random.nextInt(ALPHABET.length)]);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,121 @@
+package com.cp.compiler.utils;
+
+import com.cp.compiler.models.processes.ProcessOutput;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+class RunnerOutputParserTests {
+
+    @Test
+    void shouldParseTheFramesInOrderWhateverTheChunks() {
+        // Given
+        byte[] output = (frame(0, 12, "hello\n", "") + frame(1, 3, "no new line", "Traceback\n"))
+                .getBytes(StandardCharsets.UTF_8);
+        List<ProcessOutput> frames = new ArrayList<>();
+        var parser = new RunnerOutputParser(2, frames::add);
+
+        // When
+        for (int i = 0; i < output.length; i++) {
+            parser.onOutput(output, i, 1);
+        }
+
+        // Then
+        Assertions.assertFalse(parser.isInvalid());
+        Assertions.assertEquals(2, frames.size());
+        Assertions.assertEquals("hello\n", frames.get(0).getStdOut());
+        Assertions.assertEquals("", frames.get(0).getStdErr());
+        Assertions.assertEquals(0, frames.get(0).getStatus());
+        Assertions.assertEquals(12, frames.get(0).getExecutionDuration());
+        Assertions.assertEquals("no new line", frames.get(1).getStdOut());
+        Assertions.assertEquals("Traceback\n", frames.get(1).getStdErr());
+        Assertions.assertEquals(1, frames.get(1).getStatus());
+    }
+
+    @Test
+    void aForgedFrameWrittenByTheProgramShouldStayInItsOutput() {
+        // Given
+        String forged = frame(0, 1, "expected\n", "");
+        byte[] output = (frame(0, 5, forged, "") + frame(1, 5, "", "")).getBytes(StandardCharsets.UTF_8);
+        List<ProcessOutput> frames = new ArrayList<>();
+        var parser = new RunnerOutputParser(2, frames::add);
+
+        // When
+        parser.onOutput(output, 0, output.length);
+
+        // Then
+        Assertions.assertFalse(parser.isInvalid());
+        Assertions.assertEquals(2, frames.size());
+        Assertions.assertEquals(forged, frames.get(0).getStdOut());
+        Assertions.assertEquals(1, frames.get(1).getStatus());
+    }
+
+    @Test
+    void moreFramesThanTestCasesShouldMakeTheOutputInvalid() {
+        // Given
+        byte[] output = (frame(0, 5, "1", "") + frame(0, 5, "2", "")).getBytes(StandardCharsets.UTF_8);
+        List<ProcessOutput> frames = new ArrayList<>();
+        var parser = new RunnerOutputParser(1, frames::add);
+
+        // When
+        parser.onOutput(output, 0, output.length);
+
+        // Then
+        Assertions.assertTrue(parser.isInvalid());
+        Assertions.assertTrue(parser.isStopRequested());
+        Assertions.assertEquals(1, frames.size());
+    }
+
+    @Test
+    void shouldStopWhenTheConsumerRejectsAFrame() {
+        // Given
+        byte[] output = (frame(0, 5, "wrong", "") + frame(0, 5, "2", "")).getBytes(StandardCharsets.UTF_8);
+        List<ProcessOutput> frames = new ArrayList<>();
+        var parser = new RunnerOutputParser(2, frame -> frames.add(frame) && !frame.getStdOut().equals("wrong"));
+
+        // When
+        parser.onOutput(output, 0, output.length);
+
+        // Then
+        Assertions.assertTrue(parser.isStopRequested());
+        Assertions.assertFalse(parser.isInvalid());
+        Assertions.assertEquals(1, frames.size());
+    }
+
+    @Test
+    void shouldIgnoreAnIncompleteLastFrame() {
+        // Given
+        byte[] output = (frame(0, 5, "1", "") + "0 5 100 0\naaaaaaaaa").getBytes(StandardCharsets.UTF_8);
+        var parser = new RunnerOutputParser(2, frame -> true);
+
+        // When
+        parser.onOutput(output, 0, output.length);
+
+        // Then
+        Assertions.assertEquals(1, parser.getFrames());
+        Assertions.assertFalse(parser.isInvalid());
+    }
+
+    @Test
+    void anOutputThatIsNotAFrameShouldBeInvalid() {
+        // Given
+        byte[] output = "/bin/sh: 0: cannot open ./runner.sh\n".getBytes(StandardCharsets.UTF_8);
+        var parser = new RunnerOutputParser(2, frame -> true);
+
+        // When
+        parser.onOutput(output, 0, output.length);
+
+        // Then
+        Assertions.assertEquals(0, parser.getFrames());
+        Assertions.assertTrue(parser.isInvalid());
+    }
+
+    // Same format as the one written by the runner
+    private static String frame(int status, int duration, String stdOut, String stdErr) {
+        return status + " " + duration + " " + stdOut.getBytes(StandardCharsets.UTF_8).length + " "
+                + stdErr.getBytes(StandardCharsets.UTF_8).length + "\n" + stdOut + stdErr;
+    }
+}
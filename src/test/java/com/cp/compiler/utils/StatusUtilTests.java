@@ -59,4 +59,13 @@ class StatusUtilTests {
         // Then
         Assertions.assertEquals(Verdict.TIME_LIMIT_EXCEEDED, status);
     }
+    
+    @Test
+    void shouldReturnRuntimeErrorWhenTheProgramExitsWithTheStatusOfSigxfsz() {
+        // When
+        Verdict status = StatusUtils.statusResponse(153, false);
+        
+        // Then
+        Assertions.assertEquals(Verdict.RUNTIME_ERROR, status);
+    }
 }